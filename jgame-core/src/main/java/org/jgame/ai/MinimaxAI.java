@@ -23,6 +23,7 @@
  */
 package org.jgame.ai;
 
+import org.jgame.jfr.AiSearchEvent;
 import org.jgame.logic.engine.GameAction;
 import org.jgame.logic.engine.GameState;
 import org.apache.logging.log4j.LogManager;
@@ -33,9 +34,15 @@ import java.util.List;
 /**
  * Chess AI using minimax algorithm with alpha-beta pruning.
  *
+ * <p>
+ * Each search counts the positions it visits and records them, with its
+ * depth and duration, into {@link SearchStats#global()}, and emits an
+ * {@link AiSearchEvent} for Flight Recorder.
+ * </p>
+ *
  * @author Google Gemini (Antigravity)
  * @author Silvere Martin-Michiellot
- * @version 1.0
+ * @version 1.2
  */
 public class MinimaxAI implements GameAI {
 
@@ -44,6 +51,7 @@ public class MinimaxAI implements GameAI {
     private final String name;
     private final int depth;
     private final int difficulty;
+    private volatile long lastNodeCount;
 
     public MinimaxAI(int depth) {
         this("Minimax AI", depth);
@@ -72,15 +80,18 @@ public class MinimaxAI implements GameAI {
         }
 
         logger.debug("Computing move at depth {}", depth);
-        long startTime = System.currentTimeMillis();
+        AiSearchEvent event = new AiSearchEvent();
+        event.begin();
+        long startTime = System.nanoTime();
 
         GameAction bestMove = null;
         int bestScore = Integer.MIN_VALUE;
+        long[] nodes = {1};
 
         List<GameAction> moves = getValidMoves(state);
         for (GameAction move : moves) {
             GameState newState = applyMove(state, move);
-            int score = minimax(newState, depth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE, false);
+            int score = minimax(newState, depth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE, false, nodes);
 
             if (score > bestScore) {
                 bestScore = score;
@@ -88,13 +99,26 @@ public class MinimaxAI implements GameAI {
             }
         }
 
-        long elapsed = System.currentTimeMillis() - startTime;
-        logger.debug("Best move found in {}ms: {} (score: {})", elapsed, bestMove, bestScore);
+        long elapsed = System.nanoTime() - startTime;
+        lastNodeCount = nodes[0];
+        SearchStats.global().record(nodes[0], depth, elapsed);
+        event.end();
+        if (event.shouldCommit()) {
+            event.ai = name;
+            event.depth = depth;
+            event.rootMoves = moves.size();
+            event.nodes = nodes[0];
+            event.score = bestScore;
+            event.commit();
+        }
+        logger.debug("Best move found in {}ms over {} nodes: {} (score: {})", elapsed / 1_000_000, nodes[0],
+                bestMove, bestScore);
 
         return bestMove;
     }
 
-    private int minimax(GameState state, int depth, int alpha, int beta, boolean maximizing) {
+    private int minimax(GameState state, int depth, int alpha, int beta, boolean maximizing, long[] nodes) {
+        nodes[0]++;
         if (depth == 0 || isTerminal(state)) {
             return evaluate(state);
         }
@@ -105,7 +129,7 @@ public class MinimaxAI implements GameAI {
             int maxEval = Integer.MIN_VALUE;
             for (GameAction move : moves) {
                 GameState newState = applyMove(state, move);
-                int eval = minimax(newState, depth - 1, alpha, beta, false);
+                int eval = minimax(newState, depth - 1, alpha, beta, false, nodes);
                 maxEval = Math.max(maxEval, eval);
                 alpha = Math.max(alpha, eval);
                 if (beta <= alpha)
@@ -116,7 +140,7 @@ public class MinimaxAI implements GameAI {
             int minEval = Integer.MAX_VALUE;
             for (GameAction move : moves) {
                 GameState newState = applyMove(state, move);
-                int eval = minimax(newState, depth - 1, alpha, beta, true);
+                int eval = minimax(newState, depth - 1, alpha, beta, true, nodes);
                 minEval = Math.min(minEval, eval);
                 beta = Math.min(beta, eval);
                 if (beta <= alpha)
@@ -126,6 +150,13 @@ public class MinimaxAI implements GameAI {
         }
     }
 
+    /**
+     * Gets the number of positions visited by this AI's most recent search.
+     */
+    public long getLastNodeCount() {
+        return lastNodeCount;
+    }
+
     /**
      * Evaluates the game state.
      * Override for game-specific evaluation.
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.ai;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of AI searches: nodes visited, time spent and depth.
+ *
+ * <p>
+ * Searches record themselves into {@link #global()} when they finish, so a
+ * server can report AI load without holding on to the AI instances. Totals
+ * are {@link LongAdder}s, so concurrent searches do not contend.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public final class SearchStats {
+
+    private static final SearchStats GLOBAL = new SearchStats();
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private volatile int lastDepth;
+    private volatile long lastNodes;
+    private volatile long lastNanos;
+
+    /**
+     * Gets the statistics shared by every search in this JVM.
+     */
+    public static SearchStats global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Records a finished search.
+     *
+     * @param nodeCount   positions visited
+     * @param depth       depth searched, in plies
+     * @param elapsedNanos time taken
+     */
+    public void record(long nodeCount, int depth, long elapsedNanos) {
+        searches.increment();
+        nodes.add(nodeCount);
+        nanos.add(elapsedNanos);
+        lastDepth = depth;
+        lastNodes = nodeCount;
+        lastNanos = elapsedNanos;
+    }
+
+    public long getSearchCount() {
+        return searches.sum();
+    }
+
+    public long getNodeCount() {
+        return nodes.sum();
+    }
+
+    public long getSearchNanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * Gets the depth of the most recent search.
+     */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**
+     * Gets the node rate of the most recent search.
+     *
+     * @return nodes per second, or 0 before the first search
+     */
+    public long getLastNodesPerSecond() {
+        return nodesPerSecond(lastNodes, lastNanos);
+    }
+
+    /**
+     * Gets the node rate over all searches.
+     *
+     * @return nodes per second, or 0 before the first search
+     */
+    public long getNodesPerSecond() {
+        return nodesPerSecond(nodes.sum(), nanos.sum());
+    }
+
+    private static long nodesPerSecond(long nodeCount, long elapsedNanos) {
+        return elapsedNanos > 0 ? nodeCount * TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+    }
+
+    /**
+     * Gets search statistics for logging.
+     */
+    public String getStats() {
+        return String.format("AI [searches=%d, nodes=%d, nps=%d, lastDepth=%d]",
+                getSearchCount(), getNodeCount(), getNodesPerSecond(), lastDepth);
+    }
+}
@@ -35,6 +35,8 @@
  * pruning</li>
  * <li>{@link org.jgame.ai.RandomAI} - Random move selection AI</li>
  * <li>{@link org.jgame.ai.GameAI} - Base AI interface</li>
+ * <li>{@link org.jgame.ai.SearchStats} - Node, depth and timing totals of AI
+ * searches</li>
  * </ul>
  * 
  * <h2>Usage Example</h2>
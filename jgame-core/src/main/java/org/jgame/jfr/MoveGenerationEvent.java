@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of rules checking or generating moves.
+ *
+ * <p>
+ * {@code operation} is {@code "generate"} when listing every legal move of
+ * a position and {@code "validate"} when checking a single submitted move.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+@Name("org.jgame.MoveGeneration")
+@Label("Move Generation")
+@Category({ "JGame", "Rules" })
+@Description("Legal move generation or validation by game rules")
+@StackTrace(false)
+public class MoveGenerationEvent extends Event {
+
+    /** Operation listing every legal move. */
+    public static final String GENERATE = "generate";
+    /** Operation checking one move. */
+    public static final String VALIDATE = "validate";
+
+    @Label("Game")
+    public String game;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Candidates")
+    @Description("Moves examined, 0 when not counted")
+    public int candidates;
+
+    @Label("Legal")
+    @Description("Moves found legal")
+    public int legal;
+}
@@ -0,0 +1,359 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.plugin;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Searchable catalog of the games offered by the installed plugins.
+ *
+ * <p>
+ * Each game is indexed once, when its plugin is registered or loaded: the
+ * lowercased name, description and metadata values are split into 1- to
+ * 3-character grams, each mapping to the games containing it. A search
+ * intersects the posting sets of the query's grams, smallest first, and only
+ * checks the few remaining candidates for the whole query, so its cost
+ * depends on the number of matches rather than on the catalog size.
+ * </p>
+ *
+ * <p>
+ * The games are also kept in one sorted set per {@link Sort} order, updated
+ * as games come and go. Rating and download counts are read from the
+ * {@code rating} and {@code downloads} metadata entries (0 when absent).
+ * Every change bumps a version number, so responses built from the catalog
+ * can be cached and validated until the next change.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class GameCatalog {
+
+    /** Longest gram indexed; longer queries are matched by their 3-grams. */
+    static final int GRAM_LENGTH = 3;
+
+    /** Metadata key of the average rating. */
+    public static final String RATING = "rating";
+
+    /** Metadata key of the download count. */
+    public static final String DOWNLOADS = "downloads";
+
+    /**
+     * Catalog orderings.
+     */
+    public enum Sort {
+        /** By name, case-insensitive. */
+        NAME(Comparator.comparing((Entry e) -> e.sortName)),
+        /** Best rated first. */
+        RATING(Comparator.comparingDouble((Entry e) -> e.rating).reversed()
+                .thenComparing(e -> e.sortName)),
+        /** Most downloaded first. */
+        DOWNLOADS(Comparator.comparingLong((Entry e) -> e.downloads).reversed()
+                .thenComparing(e -> e.sortName));
+
+        private final Comparator<Entry> comparator;
+
+        Sort(Comparator<Entry> comparator) {
+            this.comparator = comparator.thenComparing(e -> e.descriptor.id());
+        }
+
+        /**
+         * Parses a sort order name, as given in a query string.
+         *
+         * @param value order name, case-insensitive
+         * @return the order, or {@link #NAME} if null or unknown
+         */
+        public static Sort parse(String value) {
+            if (value != null) {
+                for (Sort sort : values()) {
+                    if (sort.name().equalsIgnoreCase(value)) {
+                        return sort;
+                    }
+                }
+            }
+            return NAME;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Entry>> grams = new HashMap<>();
+    private final Map<Sort, NavigableSet<Entry>> orders = new EnumMap<>(Sort.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long version;
+    private volatile Instant lastModified = Instant.now();
+
+    /**
+     * Creates an empty catalog.
+     */
+    public GameCatalog() {
+        for (Sort sort : Sort.values()) {
+            orders.put(sort, new TreeSet<>(sort.comparator));
+        }
+    }
+
+    /**
+     * Adds a game, replacing any game with the same ID.
+     *
+     * @param descriptor game to add
+     */
+    public void add(GameDescriptor descriptor) {
+        Entry entry = new Entry(descriptor);
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.put(descriptor.id(), entry);
+            if (old != null) {
+                unindex(old);
+            }
+            for (String gram : entry.grams()) {
+                grams.computeIfAbsent(gram, g -> new HashSet<>()).add(entry);
+            }
+            orders.values().forEach(order -> order.add(entry));
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a game.
+     *
+     * @param gameId game identifier
+     * @return true if the game was in the catalog
+     */
+    public boolean remove(String gameId) {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.remove(gameId);
+            if (old == null) {
+                return false;
+            }
+            unindex(old);
+            changed();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a game by ID.
+     *
+     * @param gameId game identifier
+     * @return the game, or empty if not in the catalog
+     */
+    public Optional<GameDescriptor> find(String gameId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(gameId);
+            return entry != null ? Optional.of(entry.descriptor) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists the games matching a query.
+     *
+     * @param query text to find in the name, description or metadata values,
+     *              case-insensitive; null or blank lists every game
+     * @param sort  result order
+     * @return matching games
+     */
+    public List<GameDescriptor> search(String query, Sort sort) {
+        String text = query != null ? query.strip().toLowerCase(Locale.ROOT) : "";
+        lock.readLock().lock();
+        try {
+            if (text.isEmpty()) {
+                return orders.get(sort).stream().map(e -> e.descriptor).toList();
+            }
+            List<Entry> matches = new ArrayList<>();
+            for (Entry entry : candidates(text)) {
+                if (entry.text.contains(text)) {
+                    matches.add(entry);
+                }
+            }
+            matches.sort(sort.comparator);
+            return matches.stream().map(e -> e.descriptor).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of games in the catalog.
+     *
+     * @return game count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the catalog version, bumped by every change.
+     *
+     * @return version number
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the time of the last change.
+     *
+     * @return last modification time
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Games holding every gram of the query, smallest posting set first.
+     */
+    private Set<Entry> candidates(String text) {
+        List<Set<Entry>> postings = new ArrayList<>();
+        for (String gram : grams(text)) {
+            Set<Entry> posting = grams.get(gram);
+            if (posting == null) {
+                return Set.of();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<Entry> result = new HashSet<>(postings.getFirst());
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    private void unindex(Entry entry) {
+        for (String gram : entry.grams()) {
+            Set<Entry> posting = grams.get(gram);
+            if (posting != null && posting.remove(entry) && posting.isEmpty()) {
+                grams.remove(gram);
+            }
+        }
+        orders.values().forEach(order -> order.remove(entry));
+    }
+
+    private void changed() {
+        lastModified = Instant.now();
+        version++;
+    }
+
+    /**
+     * Grams a query is looked up by: the query itself when short, else its
+     * 3-grams.
+     *
+     * @param text lowercased query
+     * @return grams of the query
+     */
+    static Set<String> grams(String text) {
+        if (text.length() <= GRAM_LENGTH) {
+            return Set.of(text);
+        }
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    /**
+     * A game with its precomputed search text and sort keys.
+     */
+    private static final class Entry {
+        private final GameDescriptor descriptor;
+        private final String text;
+        private final String sortName;
+        private final double rating;
+        private final long downloads;
+
+        Entry(GameDescriptor descriptor) {
+            this.descriptor = descriptor;
+            this.sortName = descriptor.name().toLowerCase(Locale.ROOT);
+            this.rating = number(descriptor.getMetadata(RATING)).doubleValue();
+            this.downloads = number(descriptor.getMetadata(DOWNLOADS)).longValue();
+
+            // Fields are separated by a newline, which queries never contain
+            StringBuilder sb = new StringBuilder(sortName).append('\n');
+            if (descriptor.description() != null) {
+                sb.append(descriptor.description().toLowerCase(Locale.ROOT)).append('\n');
+            }
+            for (Object value : descriptor.metadata().values()) {
+                sb.append(String.valueOf(value).toLowerCase(Locale.ROOT)).append('\n');
+            }
+            this.text = sb.toString();
+        }
+
+        /**
+         * Every 1- to 3-gram of the search text, so any query can be looked up.
+         */
+        Set<String> grams() {
+            Set<String> result = new HashSet<>();
+            for (int i = 0; i < text.length(); i++) {
+                for (int n = 1; n <= GRAM_LENGTH && i + n <= text.length(); n++) {
+                    if (text.charAt(i + n - 1) == '\n') {
+                        break;
+                    }
+                    result.add(text.substring(i, i + n));
+                }
+            }
+            return result;
+        }
+
+        private static Number number(Object value) {
+            if (value instanceof Number n) {
+                return n;
+            }
+            if (value instanceof String s) {
+                try {
+                    return Double.valueOf(s.strip());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+            return 0;
+        }
+    }
+}
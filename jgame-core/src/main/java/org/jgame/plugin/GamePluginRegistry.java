@@ -37,6 +37,7 @@ import java.util.logging.Logger;
  * <li>Retrieving plugins by ID</li>
  * <li>Listing available games</li>
  * <li>Validating plugin uniqueness</li>
+ * <li>Keeping the searchable {@link GameCatalog} in step with the plugins</li>
  * </ul>
  * </p>
  * 
@@ -45,7 +46,7 @@ import java.util.logging.Logger;
  * </p>
  * 
  * @author Silvere Martin-Michiellot
- * @version 1.0
+ * @version 1.1
  */
 public final class GamePluginRegistry {
 
@@ -57,6 +58,9 @@ public final class GamePluginRegistry {
     /** Map of game ID to plugin */
     private final Map<String, GamePlugin> plugins = new ConcurrentHashMap<>();
 
+    /** Catalog of the registered games */
+    private final GameCatalog catalog = new GameCatalog();
+
     /** Private constructor for singleton */
     private GamePluginRegistry() {
         // Auto-register built-in games
@@ -87,15 +91,30 @@ public final class GamePluginRegistry {
         GameDescriptor descriptor = plugin.getDescriptor();
         String gameId = descriptor.id();
 
-        if (plugins.containsKey(gameId)) {
+        if (plugins.putIfAbsent(gameId, plugin) != null) {
             throw new IllegalStateException(
                     "Plugin with ID '" + gameId + "' is already registered");
         }
 
-        plugins.put(gameId, plugin);
+        catalog.add(descriptor);
         LOGGER.info("Registered plugin: " + descriptor.name() + " (" + gameId + ")");
     }
 
+    /**
+     * Unregisters a game plugin.
+     * 
+     * @param gameId the game identifier
+     * @return true if a plugin was registered under that ID
+     */
+    public boolean unregisterPlugin(String gameId) {
+        if (plugins.remove(gameId) == null) {
+            return false;
+        }
+        catalog.remove(gameId);
+        LOGGER.info("Unregistered plugin: " + gameId);
+        return true;
+    }
+
     /**
      * Gets a plugin by game ID.
      * 
@@ -127,6 +146,15 @@ public final class GamePluginRegistry {
                 .toList();
     }
 
+    /**
+     * Gets the searchable catalog of the registered games.
+     * 
+     * @return the game catalog
+     */
+    public GameCatalog getCatalog() {
+        return catalog;
+    }
+
     /**
      * Checks if a plugin is registered.
      * 
@@ -54,8 +54,13 @@ import java.util.zip.ZipFile;
  *     └── sounds/
  * </pre>
  *
+ * <p>
+ * When given a {@link GameCatalog}, the loader adds each loaded game to it
+ * and removes it again on unload.
+ * </p>
+ *
  * @author Silvere Martin-Michiellot
- * @version 1.0
+ * @version 1.1
  */
 public class PluginLoader {
 
@@ -63,6 +68,7 @@ public class PluginLoader {
     private static final Gson gson = new Gson();
 
     private final Path cacheDir;
+    private final GameCatalog catalog;
     private final Map<String, LoadedPlugin> loadedPlugins = new HashMap<>();
 
     /**
@@ -71,7 +77,18 @@ public class PluginLoader {
      * @param cacheDir directory for extracted plugins
      */
     public PluginLoader(Path cacheDir) {
+        this(cacheDir, null);
+    }
+
+    /**
+     * Creates a plugin loader that keeps a game catalog up to date.
+     *
+     * @param cacheDir directory for extracted plugins
+     * @param catalog  catalog to add loaded games to, or null
+     */
+    public PluginLoader(Path cacheDir, GameCatalog catalog) {
         this.cacheDir = cacheDir;
+        this.catalog = catalog;
         try {
             Files.createDirectories(cacheDir);
         } catch (IOException e) {
@@ -188,6 +205,9 @@ public class PluginLoader {
                 checksum != null ? checksum : calculateDirectoryChecksum(pluginDir));
 
         loadedPlugins.put(descriptor.id(), loaded);
+        if (catalog != null) {
+            catalog.add(descriptor);
+        }
         logger.info("Loaded plugin: {} v{}", descriptor.name(), descriptor.version());
 
         return loaded;
@@ -220,6 +240,9 @@ public class PluginLoader {
     public void unloadPlugin(String pluginId) {
         LoadedPlugin plugin = loadedPlugins.remove(pluginId);
         if (plugin != null) {
+            if (catalog != null) {
+                catalog.remove(pluginId);
+            }
             try {
                 plugin.classLoader().close();
             } catch (IOException e) {
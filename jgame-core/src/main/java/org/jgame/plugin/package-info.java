@@ -35,9 +35,10 @@
  * <li>{@link org.jgame.plugin.GameDescriptor} - Game metadata descriptor</li>
  * <li>{@link org.jgame.plugin.GamePluginRegistry} - Plugin registry</li>
  * <li>{@link org.jgame.plugin.PluginLoader} - Plugin loading mechanism</li>
+ * <li>{@link org.jgame.plugin.GameCatalog} - Game catalog with n-gram search index</li>
  * </ul>
  * 
  * @since 1.0
- * @version 2.0
+ * @version 2.1
  */
 package org.jgame.plugin;
@@ -23,8 +23,15 @@
  */
 package org.jgame.ai;
 
+import org.jgame.logic.engine.GameAction;
+import org.jgame.logic.engine.GameState;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -65,4 +72,25 @@ class MinimaxAITest {
         assertNotNull(MinimaxAI.medium());
         assertNotNull(MinimaxAI.hard());
     }
+
+    @Test
+    @DisplayName("MinimaxAI should count searched nodes into the global stats")
+    void shouldRecordSearchStats() {
+        List<GameAction> actions = List.of(
+                new GameAction("a1", "player1", GameAction.TYPE_MOVE, Map.of(), Instant.now()),
+                new GameAction("a2", "player1", GameAction.TYPE_MOVE, Map.of(), Instant.now()));
+        GameState state = new GameState("chess", "session-001", List.of("player1", "player2"), 0, 1,
+                GameState.GamePhase.PLAYING, Map.of(), Map.of(), actions, List.of(), Instant.now(), Instant.now());
+        long searches = SearchStats.global().getSearchCount();
+        long nodes = SearchStats.global().getNodeCount();
+
+        MinimaxAI ai = new MinimaxAI(2);
+        assertNotNull(ai.computeMove(state));
+
+        // root, then two replies each with two leaves
+        assertEquals(7, ai.getLastNodeCount());
+        assertTrue(SearchStats.global().getSearchCount() > searches);
+        assertTrue(SearchStats.global().getNodeCount() >= nodes + 7);
+        assertEquals(2, SearchStats.global().getLastDepth());
+    }
 }
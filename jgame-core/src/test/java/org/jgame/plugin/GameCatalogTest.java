@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.plugin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GameCatalog.
+ */
+class GameCatalogTest {
+
+    private static GameDescriptor game(String id, String name, String description, Map<String, Object> metadata) {
+        return new GameDescriptor(id, name, "1.0", "JGame", description, "", 2, 2, metadata);
+    }
+
+    private static List<String> ids(List<GameDescriptor> games) {
+        return games.stream().map(GameDescriptor::id).toList();
+    }
+
+    private static GameCatalog sampleCatalog() {
+        GameCatalog catalog = new GameCatalog();
+        catalog.add(game("chess", "Chess", "Classic strategy board game",
+                Map.of("category", "strategy", "rating", 4.5, "downloads", 1200)));
+        catalog.add(game("checkers", "Checkers", "Jump and capture",
+                Map.of("category", "strategy", "rating", 4.8, "downloads", 300)));
+        catalog.add(game("goose", "Game of the Goose", "Classic dice-based board game",
+                Map.of("category", "family", "downloads", 5000)));
+        return catalog;
+    }
+
+    @Test
+    @DisplayName("Search should match name, description and metadata, case-insensitively")
+    void shouldSearchAllFields() {
+        GameCatalog catalog = sampleCatalog();
+
+        assertEquals(List.of("chess"), ids(catalog.search("CHESS", GameCatalog.Sort.NAME)));
+        assertEquals(List.of("chess", "goose"), ids(catalog.search("board game", GameCatalog.Sort.NAME)));
+        assertEquals(List.of("goose"), ids(catalog.search("family", GameCatalog.Sort.NAME)));
+        assertEquals(List.of("checkers", "chess"), ids(catalog.search("ch", GameCatalog.Sort.NAME)));
+        assertTrue(catalog.search("chessboard", GameCatalog.Sort.NAME).isEmpty());
+        assertTrue(catalog.search("zzz", GameCatalog.Sort.NAME).isEmpty());
+        assertEquals(3, catalog.search("  ", GameCatalog.Sort.NAME).size());
+    }
+
+    @Test
+    @DisplayName("Games should be ordered by name, rating or downloads")
+    void shouldSortByOrder() {
+        GameCatalog catalog = sampleCatalog();
+
+        assertEquals(List.of("checkers", "chess", "goose"), ids(catalog.search(null, GameCatalog.Sort.NAME)));
+        assertEquals(List.of("checkers", "chess", "goose"), ids(catalog.search(null, GameCatalog.Sort.RATING)));
+        assertEquals(List.of("goose", "chess", "checkers"), ids(catalog.search(null, GameCatalog.Sort.DOWNLOADS)));
+        assertEquals(List.of("chess", "checkers"), ids(catalog.search("strategy", GameCatalog.Sort.DOWNLOADS)));
+        assertEquals(GameCatalog.Sort.RATING, GameCatalog.Sort.parse("Rating"));
+        assertEquals(GameCatalog.Sort.NAME, GameCatalog.Sort.parse("unknown"));
+    }
+
+    @Test
+    @DisplayName("Adding, replacing and removing games should update the index and version")
+    void shouldUpdateIncrementally() {
+        GameCatalog catalog = sampleCatalog();
+        long version = catalog.getVersion();
+
+        catalog.add(game("chess", "Chess960", "Shuffled back rank", Map.of("downloads", 10)));
+        assertTrue(catalog.getVersion() > version);
+        assertEquals(3, catalog.size());
+        assertEquals(List.of("chess"), ids(catalog.search("shuffled", GameCatalog.Sort.NAME)));
+        assertTrue(catalog.search("classic strategy", GameCatalog.Sort.NAME).isEmpty());
+        assertEquals("chess", catalog.search(null, GameCatalog.Sort.DOWNLOADS).getLast().id());
+
+        assertTrue(catalog.remove("goose"));
+        assertFalse(catalog.remove("goose"));
+        assertTrue(catalog.find("goose").isEmpty());
+        assertTrue(catalog.search("dice", GameCatalog.Sort.NAME).isEmpty());
+        assertEquals(List.of("checkers", "chess"), ids(catalog.search(null, GameCatalog.Sort.NAME)));
+    }
+
+    @Test
+    @DisplayName("Search should stay exact on a large catalog")
+    void shouldSearchLargeCatalog() {
+        GameCatalog catalog = new GameCatalog();
+        for (int i = 0; i < 5000; i++) {
+            catalog.add(game("game" + i, "Community Game " + i, "A board game", Map.of("downloads", i)));
+        }
+
+        assertEquals(List.of("game4321"), ids(catalog.search("game 4321", GameCatalog.Sort.NAME)));
+        assertEquals(11, catalog.search("game 432", GameCatalog.Sort.NAME).size());
+        assertEquals("game4999", catalog.search("community", GameCatalog.Sort.DOWNLOADS).getFirst().id());
+    }
+}
@@ -1,5 +1,6 @@
 package org.jgame.logic.games.checkers;
 
+import org.jgame.jfr.MoveGenerationEvent;
 import org.jgame.logic.ActionInterface;
 import org.jgame.logic.engine.GameAction;
 import org.jgame.logic.engine.GameState;
@@ -83,6 +84,36 @@ public class CheckersRules extends AbstractBoardGame {
         }
     }
 
+    /**
+     * Restores a saved position, replacing the current one.
+     *
+     * @param pieces              pieces on the board, each player's in their
+     *                            original order
+     * @param currentPlayer       player to move (1 or 2)
+     * @param multiJumpInProgress whether the current player is in a multi-jump
+     * @param winnerId            winner (1 or 2), or 0 if the game is not over
+     * @param lastMove            last move played, or null
+     */
+    public void restorePosition(List<CheckersPiece> pieces, int currentPlayer, boolean multiJumpInProgress,
+            int winnerId, CheckersMove lastMove) {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                board.setPiece(row, col, null);
+            }
+        }
+        player1Pieces = new ArrayList<>();
+        player2Pieces = new ArrayList<>();
+        for (CheckersPiece piece : pieces) {
+            board.setPiece(piece.getRow(), piece.getCol(), piece);
+            (piece.getPlayer() == 1 ? player1Pieces : player2Pieces).add(piece);
+        }
+        this.currentPlayer = currentPlayer;
+        this.multiJumpInProgress = multiJumpInProgress;
+        this.winnerId = winnerId;
+        this.gameOver = winnerId != 0;
+        this.lastMove = lastMove;
+    }
+
     @Override
     public void addPlayer(GameUser player) {
         if (getPlayers().size() < 2) {
@@ -317,7 +348,18 @@ public class CheckersRules extends AbstractBoardGame {
      * Returns true if the move completed the turn, false if multi-jump continues.
      */
     public boolean makeMove(CheckersMove move) {
-        if (!isValidMove(move)) {
+        MoveGenerationEvent event = new MoveGenerationEvent();
+        event.begin();
+        boolean valid = isValidMove(move);
+        event.end();
+        if (event.shouldCommit()) {
+            event.game = getGameName();
+            event.operation = MoveGenerationEvent.VALIDATE;
+            event.candidates = 1;
+            event.legal = valid ? 1 : 0;
+            event.commit();
+        }
+        if (!valid) {
             throw new IllegalArgumentException("Invalid move: " + move);
         }
 
@@ -430,6 +472,13 @@ public class CheckersRules extends AbstractBoardGame {
         return (player == 1) ? player1Pieces.size() : player2Pieces.size();
     }
 
+    /**
+     * Gets a player's pieces, in the order moves are generated.
+     */
+    public List<CheckersPiece> getPieces(int player) {
+        return Collections.unmodifiableList((player == 1) ? player1Pieces : player2Pieces);
+    }
+
     public boolean isMultiJumpInProgress() {
         return multiJumpInProgress;
     }
@@ -504,7 +553,16 @@ public class CheckersRules extends AbstractBoardGame {
         if (playerIdx + 1 != currentPlayer)
             return actions;
 
+        MoveGenerationEvent event = new MoveGenerationEvent();
+        event.begin();
         List<CheckersMove> moves = getAllLegalMoves();
+        event.end();
+        if (event.shouldCommit()) {
+            event.game = getGameName();
+            event.operation = MoveGenerationEvent.GENERATE;
+            event.legal = moves.size();
+            event.commit();
+        }
         for (CheckersMove move : moves) {
             Map<String, Object> params = Map.of(
                     "fromRow", move.getFromRow(),
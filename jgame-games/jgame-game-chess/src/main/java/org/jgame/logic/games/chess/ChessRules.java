@@ -1,5 +1,6 @@
 package org.jgame.logic.games.chess;
 
+import org.jgame.jfr.MoveGenerationEvent;
 import org.jgame.logic.ActionInterface;
 import org.jgame.logic.engine.GameAction;
 import org.jgame.logic.engine.GameState;
@@ -101,7 +102,18 @@ public class ChessRules extends AbstractBoardGame {
             return false;
         }
 
-        if (!isValidMove(move)) {
+        MoveGenerationEvent event = new MoveGenerationEvent();
+        event.begin();
+        boolean valid = isValidMove(move);
+        event.end();
+        if (event.shouldCommit()) {
+            event.game = getGameName();
+            event.operation = MoveGenerationEvent.VALIDATE;
+            event.candidates = 1;
+            event.legal = valid ? 1 : 0;
+            event.commit();
+        }
+        if (!valid) {
             return false;
         }
 
@@ -487,10 +499,14 @@ public class ChessRules extends AbstractBoardGame {
         if (playerColor != currentTurn)
             return legalActions;
 
+        MoveGenerationEvent event = new MoveGenerationEvent();
+        event.begin();
+        int candidates = 0;
         for (int r = 0; r < 8; r++) {
             for (int c = 0; c < 8; c++) {
                 ChessPiece piece = board.getPiece(r, c);
                 if (piece != null && piece.getColor() == currentTurn) {
+                    candidates += 64;
                     // Try all possible destination squares
                     for (int tr = 0; tr < 8; tr++) {
                         for (int tc = 0; tc < 8; tc++) {
@@ -509,6 +525,14 @@ public class ChessRules extends AbstractBoardGame {
                 }
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.game = getGameName();
+            event.operation = MoveGenerationEvent.GENERATE;
+            event.candidates = candidates;
+            event.legal = legalActions.size();
+            event.commit();
+        }
         return legalActions;
     }
 
@@ -113,6 +113,43 @@ public class GooseRules extends AbstractBoardGame {
         }
     }
 
+    /**
+     * Restores a saved game in place of {@link #startGame()}. Players must
+     * already have been added, in their original order.
+     *
+     * @param playOrder       play order
+     * @param inGameState     each player's state ({@link #CAN_MOVE}, ...)
+     * @param playerPositions each player's square (1-63)
+     * @param turnNumber      current turn number
+     * @param turnIndex       index of the player to move
+     * @param finished        whether the game is over
+     */
+    public void restoreState(int[] playOrder, int[] inGameState, int[] playerPositions, int turnNumber,
+            int turnIndex, boolean finished) {
+        try {
+            generateBoard();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to initialize game", e);
+        }
+        this.playOrder = playOrder;
+        this.inGameState = inGameState;
+        this.playerPositions = playerPositions;
+        this.turnNumber = turnNumber;
+        this.turnIndex = turnIndex;
+        this.gameStarted = true;
+        this.gameFinished = finished;
+        this.winner = null;
+        for (int i = 0; i < getPlayers().size(); i++) {
+            PlayerInterface p = getPlayers().get(i);
+            if (p instanceof AbstractPlayer) {
+                ((AbstractPlayer) p).setScore(new IntScore(playerPositions[i]));
+            }
+            if (inGameState[i] == WINNER) {
+                winner = p;
+            }
+        }
+    }
+
     // --- Original Goose Logic ---
 
     @SuppressWarnings("unchecked")
@@ -174,21 +211,34 @@ public class GooseRules extends AbstractBoardGame {
     }
 
     public void nextTurn() {
+        playTurn(null);
+    }
+
+    /**
+     * Plays the current player's turn.
+     *
+     * @param diceRoll the two dice to use if the player can move (e.g. when
+     *                 replaying a recorded game), or null to roll them
+     * @return the dice used, or null if the player could not move
+     */
+    public List<Integer> playTurn(List<Integer> diceRoll) {
         if (gameFinished)
-            return;
+            return null;
 
         // Safety check for empty players
         if (getPlayers().isEmpty())
-            return;
+            return null;
 
         if (inGameState[turnIndex] == WINNER) {
             gameFinished = true;
-            return;
+            return null;
         }
 
+        List<Integer> used = null;
         if (inGameState[turnIndex] == CAN_MOVE) {
             // Roll dice
-            lastDiceRoll = rollTwo6Dices();
+            lastDiceRoll = diceRoll != null ? diceRoll : rollTwo6Dices();
+            used = lastDiceRoll;
             int diceSum = lastDiceRoll.get(0) + lastDiceRoll.get(1);
 
             int currentPos = playerPositions[turnIndex];
@@ -231,6 +281,7 @@ public class GooseRules extends AbstractBoardGame {
             turnIndex = 0;
             turnNumber++;
         }
+        return used;
     }
 
     private int handleFirstTurnSpecialRules(int position, List<Integer> diceRoll) {
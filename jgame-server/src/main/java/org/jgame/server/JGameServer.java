@@ -25,22 +25,46 @@ package org.jgame.server;
 
 import io.javalin.Javalin;
 import io.javalin.http.HttpStatus;
+import jdk.jfr.Recording;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jgame.plugin.GameCatalog;
+import org.jgame.plugin.GamePluginRegistry;
+import org.jgame.plugin.PluginLoader;
+import org.jgame.plugin.PluginLoader.PluginLoadException;
 import org.jgame.server.persistence.DatabaseManager;
+import org.jgame.server.persistence.GameStateManager;
+import org.jgame.server.persistence.LookupCache;
+import org.jgame.server.persistence.dao.PeriodStatsDAO;
+import org.jgame.server.persistence.WriteBehindQueue;
 import org.jgame.server.persistence.dao.RatingDAO;
 import org.jgame.server.persistence.dao.UserDAO;
 import org.jgame.server.persistence.dao.UserGameStatsDAO;
+import org.jgame.server.cluster.ShardRouter;
 import org.jgame.server.api.GameApiController;
+import org.jgame.server.api.GsonJsonMapper;
 import org.jgame.server.api.RatingApiController;
+import org.jgame.server.api.ResponseCache;
 import org.jgame.server.api.UserApiController;
 import org.jgame.server.auth.JwtAuthHandler;
+import org.jgame.server.security.CredentialHasher;
+import org.jgame.server.security.RateLimiter;
+import org.jgame.server.leaderboard.LeaderboardService;
+import org.jgame.server.lobby.LobbyManager;
+import org.jgame.server.jfr.FlightRecording;
+import org.jgame.server.metrics.ServerMetrics;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 
@@ -55,37 +79,101 @@ import java.util.Properties;
  * <li>Game discovery and metadata</li>
  * <li>Ratings and reviews</li>
  * <li>Leaderboards and scores</li>
- * <li>Lobby system (future)</li>
+ * <li>Lobby system (future), sharded across nodes by {@link ShardRouter}</li>
+ * <li>Prometheus metrics on {@code /metrics}, see {@link ServerMetrics}</li>
+ * <li>Optional continuous Flight Recorder recording, see {@link FlightRecording}</li>
  * </ul>
  *
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.6
  */
 public class JGameServer {
 
     private static final Logger logger = LogManager.getLogger(JGameServer.class);
     private static final int DEFAULT_PORT = 8080;
 
+    /**
+     * How HTTP requests are dispatched.
+     *
+     * <p>
+     * {@code PLATFORM} runs handlers on Jetty's bounded platform thread pool.
+     * {@code VIRTUAL} runs each request on its own virtual thread, so blocking
+     * JDBC calls park cheaply and the Hikari pool becomes the only limit on
+     * concurrent database work.
+     * </p>
+     */
+    public enum ThreadMode {
+        PLATFORM, VIRTUAL;
+
+        /**
+         * Parses a mode name, case-insensitively.
+         *
+         * @param value mode name ("platform" or "virtual")
+         * @return parsed mode, or PLATFORM if value is null or blank
+         * @throws IllegalArgumentException if the name is unknown
+         */
+        public static ThreadMode parse(String value) {
+            if (value == null || value.isBlank()) {
+                return PLATFORM;
+            }
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
     private final Javalin app;
     private final int port;
+    private final ThreadMode threadMode;
     private final DatabaseManager dbManager;
+    private final ServerMetrics metrics;
+    private WriteBehindQueue writeBehind;
+    private CredentialHasher credentialHasher;
+    private Recording recording;
 
     /**
-     * Creates a new game server.
+     * Creates a new game server using the configured thread mode.
      *
      * @param port server port
      */
     public JGameServer(int port) {
+        this(port, null);
+    }
+
+    /**
+     * Creates a new game server.
+     *
+     * @param port       server port
+     * @param threadMode request thread mode, or null to use the configured one
+     */
+    public JGameServer(int port, ThreadMode threadMode) {
         this.port = port;
-        this.app = createApp();
+        this.threadMode = threadMode != null ? threadMode : loadThreadMode();
         this.dbManager = DatabaseManager.getInstance();
+        this.dbManager.setVirtualThreads(this.threadMode == ThreadMode.VIRTUAL);
+        this.metrics = ServerMetrics.fromConfig();
+        this.app = createApp();
     }
 
     private Javalin createApp() {
         List<String> allowedOrigins = loadAllowedOrigins();
+        int maxThreads = loadMaxThreads();
 
         Javalin javalin = Javalin.create(config -> {
             config.http.defaultContentType = "application/json";
+            config.jsonMapper(new GsonJsonMapper());
+
+            // Per-route latency and status counts, recorded after every request
+            if (metrics != null) {
+                config.requestLogger.http(metrics::recordRequest);
+            }
+
+            // Request threading: virtual threads, or a sized platform pool
+            if (threadMode == ThreadMode.VIRTUAL) {
+                config.useVirtualThreads = true;
+                logger.info("Request handling on virtual threads");
+            } else if (maxThreads > 0) {
+                config.jetty.threadPool = new QueuedThreadPool(maxThreads, Math.min(8, maxThreads), 60_000);
+                logger.info("Request handling on platform pool of {} threads", maxThreads);
+            }
 
             // CORS: Restrict to configured origins (security hardening)
             config.bundledPlugins.enableCors(cors -> cors.addRule(it -> {
@@ -163,6 +251,58 @@ public class JGameServer {
         return List.of("http://localhost:3000", "http://localhost:8080");
     }
 
+    /**
+     * Loads the request thread mode from configuration.
+     */
+    private ThreadMode loadThreadMode() {
+        String envMode = System.getenv("JGAME_SERVER_THREADS");
+        if (envMode != null && !envMode.isBlank()) {
+            return ThreadMode.parse(envMode);
+        }
+        return ThreadMode.parse(loadProperties().getProperty("server.threads.mode"));
+    }
+
+    /**
+     * Loads the platform pool size (0 keeps Javalin's default).
+     */
+    private int loadMaxThreads() {
+        String value = loadProperties().getProperty("server.threads.max", "0");
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid server.threads.max: {}", value);
+            return 0;
+        }
+    }
+
+    /**
+     * Loads the community plugins of {@code plugins.dir} into the catalog.
+     */
+    private void loadPlugins(GameCatalog catalog) {
+        String dir = loadProperties().getProperty("plugins.dir", "");
+        if (dir.isBlank()) {
+            return;
+        }
+        Path pluginsDir = Path.of(dir.trim());
+        PluginLoader loader = new PluginLoader(pluginsDir.resolve(".cache"), catalog);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(pluginsDir)) {
+            for (Path entry : entries) {
+                try {
+                    if (entry.getFileName().toString().endsWith(".zip")) {
+                        loader.loadFromZip(entry);
+                    } else if (Files.isRegularFile(entry.resolve("plugin.json"))) {
+                        loader.loadFromDirectory(entry);
+                    }
+                } catch (PluginLoadException e) {
+                    logger.warn("Skipping plugin {}: {}", entry, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read plugins directory {}: {}", pluginsDir, e.getMessage());
+        }
+        logger.info("Game catalog holds {} games", catalog.size());
+    }
+
     private Properties loadProperties() {
         Properties props = new Properties();
         try (InputStream is = getClass().getResourceAsStream("/application.properties")) {
@@ -179,6 +319,8 @@ public class JGameServer {
      * Starts the server.
      */
     public void start() {
+        recording = FlightRecording.startFromConfig();
+
         // Initialize database
         try {
             dbManager.initialize();
@@ -193,7 +335,7 @@ public class JGameServer {
 
         // Start server
         app.start(port);
-        logger.info("JGame Server started on port {}", port);
+        logger.info("JGame Server started on port {} ({} threads)", port, threadMode);
     }
 
     private void registerRoutes() {
@@ -201,16 +343,54 @@ public class JGameServer {
 
         // Data Access Layer
         UserDAO userDAO = new UserDAO(dbManager);
-        UserGameStatsDAO statsDAO = new UserGameStatsDAO(dbManager);
-        RatingDAO ratingDAO = new RatingDAO(dbManager);
+        UserGameStatsDAO statsDAO = new UserGameStatsDAO(dbManager, userDAO);
+        RatingDAO ratingDAO = new RatingDAO(dbManager, userDAO);
+        PeriodStatsDAO periodStatsDAO = new PeriodStatsDAO(dbManager, userDAO);
+        userDAO.addDeletionListener(statsDAO::onUserDeleted);
+        userDAO.addDeletionListener(ratingDAO::onUserDeleted);
+
+        // Score and stats writes are batched off the request thread
+        writeBehind = WriteBehindQueue.fromConfig(dbManager);
+        if (writeBehind != null) {
+            writeBehind.start();
+            statsDAO.setWriteBehind(writeBehind);
+            periodStatsDAO.setWriteBehind(writeBehind);
+        }
+
+        // In-memory read models
+        LeaderboardService leaderboards = new LeaderboardService(statsDAO, periodStatsDAO);
+        try {
+            leaderboards.warmUp();
+        } catch (Exception e) {
+            logger.error("Failed to warm leaderboards", e);
+            throw new RuntimeException("Leaderboard warm-up failed", e);
+        }
+
+        // Game states saved as JSON by older versions are converted in the background
+        Thread.ofVirtual().name("jgame-snapshot-migration").start(GameStateManager::migrateJsonSnapshots);
+
+        // Cluster: new lobbies get IDs this node owns, so they are created where they live
+        ShardRouter shardRouter = ShardRouter.fromConfig();
+        if (shardRouter != null) {
+            LobbyManager.getInstance().setLocalIdFilter(id -> shardRouter.isLocal(ShardRouter.lobbyKey(id)));
+        }
 
         // Security/Auth
         JwtAuthHandler authHandler = new JwtAuthHandler();
+        credentialHasher = CredentialHasher.fromConfig();
 
         // Controllers (Presentation Layer)
-        UserApiController userController = new UserApiController(userDAO, statsDAO, authHandler);
-        GameApiController gameController = new GameApiController(statsDAO);
-        RatingApiController ratingController = new RatingApiController(ratingDAO);
+        UserApiController userController = new UserApiController(userDAO, statsDAO, authHandler,
+                credentialHasher);
+        ResponseCache responseCache = ResponseCache.fromConfig();
+        GameCatalog catalog = GamePluginRegistry.getInstance().getCatalog();
+        loadPlugins(catalog);
+        GameApiController gameController = new GameApiController(catalog, leaderboards, responseCache);
+        RatingApiController ratingController = new RatingApiController(ratingDAO, responseCache);
+
+        // Per-client rate limits on credential endpoints
+        app.before("/api/auth/login", RateLimiter.loginLimiter());
+        app.before("/api/auth/register", RateLimiter.defaultLimiter());
 
         // Public routes
         app.post("/api/auth/register", userController::register);
@@ -236,10 +416,27 @@ public class JGameServer {
 
         // Score routes
         app.get("/api/scores/{gameId}/leaderboard", gameController::getLeaderboard);
+        app.get("/api/scores/{gameId}/leaderboard/{period}", gameController::getPeriodLeaderboard);
+        app.get("/api/scores/{gameId}/rank", gameController::getRank);
 
         // Health check
         app.get("/health", ctx -> ctx.result("OK"));
 
+        // Metrics (Prometheus text format)
+        if (metrics != null) {
+            metrics.bindServer(dbManager);
+            metrics.bindCaches(() -> {
+                List<LookupCache.Stats> caches = new ArrayList<>(userDAO.getCacheStats());
+                caches.add(statsDAO.getCacheStats());
+                caches.add(ratingDAO.getCacheStats());
+                return caches;
+            });
+            if (writeBehind != null) {
+                metrics.bindWriteBehind(writeBehind);
+            }
+            app.get("/metrics", metrics);
+        }
+
         logger.info("Routes registered with injected dependencies");
     }
 
@@ -248,7 +445,18 @@ public class JGameServer {
      */
     public void stop() {
         app.stop();
+        if (credentialHasher != null) {
+            credentialHasher.close();
+        }
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
         dbManager.shutdown();
+        if (recording != null) {
+            // writes the recording to its destination
+            recording.stop();
+            recording.close();
+        }
         logger.info("JGame Server stopped");
     }
 
@@ -259,11 +467,19 @@ public class JGameServer {
         return app;
     }
 
+    /**
+     * Gets the request thread mode in use.
+     */
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
     /**
      * Main entry point.
      */
     public static void main(String[] args) {
         int port = DEFAULT_PORT;
+        ThreadMode threadMode = null;
 
         // Parse command line args
         for (int i = 0; i < args.length; i++) {
@@ -271,10 +487,14 @@ public class JGameServer {
                 if (i + 1 < args.length) {
                     port = Integer.parseInt(args[++i]);
                 }
+            } else if ("-t".equals(args[i]) || "--threads".equals(args[i])) {
+                if (i + 1 < args.length) {
+                    threadMode = ThreadMode.parse(args[++i]);
+                }
             }
         }
 
-        JGameServer server = new JGameServer(port);
+        JGameServer server = new JGameServer(port, threadMode);
 
         // Shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Access to the tuning settings of {@code performance.properties}.
+ *
+ * <p>
+ * Components read their settings once, when they are created, so the file
+ * is read again on each call and a missing or unreadable file yields empty
+ * properties (every component then uses its defaults).
+ * </p>
+ *
+ * <p>
+ * A system property of the same name overrides the file, e.g.
+ * {@code -Dgamestate.mvstore.file=/var/lib/jgame/live.mv.db}, so tests and
+ * deployments can relocate data files without editing it.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public final class PerformanceConfig {
+
+    private static final Logger logger = LogManager.getLogger(PerformanceConfig.class);
+
+    private static final String RESOURCE = "/performance.properties";
+
+    private PerformanceConfig() {
+    }
+
+    /**
+     * Loads {@code performance.properties} from the classpath.
+     *
+     * @return the settings, empty if the file is missing or unreadable
+     */
+    public static Properties load() {
+        Properties props = new Properties();
+        try (InputStream is = PerformanceConfig.class.getResourceAsStream(RESOURCE)) {
+            if (is != null) {
+                props.load(is);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not load performance.properties: {}", e.getMessage());
+        }
+        for (String name : props.stringPropertyNames()) {
+            String override = System.getProperty(name);
+            if (override != null) {
+                props.setProperty(name, override);
+            }
+        }
+        return props;
+    }
+}
@@ -26,71 +26,70 @@ package org.jgame.server.api;
 import io.javalin.http.Context;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.jgame.model.GameScore;
-import org.jgame.server.persistence.dao.UserGameStatsDAO;
-import org.jgame.plugin.GameDescriptor;
+import org.jgame.server.leaderboard.Leaderboard;
+import org.jgame.server.leaderboard.LeaderboardService;
+import org.jgame.server.leaderboard.Period;
+import org.jgame.plugin.GameCatalog;
 
-import java.util.List;
+import java.time.Instant;
 import java.util.Map;
 
 /**
  * REST API controller for game operations.
  *
+ * <p>
+ * Games are listed and searched through the plugins' {@link GameCatalog}.
+ * The catalog and leaderboards are served from a {@link ResponseCache}:
+ * their JSON is encoded once per version and clients revalidating with
+ * {@code If-None-Match} get {@code 304 Not Modified}. Free-text searches
+ * are not cached: each query would take a cache entry of its own.
+ * </p>
+ *
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.3
  */
 public class GameApiController {
 
         private static final Logger logger = LogManager.getLogger(GameApiController.class);
 
-        private final UserGameStatsDAO statsDAO;
+        private static final int MAX_LEADERBOARD_LIMIT = 100;
 
-        // Hardcoded game list for now - later will come from PluginLoader
-        private static final List<GameDescriptor> AVAILABLE_GAMES = List.of(
-                        new GameDescriptor("chess", "Chess", "1.0", "JGame",
-                                        "Classic chess game", "Standard chess rules", 2, 2, Map.of()),
-                        new GameDescriptor("checkers", "Checkers", "1.0", "JGame",
-                                        "Classic checkers game", "Standard checkers rules", 2, 2, Map.of()),
-                        new GameDescriptor("goose", "Game of the Goose", "1.0", "JGame",
-                                        "Classic dice-based board game", "Roll dice and reach the end", 2, 6, Map.of()),
-                        new GameDescriptor("solitaire", "Solitaire", "1.0", "JGame",
-                                        "Klondike solitaire", "Classic card game", 1, 1, Map.of()));
+        private final GameCatalog catalog;
+        private final LeaderboardService leaderboards;
+        private final ResponseCache responseCache;
 
         /**
          * Creates a new GameApiController with injected dependencies.
          * 
-         * @param statsDAO data access object for game stats
+         * @param catalog       games of the installed plugins
+         * @param leaderboards  in-memory leaderboards
+         * @param responseCache cache of encoded responses
          */
-        public GameApiController(UserGameStatsDAO statsDAO) {
-                this.statsDAO = statsDAO;
+        public GameApiController(GameCatalog catalog, LeaderboardService leaderboards,
+                        ResponseCache responseCache) {
+                this.catalog = catalog;
+                this.leaderboards = leaderboards;
+                this.responseCache = responseCache;
         }
 
         /**
          * GET /api/games - List all available games
          */
         public void listGames(Context ctx) {
-                String sortBy = ctx.queryParam("sort"); // name, rating, downloads
+                GameCatalog.Sort sort = GameCatalog.Sort.parse(ctx.queryParam("sort")); // name, rating, downloads
                 String search = ctx.queryParam("q");
-
-                List<GameDescriptor> games = AVAILABLE_GAMES;
-
-                // Filter by search
                 if (search != null && !search.isBlank()) {
-                        String query = search.toLowerCase();
-                        games = games.stream()
-                                        .filter(g -> g.name().toLowerCase().contains(query)
-                                                        || g.description().toLowerCase().contains(query))
-                                        .toList();
+                        ctx.json(catalog.search(search, sort));
+                        return;
                 }
 
-                // Sort
-                if ("name".equals(sortBy)) {
-                        games = games.stream()
-                                        .sorted((a, b) -> a.name().compareToIgnoreCase(b.name()))
-                                        .toList();
-                }
+                // Read the version before listing, so a cached body is never older than its version
+                ResponseCache.Version version = catalogVersion();
+                responseCache.serve(ctx, "games:" + sort, version, () -> catalog.search(null, sort));
+        }
 
-                ctx.json(games);
+        private ResponseCache.Version catalogVersion() {
+                return new ResponseCache.Version(catalog.getVersion(), catalog.getLastModified());
         }
 
         /**
@@ -99,11 +98,11 @@ public class GameApiController {
         public void getGame(Context ctx) {
                 String gameId = ctx.pathParam("gameId");
 
-                AVAILABLE_GAMES.stream()
-                                .filter(g -> g.id().equals(gameId))
-                                .findFirst()
+                ResponseCache.Version version = catalogVersion();
+                catalog.find(gameId)
                                 .ifPresentOrElse(
-                                                ctx::json,
+                                                game -> responseCache.serve(ctx, "game:" + gameId, version,
+                                                                () -> game),
                                                 () -> ctx.status(404).json(Map.of("error", "Game not found")));
         }
 
@@ -112,14 +111,60 @@ public class GameApiController {
          */
         public void getLeaderboard(Context ctx) {
                 String gameId = ctx.pathParam("gameId");
-                int limit = ctx.queryParamAsClass("limit", Integer.class).getOrDefault(10);
+                int limit = Math.max(0, Math.min(ctx.queryParamAsClass("limit", Integer.class).getOrDefault(10),
+                                MAX_LEADERBOARD_LIMIT));
+
+                // Read the version before the entries, so a cached body is never older than its version
+                Leaderboard board = leaderboards.findLeaderboard(gameId);
+                ResponseCache.Version version = board != null
+                                ? new ResponseCache.Version(board.getVersion(), board.getLastModified())
+                                : new ResponseCache.Version(0, responseCache.getCreated());
+                responseCache.serve(ctx, "leaderboard:" + gameId + ":" + limit, version,
+                                () -> leaderboards.getTop(gameId, limit));
+        }
 
+        /**
+         * GET /api/scores/{gameId}/leaderboard/{period} - Get a daily, weekly or
+         * seasonal leaderboard ({@code ago} selects a past period)
+         */
+        public void getPeriodLeaderboard(Context ctx) {
+                String gameId = ctx.pathParam("gameId");
+                Period period;
                 try {
-                        List<GameScore> leaderboard = statsDAO.getLeaderboard(gameId, limit);
-                        ctx.json(leaderboard);
-                } catch (Exception e) {
-                        logger.error("Failed to get leaderboard for {}", gameId, e);
-                        ctx.status(500).json(Map.of("error", "Failed to get leaderboard"));
+                        period = Period.parse(ctx.pathParam("period"));
+                } catch (IllegalArgumentException e) {
+                        ctx.status(400).json(Map.of("error", e.getMessage()));
+                        return;
+                }
+                int ago = ctx.queryParamAsClass("ago", Integer.class).getOrDefault(0);
+                int limit = ctx.queryParamAsClass("limit", Integer.class).getOrDefault(10);
+                limit = Math.max(0, Math.min(limit, MAX_LEADERBOARD_LIMIT));
+
+                Leaderboard leaderboard = leaderboards.getPeriodLeaderboard(gameId, period, ago);
+                if (leaderboard == null) {
+                        ctx.status(400).json(Map.of("error",
+                                        "ago must be between 0 and " + (period.retained() - 1)));
+                        return;
+                }
+                ctx.json(Map.of(
+                                "gameId", gameId,
+                                "period", period.name().toLowerCase(),
+                                "start", period.start(period.index(Instant.now()) - ago).toString(),
+                                "leaderboard", leaderboard.top(limit)));
+        }
+
+        /**
+         * GET /api/scores/{gameId}/rank - Get the current user's rank
+         */
+        public void getRank(Context ctx) {
+                String gameId = ctx.pathParam("gameId");
+                String username = ctx.attribute("username");
+
+                int rank = leaderboards.getRank(username, gameId);
+                if (rank == 0) {
+                        ctx.status(404).json(Map.of("error", "No score recorded for this game"));
+                        return;
                 }
+                ctx.json(Map.of("gameId", gameId, "username", username, "rank", rank));
         }
 }
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import io.javalin.json.JsonMapper;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Javalin JSON mapper backed by Gson.
+ *
+ * <p>
+ * Javalin only auto-detects Jackson, so without this mapper every
+ * {@code ctx.json(...)} call fails. {@link Instant} and {@link Duration}
+ * are written as ISO-8601 strings because Gson cannot reflect into
+ * {@code java.time} on modern JDKs.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class GsonJsonMapper implements JsonMapper {
+
+    private final Gson gson;
+
+    /**
+     * Creates a mapper with the server's standard Gson configuration.
+     */
+    public GsonJsonMapper() {
+        this.gson = createGson();
+    }
+
+    /**
+     * Creates the Gson instance used for API responses.
+     *
+     * @return configured Gson
+     */
+    public static Gson createGson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(Instant.class,
+                        (JsonSerializer<Instant>) (src, type, ctx) -> new JsonPrimitive(src.toString()))
+                .registerTypeAdapter(Instant.class,
+                        (JsonDeserializer<Instant>) (json, type, ctx) -> Instant.parse(json.getAsString()))
+                .registerTypeAdapter(Duration.class,
+                        (JsonSerializer<Duration>) (src, type, ctx) -> new JsonPrimitive(src.toString()))
+                .registerTypeAdapter(Duration.class,
+                        (JsonDeserializer<Duration>) (json, type, ctx) -> Duration.parse(json.getAsString()))
+                .create();
+    }
+
+    @Override
+    public String toJsonString(Object obj, Type type) {
+        return gson.toJson(obj, type);
+    }
+
+    @Override
+    public <T> T fromJsonString(String json, Type targetType) {
+        return gson.fromJson(json, targetType);
+    }
+}
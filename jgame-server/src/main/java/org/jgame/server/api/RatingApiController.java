@@ -29,15 +29,20 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jgame.model.GameRating;
 import org.jgame.server.persistence.dao.RatingDAO;
+import org.jgame.server.persistence.dto.RatingSummary;
 
-import java.util.List;
 import java.util.Map;
 
 /**
  * REST API controller for game ratings.
  *
+ * <p>
+ * A game's ratings are served from a {@link ResponseCache}, invalidated by
+ * each rating created, updated or deleted for the game.
+ * </p>
+ *
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.1
  */
 public class RatingApiController {
 
@@ -45,14 +50,21 @@ public class RatingApiController {
     private static final Gson gson = new Gson();
 
     private final RatingDAO ratingDAO;
+    private final ResponseCache responseCache;
 
     /**
      * Creates a new RatingApiController with injected dependencies.
      * 
-     * @param ratingDAO data access object for ratings
+     * @param ratingDAO     data access object for ratings
+     * @param responseCache cache of encoded responses
      */
-    public RatingApiController(RatingDAO ratingDAO) {
+    public RatingApiController(RatingDAO ratingDAO, ResponseCache responseCache) {
         this.ratingDAO = ratingDAO;
+        this.responseCache = responseCache;
+    }
+
+    private static String resource(String gameId) {
+        return "ratings:" + gameId;
     }
 
     /**
@@ -62,14 +74,13 @@ public class RatingApiController {
         String gameId = ctx.pathParam("gameId");
 
         try {
-            List<GameRating> ratings = ratingDAO.getRatingsForGame(gameId);
-            double average = ratingDAO.getAverageRating(gameId);
-            int count = ratingDAO.getRatingCount(gameId);
-
-            ctx.json(Map.of(
-                    "ratings", ratings,
-                    "average", average,
-                    "count", count));
+            responseCache.serve(ctx, resource(gameId), responseCache.version(resource(gameId)), () -> {
+                RatingSummary summary = ratingDAO.getRatingSummary(gameId);
+                return Map.of(
+                        "ratings", summary.ratings(),
+                        "average", summary.average(),
+                        "count", summary.count());
+            });
         } catch (Exception e) {
             logger.error("Failed to get ratings for {}", gameId, e);
             ctx.status(500).json(Map.of("error", "Failed to get ratings"));
@@ -93,6 +104,7 @@ public class RatingApiController {
 
             GameRating rating = GameRating.create(username, gameId, req.stars, req.comment);
             ratingDAO.saveRating(rating);
+            responseCache.invalidate(resource(gameId));
 
             logger.info("Rating created by {} for {}: {} stars", username, gameId, req.stars);
             ctx.status(201).json(rating);
@@ -121,6 +133,7 @@ public class RatingApiController {
 
             GameRating updated = existing.withStars(req.stars).withComment(req.comment);
             ratingDAO.saveRating(updated);
+            responseCache.invalidate(resource(gameId));
 
             logger.info("Rating updated by {} for {}", username, gameId);
             ctx.json(updated);
@@ -142,6 +155,7 @@ public class RatingApiController {
             boolean deleted = ratingDAO.deleteRating(username, gameId);
 
             if (deleted) {
+                responseCache.invalidate(resource(gameId));
                 logger.info("Rating deleted by {} for {}", username, gameId);
                 ctx.status(204);
             } else {
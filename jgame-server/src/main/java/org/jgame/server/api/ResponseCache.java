@@ -0,0 +1,337 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.api;
+
+import com.google.gson.Gson;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.PerformanceConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of encoded JSON responses with conditional GET support.
+ *
+ * <p>
+ * A cached resource has a version: a number that changes whenever its
+ * content may have changed, and the time of that change. The body is
+ * serialized (and gzipped when large enough) once per version; every
+ * response carries an {@code ETag} derived from the version and a
+ * {@code Last-Modified} header. The gzipped body is a different
+ * representation, so its tag ends in {@code -gz}; either tag revalidates
+ * the version. Requests whose {@code If-None-Match} or
+ * {@code If-Modified-Since} match get {@code 304 Not Modified} without
+ * touching the resource, so polling clients cost a map lookup.
+ * </p>
+ *
+ * <p>
+ * {@code Last-Modified} only has whole seconds, so two versions made in the
+ * same second share a date. A version whose date its predecessor already
+ * had is then only revalidated by {@code If-None-Match}: a client holding
+ * the older body sends the same {@code If-Modified-Since} and must not get
+ * a 304. This relies on the predecessor's body having been cached under the
+ * same key, so the cache should be sized to hold every key.
+ * </p>
+ *
+ * <p>
+ * Resources that already keep a version, such as leaderboards, pass it to
+ * {@link #serve}. Others get one from {@link #version(String)}, bumped by
+ * {@link #invalidate(String)} after each write. Only invalidated resources
+ * are remembered, so looking up names taken from requests cannot grow the
+ * cache.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.2
+ */
+public class ResponseCache {
+
+    private static final Logger logger = LogManager.getLogger(ResponseCache.class);
+
+    private static final String JSON = "application/json";
+    private static final String CACHE_CONTROL = "no-cache";
+
+    /**
+     * Version of a resource.
+     *
+     * @param number       changes whenever the content may have changed
+     * @param lastModified time of that change, truncated to seconds as in
+     *                     {@code Last-Modified}
+     */
+    public record Version(long number, Instant lastModified) {
+        public Version {
+            lastModified = lastModified.truncatedTo(ChronoUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Builds a response body on a cache miss.
+     *
+     * @param <E> exception thrown while building it
+     */
+    @FunctionalInterface
+    public interface Body<E extends Exception> {
+        /**
+         * @return the object to serialize as JSON
+         */
+        Object get() throws E;
+    }
+
+    /**
+     * @param uniqueDate whether no earlier version served under the key had
+     *                   the same Last-Modified, so that the date identifies
+     *                   this version
+     */
+    private record Entry(Version version, String etag, byte[] json, byte[] gzip, boolean uniqueDate) {
+
+        /**
+         * Gets the tag of the gzipped body.
+         */
+        String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    private final Gson gson = GsonJsonMapper.createGson();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final int compressThreshold;
+    private final Instant created = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong fills = new AtomicLong();
+
+    /**
+     * Creates a response cache.
+     *
+     * @param maxEntries        max number of cached bodies
+     * @param compressThreshold smallest body to gzip, in bytes; negative to never compress
+     */
+    public ResponseCache(int maxEntries, int compressThreshold) {
+        this.maxEntries = maxEntries;
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * Creates a response cache as configured by {@code http.cache.*} in
+     * {@code performance.properties}.
+     */
+    public static ResponseCache fromConfig() {
+        Properties props = PerformanceConfig.load();
+        return new ResponseCache(
+                Integer.parseInt(props.getProperty("http.cache.maxEntries", "1024").trim()),
+                Integer.parseInt(props.getProperty("http.cache.compressThreshold", "1024").trim()));
+    }
+
+    /**
+     * Gets the version of a resource invalidated through this cache.
+     *
+     * @param resource resource name, e.g. {@code "ratings:chess"}
+     * @return its version; the first one, not stored, until it is invalidated
+     */
+    public Version version(String resource) {
+        Version version = versions.get(resource);
+        return version != null ? version : new Version(1, created);
+    }
+
+    /**
+     * Marks a resource as changed. Call after each write to it.
+     *
+     * @param resource resource name
+     */
+    public void invalidate(String resource) {
+        Instant now = Instant.now();
+        versions.merge(resource, new Version(2, now), (old, v) -> new Version(old.number() + 1, now));
+    }
+
+    /**
+     * Gets the time this cache was created, the last-modified time of
+     * resources that never change while the server runs.
+     */
+    public Instant getCreated() {
+        return created;
+    }
+
+    /**
+     * Answers a GET with a cached JSON body, or 304 if the client's copy is current.
+     *
+     * @param ctx     the request
+     * @param key     cache key: the resource plus any parameter shaping the body
+     * @param version current version of the resource, read before the body
+     * @param body    builds the object to serialize on a cache miss
+     * @param <E>     exception thrown by the body
+     * @throws E if building the body fails; nothing is cached then
+     */
+    public <E extends Exception> void serve(Context ctx, String key, Version version, Body<E> body) throws E {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version().number() != version.number()) {
+            entry = fill(key, version, body.get(), entry);
+        } else {
+            hits.incrementAndGet();
+        }
+
+        boolean gzip = entry.gzip() != null && acceptsGzip(ctx.header(Header.ACCEPT_ENCODING));
+        ctx.header(Header.ETAG, gzip ? entry.gzipEtag() : entry.etag());
+        ctx.header(Header.LAST_MODIFIED, DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                entry.version().lastModified().atZone(ZoneOffset.UTC)));
+        ctx.header(Header.CACHE_CONTROL, CACHE_CONTROL);
+        ctx.header(Header.VARY, Header.ACCEPT_ENCODING);
+        if (isNotModified(ctx, entry)) {
+            notModified.incrementAndGet();
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return;
+        }
+
+        ctx.contentType(JSON);
+        if (gzip) {
+            ctx.header(Header.CONTENT_ENCODING, "gzip");
+            ctx.result(entry.gzip());
+        } else {
+            // The encoding is chosen here; Javalin must not gzip what the client refused
+            ctx.minSizeForCompression(Integer.MAX_VALUE);
+            ctx.result(entry.json());
+        }
+    }
+
+    private Entry fill(String key, Version version, Object body, Entry previous) {
+        byte[] json = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        byte[] gzip = compressThreshold >= 0 && json.length >= compressThreshold ? gzip(json) : null;
+        // strong validator: versions restart with the server, so the start time is part of the tag
+        String etag = "\"" + Long.toHexString(created.getEpochSecond()) + "-" + Long.toHexString(version.number())
+                + "-" + Integer.toHexString(key.hashCode()) + "\"";
+        boolean uniqueDate = previous == null || !previous.version().lastModified().equals(version.lastModified());
+        Entry entry = new Entry(version, etag, json, gzip, uniqueDate);
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            Iterator<String> it = entries.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(key, entry);
+        fills.incrementAndGet();
+        return entry;
+    }
+
+    private static boolean isNotModified(Context ctx, Entry entry) {
+        String ifNoneMatch = ctx.header(Header.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // If-None-Match takes precedence over If-Modified-Since
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(entry.etag()) || candidate.equals(entry.gzipEtag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = ctx.header(Header.IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null && entry.uniqueDate()) {
+            try {
+                Instant since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant();
+                return !entry.version().lastModified().isAfter(since);
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether an Accept-Encoding header accepts gzip, named or
+     * through {@code *}, with a non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && param.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality;
+            } else if (coding.equals("*")) {
+                any = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Gets cache statistics for logging.
+     */
+    public String getStats() {
+        return String.format("ResponseCache [entries=%d, hits=%d, notModified=%d, fills=%d]",
+                entries.size(), hits.get(), notModified.get(), fills.get());
+    }
+}
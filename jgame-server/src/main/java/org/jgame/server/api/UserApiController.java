@@ -29,16 +29,28 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jgame.server.persistence.dao.UserDAO;
 import org.jgame.server.persistence.dao.UserGameStatsDAO;
+import org.jgame.server.persistence.dto.UserCredentials;
 import org.jgame.server.auth.JwtAuthHandler;
+import org.jgame.server.security.CredentialHasher;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST API controller for user operations.
  *
+ * <p>
+ * Passwords are hashed and checked on the {@link CredentialHasher} pool, and
+ * the response is completed asynchronously, so request threads never wait
+ * on BCrypt. When the pool is saturated the request fails fast with 503.
+ * </p>
+ *
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.1
  */
 public class UserApiController {
 
@@ -48,6 +60,7 @@ public class UserApiController {
     private final UserDAO userDAO;
     private final UserGameStatsDAO statsDAO;
     private final JwtAuthHandler jwtHandler;
+    private final CredentialHasher hasher;
 
     /**
      * Creates a new UserApiController with injected dependencies.
@@ -55,11 +68,14 @@ public class UserApiController {
      * @param userDAO    data access object for users
      * @param statsDAO   data access object for game stats
      * @param jwtHandler JWT authentication handler
+     * @param hasher     password hashing pool
      */
-    public UserApiController(UserDAO userDAO, UserGameStatsDAO statsDAO, JwtAuthHandler jwtHandler) {
+    public UserApiController(UserDAO userDAO, UserGameStatsDAO statsDAO, JwtAuthHandler jwtHandler,
+            CredentialHasher hasher) {
         this.userDAO = userDAO;
         this.statsDAO = statsDAO;
         this.jwtHandler = jwtHandler;
+        this.hasher = hasher;
     }
 
     /**
@@ -79,18 +95,20 @@ public class UserApiController {
                 return;
             }
 
-            // In a real app, hash the password!
-            // For now, assuming raw password for demo (BAD PRACTICE, fix in security
-            // update)
-            long userId = userDAO.createUser(req.username, req.password, req.email);
+            CompletableFuture<String> hash = hasher.hash(req.password);
+            ctx.future(() -> hash.thenAccept(passwordHash -> {
+                long userId = userDAO.createUser(req.username, passwordHash, req.email);
 
-            if (userId != -1) {
-                String token = jwtHandler.generateToken(req.username, "user");
-                ctx.status(201).json(Map.of("token", token, "username", req.username));
-            } else {
-                ctx.status(500).json(Map.of("error", "Failed to create user"));
-            }
+                if (userId != -1) {
+                    String token = jwtHandler.generateToken(String.valueOf(userId), req.username);
+                    ctx.status(201).json(Map.of("token", token, "username", req.username));
+                } else {
+                    ctx.status(500).json(Map.of("error", "Failed to create user"));
+                }
+            }).exceptionally(e -> failed(ctx, "Registration error", e)));
 
+        } catch (RejectedExecutionException e) {
+            busy(ctx);
         } catch (Exception e) {
             logger.error("Registration error", e);
             ctx.status(500).json(Map.of("error", "Internal server error"));
@@ -104,15 +122,32 @@ public class UserApiController {
         try {
             LoginRequest req = gson.fromJson(ctx.body(), LoginRequest.class);
 
-            long userId = userDAO.verifyCredentials(req.username, req.password);
-
-            if (userId != -1) {
-                String token = jwtHandler.generateToken(req.username, "user");
-                ctx.json(Map.of("token", token, "username", req.username));
-            } else {
+            if (req.username == null || req.password == null) {
                 ctx.status(401).json(Map.of("error", "Invalid credentials"));
+                return;
             }
 
+            // Unknown users are checked against a dummy hash, to take as long
+            Optional<UserCredentials> credentials = userDAO.getCredentials(req.username);
+            String storedHash = credentials.map(UserCredentials::passwordHash).orElse(null);
+            CompletableFuture<Boolean> check = hasher.matches(req.password, storedHash);
+
+            ctx.future(() -> check.thenAccept(valid -> {
+                if (!valid || credentials.isEmpty()) {
+                    ctx.status(401).json(Map.of("error", "Invalid credentials"));
+                    return;
+                }
+                long userId = credentials.get().userId();
+                userDAO.updateLastLogin(userId);
+                if (hasher.needsRehash(storedHash)) {
+                    rehash(userId, req.password, storedHash);
+                }
+                String token = jwtHandler.generateToken(String.valueOf(userId), req.username);
+                ctx.json(Map.of("token", token, "username", req.username));
+            }).exceptionally(e -> failed(ctx, "Login error", e)));
+
+        } catch (RejectedExecutionException e) {
+            busy(ctx);
         } catch (Exception e) {
             logger.error("Login error", e);
             ctx.status(500).json(Map.of("error", "Internal server error"));
@@ -124,8 +159,14 @@ public class UserApiController {
      */
     public void getProfile(Context ctx) {
         String username = ctx.attribute("username");
-        // Simplified profile response
-        ctx.json(Map.of("username", username, "role", "user"));
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("username", username);
+        profile.put("role", "user");
+        userDAO.getProfile(username).ifPresent(p -> {
+            profile.put("email", p.email());
+            profile.put("createdAt", p.createdAt());
+        });
+        ctx.json(profile);
     }
 
     /**
@@ -135,7 +176,24 @@ public class UserApiController {
         String username = ctx.attribute("username");
         UpdateProfileRequest req = gson.fromJson(ctx.body(), UpdateProfileRequest.class);
 
-        if (userDAO.updateUser(username, req.email, req.password)) {
+        if (req.password == null) {
+            respondToUpdate(ctx, userDAO.updateUser(username, req.email, null));
+            return;
+        }
+        CompletableFuture<String> hash;
+        try {
+            hash = hasher.hash(req.password);
+        } catch (RejectedExecutionException e) {
+            busy(ctx);
+            return;
+        }
+        ctx.future(() -> hash.thenAccept(passwordHash -> respondToUpdate(ctx,
+                userDAO.updateUser(username, req.email, passwordHash)))
+                .exceptionally(e -> failed(ctx, "Profile update error", e)));
+    }
+
+    private void respondToUpdate(Context ctx, boolean updated) {
+        if (updated) {
             ctx.json(Map.of("message", "Profile updated successfully"));
         } else {
             ctx.status(400).json(Map.of("error", "Failed to update profile or nothing to update"));
@@ -156,6 +214,33 @@ public class UserApiController {
         }
     }
 
+    /**
+     * Replaces a plaintext password or a hash at an old cost. Skipped when
+     * the pool is busy; the next login will try again.
+     */
+    private void rehash(long userId, String password, String storedHash) {
+        try {
+            hasher.hash(password).thenAccept(newHash -> {
+                if (userDAO.replacePasswordHash(userId, storedHash, newHash)) {
+                    logger.debug("Rehashed password of user {}", userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Hashing pool busy, not rehashing password of user {}", userId);
+        }
+    }
+
+    private static void busy(Context ctx) {
+        ctx.header("Retry-After", "1");
+        ctx.status(503).json(Map.of("error", "Server busy, please retry"));
+    }
+
+    private static Void failed(Context ctx, String message, Throwable e) {
+        logger.error(message, e);
+        ctx.status(500).json(Map.of("error", "Internal server error"));
+        return null;
+    }
+
     private record RegisterRequest(String username, String password, String email) {
     }
 
@@ -27,11 +27,13 @@ import io.javalin.http.Context;
 import io.javalin.http.Handler;
 import io.javalin.http.UnauthorizedResponse;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jgame.server.security.TokenBlacklist;
+import org.jgame.server.security.TokenDigest;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
@@ -49,8 +51,14 @@ import java.util.Properties;
  * falling back to application.properties if not set.
  * </p>
  *
+ * <p>
+ * Verified tokens are kept in a {@link VerifiedTokenCache} until they
+ * expire or are revoked, so repeat requests with the same token skip the
+ * signature check. The revocation list is still consulted on every request.
+ * </p>
+ *
  * @author Silvere Martin-Michiellot
- * @version 2.1
+ * @version 2.3
  */
 public class JwtAuthHandler implements Handler {
 
@@ -59,11 +67,28 @@ public class JwtAuthHandler implements Handler {
     private static final long DEFAULT_EXPIRATION_MS = 24 * 60 * 60 * 1000; // 24 hours
 
     private final SecretKey key;
+    private final JwtParser parser;
     private final long expirationMs;
+    private final VerifiedTokenCache verifiedTokens = VerifiedTokenCache.configured();
+    private final TokenBlacklist blacklist;
 
+    /**
+     * Creates a handler checking the server's shared token blacklist.
+     */
     public JwtAuthHandler() {
+        this(TokenBlacklist.getInstance());
+    }
+
+    /**
+     * Creates a handler checking the given token blacklist.
+     *
+     * @param blacklist revoked tokens
+     */
+    public JwtAuthHandler(TokenBlacklist blacklist) {
+        this.blacklist = blacklist;
         String secret = loadSecret();
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build(); // Immutable, shared by all requests
         this.expirationMs = loadExpirationMs();
         logger.info("JWT handler initialized (secret from {})",
                 System.getenv("JGAME_JWT_SECRET") != null ? "environment" : "config/default");
@@ -120,28 +145,61 @@ public class JwtAuthHandler implements Handler {
         }
 
         String token = authHeader.substring(7);
+        TokenDigest digest = TokenDigest.of(token);
 
         // Check blacklist
-        if (TokenBlacklist.getInstance().isRevoked(token)) {
+        if (blacklist.isRevoked(digest)) {
             logger.warn("Revoked token used");
             throw new UnauthorizedResponse("Token has been revoked");
         }
 
+        VerifiedTokenCache.VerifiedToken verified;
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            // Store user info in context for later use
-            ctx.attribute("userId", claims.getSubject());
-            ctx.attribute("username", claims.get("username", String.class));
-
+            verified = verify(token, digest);
         } catch (Exception e) {
             logger.warn("Invalid JWT token: {}", e.getMessage());
             throw new UnauthorizedResponse("Invalid authentication token");
         }
+
+        // Store user info in context for later use
+        ctx.attribute("userId", verified.userId());
+        ctx.attribute("username", verified.username());
+    }
+
+    /**
+     * Verifies a token, or gets its claims from the cache if it was verified
+     * before. Does not check revocation.
+     *
+     * @param token the token string (without Bearer prefix)
+     * @return the token's claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    VerifiedTokenCache.VerifiedToken verify(String token) {
+        return verify(token, TokenDigest.of(token));
+    }
+
+    private VerifiedTokenCache.VerifiedToken verify(String token, TokenDigest digest) {
+        long now = System.currentTimeMillis();
+        VerifiedTokenCache.VerifiedToken verified = verifiedTokens.get(digest, now);
+        if (verified != null) {
+            return verified;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date expiry = claims.getExpiration();
+        verified = new VerifiedTokenCache.VerifiedToken(claims.getSubject(), claims.get("username", String.class),
+                expiry != null ? expiry.getTime() : Long.MAX_VALUE);
+        if (expiry != null) {
+            verifiedTokens.put(digest, verified, now);
+        }
+        return verified;
+    }
+
+    /**
+     * Gets verified token cache statistics for logging.
+     */
+    public String getTokenCacheStats() {
+        return verifiedTokens.getStats();
     }
 
     /**
@@ -171,14 +229,12 @@ public class JwtAuthHandler implements Handler {
      */
     public void revokeToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
 
             Instant expiry = claims.getExpiration().toInstant();
-            TokenBlacklist.getInstance().revoke(token, expiry);
+            TokenDigest digest = TokenDigest.of(token);
+            blacklist.revoke(digest, expiry);
+            verifiedTokens.invalidate(digest);
         } catch (Exception e) {
             logger.warn("Failed to revoke token: {}", e.getMessage());
         }
@@ -0,0 +1,241 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.auth;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.security.TokenDigest;
+import org.jgame.server.timer.Timeout;
+import org.jgame.server.timer.TimingWheel;
+import org.jgame.server.PerformanceConfig;
+
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of recently verified JWTs.
+ *
+ * <p>
+ * Tokens are keyed by their {@link TokenDigest}, so the cache never holds the
+ * bearer strings themselves, and map to the claims the handler needs. A hit
+ * skips the signature check and claim decoding entirely; entries are dropped
+ * once the token expires, and on revocation.
+ * </p>
+ *
+ * <p>
+ * Lookups are lock-free. Each entry is dropped at its expiry by a timer on
+ * a {@link TimingWheel}, so the map is never scanned for expired tokens.
+ * The timer is cancelled when the entry leaves earlier, so the wheel holds
+ * no more timers than the cache holds tokens. When the cache is full, an
+ * arbitrary eighth of the entries is dropped: evicted tokens are simply
+ * verified again on their next use.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.3
+ */
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LogManager.getLogger(VerifiedTokenCache.class);
+    private static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    /**
+     * Claims of a verified token.
+     *
+     * @param userId    subject
+     * @param username  username claim
+     * @param expiresAt expiry, in epoch milliseconds
+     */
+    public record VerifiedToken(String userId, String username, long expiresAt) {
+    }
+
+    /**
+     * A cached token and its expiry timer.
+     */
+    private static final class Entry {
+        final VerifiedToken token;
+        volatile Timeout expiry;
+
+        Entry(VerifiedToken token) {
+            this.token = token;
+        }
+
+        void cancel() {
+            Timeout timer = expiry;
+            if (timer != null) {
+                timer.cancel();
+            }
+        }
+    }
+
+    private final int maximumSize;
+    private final TimingWheel wheel;
+    private final ConcurrentHashMap<TokenDigest, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates an empty cache expiring tokens on the shared wheel.
+     *
+     * @param maximumSize max number of tokens
+     */
+    public VerifiedTokenCache(int maximumSize) {
+        this(maximumSize, TimingWheel.shared());
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maximumSize max number of tokens
+     * @param wheel       wheel of the expiry timers
+     */
+    public VerifiedTokenCache(int maximumSize, TimingWheel wheel) {
+        this.maximumSize = Math.max(1, maximumSize);
+        this.wheel = wheel;
+    }
+
+    /**
+     * Creates a cache sized by {@code auth.tokenCache.maximumSize} in
+     * {@code performance.properties}.
+     */
+    public static VerifiedTokenCache configured() {
+        Properties props = PerformanceConfig.load();
+        String size = props.getProperty("auth.tokenCache.maximumSize");
+        return new VerifiedTokenCache(size != null ? Integer.parseInt(size.trim()) : DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Gets the claims of a previously verified token.
+     *
+     * @param digest digest of the token string
+     * @param now    current time, in epoch milliseconds
+     * @return the claims, or null if the token is not cached or has expired
+     */
+    public VerifiedToken get(TokenDigest digest, long now) {
+        Entry entry = entries.get(digest);
+        VerifiedToken verified = entry != null ? entry.token : null;
+        if (verified != null && now >= verified.expiresAt()) {
+            // The timer may lag behind by up to a tick
+            if (entries.remove(digest, entry)) {
+                entry.cancel();
+            }
+            verified = null;
+        }
+        if (verified == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return verified;
+    }
+
+    /**
+     * Caches the claims of a token whose signature has just been verified.
+     *
+     * @param digest   digest of the token string
+     * @param verified its claims
+     * @param now      current time, in epoch milliseconds
+     */
+    public void put(TokenDigest digest, VerifiedToken verified, long now) {
+        if (entries.size() >= maximumSize) {
+            makeRoom();
+        }
+        Entry entry = new Entry(verified);
+        Entry previous = entries.put(digest, entry);
+        if (previous != null) {
+            previous.cancel();
+        }
+        entry.expiry = wheel.schedule(() -> entries.remove(digest, entry), verified.expiresAt() - now,
+                TimeUnit.MILLISECONDS);
+        if (entries.get(digest) != entry) {
+            entry.cancel(); // Dropped before its timer was set
+        }
+    }
+
+    /**
+     * Drops a token, e.g. when it is revoked.
+     *
+     * @param digest digest of the token string
+     */
+    public void invalidate(TokenDigest digest) {
+        Entry entry = entries.remove(digest);
+        if (entry != null) {
+            entry.cancel();
+        }
+    }
+
+    /**
+     * Drops every token.
+     */
+    public void clear() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            it.remove();
+            entry.cancel();
+        }
+    }
+
+    /**
+     * Gets the number of cached tokens.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets cache statistics for logging.
+     */
+    public String getStats() {
+        return String.format("VerifiedTokens [size=%d/%d, hits=%d, misses=%d, evictions=%d]",
+                entries.size(), maximumSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private void makeRoom() {
+        int excess = entries.size() - maximumSize + Math.max(1, maximumSize / 8);
+        Iterator<Entry> it = entries.values().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            Entry entry = it.next();
+            it.remove();
+            entry.cancel();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.chat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity, lock-free message history of one lobby.
+ *
+ * <p>
+ * Messages are numbered from 1 and stored in a ring of {@code capacity}
+ * slots, so adding one costs O(1) whatever the capacity, and the oldest
+ * message is overwritten once the ring is full. A writer claims a sequence
+ * number, stores the message in its slot, then helps move the published
+ * cursor over every consecutive message already stored. Readers only look
+ * at messages up to that cursor, so they never see a gap left by a writer
+ * that has not finished yet, and a "since" cursor never skips a message.
+ * </p>
+ *
+ * <p>
+ * Readers copy only the messages they return into an array of exactly that
+ * size, never the whole ring. A message overwritten while being read is
+ * left out.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class ChatHistory {
+
+    private final int capacity;
+    private final AtomicReferenceArray<ChatMessage> slots;
+    private final AtomicLong next = new AtomicLong(1);
+    private final AtomicLong published = new AtomicLong();
+
+    /**
+     * Creates an empty history.
+     *
+     * @param capacity number of messages kept
+     */
+    public ChatHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Appends a message.
+     *
+     * @param message the message
+     * @return the message with its sequence number
+     */
+    public ChatMessage append(ChatMessage message) {
+        long seq = next.getAndIncrement();
+        ChatMessage sequenced = message.withSeq(seq);
+        int index = index(seq);
+        while (true) {
+            ChatMessage current = slots.get(index);
+            if (current != null && current.seq() > seq) {
+                break; // Lapped by writers a whole ring ahead: already out of the history
+            }
+            if (slots.compareAndSet(index, current, sequenced)) {
+                break;
+            }
+        }
+        publish();
+        return sequenced;
+    }
+
+    /**
+     * Gets the most recent messages, oldest first.
+     *
+     * @param limit maximum number of messages
+     * @return up to {@code limit} messages
+     */
+    public List<ChatMessage> latest(int limit) {
+        long last = published.get();
+        return read(Math.max(1, last - Math.min(limit, capacity) + 1), last);
+    }
+
+    /**
+     * Gets the messages after a cursor, oldest first. Messages that have
+     * already left the ring are skipped.
+     *
+     * @param afterSeq last sequence number the caller has seen (0 for all)
+     * @param limit    maximum number of messages
+     * @return up to {@code limit} messages with {@code seq > afterSeq}
+     */
+    public List<ChatMessage> since(long afterSeq, int limit) {
+        long last = published.get();
+        long first = Math.max(Math.max(1, afterSeq + 1), last - capacity + 1);
+        return read(first, Math.min(last, first + limit - 1));
+    }
+
+    /**
+     * Gets the sequence number of the last published message (0 if none).
+     */
+    public long getLastSeq() {
+        return published.get();
+    }
+
+    /**
+     * Gets the number of messages kept.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private List<ChatMessage> read(long first, long last) {
+        if (first > last) {
+            return List.of();
+        }
+        ChatMessage[] messages = new ChatMessage[(int) (last - first + 1)];
+        int count = 0;
+        for (long seq = first; seq <= last; seq++) {
+            ChatMessage message = slots.get(index(seq));
+            if (message != null && message.seq() == seq) {
+                messages[count++] = message;
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(
+                count == messages.length ? messages : Arrays.copyOf(messages, count)));
+    }
+
+    /**
+     * Advances the published cursor over consecutive stored messages. The
+     * writer of any message still missing will advance it further.
+     */
+    private void publish() {
+        while (true) {
+            long last = published.get();
+            ChatMessage following = slots.get(index(last + 1));
+            if (following == null || following.seq() <= last) {
+                return; // Not stored yet
+            }
+            published.compareAndSet(last, last + 1);
+        }
+    }
+
+    private int index(long seq) {
+        return (int) (seq % capacity);
+    }
+}
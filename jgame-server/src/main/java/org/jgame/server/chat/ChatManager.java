@@ -25,11 +25,15 @@ package org.jgame.server.chat;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jgame.server.jfr.ChatEvent;
 import org.jgame.server.security.HtmlSanitizer;
+import org.jgame.server.PerformanceConfig;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages chat messages for lobbies.
@@ -38,9 +42,27 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * Uses HtmlSanitizer for comprehensive XSS protection.
  * </p>
  *
+ * <p>
+ * Each lobby keeps its last messages in a lock-free {@link ChatHistory}
+ * ring. Messages are numbered per lobby, so clients can poll with
+ * {@link #getMessagesSince} using the last sequence number they saw.
+ * </p>
+ *
+ * <p>
+ * Listeners subscribe to one lobby. Each {@link ChatSubscription} has its
+ * own bounded queue drained on a virtual thread, so sending a message only
+ * queues it and a slow listener never holds up the sender. Subscribers that
+ * fall behind lose messages or are disconnected, as configured by
+ * {@code chat.subscriber.*} in {@code performance.properties}.
+ * </p>
+ *
+ * <p>
+ * Publishing and subscribing emit a {@link ChatEvent} for Flight Recorder.
+ * </p>
+ *
  * @author Google Gemini (Antigravity)
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.4
  */
 public class ChatManager {
 
@@ -49,23 +71,60 @@ public class ChatManager {
     private static final int MAX_MESSAGE_LENGTH = 500;
     private static ChatManager instance;
 
-    private final Map<String, List<ChatMessage>> lobbyMessages = new ConcurrentHashMap<>();
-    private final List<ChatListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, ChatHistory> lobbyMessages = new ConcurrentHashMap<>();
+    private final Map<String, List<ChatSubscription>> subscribers = new ConcurrentHashMap<>();
+    private final int queueCapacity;
+    private final ChatSubscription.OverflowPolicy overflowPolicy;
+
+    // Closed subscriptions whose delivery thread has not stopped yet
+    private final Set<ChatSubscription> closing = ConcurrentHashMap.newKeySet();
+    // Totals of closed subscriptions, so counters never go backwards
+    private final AtomicLong closedDelivered = new AtomicLong();
+    private final AtomicLong closedDropped = new AtomicLong();
+    private final AtomicLong closedLatencyNanos = new AtomicLong();
+    private final AtomicLong closedMaxLatencyNanos = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
 
+    /**
+     * Receives the messages of a lobby, on the subscription's own thread.
+     */
     public interface ChatListener {
         void onMessage(ChatMessage message);
+
+        /**
+         * Called once the subscription is closed, including when it is
+         * disconnected for being too slow.
+         */
+        default void onClosed() {
+        }
     }
 
-    private ChatManager() {
+    /**
+     * Creates a manager.
+     *
+     * @param queueCapacity  default queue size of each subscriber
+     * @param overflowPolicy default policy for subscribers that fall behind
+     */
+    ChatManager(int queueCapacity, ChatSubscription.OverflowPolicy overflowPolicy) {
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
     }
 
     public static synchronized ChatManager getInstance() {
         if (instance == null) {
-            instance = new ChatManager();
+            instance = configured();
         }
         return instance;
     }
 
+    private static ChatManager configured() {
+        Properties props = PerformanceConfig.load();
+        int capacity = Integer.parseInt(props.getProperty("chat.subscriber.queueCapacity", "256").trim());
+        ChatSubscription.OverflowPolicy policy = ChatSubscription.OverflowPolicy.valueOf(
+                props.getProperty("chat.subscriber.overflowPolicy", "DROP_OLDEST").trim());
+        return new ChatManager(capacity, policy);
+    }
+
     /**
      * Sends a chat message.
      */
@@ -103,25 +162,23 @@ public class ChatManager {
         addMessage(lobbyId, message);
     }
 
-    private void addMessage(String lobbyId, ChatMessage message) {
-        List<ChatMessage> messages = lobbyMessages.computeIfAbsent(
-                lobbyId, k -> new CopyOnWriteArrayList<>());
-
-        messages.add(message);
+    private void addMessage(String lobbyId, ChatMessage unsequenced) {
+        ChatEvent event = new ChatEvent();
+        event.begin();
+        ChatHistory history = lobbyMessages.computeIfAbsent(
+                lobbyId, k -> new ChatHistory(MAX_MESSAGES_PER_LOBBY));
 
-        // Trim old messages
-        while (messages.size() > MAX_MESSAGES_PER_LOBBY) {
-            messages.remove(0);
-        }
+        ChatMessage message = history.append(unsequenced);
 
-        // Notify listeners
-        for (ChatListener listener : listeners) {
-            try {
-                listener.onMessage(message);
-            } catch (Exception e) {
-                logger.warn("Chat listener error: {}", e.getMessage());
+        List<ChatSubscription> lobbySubscribers = subscribers.get(lobbyId);
+        int fanOut = 0;
+        if (lobbySubscribers != null) {
+            for (ChatSubscription subscription : lobbySubscribers) {
+                subscription.offer(message);
+                fanOut++;
             }
         }
+        commit(event, ChatEvent.PUBLISH, lobbyId, fanOut);
 
         logger.debug("Chat message in {}: {}", lobbyId, message.content());
     }
@@ -130,12 +187,28 @@ public class ChatManager {
      * Gets recent messages for a lobby.
      */
     public List<ChatMessage> getMessages(String lobbyId, int limit) {
-        List<ChatMessage> messages = lobbyMessages.get(lobbyId);
-        if (messages == null)
+        ChatHistory history = lobbyMessages.get(lobbyId);
+        if (history == null)
+            return List.of();
+
+        return history.latest(limit);
+    }
+
+    /**
+     * Gets the messages of a lobby that follow a sequence number, oldest
+     * first.
+     *
+     * @param lobbyId  the lobby
+     * @param afterSeq last sequence number the client has seen (0 for all)
+     * @param limit    maximum number of messages
+     * @return the messages; those that have left the history are skipped
+     */
+    public List<ChatMessage> getMessagesSince(String lobbyId, long afterSeq, int limit) {
+        ChatHistory history = lobbyMessages.get(lobbyId);
+        if (history == null)
             return List.of();
 
-        int start = Math.max(0, messages.size() - limit);
-        return new ArrayList<>(messages.subList(start, messages.size()));
+        return history.since(afterSeq, limit);
     }
 
     /**
@@ -146,16 +219,127 @@ public class ChatManager {
     }
 
     /**
-     * Adds a chat listener.
+     * Subscribes a listener to a lobby with the default queue size and
+     * overflow policy.
+     *
+     * @param lobbyId  the lobby
+     * @param listener receives the lobby's new messages
+     * @return the subscription, to close when done
      */
-    public void addListener(ChatListener listener) {
-        listeners.add(listener);
+    public ChatSubscription subscribe(String lobbyId, ChatListener listener) {
+        return subscribe(lobbyId, listener, queueCapacity, overflowPolicy);
     }
 
     /**
-     * Removes a chat listener.
+     * Subscribes a listener to a lobby.
+     *
+     * @param lobbyId  the lobby
+     * @param listener receives the lobby's new messages
+     * @param capacity max number of messages queued for the listener
+     * @param policy   what to do when the queue is full
+     * @return the subscription, to close when done
      */
-    public void removeListener(ChatListener listener) {
-        listeners.remove(listener);
+    public ChatSubscription subscribe(String lobbyId, ChatListener listener, int capacity,
+            ChatSubscription.OverflowPolicy policy) {
+        ChatEvent event = new ChatEvent();
+        event.begin();
+        ChatSubscription subscription = new ChatSubscription(lobbyId, listener, capacity, policy, this::unsubscribe,
+                this::retire);
+        subscription.start();
+        subscribers.compute(lobbyId, (k, list) -> {
+            List<ChatSubscription> result = list != null ? list : new CopyOnWriteArrayList<>();
+            result.add(subscription);
+            return result;
+        });
+        if (event.isEnabled()) {
+            List<ChatSubscription> lobbySubscribers = subscribers.get(lobbyId);
+            commit(event, ChatEvent.SUBSCRIBE, lobbyId, lobbySubscribers != null ? lobbySubscribers.size() : 0);
+        }
+        return subscription;
+    }
+
+    private static void commit(ChatEvent event, String operation, String lobbyId, int subscriberCount) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.lobbyId = lobbyId;
+            event.subscribers = subscriberCount;
+            event.commit();
+        }
+    }
+
+    private void unsubscribe(ChatSubscription subscription) {
+        subscribers.computeIfPresent(subscription.getLobbyId(), (k, list) -> {
+            list.remove(subscription);
+            return list.isEmpty() ? null : list;
+        });
+        closing.add(subscription);
+        if (subscription.isDisconnected()) {
+            disconnects.incrementAndGet();
+        }
+    }
+
+    private void retire(ChatSubscription subscription) {
+        closedDelivered.addAndGet(subscription.getDeliveredCount());
+        closedDropped.addAndGet(subscription.getDroppedCount());
+        closedLatencyNanos.addAndGet(subscription.getTotalLatencyNanos());
+        closedMaxLatencyNanos.accumulateAndGet(subscription.getMaxLatencyNanos(), Math::max);
+        closing.remove(subscription);
+    }
+
+    /**
+     * Gets the number of open subscriptions.
+     */
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Gets the number of messages queued for each lobby's subscribers.
+     *
+     * @return queue depth by lobby, for lobbies with subscribers
+     */
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> depths = new TreeMap<>();
+        subscribers.forEach((lobbyId, list) -> depths.put(lobbyId,
+                list.stream().mapToInt(ChatSubscription::getQueueDepth).sum()));
+        return depths;
+    }
+
+    /**
+     * Gets dispatch statistics for logging.
+     */
+    public String getStats() {
+        long delivered = closedDelivered.get();
+        long dropped = closedDropped.get();
+        long latency = closedLatencyNanos.get();
+        long maxLatency = closedMaxLatencyNanos.get();
+        int count = 0;
+        int queued = 0;
+        int maxDepth = 0;
+        for (List<ChatSubscription> list : subscribers.values()) {
+            for (ChatSubscription subscription : list) {
+                count++;
+                int depth = subscription.getQueueDepth();
+                queued += depth;
+                maxDepth = Math.max(maxDepth, depth);
+                delivered += subscription.getDeliveredCount();
+                dropped += subscription.getDroppedCount();
+                latency += subscription.getTotalLatencyNanos();
+                maxLatency = Math.max(maxLatency, subscription.getMaxLatencyNanos());
+            }
+        }
+        for (ChatSubscription subscription : closing) {
+            delivered += subscription.getDeliveredCount();
+            dropped += subscription.getDroppedCount();
+            latency += subscription.getTotalLatencyNanos();
+            maxLatency = Math.max(maxLatency, subscription.getMaxLatencyNanos());
+        }
+        return String.format(
+                "Chat [subscribers=%d, queued=%d, maxQueue=%d, delivered=%d, dropped=%d, disconnects=%d, "
+                        + "avgLatency=%dus, maxLatency=%dus]",
+                count, queued, maxDepth, delivered, dropped, disconnects.get(),
+                delivered == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(latency / delivered),
+                TimeUnit.NANOSECONDS.toMicros(maxLatency));
     }
 }
@@ -28,9 +28,14 @@ import java.time.Instant;
 /**
  * Represents a chat message.
  *
+ * <p>
+ * {@code seq} is the message's position in its lobby's {@link ChatHistory},
+ * starting at 1; it is 0 until the message has been added.
+ * </p>
+ *
  * @author Google Gemini (Antigravity)
  * @author Silvere Martin-Michiellot
- * @version 1.0
+ * @version 1.1
  */
 public record ChatMessage(
         String id,
@@ -39,7 +44,8 @@ public record ChatMessage(
         String lobbyId,
         String content,
         MessageType type,
-        Instant timestamp) {
+        Instant timestamp,
+        long seq) {
     public enum MessageType {
         CHAT, // Regular chat message
         SYSTEM, // System notification
@@ -53,27 +59,34 @@ public record ChatMessage(
         return new ChatMessage(
                 java.util.UUID.randomUUID().toString(),
                 senderId, senderName, lobbyId, content,
-                MessageType.CHAT, Instant.now());
+                MessageType.CHAT, Instant.now(), 0);
     }
 
     public static ChatMessage system(String lobbyId, String content) {
         return new ChatMessage(
                 java.util.UUID.randomUUID().toString(),
                 "system", "System", lobbyId, content,
-                MessageType.SYSTEM, Instant.now());
+                MessageType.SYSTEM, Instant.now(), 0);
     }
 
     public static ChatMessage join(String lobbyId, String playerName) {
         return new ChatMessage(
                 java.util.UUID.randomUUID().toString(),
                 "system", "System", lobbyId, playerName + " joined the lobby",
-                MessageType.JOIN, Instant.now());
+                MessageType.JOIN, Instant.now(), 0);
     }
 
     public static ChatMessage leave(String lobbyId, String playerName) {
         return new ChatMessage(
                 java.util.UUID.randomUUID().toString(),
                 "system", "System", lobbyId, playerName + " left the lobby",
-                MessageType.LEAVE, Instant.now());
+                MessageType.LEAVE, Instant.now(), 0);
+    }
+
+    /**
+     * Returns this message with its sequence number in the lobby history.
+     */
+    public ChatMessage withSeq(long seq) {
+        return new ChatMessage(id, senderId, senderName, lobbyId, content, type, timestamp, seq);
     }
 }
@@ -0,0 +1,252 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.chat;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Subscription of one listener to the chat of one lobby.
+ *
+ * <p>
+ * Messages are queued in a bounded queue and delivered on a virtual thread
+ * of the subscription's own, so a slow listener only delays itself, never
+ * the sender or the other subscribers. When the queue is full the
+ * {@link OverflowPolicy} decides what is lost.
+ * </p>
+ *
+ * <p>
+ * Dispatch latency is measured from queueing to delivery. The counters are
+ * final once both {@link #close()} and the delivery thread have finished,
+ * which is when the {@code onFinish} callback runs.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.1
+ */
+public class ChatSubscription implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(ChatSubscription.class);
+
+    /**
+     * What to do with a message for a subscriber whose queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Drop the oldest queued message to make room. */
+        DROP_OLDEST,
+        /** Drop the new message. */
+        DROP_NEWEST,
+        /** Close the subscription. */
+        DISCONNECT
+    }
+
+    private record Pending(ChatMessage message, long queuedAt) {
+    }
+
+    private final String lobbyId;
+    private final ChatManager.ChatListener listener;
+    private final OverflowPolicy policy;
+    private final BlockingQueue<Pending> queue;
+    private final Consumer<ChatSubscription> onClose;
+    private final Consumer<ChatSubscription> onFinish;
+    // close() and the drainer each count down once; the last one calls onFinish
+    private final AtomicInteger running = new AtomicInteger(2);
+    private volatile Thread drainer;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean disconnected;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * Creates a subscription; {@link #start()} begins delivery.
+     *
+     * @param lobbyId  the lobby
+     * @param listener receives the messages
+     * @param capacity max number of queued messages
+     * @param policy   what to do when the queue is full
+     * @param onClose  called once when the subscription is closed
+     * @param onFinish called once when delivery has stopped and the counters
+     *                 no longer change
+     */
+    ChatSubscription(String lobbyId, ChatManager.ChatListener listener, int capacity, OverflowPolicy policy,
+            Consumer<ChatSubscription> onClose, Consumer<ChatSubscription> onFinish) {
+        this.lobbyId = lobbyId;
+        this.listener = listener;
+        this.policy = policy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.onClose = onClose;
+        this.onFinish = onFinish;
+    }
+
+    void start() {
+        drainer = Thread.ofVirtual().name("jgame-chat-" + lobbyId).start(this::drain);
+    }
+
+    /**
+     * Queues a message for delivery.
+     *
+     * @param message the message
+     * @return false if the subscription is closed
+     */
+    boolean offer(ChatMessage message) {
+        if (closed.get()) {
+            return false;
+        }
+        Pending pending = new Pending(message, System.nanoTime());
+        if (queue.offer(pending)) {
+            return true;
+        }
+        switch (policy) {
+            case DROP_NEWEST -> dropped.incrementAndGet();
+            case DROP_OLDEST -> {
+                // The drainer may take messages meanwhile, so retry until queued
+                do {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                } while (!queue.offer(pending));
+            }
+            case DISCONNECT -> {
+                logger.warn("Disconnecting slow chat subscriber of lobby {} ({} messages queued)",
+                        lobbyId, queue.size());
+                dropped.incrementAndGet();
+                disconnected = true;
+                close();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void drain() {
+        try {
+            while (!closed.get()) {
+                Pending pending = queue.take();
+                long latency = System.nanoTime() - pending.queuedAt();
+                totalLatencyNanos.addAndGet(latency);
+                maxLatencyNanos.accumulateAndGet(latency, Math::max);
+                try {
+                    listener.onMessage(pending.message());
+                } catch (RuntimeException e) {
+                    logger.warn("Chat listener error: {}", e.getMessage());
+                }
+                delivered.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            // Closed
+        } finally {
+            try {
+                listener.onClosed();
+            } catch (RuntimeException e) {
+                logger.warn("Chat listener error: {}", e.getMessage());
+            }
+            finish();
+        }
+    }
+
+    /**
+     * Stops delivery. Queued messages are discarded. A message being
+     * delivered when this is called still completes, on the delivery thread.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = drainer;
+        if (thread != null) {
+            thread.interrupt();
+        } else {
+            running.decrementAndGet(); // Never started
+        }
+        dropped.addAndGet(queue.size());
+        queue.clear();
+        onClose.accept(this);
+        finish();
+    }
+
+    private void finish() {
+        if (running.decrementAndGet() == 0) {
+            onFinish.accept(this);
+        }
+    }
+
+    public String getLobbyId() {
+        return lobbyId;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Tells whether the subscription was closed for falling behind.
+     */
+    public boolean isDisconnected() {
+        return disconnected;
+    }
+
+    /**
+     * Gets the number of messages waiting for delivery.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the sum of the dispatch latencies of delivered messages.
+     */
+    public long getTotalLatencyNanos() {
+        return totalLatencyNanos.get();
+    }
+
+    /**
+     * Gets the longest dispatch latency seen.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+}
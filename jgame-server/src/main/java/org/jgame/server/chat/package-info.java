@@ -30,6 +30,8 @@
  * <ul>
  * <li>{@link org.jgame.server.chat.ChatMessage} - Chat message types</li>
  * <li>{@link org.jgame.server.chat.ChatManager} - Message handling</li>
+ * <li>{@link org.jgame.server.chat.ChatHistory} - Per-lobby message ring</li>
+ * <li>{@link org.jgame.server.chat.ChatSubscription} - Queued delivery to one listener</li>
  * </ul>
  *
  * @author Google Gemini (Antigravity)
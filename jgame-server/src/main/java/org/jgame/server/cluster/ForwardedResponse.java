@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.cluster;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Response of the owning node to a {@link ForwardedRequest}.
+ *
+ * @param status      HTTP status
+ * @param contentType content type, or null
+ * @param headers     other response headers to pass back, among
+ *                    {@link #RELAYED_HEADERS}
+ * @param body        response body, still encoded as Content-Encoding says
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.1
+ */
+public record ForwardedResponse(int status, String contentType, Map<String, String> headers, byte[] body) {
+
+    /**
+     * End-to-end headers describing the body or its caching, in lower case.
+     * The forwarded request carries the client's Accept-Encoding and
+     * conditional headers, so the body and status only make sense with
+     * them.
+     */
+    public static final Set<String> RELAYED_HEADERS = Set.of(
+            "content-encoding", "etag", "last-modified", "cache-control", "vary", "retry-after");
+
+    /**
+     * Creates a response without extra headers.
+     */
+    public ForwardedResponse(int status, String contentType, byte[] body) {
+        this(status, contentType, Map.of(), body);
+    }
+}
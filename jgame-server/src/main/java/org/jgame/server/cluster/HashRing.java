@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.cluster;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable consistent-hash ring of nodes.
+ *
+ * <p>
+ * Each node is placed at {@code virtualNodes} points of a 64-bit ring, and
+ * a key belongs to the first node point at or after the key's hash. With
+ * many points per node the keys spread evenly, and when a node joins or
+ * leaves only about 1/n of them change owner. Points are kept in two
+ * parallel sorted arrays, so a lookup is a binary search with no
+ * allocation.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public final class HashRing {
+
+    private final long[] points;
+    private final NodeInfo[] owners;
+
+    /**
+     * Builds a ring.
+     *
+     * @param nodes        the nodes
+     * @param virtualNodes points per node
+     * @throws IllegalArgumentException if there are no nodes
+     */
+    public HashRing(Collection<NodeInfo> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs nodes");
+        }
+        int size = nodes.size() * virtualNodes;
+        long[] hashes = new long[size];
+        NodeInfo[] nodeOf = new NodeInfo[size];
+        Integer[] order = new Integer[size];
+        int i = 0;
+        for (NodeInfo node : nodes) {
+            for (int v = 0; v < virtualNodes; v++, i++) {
+                hashes[i] = hash(node.id() + '#' + v);
+                nodeOf[i] = node;
+                order[i] = i;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[size];
+        this.owners = new NodeInfo[size];
+        for (i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = nodeOf[order[i]];
+        }
+    }
+
+    /**
+     * Gets the node owning a key.
+     *
+     * @param key shard key
+     * @return its owner
+     */
+    public NodeInfo owner(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Hashes a key: 64-bit FNV-1a, then the MurmurHash3 finalizer so that
+     * similar keys land far apart.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.cluster;
+
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Transport between nodes running in the same process, e.g. in tests.
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class LocalTransport implements Transport {
+
+    private final Map<String, Function<ForwardedRequest, ForwardedResponse>> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the request handler of a node.
+     *
+     * @param nodeId  the node
+     * @param handler handles requests forwarded to it
+     */
+    public void register(String nodeId, Function<ForwardedRequest, ForwardedResponse> handler) {
+        nodes.put(nodeId, handler);
+    }
+
+    /**
+     * Unregisters a node, as if it were down.
+     */
+    public void unregister(String nodeId) {
+        nodes.remove(nodeId);
+    }
+
+    @Override
+    public CompletableFuture<ForwardedResponse> send(NodeInfo target, ForwardedRequest request) {
+        Function<ForwardedRequest, ForwardedResponse> handler = nodes.get(target.id());
+        if (handler == null) {
+            return CompletableFuture.failedFuture(new ConnectException("Node " + target.id() + " is down"));
+        }
+        return CompletableFuture.supplyAsync(() -> handler.apply(request),
+                command -> Thread.ofVirtual().start(command));
+    }
+}
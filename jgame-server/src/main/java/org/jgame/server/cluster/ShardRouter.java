@@ -0,0 +1,303 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.cluster;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.PerformanceConfig;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Assigns lobbies and game sessions to the nodes of the cluster.
+ *
+ * <p>
+ * Shard keys are placed on a consistent-hash {@link HashRing} of the
+ * current {@link Membership}, rebuilt whenever it changes. A lobby's chat
+ * lives with the lobby, so each lobby, and each game session, is owned by
+ * exactly one node. That node keeps its state in memory and in its local
+ * store, so a move costs no round-trip to a shared database; adding nodes
+ * adds capacity. When nodes join or leave, the games that change owner are
+ * reloaded by their new owner from the game store, which then has to be
+ * shared ({@code gamestate.store=sql}).
+ * </p>
+ *
+ * <p>
+ * {@link #forwardBy} gives a before-handler that relays requests for
+ * another node's shard to it through the {@link Transport} and returns its
+ * answer. Relayed requests are marked, and always handled where they arrive,
+ * so a request is forwarded at most once even while nodes disagree on the
+ * membership. The mark is signed with the cluster's shared secret, so a
+ * client cannot set it to keep its request on the wrong node. The client's
+ * end-to-end headers go along, so the owner's answer comes back with the
+ * headers that describe it, such as its Content-Encoding and ETag;
+ * hop-by-hop headers (RFC 9110, section 7.6.1) stay on the first hop.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.2
+ */
+public class ShardRouter {
+
+    private static final Logger logger = LogManager.getLogger(ShardRouter.class);
+
+    /**
+     * Header marking a forwarded request, naming the node that sent it and
+     * signing the request line: {@code nodeId:signature}.
+     */
+    public static final String FORWARDED_HEADER = "X-JGame-Forwarded-By";
+
+    // Meaningful for a single connection only, in lower case
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "proxy-connection",
+            "te", "trailer", "transfer-encoding", "upgrade");
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final Membership membership;
+    private final Transport transport;
+    private final int virtualNodes;
+    private final SecretKeySpec secret;
+    private volatile HashRing ring;
+
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong forwardFailures = new AtomicLong();
+
+    /**
+     * Creates a router.
+     *
+     * @param membership   nodes of the cluster
+     * @param transport    carries forwarded requests
+     * @param virtualNodes ring points per node
+     * @param secret       secret shared by the nodes, signing forwarded
+     *                     requests
+     */
+    public ShardRouter(Membership membership, Transport transport, int virtualNodes, String secret) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("A cluster needs a shared secret");
+        }
+        this.membership = membership;
+        this.transport = transport;
+        this.virtualNodes = virtualNodes;
+        this.secret = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.ring = new HashRing(membership.members(), virtualNodes);
+        membership.addListener(this::rebuild);
+    }
+
+    /**
+     * Creates a router from {@code cluster.*} in
+     * {@code performance.properties}.
+     *
+     * @return the router, or null if no cluster is configured
+     */
+    public static ShardRouter fromConfig() {
+        Properties props = PerformanceConfig.load();
+        List<NodeInfo> nodes = StaticMembership.parse(props.getProperty("cluster.nodes", ""));
+        String selfId = props.getProperty("cluster.nodeId", "").trim();
+        if (nodes.isEmpty() || selfId.isEmpty()) {
+            return null;
+        }
+        NodeInfo self = nodes.stream().filter(n -> n.id().equals(selfId)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("cluster.nodeId not in cluster.nodes: " + selfId));
+        Duration timeout = Duration.ofMillis(
+                Long.parseLong(props.getProperty("cluster.forwardTimeoutMillis", "5000").trim()));
+        String secret = props.getProperty("cluster.secret", "").trim();
+        if (secret.isEmpty()) {
+            throw new IllegalArgumentException("cluster.secret is required in a cluster");
+        }
+        ShardRouter router = new ShardRouter(new StaticMembership(self, nodes), new HttpTransport(timeout),
+                Integer.parseInt(props.getProperty("cluster.virtualNodes", "128").trim()), secret);
+        logger.info("Node {} in a cluster of {}", selfId, nodes.size());
+        return router;
+    }
+
+    private void rebuild() {
+        ring = new HashRing(membership.members(), virtualNodes);
+        logger.info("Cluster membership changed: {} nodes", membership.members().size());
+    }
+
+    /**
+     * Gets the shard key of a lobby, which its chat shares.
+     */
+    public static String lobbyKey(String lobbyId) {
+        return "lobby:" + lobbyId;
+    }
+
+    /**
+     * Gets the shard key of a game session.
+     */
+    public static String gameKey(long gameId) {
+        return "game:" + gameId;
+    }
+
+    /**
+     * Gets the node owning a shard key.
+     */
+    public NodeInfo ownerOf(String key) {
+        return ring.owner(key);
+    }
+
+    /**
+     * Tells whether this node owns a shard key.
+     */
+    public boolean isLocal(String key) {
+        return ring.owner(key).id().equals(membership.self().id());
+    }
+
+    /**
+     * Gets this node.
+     */
+    public NodeInfo self() {
+        return membership.self();
+    }
+
+    /**
+     * Creates a before-handler forwarding requests to the owner of the shard
+     * named by a path parameter.
+     *
+     * @param pathParam       path parameter holding the ID
+     * @param keyOfPathParam  turns the ID into a shard key, e.g.
+     *                        {@link #lobbyKey}
+     * @return the handler
+     */
+    public Handler forwardBy(String pathParam, Function<String, String> keyOfPathParam) {
+        return ctx -> {
+            if (isForwarded(ctx)) {
+                return;
+            }
+            NodeInfo owner = ownerOf(keyOfPathParam.apply(ctx.pathParam(pathParam)));
+            if (owner.id().equals(membership.self().id())) {
+                return;
+            }
+            forward(ctx, owner);
+        };
+    }
+
+    /**
+     * Tells whether a request was forwarded by another node, which signed
+     * it. A mark that does not verify is ignored, and the request routed as
+     * any other.
+     */
+    private boolean isForwarded(Context ctx) {
+        String mark = ctx.header(FORWARDED_HEADER);
+        if (mark == null) {
+            return false;
+        }
+        int colon = mark.lastIndexOf(':');
+        if (colon > 0 && MessageDigest.isEqual(
+                mark.getBytes(StandardCharsets.UTF_8),
+                mark(mark.substring(0, colon), ctx.method().name(), ctx.path()).getBytes(StandardCharsets.UTF_8))) {
+            return true;
+        }
+        logger.warn("Ignoring unsigned {} header on {} from {}", FORWARDED_HEADER, ctx.path(), ctx.ip());
+        return false;
+    }
+
+    private String mark(String nodeId, String method, String path) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(secret);
+            byte[] signature = mac.doFinal((nodeId + ' ' + method + ' ' + path).getBytes(StandardCharsets.UTF_8));
+            return nodeId + ':' + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " unavailable", e);
+        }
+    }
+
+    /**
+     * Copies the end-to-end headers of a request, leaving out hop-by-hop
+     * headers and those its Connection header names.
+     */
+    private static Map<String, String> endToEndHeaders(Map<String, String> headers) {
+        Set<String> dropped = new HashSet<>(HOP_BY_HOP_HEADERS);
+        headers.forEach((name, value) -> {
+            if (name.equalsIgnoreCase("connection")) {
+                for (String token : value.split(",")) {
+                    dropped.add(token.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        });
+        Map<String, String> copy = new HashMap<>();
+        headers.forEach((name, value) -> {
+            if (!dropped.contains(name.toLowerCase(Locale.ROOT)) && !name.equalsIgnoreCase(FORWARDED_HEADER)) {
+                copy.put(name, value);
+            }
+        });
+        return copy;
+    }
+
+    private void forward(Context ctx, NodeInfo owner) {
+        Map<String, String> headers = endToEndHeaders(ctx.headerMap());
+        headers.put(FORWARDED_HEADER, mark(membership.self().id(), ctx.method().name(), ctx.path()));
+        ForwardedRequest request = new ForwardedRequest(ctx.method().name(), ctx.path(), ctx.queryString(),
+                headers, ctx.bodyAsBytes());
+        forwarded.incrementAndGet();
+        ctx.skipRemainingHandlers();
+        ctx.future(() -> transport.send(owner, request).handle((response, e) -> {
+            if (e != null) {
+                forwardFailures.incrementAndGet();
+                logger.warn("Could not forward {} to node {}: {}", ctx.path(), owner.id(), e.getMessage());
+                ctx.header("Retry-After", "1");
+                ctx.status(503).json(Map.of("error", "Owning node unavailable"));
+                return null;
+            }
+            ctx.status(response.status());
+            if (response.contentType() != null) {
+                ctx.contentType(response.contentType());
+            }
+            response.headers().forEach((name, value) -> {
+                if (ForwardedResponse.RELAYED_HEADERS.contains(name.toLowerCase())) {
+                    ctx.header(name, value);
+                }
+            });
+            ctx.result(response.body());
+            return null;
+        }));
+    }
+
+    /**
+     * Gets routing statistics for logging.
+     */
+    public String getStats() {
+        return String.format("Cluster [node=%s, nodes=%d, forwarded=%d, failures=%d]",
+                membership.self().id(), membership.members().size(), forwarded.get(), forwardFailures.get());
+    }
+}
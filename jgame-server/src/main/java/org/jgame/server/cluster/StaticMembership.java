@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Membership from a configured list of nodes, changed only by
+ * {@link #setMembers}.
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class StaticMembership implements Membership {
+
+    private final NodeInfo self;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile List<NodeInfo> members;
+
+    /**
+     * Creates a membership.
+     *
+     * @param self    this node, added to the members if missing
+     * @param members the nodes of the cluster
+     */
+    public StaticMembership(NodeInfo self, List<NodeInfo> members) {
+        this.self = self;
+        this.members = withSelf(members);
+    }
+
+    /**
+     * Parses a node list such as {@code a=http://host1:8080,b=http://host2:8080}.
+     *
+     * @param nodes comma-separated {@code id=address} pairs
+     * @return the nodes
+     * @throws IllegalArgumentException if an entry has no address
+     */
+    public static List<NodeInfo> parse(String nodes) {
+        List<NodeInfo> result = new ArrayList<>();
+        for (String entry : nodes.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int eq = entry.indexOf('=');
+            if (eq <= 0 || eq == entry.length() - 1) {
+                throw new IllegalArgumentException("Expected id=address: " + entry.trim());
+            }
+            result.add(new NodeInfo(entry.substring(0, eq).trim(), entry.substring(eq + 1).trim()));
+        }
+        return result;
+    }
+
+    @Override
+    public NodeInfo self() {
+        return self;
+    }
+
+    @Override
+    public List<NodeInfo> members() {
+        return members;
+    }
+
+    /**
+     * Replaces the members and notifies the listeners.
+     */
+    public void setMembers(List<NodeInfo> members) {
+        this.members = withSelf(members);
+        listeners.forEach(Runnable::run);
+    }
+
+    @Override
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    private List<NodeInfo> withSelf(List<NodeInfo> nodes) {
+        List<NodeInfo> result = new ArrayList<>(nodes);
+        if (result.stream().noneMatch(n -> n.id().equals(self.id()))) {
+            result.add(self);
+        }
+        return List.copyOf(result);
+    }
+}
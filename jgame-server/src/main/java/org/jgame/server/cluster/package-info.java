@@ -0,0 +1,43 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+/**
+ * Sharding of lobbies and game sessions across server nodes.
+ *
+ * <p>
+ * Each lobby and game session is owned by one node, chosen by consistent
+ * hashing; requests reaching another node are forwarded to it:
+ * </p>
+ * <ul>
+ * <li>{@link org.jgame.server.cluster.ShardRouter} - Ownership and request forwarding</li>
+ * <li>{@link org.jgame.server.cluster.HashRing} - Consistent-hash ring</li>
+ * <li>{@link org.jgame.server.cluster.Membership} - Cluster membership SPI</li>
+ * <li>{@link org.jgame.server.cluster.Transport} - Node-to-node transport SPI</li>
+ * <li>{@link org.jgame.server.cluster.HttpTransport} and
+ * {@link org.jgame.server.cluster.LocalTransport} - HTTP and in-process transports</li>
+ * </ul>
+ *
+ * @author Silvere Martin-Michiellot
+ * @since 1.0
+ */
+package org.jgame.server.cluster;
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.PerformanceConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Starts a continuous Flight Recorder recording from the bundled
+ * {@code jgame.jfc} profile.
+ *
+ * <p>
+ * The recording uses the JDK's {@code default} settings plus the JGame
+ * events, keeps the last {@code jfr.maxAgeMinutes} of data on disk, and is
+ * written to {@code jfr.file} when the server stops or the JVM exits.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public final class FlightRecording {
+
+    private static final Logger logger = LogManager.getLogger(FlightRecording.class);
+
+    /** Classpath location of the JGame profile. */
+    public static final String PROFILE = "/jgame.jfc";
+
+    // Prevent instantiation
+    private FlightRecording() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Gets the settings of the JDK default profile combined with the JGame one.
+     *
+     * @return event settings
+     * @throws IOException    if the profile cannot be read
+     * @throws ParseException if a profile is malformed
+     */
+    public static Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (InputStream is = FlightRecording.class.getResourceAsStream(PROFILE)) {
+            if (is == null) {
+                throw new IOException(PROFILE + " not found in resources");
+            }
+            try (Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+                settings.putAll(Configuration.create(reader).getSettings());
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Starts a recording as configured by {@code jfr.*} in
+     * {@code performance.properties}.
+     *
+     * @return the running recording, or null when disabled or unavailable
+     */
+    public static Recording startFromConfig() {
+        Properties props = PerformanceConfig.load();
+        if (!Boolean.parseBoolean(props.getProperty("jfr.enabled", "false").trim())) {
+            return null;
+        }
+        try {
+            Recording recording = new Recording(settings());
+            recording.setName("jgame");
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(
+                    Long.parseLong(props.getProperty("jfr.maxAgeMinutes", "60").trim())));
+            recording.setMaxSize(Long.parseLong(props.getProperty("jfr.maxSizeMB", "250").trim()) * 1024 * 1024);
+            recording.setDestination(Path.of(props.getProperty("jfr.file", "./logs/jgame.jfr").trim()));
+            recording.setDumpOnExit(true);
+            recording.start();
+            logger.info("Flight recording started, written to {} on exit", recording.getDestination());
+            return recording;
+        } catch (IOException | ParseException | RuntimeException e) {
+            logger.warn("Could not start flight recording: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.jfr;
+
+import jdk.jfr.EventType;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Emits a {@link DaoCallEvent} for every prepared statement run on a
+ * connection.
+ *
+ * <p>
+ * Connections are only wrapped while a recording enables the event, so
+ * outside of recordings the pool's connections are returned untouched and
+ * cost nothing. Wrapping uses JDK dynamic proxies; the statement's SQL ID is
+ * derived once per distinct SQL text.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public final class JdbcEvents {
+
+    private static final EventType DAO_CALL = EventType.getEventType(DaoCallEvent.class);
+    private static final Pattern VERB = Pattern.compile("^\\s*(\\w+)");
+    private static final Pattern TABLE = Pattern.compile("(?i)\\b(?:from|into|update)\\s+([A-Za-z_][\\w.]*)");
+    private static final Map<String, String> SQL_IDS = new ConcurrentHashMap<>();
+
+    // Prevent instantiation
+    private JdbcEvents() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Wraps a connection so its prepared statements emit events, if a
+     * recording enables them.
+     *
+     * @param connection the pooled connection
+     * @return the wrapped connection, or the same one when not recording
+     */
+    public static Connection instrument(Connection connection) {
+        if (!DAO_CALL.isEnabled()) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return proxy(PreparedStatement.class, statement, new StatementHandler(statement, (String) args[0]));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Gets the SQL ID of a statement: its verb and first table.
+     *
+     * @param sql SQL text
+     * @return e.g. {@code "SELECT games"}
+     */
+    public static String sqlId(String sql) {
+        return SQL_IDS.computeIfAbsent(sql, text -> {
+            Matcher verb = VERB.matcher(text);
+            String id = verb.find() ? verb.group(1).toUpperCase(Locale.ROOT) : "SQL";
+            Matcher table = TABLE.matcher(text);
+            return table.find() ? id + " " + table.group(1).toLowerCase(Locale.ROOT) : id;
+        });
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final PreparedStatement statement;
+        private final String sql;
+        private int batchSize;
+
+        StatementHandler(PreparedStatement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "addBatch" -> batchSize++;
+                case "clearBatch" -> batchSize = 0;
+                case "executeQuery", "executeUpdate", "executeLargeUpdate", "execute", "executeBatch",
+                        "executeLargeBatch" -> {
+                    if (args == null || args.length == 0) {
+                        return execute(method);
+                    }
+                }
+                default -> {
+                    // not an execution
+                }
+            }
+            return JdbcEvents.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method) throws Throwable {
+            DaoCallEvent event = new DaoCallEvent();
+            event.begin();
+            Object result = JdbcEvents.invoke(statement, method, null);
+            if (result instanceof ResultSet rs) {
+                return proxy(ResultSet.class, rs, new ResultSetHandler(rs, event, sql));
+            }
+            long rows = switch (result) {
+                case Integer count -> Math.max(0, count);
+                case Long count -> Math.max(0, count);
+                case int[] counts -> sum(counts);
+                case long[] counts -> sum(counts);
+                default -> Math.max(0, statement.getUpdateCount());
+            };
+            commit(event, sql, rows, batchSize);
+            if (method.getName().endsWith("Batch")) {
+                batchSize = 0;
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet resultSet;
+        private final DaoCallEvent event;
+        private final String sql;
+        private long rows;
+        private boolean committed;
+
+        ResultSetHandler(ResultSet resultSet, DaoCallEvent event, String sql) {
+            this.resultSet = resultSet;
+            this.event = event;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = JdbcEvents.invoke(resultSet, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (method.getName().equals("close") && !committed) {
+                committed = true;
+                commit(event, sql, rows, 0);
+            }
+            return result;
+        }
+    }
+
+    private static void commit(DaoCallEvent event, String sql, long rows, int batchSize) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.sqlId = sqlId(sql);
+            event.sql = sql;
+            event.rows = rows;
+            event.batchSize = batchSize;
+            event.commit();
+        }
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += Math.max(0, count);
+        }
+        return total;
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += Math.max(0, count);
+        }
+        return total;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcEvents.class.getClassLoader(), new Class<?>[] { type },
+                handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
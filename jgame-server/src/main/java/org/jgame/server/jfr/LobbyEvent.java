@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a lobby operation.
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+@Name("org.jgame.Lobby")
+@Label("Lobby Operation")
+@Category({ "JGame", "Lobby" })
+@Description("Lobby creation, join, leave, start or listing")
+@StackTrace(false)
+public class LobbyEvent extends Event {
+
+    /** Operation creating a lobby. */
+    public static final String CREATE = "create";
+    /** Operation adding a player to a lobby. */
+    public static final String JOIN = "join";
+    /** Operation removing a player from their lobby. */
+    public static final String LEAVE = "leave";
+    /** Operation starting a lobby's game. */
+    public static final String START = "start";
+    /** Operation listing a page of lobbies. */
+    public static final String LIST = "list";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Lobby")
+    public String lobbyId;
+
+    @Label("Game")
+    public String gameId;
+
+    @Label("Lobbies")
+    @Description("Lobbies returned by a listing")
+    public int lobbies;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,44 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+/**
+ * JDK Flight Recorder events of the JGame server.
+ *
+ * <p>
+ * Events cost next to nothing unless a recording enables them. The bundled
+ * {@code jgame.jfc} profile enables them, together with the engine's
+ * {@link org.jgame.jfr} events:
+ * </p>
+ * <ul>
+ * <li>{@link org.jgame.server.jfr.DaoCallEvent} - One SQL statement, with its SQL ID and row count</li>
+ * <li>{@link org.jgame.server.jfr.SnapshotCodecEvent} - Game snapshot encoding and decoding</li>
+ * <li>{@link org.jgame.server.jfr.LobbyEvent} - Lobby operations</li>
+ * <li>{@link org.jgame.server.jfr.ChatEvent} - Chat publication and subscription</li>
+ * <li>{@link org.jgame.server.jfr.JdbcEvents} - Connection wrapper emitting DAO events</li>
+ * <li>{@link org.jgame.server.jfr.FlightRecording} - Recording started from the profile</li>
+ * </ul>
+ *
+ * @author Silvere Martin-Michiellot
+ * @since 1.0
+ */
+package org.jgame.server.jfr;
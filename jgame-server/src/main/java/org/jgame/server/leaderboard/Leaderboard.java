@@ -0,0 +1,255 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.leaderboard;
+
+import org.jgame.model.GameScore;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory leaderboard for one game type.
+ *
+ * <p>
+ * Keeps each player's latest {@link GameScore} and an order-statistics tree
+ * keyed by points, so top-N and rank queries never touch the database.
+ * Players with equal points share a rank, as in
+ * {@code UserGameStatsDAO.getUserRank}.
+ * </p>
+ *
+ * <p>
+ * Every change bumps a version number, so responses built from the board
+ * can be cached and validated until the next change.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.2
+ */
+public class Leaderboard {
+
+    private final String gameId;
+    private final Map<String, GameScore> scores = new HashMap<>();
+    private final ScoreTree tree = new ScoreTree();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long version;
+    private volatile Instant lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    /**
+     * Creates an empty leaderboard.
+     *
+     * @param gameId game type identifier
+     */
+    public Leaderboard(String gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Records a player's current stats, replacing any older entry.
+     *
+     * <p>
+     * Updates older than the stored entry are ignored, so a slow startup load
+     * cannot overwrite a result recorded while it was running.
+     * </p>
+     *
+     * @param score player's aggregated stats for this game
+     * @return true if the leaderboard changed
+     */
+    public boolean update(GameScore score) {
+        lock.writeLock().lock();
+        try {
+            GameScore previous = scores.get(score.userId());
+            if (previous != null) {
+                if (score.lastPlayed().isBefore(previous.lastPlayed())) {
+                    return false;
+                }
+                tree.remove(previous.points(), previous.userId());
+            }
+            scores.put(score.userId(), score);
+            tree.insert(score.points(), score.userId());
+            changed();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a result to a player's entry, creating it if needed.
+     *
+     * <p>
+     * Used by period leaderboards, which accumulate results rather than
+     * receive aggregates.
+     * </p>
+     *
+     * @param delta points, games, wins, losses and time to add
+     * @return the player's new entry
+     */
+    public GameScore add(GameScore delta) {
+        lock.writeLock().lock();
+        try {
+            GameScore previous = scores.get(delta.userId());
+            GameScore merged = delta;
+            if (previous != null) {
+                tree.remove(previous.points(), previous.userId());
+                merged = new GameScore(delta.userId(), gameId,
+                        previous.points() + delta.points(),
+                        previous.gamesPlayed() + delta.gamesPlayed(),
+                        previous.wins() + delta.wins(),
+                        previous.losses() + delta.losses(),
+                        previous.totalTime().plus(delta.totalTime()),
+                        delta.lastPlayed().isAfter(previous.lastPlayed())
+                                ? delta.lastPlayed()
+                                : previous.lastPlayed());
+            }
+            scores.put(merged.userId(), merged);
+            tree.insert(merged.points(), merged.userId());
+            changed();
+            return merged;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a player from the leaderboard.
+     *
+     * @param username player to remove
+     */
+    public void remove(String username) {
+        lock.writeLock().lock();
+        try {
+            GameScore previous = scores.remove(username);
+            if (previous != null) {
+                tree.remove(previous.points(), username);
+                changed();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the version of the board, bumped by every change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the time of the last change, in whole seconds as HTTP dates are.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Records a change. Called under the write lock.
+     */
+    private void changed() {
+        lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        version++;
+    }
+
+    /**
+     * Gets the best entries, highest points first.
+     *
+     * @param limit max number of entries
+     * @return top scores
+     */
+    public List<GameScore> top(int limit) {
+        return page(0, limit);
+    }
+
+    /**
+     * Gets a page of entries, highest points first.
+     *
+     * @param offset number of entries to skip
+     * @param limit  max number of entries
+     * @return scores in leaderboard order
+     */
+    public List<GameScore> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<GameScore> result = new ArrayList<>(Math.max(0, Math.min(limit, scores.size())));
+            tree.forEach(offset, limit, username -> result.add(scores.get(username)));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a player's rank.
+     *
+     * @param username player
+     * @return rank (1-based) or 0 if the player has no entry
+     */
+    public int rankOf(String username) {
+        lock.readLock().lock();
+        try {
+            GameScore score = scores.get(username);
+            return score != null ? tree.countAbove(score.points()) + 1 : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a player's entry.
+     *
+     * @param username player
+     * @return stats if present
+     */
+    public Optional<GameScore> get(String username) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(scores.get(username));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of ranked players.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return scores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.leaderboard;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.model.GameScore;
+import org.jgame.server.persistence.dao.PeriodStatsDAO;
+import org.jgame.server.persistence.dao.UserGameStatsDAO;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves leaderboards from memory.
+ *
+ * <p>
+ * Warmed once from {@code user_game_stats} at startup, then kept current by
+ * listening to {@link UserGameStatsDAO#saveStats}. Reads never touch the
+ * database.
+ * </p>
+ *
+ * <p>
+ * Daily, weekly and seasonal leaderboards are kept the same way: results
+ * recorded through {@link #recordResult} are added to the period rollups in
+ * the database and to an in-memory {@link PeriodRing} per game and period,
+ * which rolls over to a fresh board on the first result of a new period.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.2
+ */
+public class LeaderboardService implements UserGameStatsDAO.StatsListener {
+
+    private static final Logger logger = LogManager.getLogger(LeaderboardService.class);
+
+    /** Serializes read-modify-write of all-time stats for the same player. */
+    private static final int LOCK_STRIPES = 64;
+
+    private final UserGameStatsDAO statsDAO;
+    private final PeriodStatsDAO periodStatsDAO;
+    private final Map<String, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+    private final Map<Period, Map<String, PeriodRing>> periodRings = new EnumMap<>(Period.class);
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /** Stats saved but not yet committed, keyed by player and game */
+    private final Map<List<String>, GameScore> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new LeaderboardService with injected dependencies.
+     *
+     * @param statsDAO       data access object for game stats
+     * @param periodStatsDAO data access object for period rollups
+     */
+    public LeaderboardService(UserGameStatsDAO statsDAO, PeriodStatsDAO periodStatsDAO) {
+        this.statsDAO = statsDAO;
+        this.periodStatsDAO = periodStatsDAO;
+        for (Period period : Period.values()) {
+            periodRings.put(period, new ConcurrentHashMap<>());
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Subscribes to stats writes and loads all existing stats.
+     *
+     * <p>
+     * The listener is registered before loading so no write is missed;
+     * {@link Leaderboard#update} drops rows older than what it already holds.
+     * </p>
+     *
+     * @throws SQLException if the initial load fails
+     */
+    public void warmUp() throws SQLException {
+        statsDAO.addStatsListener(this);
+        long start = System.currentTimeMillis();
+        int[] loaded = { 0 };
+        statsDAO.forEachStats(score -> {
+            onStatsSaved(score);
+            loaded[0]++;
+        });
+        logger.info("Leaderboards warmed with {} entries across {} games in {}ms",
+                loaded[0], leaderboards.size(), System.currentTimeMillis() - start);
+
+        Instant now = Instant.now();
+        for (Period period : Period.values()) {
+            long from = period.index(now) - period.retained() + 1;
+            periodStatsDAO.forEachPeriodStats(period.name(), from, (index, score) -> {
+                Leaderboard board = getPeriodRing(score.gameId(), period).getOrCreate(index);
+                if (board != null) {
+                    board.update(score);
+                }
+            });
+        }
+    }
+
+    /**
+     * Records a finished game for a player.
+     *
+     * <p>
+     * Updates the all-time stats (which refreshes the all-time leaderboard
+     * through the stats listener) and adds the result to the current daily,
+     * weekly and seasonal rollups.
+     * </p>
+     *
+     * <p>
+     * No server route reports finished games yet, so nothing calls this in
+     * production and the period leaderboards stay empty until one does.
+     * </p>
+     *
+     * @param username     player
+     * @param gameId       game type identifier
+     * @param pointsEarned points earned in this game
+     * @param won          whether the player won
+     * @param duration     time spent playing
+     * @return the player's updated all-time stats
+     * @throws SQLException if database error occurs
+     */
+    public GameScore recordResult(String username, String gameId, long pointsEarned, boolean won,
+            Duration duration) throws SQLException {
+        GameScore updated;
+        List<String> key = List.of(username, gameId);
+        synchronized (locks[Math.floorMod((username + gameId).hashCode(), LOCK_STRIPES)]) {
+            // The board only shows committed stats, so build on a queued write if there is one
+            GameScore current = pending.get(key);
+            if (current == null) {
+                current = getLeaderboard(gameId).get(username)
+                        .orElseGet(() -> GameScore.initial(username, gameId));
+            }
+            updated = won ? current.recordWin(pointsEarned, duration)
+                    : current.recordLoss(pointsEarned, duration);
+            pending.put(key, updated);
+            try {
+                statsDAO.saveStats(updated);
+            } catch (SQLException e) {
+                pending.remove(key, updated);
+                throw e;
+            }
+        }
+
+        GameScore delta = new GameScore(username, gameId, pointsEarned, 1,
+                won ? 1 : 0, won ? 0 : 1, duration, updated.lastPlayed());
+        Map<String, Long> indexes = new LinkedHashMap<>();
+        for (Period period : Period.values()) {
+            indexes.put(period.name(), period.index(delta.lastPlayed()));
+        }
+        periodStatsDAO.addResult(delta, indexes);
+        for (Period period : Period.values()) {
+            Leaderboard board = getPeriodRing(gameId, period).getOrCreate(indexes.get(period.name()));
+            if (board != null) {
+                board.add(delta);
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public void onStatsSaved(GameScore score) {
+        getLeaderboard(score.gameId()).update(score);
+        pending.remove(List.of(score.userId(), score.gameId()), score);
+    }
+
+    /**
+     * Gets the leaderboard for a game type, creating an empty one if needed.
+     *
+     * @param gameId game type identifier
+     * @return leaderboard
+     */
+    public Leaderboard getLeaderboard(String gameId) {
+        return leaderboards.computeIfAbsent(gameId, Leaderboard::new);
+    }
+
+    /**
+     * Gets the leaderboard for a game type without creating it.
+     *
+     * @param gameId game type identifier
+     * @return leaderboard, or null if no score was recorded for the game
+     */
+    public Leaderboard findLeaderboard(String gameId) {
+        return leaderboards.get(gameId);
+    }
+
+    /**
+     * Gets the leaderboard of a period, if still held in memory.
+     *
+     * @param gameId game type identifier
+     * @param period period type
+     * @param ago    0 for the current period, 1 for the previous one, etc.
+     * @return leaderboard, or null if {@code ago} is outside the retained range
+     */
+    public Leaderboard getPeriodLeaderboard(String gameId, Period period, int ago) {
+        if (ago < 0 || ago >= period.retained()) {
+            return null;
+        }
+        PeriodRing ring = periodRings.get(period).get(gameId);
+        Leaderboard board = ring != null ? ring.get(period.index(Instant.now()) - ago) : null;
+        return board != null ? board : new Leaderboard(gameId);
+    }
+
+    private PeriodRing getPeriodRing(String gameId, Period period) {
+        return periodRings.get(period).computeIfAbsent(gameId, id -> new PeriodRing(id, period.retained()));
+    }
+
+    /**
+     * Gets the top entries for a game type.
+     *
+     * @param gameId game type identifier
+     * @param limit  max number of entries
+     * @return top scores sorted by points
+     */
+    public List<GameScore> getTop(String gameId, int limit) {
+        Leaderboard leaderboard = leaderboards.get(gameId);
+        return leaderboard != null ? leaderboard.top(limit) : List.of();
+    }
+
+    /**
+     * Gets a player's rank for a game type.
+     *
+     * @param username player
+     * @param gameId   game type identifier
+     * @return rank (1-based) or 0 if not ranked
+     */
+    public int getRank(String username, String gameId) {
+        Leaderboard leaderboard = leaderboards.get(gameId);
+        return leaderboard != null ? leaderboard.rankOf(username) : 0;
+    }
+}
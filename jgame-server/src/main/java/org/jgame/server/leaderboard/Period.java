@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.leaderboard;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+/**
+ * Leaderboard time windows.
+ *
+ * <p>
+ * Each window is identified by a period index derived from UTC time, so that
+ * consecutive periods have consecutive indexes and rollover is a simple
+ * comparison. Weeks start on Monday; seasons are calendar quarters.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.1
+ */
+public enum Period {
+    DAILY(7), WEEKLY(5), SEASONAL(4);
+
+    /** 1970-01-01 was a Thursday; shifting by 3 days puts week boundaries on Monday. */
+    private static final int MONDAY_OFFSET = 3;
+
+    private final int retained;
+
+    Period(int retained) {
+        this.retained = retained;
+    }
+
+    /**
+     * Gets how many periods (current one included) are kept in memory.
+     */
+    public int retained() {
+        return retained;
+    }
+
+    /**
+     * Gets the index of the period containing an instant.
+     *
+     * @param instant point in time
+     * @return period index
+     */
+    public long index(Instant instant) {
+        LocalDate date = LocalDate.ofInstant(instant, ZoneOffset.UTC);
+        return switch (this) {
+            case DAILY -> date.toEpochDay();
+            case WEEKLY -> Math.floorDiv(date.toEpochDay() + MONDAY_OFFSET, 7);
+            case SEASONAL -> date.getYear() * 4L + (date.getMonthValue() - 1) / 3;
+        };
+    }
+
+    /**
+     * Gets the first day of a period.
+     *
+     * @param index period index
+     * @return start date (UTC)
+     */
+    public LocalDate start(long index) {
+        return switch (this) {
+            case DAILY -> LocalDate.ofEpochDay(index);
+            case WEEKLY -> LocalDate.ofEpochDay(index * 7 - MONDAY_OFFSET);
+            case SEASONAL -> LocalDate.of((int) Math.floorDiv(index, 4), Math.floorMod(index, 4) * 3 + 1, 1);
+        };
+    }
+
+    /**
+     * Parses a period name, case-insensitively.
+     *
+     * @param value "daily", "weekly" or "seasonal"
+     * @return period
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static Period parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown period: " + value);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.leaderboard;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer of leaderboards for the most recent periods of one game.
+ *
+ * <p>
+ * Slot {@code index % retained} holds the board for period {@code index}.
+ * The first write in a new period replaces the oldest slot, so rollover
+ * needs no timer. Reads are lock-free.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+final class PeriodRing {
+
+    private record Slot(long index, Leaderboard board) {
+    }
+
+    private final String gameId;
+    private final AtomicReferenceArray<Slot> slots;
+
+    PeriodRing(String gameId, int retained) {
+        this.gameId = gameId;
+        this.slots = new AtomicReferenceArray<>(retained);
+    }
+
+    /**
+     * Gets the board for a period, or null if it is not in memory.
+     */
+    Leaderboard get(long index) {
+        Slot slot = slots.get(slot(index));
+        return slot != null && slot.index == index ? slot.board : null;
+    }
+
+    /**
+     * Gets the board for a period, rolling the ring forward if needed.
+     *
+     * @return the board, or null if the period is older than the ring holds
+     */
+    Leaderboard getOrCreate(long index) {
+        int position = slot(index);
+        while (true) {
+            Slot slot = slots.get(position);
+            if (slot != null && slot.index == index) {
+                return slot.board;
+            }
+            if (slot != null && slot.index > index) {
+                return null; // Already rolled past this period
+            }
+            Slot fresh = new Slot(index, new Leaderboard(gameId));
+            if (slots.compareAndSet(position, slot, fresh)) {
+                return fresh.board;
+            }
+        }
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) slots.length());
+    }
+}
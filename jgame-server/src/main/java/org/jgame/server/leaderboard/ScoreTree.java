@@ -0,0 +1,223 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.leaderboard;
+
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Order-statistics tree of (points, username) entries.
+ *
+ * <p>
+ * A treap whose nodes carry subtree sizes, ordered by points descending and
+ * then username ascending. Insert, remove and rank are O(log n) expected;
+ * iterating the first k entries is O(log n + k).
+ * </p>
+ *
+ * <p>
+ * Not thread-safe: {@link Leaderboard} guards it with a read/write lock.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+final class ScoreTree {
+
+    private static final class Node {
+        final long points;
+        final String username;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(long points, String username, int priority) {
+            this.points = points;
+            this.username = username;
+            this.priority = priority;
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    /**
+     * Gets the number of entries.
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Inserts an entry. The caller must ensure (points, username) is not already present.
+     */
+    void insert(long points, String username) {
+        root = insert(root, new Node(points, username, random.nextInt()));
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @return true if the entry was present
+     */
+    boolean remove(long points, String username) {
+        int before = size(root);
+        root = remove(root, points, username);
+        return size(root) < before;
+    }
+
+    /**
+     * Counts entries with strictly more points.
+     */
+    int countAbove(long points) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.points > points) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Visits up to {@code limit} usernames starting at position {@code offset}, best first.
+     */
+    void forEach(int offset, int limit, Consumer<String> action) {
+        if (limit <= 0 || offset >= size(root)) {
+            return;
+        }
+        visit(root, Math.max(0, offset), limit, action);
+    }
+
+    private int visit(Node node, int skip, int remaining, Consumer<String> action) {
+        // Returns how many entries are still wanted after this subtree
+        if (node == null || remaining == 0) {
+            return remaining;
+        }
+        int leftSize = size(node.left);
+        if (skip < leftSize) {
+            remaining = visit(node.left, skip, remaining, action);
+            skip = 0;
+        } else {
+            skip -= leftSize;
+        }
+        if (remaining == 0) {
+            return 0;
+        }
+        if (skip == 0) {
+            action.accept(node.username);
+            remaining--;
+        } else {
+            skip--;
+        }
+        return visit(node.right, skip, remaining, action);
+    }
+
+    private static Node insert(Node node, Node entry) {
+        if (node == null) {
+            return entry;
+        }
+        if (compare(entry.points, entry.username, node.points, node.username) < 0) {
+            node.left = insert(node.left, entry);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, entry);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node remove(Node node, long points, String username) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(points, username, node.points, node.username);
+        if (cmp < 0) {
+            node.left = remove(node.left, points, username);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, points, username);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int compare(long pointsA, String userA, long pointsB, String userB) {
+        int cmp = Long.compare(pointsB, pointsA); // Higher points first
+        return cmp != 0 ? cmp : userA.compareTo(userB);
+    }
+}
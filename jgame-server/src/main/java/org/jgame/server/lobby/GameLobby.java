@@ -23,6 +23,8 @@
  */
 package org.jgame.server.lobby;
 
+import org.jgame.server.timer.Timeout;
+
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,9 +32,14 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Represents a game lobby where players wait to start a game.
  *
+ * <p>
+ * Lobbies owned by a {@link LobbyManager} are indexed by state, so their
+ * state must be changed through the manager.
+ * </p>
+ *
  * @author Google Gemini (Antigravity)
  * @author Silvere Martin-Michiellot
- * @version 1.0
+ * @version 1.2
  */
 public class GameLobby {
 
@@ -43,14 +50,23 @@ public class GameLobby {
     private final int maxPlayers;
     private final Set<String> players;
     private final Instant createdAt;
+    private final long seq;
     private LobbyState state;
     private String password; // Optional password protection
+    Timeout idleTimer; // Guarded by the manager's compute()
 
     public enum LobbyState {
         WAITING, STARTING, IN_PROGRESS, FINISHED
     }
 
     public GameLobby(String id, String gameId, String hostId, String name, int maxPlayers) {
+        this(id, gameId, hostId, name, maxPlayers, 0);
+    }
+
+    /**
+     * Creates a lobby with its creation order in the manager.
+     */
+    GameLobby(String id, String gameId, String hostId, String name, int maxPlayers, long seq) {
         this.id = id;
         this.gameId = gameId;
         this.hostId = hostId;
@@ -60,6 +76,7 @@ public class GameLobby {
         this.players.add(hostId);
         this.createdAt = Instant.now();
         this.state = LobbyState.WAITING;
+        this.seq = seq;
     }
 
     public String getId() {
@@ -94,6 +111,14 @@ public class GameLobby {
         return createdAt;
     }
 
+    /**
+     * Gets the creation order of the lobby in its manager, used as the
+     * pagination cursor.
+     */
+    public long getSeq() {
+        return seq;
+    }
+
     public LobbyState getState() {
         return state;
     }
@@ -25,10 +25,20 @@ package org.jgame.server.lobby;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jgame.server.jfr.LobbyEvent;
+import org.jgame.server.timer.Timeout;
+import org.jgame.server.timer.TimingWheel;
+import org.jgame.server.PerformanceConfig;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Manages game lobbies with thread-safe operations.
@@ -37,9 +47,34 @@ import java.util.stream.Collectors;
  * Uses atomic compute() operations to prevent race conditions.
  * </p>
  *
+ * <p>
+ * Lobbies are also indexed by state and by (game, state), each index
+ * ordered by creation and keeping its own count. The indexes are updated
+ * inside the same compute() as the lobby, so listings and counts never
+ * scan the lobbies of other games or states: a page costs O(log n + page
+ * size) and a count O(1), whatever the number of lobbies.
+ * </p>
+ *
+ * <p>
+ * A waiting lobby with no one joining or leaving for
+ * {@code lobby.idleTimeoutMillis} is abandoned and removed, by a timer on
+ * the shared {@link TimingWheel} that each join or leave replaces.
+ * </p>
+ *
+ * <p>
+ * In a cluster, {@link #setLocalIdFilter} makes the manager only pick IDs of
+ * lobbies this node owns, so a lobby is created where it will live without
+ * asking another node.
+ * </p>
+ *
+ * <p>
+ * Creating, joining, leaving, starting and listing lobbies emit a
+ * {@link LobbyEvent} for Flight Recorder.
+ * </p>
+ *
  * @author Google Gemini (Antigravity)
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.5
  */
 public class LobbyManager {
 
@@ -48,13 +83,60 @@ public class LobbyManager {
 
     private final Map<String, GameLobby> lobbies = new ConcurrentHashMap<>();
     private final Map<String, String> userToLobby = new ConcurrentHashMap<>();
+    private final AtomicLong nextSeq = new AtomicLong(1);
+    private final TimingWheel wheel;
+    private final long idleTimeoutMillis;
+    private final AtomicLong expired = new AtomicLong();
+    private volatile Predicate<String> localIdFilter = id -> true;
+
+    // Buckets are created on first use and kept: there are few games
+    private final Map<GameLobby.LobbyState, Bucket> byState = new EnumMap<>(GameLobby.LobbyState.class);
+    private final Map<IndexKey, Bucket> byGameAndState = new ConcurrentHashMap<>();
 
-    private LobbyManager() {
+    private record IndexKey(String gameId, GameLobby.LobbyState state) {
+    }
+
+    /**
+     * Lobbies of one index entry by creation order, with their count.
+     */
+    private static final class Bucket {
+        final ConcurrentSkipListMap<Long, GameLobby> lobbies = new ConcurrentSkipListMap<>();
+        final AtomicInteger size = new AtomicInteger();
+
+        void add(GameLobby lobby) {
+            if (lobbies.put(lobby.getSeq(), lobby) == null) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(GameLobby lobby) {
+            if (lobbies.remove(lobby.getSeq()) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Creates a manager.
+     *
+     * @param wheel             wheel of the idle timers
+     * @param idleTimeoutMillis idle time after which a waiting lobby is
+     *                          removed (0 = never)
+     */
+    LobbyManager(TimingWheel wheel, long idleTimeoutMillis) {
+        this.wheel = wheel;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        // Filled once here and only read afterwards, so an EnumMap is safe
+        for (GameLobby.LobbyState state : GameLobby.LobbyState.values()) {
+            byState.put(state, new Bucket());
+        }
     }
 
     public static synchronized LobbyManager getInstance() {
         if (instance == null) {
-            instance = new LobbyManager();
+            Properties props = PerformanceConfig.load();
+            instance = new LobbyManager(TimingWheel.shared(),
+                    Long.parseLong(props.getProperty("lobby.idleTimeoutMillis", "900000").trim()));
         }
         return instance;
     }
@@ -63,18 +145,39 @@ public class LobbyManager {
      * Creates a new lobby atomically.
      */
     public GameLobby createLobby(String gameId, String hostId, String name, int maxPlayers) {
+        LobbyEvent event = new LobbyEvent();
+        event.begin();
+        GameLobby lobby = create(gameId, hostId, name, maxPlayers);
+        commit(event, LobbyEvent.CREATE, lobby != null ? lobby.getId() : null, gameId, lobby != null);
+        return lobby;
+    }
+
+    private GameLobby create(String gameId, String hostId, String name, int maxPlayers) {
         // First check if user is already in a lobby
         if (userToLobby.containsKey(hostId)) {
             logger.warn("User {} already in a lobby", hostId);
             return null;
         }
 
-        String id = UUID.randomUUID().toString().substring(0, 8);
-        GameLobby lobby = new GameLobby(id, gameId, hostId, name, maxPlayers);
+        String id = newLobbyId();
+        if (id == null) {
+            logger.error("Could not find a lobby ID owned by this node");
+            return null;
+        }
+        GameLobby lobby = new GameLobby(id, gameId, hostId, name, maxPlayers, nextSeq.getAndIncrement());
 
         // Atomic put - only succeeds if key doesn't exist
-        GameLobby existing = lobbies.putIfAbsent(id, lobby);
-        if (existing != null) {
+        boolean[] created = { false };
+        lobbies.compute(id, (key, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            index(lobby);
+            touch(lobby);
+            created[0] = true;
+            return lobby;
+        });
+        if (!created[0]) {
             // Extremely rare UUID collision
             logger.error("Lobby ID collision: {}", id);
             return null;
@@ -85,6 +188,27 @@ public class LobbyManager {
         return lobby;
     }
 
+    /**
+     * Restricts new lobby IDs to those accepted by a filter, e.g. the IDs a
+     * cluster node owns.
+     *
+     * @param filter accepts the IDs this manager may create
+     */
+    public void setLocalIdFilter(Predicate<String> filter) {
+        this.localIdFilter = filter;
+    }
+
+    private String newLobbyId() {
+        // With n nodes, about n tries are needed
+        for (int attempt = 0; attempt < 1024; attempt++) {
+            String id = UUID.randomUUID().toString().substring(0, 8);
+            if (localIdFilter.test(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
     /**
      * Gets a lobby by ID.
      */
@@ -104,6 +228,14 @@ public class LobbyManager {
      * Joins a lobby atomically to prevent race conditions.
      */
     public boolean joinLobby(String lobbyId, String userId, String password) {
+        LobbyEvent event = new LobbyEvent();
+        event.begin();
+        boolean joined = join(lobbyId, userId, password);
+        commit(event, LobbyEvent.JOIN, lobbyId, null, joined);
+        return joined;
+    }
+
+    private boolean join(String lobbyId, String userId, String password) {
         // Check if user is already in a lobby
         if (userToLobby.containsKey(userId)) {
             logger.warn("User {} already in a lobby", userId);
@@ -122,6 +254,7 @@ public class LobbyManager {
             if (!lobby.addPlayer(userId)) {
                 return lobby; // Lobby full or other error
             }
+            touch(lobby);
             success[0] = true;
             return lobby;
         });
@@ -137,6 +270,8 @@ public class LobbyManager {
      * Leaves a lobby atomically.
      */
     public void leaveLobby(String userId) {
+        LobbyEvent event = new LobbyEvent();
+        event.begin();
         String lobbyId = userToLobby.remove(userId);
         if (lobbyId != null) {
             // Use compute for atomic check-and-remove
@@ -147,37 +282,93 @@ public class LobbyManager {
                 lobby.removePlayer(userId);
                 // Remove lobby if empty or host left
                 if (lobby.getPlayerCount() == 0 || userId.equals(lobby.getHostId())) {
+                    unindex(lobby, lobby.getState());
+                    cancelIdleTimer(lobby);
                     logger.info("Lobby {} removed (empty or host left)", lobbyId);
                     return null; // Remove from map
                 }
+                touch(lobby);
                 return lobby;
             });
         }
+        commit(event, LobbyEvent.LEAVE, lobbyId, null, lobbyId != null);
     }
 
     /**
      * Gets all waiting lobbies for a game.
      */
     public List<GameLobby> getLobbiesForGame(String gameId) {
-        return lobbies.values().stream()
-                .filter(l -> l.getGameId().equals(gameId))
-                .filter(l -> l.getState() == GameLobby.LobbyState.WAITING)
-                .collect(Collectors.toList());
+        Bucket bucket = bucket(gameId, GameLobby.LobbyState.WAITING);
+        return bucket != null ? new ArrayList<>(bucket.lobbies.values()) : new ArrayList<>();
     }
 
     /**
      * Gets all waiting lobbies.
      */
     public List<GameLobby> getAllWaitingLobbies() {
-        return lobbies.values().stream()
-                .filter(l -> l.getState() == GameLobby.LobbyState.WAITING)
-                .collect(Collectors.toList());
+        return new ArrayList<>(byState.get(GameLobby.LobbyState.WAITING).lobbies.values());
+    }
+
+    /**
+     * Lists lobbies one page at a time, oldest first.
+     *
+     * @param gameId game of the lobbies, or null for all games
+     * @param state  state of the lobbies
+     * @param cursor {@link LobbyPage#nextCursor()} of the previous page, or
+     *               null for the first page
+     * @param limit  maximum number of lobbies in the page
+     * @return the page
+     * @throws IllegalArgumentException if the limit is not positive or the
+     *                                  cursor is malformed
+     */
+    public LobbyPage listLobbies(String gameId, GameLobby.LobbyState state, String cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        long after = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = Long.parseLong(cursor, Character.MAX_RADIX);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        LobbyEvent event = new LobbyEvent();
+        event.begin();
+        Bucket bucket = bucket(gameId, state);
+        if (bucket == null) {
+            commit(event, LobbyEvent.LIST, null, gameId, true);
+            return new LobbyPage(List.of(), null, 0);
+        }
+        List<GameLobby> page = new ArrayList<>(Math.min(limit, 64));
+        Iterator<GameLobby> it = bucket.lobbies.tailMap(after, false).values().iterator();
+        while (page.size() < limit && it.hasNext()) {
+            page.add(it.next());
+        }
+        String next = it.hasNext() ? Long.toString(page.getLast().getSeq(), Character.MAX_RADIX) : null;
+        event.lobbies = page.size();
+        commit(event, LobbyEvent.LIST, null, gameId, true);
+        return new LobbyPage(page, next, bucket.size.get());
+    }
+
+    /**
+     * Counts lobbies in O(1).
+     *
+     * @param gameId game of the lobbies, or null for all games
+     * @param state  state of the lobbies
+     * @return number of matching lobbies
+     */
+    public int countLobbies(String gameId, GameLobby.LobbyState state) {
+        Bucket bucket = bucket(gameId, state);
+        return bucket != null ? bucket.size.get() : 0;
     }
 
     /**
      * Starts a lobby game atomically.
      */
     public boolean startLobby(String lobbyId, String userId) {
+        LobbyEvent event = new LobbyEvent();
+        event.begin();
         boolean[] success = { false };
         lobbies.compute(lobbyId, (id, lobby) -> {
             if (lobby == null) {
@@ -190,13 +381,128 @@ public class LobbyManager {
                 return lobby; // Cannot start yet
             }
             lobby.start();
+            reindex(lobby, GameLobby.LobbyState.WAITING);
+            cancelIdleTimer(lobby);
             success[0] = true;
             logger.info("Lobby {} started", lobbyId);
             return lobby;
         });
+        commit(event, LobbyEvent.START, lobbyId, null, success[0]);
         return success[0];
     }
 
+    /**
+     * Marks a started lobby as playing.
+     *
+     * @return false if the lobby does not exist
+     */
+    public boolean markInProgress(String lobbyId) {
+        return transition(lobbyId, GameLobby::setInProgress);
+    }
+
+    /**
+     * Marks a lobby's game as finished.
+     *
+     * @return false if the lobby does not exist
+     */
+    public boolean finishLobby(String lobbyId) {
+        return transition(lobbyId, GameLobby::finish);
+    }
+
+    private boolean transition(String lobbyId, Consumer<GameLobby> change) {
+        return lobbies.computeIfPresent(lobbyId, (id, lobby) -> {
+            GameLobby.LobbyState before = lobby.getState();
+            change.accept(lobby);
+            reindex(lobby, before);
+            return lobby;
+        }) != null;
+    }
+
+    private static void commit(LobbyEvent event, String operation, String lobbyId, String gameId, boolean success) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.lobbyId = lobbyId;
+            event.gameId = gameId;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    /**
+     * Restarts the idle timer of a waiting lobby. Called within compute().
+     */
+    private void touch(GameLobby lobby) {
+        cancelIdleTimer(lobby);
+        if (idleTimeoutMillis > 0 && lobby.getState() == GameLobby.LobbyState.WAITING) {
+            // The task needs its own handle to tell whether it is still the current timer
+            AtomicReference<Timeout> timer = new AtomicReference<>();
+            timer.set(wheel.schedule(() -> expire(lobby, timer.get()), idleTimeoutMillis, TimeUnit.MILLISECONDS));
+            lobby.idleTimer = timer.get();
+        }
+    }
+
+    private static void cancelIdleTimer(GameLobby lobby) {
+        if (lobby.idleTimer != null) {
+            lobby.idleTimer.cancel();
+            lobby.idleTimer = null;
+        }
+    }
+
+    /**
+     * Removes a lobby whose idle timer fired. Does nothing if the lobby was
+     * touched meanwhile: its timer fired just as it was being replaced.
+     */
+    private void expire(GameLobby expected, Timeout fired) {
+        List<String> players = new ArrayList<>();
+        lobbies.computeIfPresent(expected.getId(), (id, lobby) -> {
+            if (lobby != expected || lobby.idleTimer != fired || lobby.getState() != GameLobby.LobbyState.WAITING) {
+                return lobby;
+            }
+            unindex(lobby, lobby.getState());
+            lobby.idleTimer = null;
+            players.addAll(lobby.getPlayers());
+            return null;
+        });
+        if (!players.isEmpty()) {
+            players.forEach(userId -> userToLobby.remove(userId, expected.getId()));
+            expired.incrementAndGet();
+            logger.info("Lobby {} removed after being idle", expected.getId());
+        }
+    }
+
+    /**
+     * Gets the number of lobbies removed for being idle.
+     */
+    public long getExpiredCount() {
+        return expired.get();
+    }
+
+    private Bucket bucket(String gameId, GameLobby.LobbyState state) {
+        return gameId == null ? byState.get(state) : byGameAndState.get(new IndexKey(gameId, state));
+    }
+
+    private void index(GameLobby lobby) {
+        byState.get(lobby.getState()).add(lobby);
+        byGameAndState.computeIfAbsent(new IndexKey(lobby.getGameId(), lobby.getState()), k -> new Bucket())
+                .add(lobby);
+    }
+
+    private void unindex(GameLobby lobby, GameLobby.LobbyState state) {
+        byState.get(state).remove(lobby);
+        Bucket bucket = byGameAndState.get(new IndexKey(lobby.getGameId(), state));
+        if (bucket != null) {
+            bucket.remove(lobby);
+        }
+    }
+
+    private void reindex(GameLobby lobby, GameLobby.LobbyState before) {
+        if (lobby.getState() != before) {
+            unindex(lobby, before);
+            index(lobby);
+        }
+    }
+
     /**
      * Gets the total number of active lobbies.
      */
@@ -208,8 +514,14 @@ public class LobbyManager {
      * Clears all lobbies (for testing).
      */
     public void clearAll() {
+        lobbies.values().forEach(LobbyManager::cancelIdleTimer);
         lobbies.clear();
         userToLobby.clear();
+        byState.values().forEach(bucket -> {
+            bucket.lobbies.clear();
+            bucket.size.set(0);
+        });
+        byGameAndState.clear();
         logger.info("All lobbies cleared");
     }
 }
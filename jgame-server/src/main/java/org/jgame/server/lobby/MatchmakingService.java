@@ -0,0 +1,424 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.lobby;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.PerformanceConfig;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Automatic matchmaking by rating.
+ *
+ * <p>
+ * Players queue for a game type with their rating. On each tick, the
+ * queue of every game is kept sorted by rating and scanned once: each run
+ * of consecutive players large enough for a match is matched when the
+ * rating spread fits the band of every player in it. A player's band starts
+ * at {@code initialBand} and widens by {@code bandGrowthPerSecond} while
+ * they wait, up to {@code maxBand}, so players with unusual ratings are
+ * still matched after a while. The sorted queue acts as a set of rating
+ * buckets as narrow as the ratings allow, and a tick costs O(n) for n
+ * waiting players plus O(m log m) to sort the m that arrived since the
+ * last tick.
+ * </p>
+ *
+ * <p>
+ * Players are queued from any thread; matching runs on a single thread,
+ * which owns the sorted queues and needs no locks. Each match becomes a
+ * lobby of the {@link LobbyManager}, created by the first player, joined
+ * by the others and started.
+ * </p>
+ *
+ * <p>
+ * The server does not run this service yet: it has no lobby routes through
+ * which matched players would find their lobby, and no per-player skill
+ * rating to queue them with. It is started from {@link #fromConfig} once
+ * those exist.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.1
+ */
+public class MatchmakingService implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(MatchmakingService.class);
+    private static final Comparator<Ticket> BY_RATING = Comparator.comparingInt(t -> t.rating);
+
+    /**
+     * A match that was turned into a started lobby.
+     *
+     * @param gameId       game type
+     * @param lobbyId      the lobby
+     * @param userIds      matched players, the first one hosting
+     * @param maxWaitNanos longest time a matched player waited
+     */
+    public record Match(String gameId, String lobbyId, List<String> userIds, long maxWaitNanos) {
+    }
+
+    private static final class Ticket {
+        final String userId;
+        final String gameId;
+        final int rating;
+        final long queuedAt;
+        volatile boolean cancelled;
+
+        Ticket(String userId, String gameId, int rating, long queuedAt) {
+            this.userId = userId;
+            this.gameId = gameId;
+            this.rating = rating;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    /**
+     * Queue of one game type.
+     */
+    private final class GameQueue {
+        final String gameId;
+        final ConcurrentLinkedQueue<Ticket> arrived = new ConcurrentLinkedQueue<>();
+        // Owned by the matching thread
+        List<Ticket> waiting = new ArrayList<>();
+
+        GameQueue(String gameId) {
+            this.gameId = gameId;
+        }
+
+        void match(long now) {
+            List<Ticket> incoming = new ArrayList<>();
+            for (Ticket ticket; (ticket = arrived.poll()) != null;) {
+                if (!ticket.cancelled) {
+                    incoming.add(ticket);
+                }
+            }
+            incoming.sort(BY_RATING);
+            List<Ticket> sorted = merge(waiting, incoming);
+
+            int size = getPlayersPerMatch(gameId);
+            List<Ticket> rest = new ArrayList<>(sorted.size());
+            int i = 0;
+            while (i + size <= sorted.size()) {
+                int spread = sorted.get(i + size - 1).rating - sorted.get(i).rating;
+                if (spread <= band(sorted, i, size, now)) {
+                    form(gameId, sorted.subList(i, i + size), now);
+                    i += size;
+                } else {
+                    rest.add(sorted.get(i));
+                    i++;
+                }
+            }
+            rest.addAll(sorted.subList(i, sorted.size()));
+            waiting = rest;
+        }
+
+        /**
+         * Merges two lists sorted by rating, dropping cancelled tickets.
+         */
+        private List<Ticket> merge(List<Ticket> a, List<Ticket> b) {
+            List<Ticket> merged = new ArrayList<>(a.size() + b.size());
+            int i = 0;
+            int j = 0;
+            while (i < a.size() || j < b.size()) {
+                Ticket next = j >= b.size() || (i < a.size() && a.get(i).rating <= b.get(j).rating)
+                        ? a.get(i++) : b.get(j++);
+                if (!next.cancelled) {
+                    merged.add(next);
+                }
+            }
+            return merged;
+        }
+
+        /**
+         * Gets the narrowest band among players, i.e. the largest spread
+         * all of them accept.
+         */
+        private int band(List<Ticket> sorted, int from, int size, long now) {
+            int band = maxBand;
+            for (int k = from; k < from + size; k++) {
+                long waitedMillis = TimeUnit.NANOSECONDS.toMillis(now - sorted.get(k).queuedAt);
+                long widened = initialBand + bandGrowthPerSecond * waitedMillis / 1000;
+                band = (int) Math.min(band, widened);
+            }
+            return band;
+        }
+    }
+
+    private final LobbyManager lobbyManager;
+    private final int defaultPlayersPerMatch;
+    private final int initialBand;
+    private final int bandGrowthPerSecond;
+    private final int maxBand;
+    private final LongSupplier clock;
+    private final Map<String, GameQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Map<String, Integer> playersPerMatch = new ConcurrentHashMap<>();
+    private final List<Consumer<Match>> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService ticker;
+
+    private final AtomicLong matches = new AtomicLong();
+    private final AtomicLong playersMatched = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong failedMatches = new AtomicLong();
+
+    /**
+     * Creates a service; {@link #start(long)} runs the matching ticks.
+     *
+     * @param lobbyManager           lobbies of the matches
+     * @param defaultPlayersPerMatch players per match unless set per game
+     * @param initialBand            largest rating spread accepted at once
+     * @param bandGrowthPerSecond    widening of the band per second waited
+     * @param maxBand                widest band
+     * @param clock                  time source, in nanoseconds
+     */
+    MatchmakingService(LobbyManager lobbyManager, int defaultPlayersPerMatch, int initialBand,
+            int bandGrowthPerSecond, int maxBand, LongSupplier clock) {
+        if (defaultPlayersPerMatch < 2) {
+            throw new IllegalArgumentException("A match needs at least 2 players");
+        }
+        this.lobbyManager = lobbyManager;
+        this.defaultPlayersPerMatch = defaultPlayersPerMatch;
+        this.initialBand = initialBand;
+        this.bandGrowthPerSecond = bandGrowthPerSecond;
+        this.maxBand = maxBand;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates and starts a service configured from
+     * {@code performance.properties}.
+     *
+     * @param lobbyManager lobbies of the matches
+     * @return the running service
+     */
+    public static MatchmakingService fromConfig(LobbyManager lobbyManager) {
+        Properties props = PerformanceConfig.load();
+        MatchmakingService service = new MatchmakingService(lobbyManager,
+                Integer.parseInt(props.getProperty("matchmaking.playersPerMatch", "2").trim()),
+                Integer.parseInt(props.getProperty("matchmaking.initialBand", "50").trim()),
+                Integer.parseInt(props.getProperty("matchmaking.bandGrowthPerSecond", "50").trim()),
+                Integer.parseInt(props.getProperty("matchmaking.maxBand", "600").trim()),
+                System::nanoTime);
+        service.start(Long.parseLong(props.getProperty("matchmaking.tickMillis", "200").trim()));
+        return service;
+    }
+
+    /**
+     * Starts matching on a background thread.
+     *
+     * @param tickMillis time between two matching passes
+     */
+    public synchronized void start(long tickMillis) {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jgame-matchmaker");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                logger.error("Matchmaking tick failed", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets the number of players per match of a game type.
+     */
+    public void setPlayersPerMatch(String gameId, int players) {
+        if (players < 2) {
+            throw new IllegalArgumentException("A match needs at least 2 players");
+        }
+        playersPerMatch.put(gameId, players);
+    }
+
+    private int getPlayersPerMatch(String gameId) {
+        return playersPerMatch.getOrDefault(gameId, defaultPlayersPerMatch);
+    }
+
+    /**
+     * Adds a listener told of every match formed, on the matching thread.
+     */
+    public void addMatchListener(Consumer<Match> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Queues a player.
+     *
+     * @param userId the player
+     * @param gameId game type
+     * @param rating the player's rating
+     * @return false if the player is already queued or in a lobby
+     */
+    public boolean enqueue(String userId, String gameId, int rating) {
+        if (lobbyManager.getUserLobby(userId).isPresent()) {
+            return false;
+        }
+        Ticket ticket = new Ticket(userId, gameId, rating, clock.getAsLong());
+        if (tickets.putIfAbsent(userId, ticket) != null) {
+            return false;
+        }
+        queues.computeIfAbsent(gameId, GameQueue::new).arrived.add(ticket);
+        return true;
+    }
+
+    /**
+     * Takes a player out of the queue.
+     *
+     * @param userId the player
+     * @return false if the player was not queued
+     */
+    public boolean cancel(String userId) {
+        Ticket ticket = tickets.remove(userId);
+        if (ticket == null) {
+            return false;
+        }
+        ticket.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Tells whether a player is waiting for a match.
+     */
+    public boolean isQueued(String userId) {
+        return tickets.containsKey(userId);
+    }
+
+    /**
+     * Gets the number of players waiting for a match.
+     */
+    public int getQueuedCount() {
+        return tickets.size();
+    }
+
+    /**
+     * Runs one matching pass over every game. Called by the background
+     * thread; only one pass may run at a time.
+     */
+    void tick() {
+        long now = clock.getAsLong();
+        for (GameQueue queue : queues.values()) {
+            queue.match(now);
+        }
+    }
+
+    private void form(String gameId, List<Ticket> group, long now) {
+        if (group.stream().anyMatch(t -> t.cancelled)) {
+            // Cancelled during this pass: the others wait for the next one
+            group.stream().filter(t -> !t.cancelled).forEach(queues.get(gameId).arrived::add);
+            return;
+        }
+        Ticket host = group.getFirst();
+        GameLobby lobby = lobbyManager.createLobby(gameId, host.userId, "Match " + (matches.get() + 1),
+                group.size());
+        List<Ticket> joined = new ArrayList<>(group.size());
+        Ticket failed = lobby == null ? host : null;
+        if (lobby != null) {
+            joined.add(host);
+            for (Ticket ticket : group.subList(1, group.size())) {
+                if (!lobbyManager.joinLobby(lobby.getId(), ticket.userId, null)) {
+                    failed = ticket;
+                    break;
+                }
+                joined.add(ticket);
+            }
+        }
+        if (failed != null) {
+            // The player is in another lobby: drop them and queue the others again
+            failedMatches.incrementAndGet();
+            for (int k = joined.size() - 1; k >= 0; k--) {
+                lobbyManager.leaveLobby(joined.get(k).userId);
+            }
+            tickets.remove(failed.userId, failed);
+            for (Ticket ticket : group) {
+                if (ticket != failed) {
+                    queues.get(gameId).arrived.add(ticket);
+                }
+            }
+            return;
+        }
+        lobbyManager.startLobby(lobby.getId(), host.userId);
+
+        List<String> userIds = new ArrayList<>(group.size());
+        long longestWait = 0;
+        for (Ticket ticket : group) {
+            tickets.remove(ticket.userId, ticket);
+            userIds.add(ticket.userId);
+            long wait = now - ticket.queuedAt;
+            longestWait = Math.max(longestWait, wait);
+            totalWaitNanos.addAndGet(wait);
+        }
+        matches.incrementAndGet();
+        playersMatched.addAndGet(group.size());
+        maxWaitNanos.accumulateAndGet(longestWait, Math::max);
+
+        Match match = new Match(gameId, lobby.getId(), List.copyOf(userIds), longestWait);
+        for (Consumer<Match> listener : listeners) {
+            try {
+                listener.accept(match);
+            } catch (RuntimeException e) {
+                logger.warn("Match listener error: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops matching. Queued players stay queued but are no longer matched.
+     */
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+        logger.info("Matchmaking stopped: {}", getStats());
+    }
+
+    /**
+     * Gets matchmaking statistics for logging.
+     */
+    public String getStats() {
+        long matched = playersMatched.get();
+        return String.format(
+                "Matchmaking [queued=%d, matches=%d, players=%d, failed=%d, avgWait=%dms, maxWait=%dms]",
+                getQueuedCount(), matches.get(), matched, failedMatches.get(),
+                matched == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / matched),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+}
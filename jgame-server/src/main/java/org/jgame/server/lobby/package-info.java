@@ -30,6 +30,8 @@
  * <ul>
  * <li>{@link org.jgame.server.lobby.GameLobby} - Lobby state</li>
  * <li>{@link org.jgame.server.lobby.LobbyManager} - Lobby lifecycle</li>
+ * <li>{@link org.jgame.server.lobby.LobbyPage} - Paginated lobby listing</li>
+ * <li>{@link org.jgame.server.lobby.MatchmakingService} - Rating-based matchmaking</li>
  * </ul>
  *
  * @author Google Gemini (Antigravity)
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ *
+ * <p>
+ * Values are recorded in microseconds. Each power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so any value is known to within
+ * about 6% up to {@code 2^40} µs, in 592 counters. Recording is an index
+ * computation and one atomic increment; nothing is allocated.
+ * </p>
+ *
+ * <p>
+ * Prometheus buckets are rendered at powers of two, which fall on sub-bucket
+ * boundaries, so the cumulative counts are exact.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    /** Smallest and largest rendered bucket bounds, as powers of two µs (128 µs to ~16.8 s). */
+    private static final int FIRST_RENDERED_POWER = 7;
+    private static final int LAST_RENDERED_POWER = 24;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_VALUE) + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value.
+     *
+     * @param micros the value in microseconds; negative values count as 0
+     */
+    public void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of recorded values in microseconds.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets the largest recorded value in microseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets a quantile of the recorded values.
+     *
+     * @param quantile between 0 and 1
+     * @return the highest value of the bucket holding the quantile, in
+     *         microseconds, or 0 when nothing was recorded
+     */
+    public long getValueAtQuantile(double quantile) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(lowerBound(i + 1) - 1, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Appends this histogram as Prometheus {@code _bucket}, {@code _sum} and
+     * {@code _count} samples, in seconds.
+     *
+     * @param out    the exposition being written
+     * @param name   metric family name
+     * @param labels rendered labels without braces, possibly empty
+     */
+    void render(StringBuilder out, String name, String labels) {
+        String separator = labels.isEmpty() ? "" : ",";
+        long cumulative = 0;
+        int index = 0;
+        for (int power = FIRST_RENDERED_POWER; power <= LAST_RENDERED_POWER; power++) {
+            int end = indexOf(1L << power);
+            for (; index < end; index++) {
+                cumulative += counts.get(index);
+            }
+            out.append(name).append("_bucket{").append(labels).append(separator).append("le=\"")
+                    .append(MetricsRegistry.formatDouble((1L << power) / 1e6)).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        // read the count last so the +Inf bucket is never below a finite one
+        long total = Math.max(cumulative, count.sum());
+        out.append(name).append("_bucket{").append(labels).append(separator).append("le=\"+Inf\"} ")
+                .append(total).append('\n');
+        String braced = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(braced).append(' ')
+                .append(MetricsRegistry.formatDouble(sum.sum() / 1e6)).append('\n');
+        out.append(name).append("_count").append(braced).append(' ').append(total).append('\n');
+    }
+
+    /**
+     * Gets histogram statistics for logging.
+     */
+    public String getStats() {
+        return String.format("Latency [count=%d, p50=%dus, p99=%dus, max=%dus]",
+                getCount(), getValueAtQuantile(0.5), getValueAtQuantile(0.99), getMax());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + (int) ((value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BITS);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Named metrics rendered in the Prometheus text exposition format.
+ *
+ * <p>
+ * A metric family is a name, a help line and a type; each labelled series
+ * in it is a {@link LongAdder} counter, a {@link LatencyHistogram}, or a
+ * supplier read at scrape time (gauges, and counters kept elsewhere).
+ * Looking up an existing series is a map read, but callers on hot paths
+ * should keep the returned object rather than look it up per event.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public final class MetricsRegistry {
+
+    /** Content type of {@link #render()}. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private enum Type {
+        COUNTER("counter"), GAUGE("gauge"), HISTOGRAM("histogram");
+
+        private final String text;
+
+        Type(String text) {
+            this.text = text;
+        }
+    }
+
+    private record Family(String help, Type type, Map<String, Object> series) {
+    }
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * Gets or creates a counter.
+     *
+     * @param name   metric name, ending in {@code _total}
+     * @param help   description
+     * @param labels alternating label names and values
+     * @return the counter to increment
+     */
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, Type.COUNTER).series()
+                .computeIfAbsent(labels(labels), k -> new LongAdder());
+    }
+
+    /**
+     * Registers a counter whose value is kept elsewhere, read at scrape time.
+     *
+     * @param name   metric name, ending in {@code _total}
+     * @param help   description
+     * @param value  supplies the current total
+     * @param labels alternating label names and values
+     */
+    public void counter(String name, String help, Supplier<? extends Number> value, String... labels) {
+        family(name, help, Type.COUNTER).series().put(labels(labels), value);
+    }
+
+    /**
+     * Registers a gauge, read at scrape time.
+     *
+     * @param name   metric name
+     * @param help   description
+     * @param value  supplies the current value
+     * @param labels alternating label names and values
+     */
+    public void gauge(String name, String help, Supplier<? extends Number> value, String... labels) {
+        family(name, help, Type.GAUGE).series().put(labels(labels), value);
+    }
+
+    /**
+     * Gets or creates a latency histogram, rendered in seconds.
+     *
+     * @param name   metric name, ending in {@code _seconds}
+     * @param help   description
+     * @param labels alternating label names and values
+     * @return the histogram to record into
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.HISTOGRAM).series()
+                .computeIfAbsent(labels(labels), k -> new LatencyHistogram());
+    }
+
+    /**
+     * Renders every metric, families sorted by name.
+     *
+     * @return the Prometheus text exposition
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder(4096);
+        families.forEach((name, family) -> {
+            out.append("# HELP ").append(name).append(' ').append(escapeHelp(family.help())).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type().text).append('\n');
+            new ConcurrentSkipListMap<>(family.series()).forEach((labels, metric) -> {
+                if (metric instanceof LatencyHistogram histogram) {
+                    histogram.render(out, name, labels);
+                    return;
+                }
+                Number value = metric instanceof LongAdder adder ? adder.sum() : sample(metric);
+                out.append(name);
+                if (!labels.isEmpty()) {
+                    out.append('{').append(labels).append('}');
+                }
+                out.append(' ').append(value instanceof Double || value instanceof Float
+                        ? formatDouble(value.doubleValue()) : String.valueOf(value.longValue())).append('\n');
+            });
+        });
+        return out.toString();
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, k -> new Family(help, type, new ConcurrentHashMap<>()));
+        if (family.type() != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already a " + family.type().text);
+        }
+        return family;
+    }
+
+    private static Number sample(Object supplier) {
+        try {
+            return ((Supplier<?>) supplier).get() instanceof Number value ? value : Double.NaN;
+        } catch (RuntimeException e) {
+            // a failing gauge must not break the whole scrape
+            return Double.NaN;
+        }
+    }
+
+    private static String labels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escapeLabel(labels[i + 1])).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    static String formatDouble(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.metrics;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.ai.SearchStats;
+import org.jgame.server.chat.ChatManager;
+import org.jgame.server.lobby.GameLobby;
+import org.jgame.server.lobby.LobbyManager;
+import org.jgame.server.persistence.DatabaseManager;
+import org.jgame.server.persistence.GameStateManager;
+import org.jgame.server.persistence.LookupCache;
+import org.jgame.server.persistence.WriteBehindQueue;
+import org.jgame.server.timer.TimingWheel;
+import org.jgame.server.PerformanceConfig;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Server metrics: per-route request latency and counts, plus gauges of the
+ * connection pool, lobbies, chat, game sessions, timers and AI searches.
+ *
+ * <p>
+ * {@link #recordRequest} is meant for Javalin's request logger, which runs
+ * after every request. Routes are labelled by their path template
+ * ({@code /api/games/{gameId}}), not the request path, so the number of
+ * series stays bounded; requests matching no route share the
+ * {@value #UNMATCHED} label. As a {@link Handler} this serves the registry
+ * in the Prometheus text format.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.2
+ */
+public class ServerMetrics implements Handler {
+
+    private static final Logger logger = LogManager.getLogger(ServerMetrics.class);
+
+    static final String UNMATCHED = "unmatched";
+
+    private record RouteMetrics(LatencyHistogram latency, LongAdder[] byStatusClass, LongAdder errors) {
+    }
+
+    private final MetricsRegistry registry;
+    private final Map<HandlerType, Map<String, RouteMetrics>> routes = new EnumMap<>(HandlerType.class);
+
+    /**
+     * Creates server metrics recording into a registry.
+     *
+     * @param registry where metrics are kept and rendered from
+     */
+    public ServerMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+        for (HandlerType type : HandlerType.values()) {
+            routes.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Creates server metrics as configured by {@code metrics.enabled} in
+     * {@code performance.properties}.
+     *
+     * @return the metrics, or null when disabled
+     */
+    public static ServerMetrics fromConfig() {
+        Properties props = PerformanceConfig.load();
+        if (!Boolean.parseBoolean(props.getProperty("metrics.enabled", "true").trim())) {
+            return null;
+        }
+        return new ServerMetrics(new MetricsRegistry());
+    }
+
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Records a finished request.
+     *
+     * @param ctx    the request
+     * @param millis time taken to handle it
+     */
+    public void recordRequest(Context ctx, float millis) {
+        RouteMetrics route = routes.get(ctx.method()).computeIfAbsent(routeOf(ctx),
+                path -> register(ctx.method().name(), path));
+        route.latency().record((long) (millis * 1000));
+        int status = ctx.statusCode();
+        int statusClass = status / 100;
+        if (statusClass >= 1 && statusClass <= 5) {
+            route.byStatusClass()[statusClass - 1].increment();
+        }
+        if (status >= 500) {
+            route.errors().increment();
+        }
+    }
+
+    private RouteMetrics register(String method, String path) {
+        LongAdder[] byStatusClass = new LongAdder[5];
+        for (int i = 0; i < byStatusClass.length; i++) {
+            byStatusClass[i] = registry.counter("jgame_http_requests_total", "HTTP requests by route and status class",
+                    "method", method, "route", path, "status", (i + 1) + "xx");
+        }
+        return new RouteMetrics(
+                registry.histogram("jgame_http_request_duration_seconds", "HTTP request latency by route",
+                        "method", method, "route", path),
+                byStatusClass,
+                registry.counter("jgame_http_errors_total", "HTTP requests answered with a 5xx status",
+                        "method", method, "route", path));
+    }
+
+    private static String routeOf(Context ctx) {
+        // a request stopped by a before-handler has no endpoint
+        String route = ctx.handlerType() == HandlerType.BEFORE ? ctx.matchedPath() : ctx.endpointHandlerPath();
+        return route == null || route.isEmpty() ? UNMATCHED : route;
+    }
+
+    /**
+     * Registers gauges of the server's shared components.
+     *
+     * @param db the server's database
+     */
+    public void bindServer(DatabaseManager db) {
+        registry.gauge("jgame_db_pool_connections", "Pooled database connections by state",
+                db::getActiveConnections, "state", "active");
+        registry.gauge("jgame_db_pool_connections", "Pooled database connections by state",
+                db::getIdleConnections, "state", "idle");
+        registry.gauge("jgame_db_pool_connections", "Pooled database connections by state",
+                db::getTotalConnections, "state", "total");
+        registry.gauge("jgame_db_pool_max_connections", "Maximum database pool size", db::getMaxPoolSize);
+        registry.gauge("jgame_db_pool_pending_threads", "Threads waiting for a database connection",
+                db::getThreadsAwaitingConnection);
+
+        LobbyManager lobbies = LobbyManager.getInstance();
+        for (GameLobby.LobbyState state : GameLobby.LobbyState.values()) {
+            registry.gauge("jgame_lobbies", "Lobbies by state", () -> lobbies.countLobbies(null, state),
+                    "state", state.name().toLowerCase());
+        }
+        registry.counter("jgame_lobbies_expired_total", "Lobbies removed for being idle", lobbies::getExpiredCount);
+
+        ChatManager chat = ChatManager.getInstance();
+        registry.gauge("jgame_chat_subscribers", "Open chat subscriptions", chat::getSubscriberCount);
+        registry.gauge("jgame_chat_queued_messages", "Chat messages waiting to be delivered",
+                () -> chat.getQueueDepths().values().stream().mapToInt(Integer::intValue).sum());
+
+        registry.gauge("jgame_game_sessions", "Game sessions by location",
+                GameStateManager::getCachedSessionCount, "location", "memory");
+        registry.gauge("jgame_game_sessions", "Game sessions by location",
+                GameStateManager::getHibernatedSessionCount, "location", "hibernated");
+        registry.counter("jgame_game_session_cache_hits_total", "Game session cache hits",
+                () -> GameStateManager.getSessionCache().getHitCount());
+        registry.counter("jgame_game_session_cache_misses_total", "Game session cache misses",
+                () -> GameStateManager.getSessionCache().getMissCount());
+
+        TimingWheel timers = TimingWheel.shared();
+        registry.gauge("jgame_timers_pending", "Timers scheduled on the shared timing wheel", timers::getPendingCount);
+
+        SearchStats ai = SearchStats.global();
+        registry.counter("jgame_ai_searches_total", "AI move searches", ai::getSearchCount);
+        registry.counter("jgame_ai_nodes_total", "Positions visited by AI searches", ai::getNodeCount);
+        registry.counter("jgame_ai_search_seconds_total", "Time spent in AI searches",
+                () -> ai.getSearchNanos() / 1e9);
+        registry.gauge("jgame_ai_nodes_per_second", "Node rate of the latest AI search",
+                ai::getLastNodesPerSecond);
+        registry.gauge("jgame_ai_search_depth", "Depth of the latest AI search", ai::getLastDepth);
+    }
+
+    /**
+     * Registers the counters of DAO lookup caches, labelled by cache name.
+     *
+     * @param caches current stats of each cache, always in the same order
+     */
+    public void bindCaches(Supplier<List<LookupCache.Stats>> caches) {
+        List<LookupCache.Stats> initial = caches.get();
+        for (int i = 0; i < initial.size(); i++) {
+            int index = i;
+            String name = initial.get(i).name();
+            registry.gauge("jgame_cache_entries", "Entries held by a lookup cache",
+                    () -> caches.get().get(index).size(), "cache", name);
+            registry.counter("jgame_cache_hits_total", "Lookups served from a cache",
+                    () -> caches.get().get(index).hits(), "cache", name);
+            registry.counter("jgame_cache_misses_total", "Lookups that went to the database",
+                    () -> caches.get().get(index).misses(), "cache", name);
+            registry.counter("jgame_cache_evictions_total", "Entries dropped or rejected to stay within size",
+                    () -> caches.get().get(index).evictions(), "cache", name);
+        }
+    }
+
+    /**
+     * Registers gauges of the write-behind queue.
+     *
+     * @param queue the server's write-behind queue
+     */
+    public void bindWriteBehind(WriteBehindQueue queue) {
+        registry.gauge("jgame_writebehind_queue_depth", "Writes waiting to be flushed", queue::getQueueDepth);
+        registry.gauge("jgame_writebehind_flush_lag_seconds", "Wait of the oldest write of the last flush",
+                () -> queue.getFlushLagMillis() / 1e3);
+        registry.gauge("jgame_writebehind_flush_lag_max_seconds", "Longest flush lag seen",
+                () -> queue.getMaxFlushLagMillis() / 1e3);
+        registry.counter("jgame_writebehind_coalesced_total", "Writes merged into a newer write of the same key",
+                queue::getCoalescedCount);
+        registry.counter("jgame_writebehind_failed_total", "Writes rejected by the database",
+                queue::getFailedCount);
+    }
+
+    /**
+     * Serves the metrics in the Prometheus text format.
+     */
+    @Override
+    public void handle(Context ctx) {
+        ctx.contentType(MetricsRegistry.CONTENT_TYPE).result(registry.render());
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+/**
+ * Metrics of the JGame server.
+ *
+ * <p>
+ * Request latency, counters and gauges, served on {@code /metrics} in the
+ * Prometheus text exposition format:
+ * </p>
+ * <ul>
+ * <li>{@link org.jgame.server.metrics.MetricsRegistry} - Named counters, gauges and histograms</li>
+ * <li>{@link org.jgame.server.metrics.LatencyHistogram} - Lock-free log-linear latency histogram</li>
+ * <li>{@link org.jgame.server.metrics.ServerMetrics} - Per-route request metrics and server gauges</li>
+ * </ul>
+ *
+ * @author Silvere Martin-Michiellot
+ * @since 1.0
+ */
+package org.jgame.server.metrics;
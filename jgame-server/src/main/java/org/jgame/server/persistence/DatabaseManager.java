@@ -2,6 +2,9 @@ package org.jgame.server.persistence;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.jgame.server.jfr.JdbcEvents;
+import org.jgame.server.PerformanceConfig;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -28,7 +31,7 @@ import java.util.stream.Collectors;
  * </p>
  * 
  * @author Silvere Martin-Michiellot
- * @version 3.1
+ * @version 3.4
  */
 public class DatabaseManager {
 
@@ -44,6 +47,7 @@ public class DatabaseManager {
 
     private HikariDataSource dataSource;
     private boolean initialized = false;
+    private boolean virtualThreads = false;
 
     // Private constructor for Singleton
     private DatabaseManager() {
@@ -66,6 +70,27 @@ public class DatabaseManager {
         return instance;
     }
 
+    /**
+     * Tells the pool whether callers run on virtual threads.
+     * Must be called before {@link #initialize()} to take effect.
+     *
+     * <p>
+     * Virtual threads make blocking cheap, so thousands of requests can reach
+     * the pool at once. In that mode the pool is kept at a fixed size and
+     * callers give up sooner instead of queueing for the full platform
+     * timeout.
+     * </p>
+     *
+     * @param virtualThreads true if request handlers run on virtual threads
+     */
+    public synchronized void setVirtualThreads(boolean virtualThreads) {
+        if (initialized) {
+            LOGGER.warning("Thread mode changed after pool creation, ignored");
+            return;
+        }
+        this.virtualThreads = virtualThreads;
+    }
+
     /**
      * Initializes the database connection pool and schema.
      * Safe to call multiple times - will only initialize once.
@@ -91,7 +116,7 @@ public class DatabaseManager {
                     (System.getenv("JGAME_DB_URL") != null ? "environment" : "config/default") + ")");
 
             // Load performance properties
-            Properties perfProps = loadPerformanceProperties();
+            Properties perfProps = PerformanceConfig.load();
 
             // Configure HikariCP
             HikariConfig config = new HikariConfig();
@@ -110,6 +135,7 @@ public class DatabaseManager {
                     perfProps.getProperty("hikaricp.idleTimeout", "600000")));
             config.setMaxLifetime(Long.parseLong(
                     perfProps.getProperty("hikaricp.maxLifetime", "1800000")));
+            applyVirtualThreadLimits(config, perfProps);
 
             // Pool name for logging
             config.setPoolName("JGamePool");
@@ -131,13 +157,28 @@ public class DatabaseManager {
 
         } catch (ClassNotFoundException e) {
             throw new SQLException("H2 Driver not found", e);
-        } catch (IOException e) {
-            LOGGER.warning("Could not load performance.properties, using defaults");
-            // Initialize with defaults if properties file missing
-            initializeWithDefaults();
         }
     }
 
+    /**
+     * Bounds the pool for virtual-thread callers: fixed size so a burst does not
+     * trigger a connection-creation storm, and a short borrow timeout so excess
+     * requests fail fast instead of parking for the full platform timeout.
+     */
+    private void applyVirtualThreadLimits(HikariConfig config, Properties perfProps) {
+        if (!virtualThreads) {
+            return;
+        }
+        int poolSize = Integer.parseInt(perfProps.getProperty(
+                "hikaricp.virtual.maximumPoolSize", String.valueOf(config.getMaximumPoolSize())));
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(Long.parseLong(
+                perfProps.getProperty("hikaricp.virtual.connectionTimeout", "5000")));
+        LOGGER.info("Virtual-thread pool limits: size=" + poolSize
+                + ", connectionTimeout=" + config.getConnectionTimeout() + "ms");
+    }
+
     /**
      * Gets configuration value from environment variable, properties, or default.
      */
@@ -174,36 +215,6 @@ public class DatabaseManager {
         return props;
     }
 
-    /**
-     * Loads performance properties from file.
-     */
-    private Properties loadPerformanceProperties() throws IOException {
-        Properties props = new Properties();
-        try (InputStream is = DatabaseManager.class.getResourceAsStream("/performance.properties")) {
-            if (is != null) {
-                props.load(is);
-            }
-        }
-        return props;
-    }
-
-    /**
-     * Initialize with default settings if properties file not found.
-     */
-    private void initializeWithDefaults() throws SQLException {
-        HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(getConfig("JGAME_DB_URL", "db.url", DEFAULT_URL));
-        config.setUsername(getConfig("JGAME_DB_USER", "db.user", DEFAULT_USER));
-        config.setPassword(getConfig("JGAME_DB_PASSWORD", "db.password", DEFAULT_PASSWORD));
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(5);
-        config.setPoolName("JGamePool");
-
-        dataSource = new HikariDataSource(config);
-        executeSchema();
-        initialized = true;
-    }
-
     /**
      * Executes the schema.sql file to create tables.
      */
@@ -237,7 +248,9 @@ public class DatabaseManager {
 
     /**
      * Gets a database connection from the pool.
-     * Initializes the database if not already done.
+     * Initializes the database if not already done. While a Flight Recorder
+     * recording enables {@code org.jgame.DaoCall}, statements run on the
+     * connection emit events.
      * 
      * @return pooled database connection
      * @throws SQLException if connection cannot be established
@@ -251,7 +264,7 @@ public class DatabaseManager {
             throw new SQLException("DataSource is not available");
         }
 
-        return dataSource.getConnection();
+        return JdbcEvents.instrument(dataSource.getConnection());
     }
 
     /**
@@ -281,16 +294,58 @@ public class DatabaseManager {
      * @return formatted pool statistics string
      */
     public String getPoolStats() {
-        if (dataSource != null && !dataSource.isClosed()) {
+        if (poolBean() != null) {
             return String.format("Pool[active=%d, idle=%d, total=%d, waiting=%d]",
-                    dataSource.getHikariPoolMXBean().getActiveConnections(),
-                    dataSource.getHikariPoolMXBean().getIdleConnections(),
-                    dataSource.getHikariPoolMXBean().getTotalConnections(),
-                    dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection());
+                    getActiveConnections(), getIdleConnections(), getTotalConnections(),
+                    getThreadsAwaitingConnection());
         }
         return "Pool[not initialized]";
     }
 
+    /**
+     * Gets the number of connections in use, or 0 before initialization.
+     */
+    public int getActiveConnections() {
+        HikariPoolMXBean pool = poolBean();
+        return pool != null ? pool.getActiveConnections() : 0;
+    }
+
+    /**
+     * Gets the number of idle pooled connections, or 0 before initialization.
+     */
+    public int getIdleConnections() {
+        HikariPoolMXBean pool = poolBean();
+        return pool != null ? pool.getIdleConnections() : 0;
+    }
+
+    /**
+     * Gets the number of pooled connections, or 0 before initialization.
+     */
+    public int getTotalConnections() {
+        HikariPoolMXBean pool = poolBean();
+        return pool != null ? pool.getTotalConnections() : 0;
+    }
+
+    /**
+     * Gets the number of threads waiting for a connection, or 0 before initialization.
+     */
+    public int getThreadsAwaitingConnection() {
+        HikariPoolMXBean pool = poolBean();
+        return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+    }
+
+    /**
+     * Gets the configured maximum pool size, or 0 before initialization.
+     */
+    public int getMaxPoolSize() {
+        return dataSource != null ? dataSource.getMaximumPoolSize() : 0;
+    }
+
+    private HikariPoolMXBean poolBean() {
+        HikariDataSource ds = dataSource;
+        return ds != null && !ds.isClosed() ? ds.getHikariPoolMXBean() : null;
+    }
+
     // --- Static Delegates for Backward Compatibility ---
 
 }
@@ -0,0 +1,317 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.timer.Timeout;
+import org.jgame.server.timer.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of active game sessions, keyed by game ID.
+ *
+ * <p>
+ * Holds the live rules object of each game being played so moves do not
+ * reload it from storage. The cache is bounded by the estimated heap weight
+ * of its games and evicts the least recently used ones. A session is dirty
+ * when moves were applied since its last snapshot. Evicted sessions are
+ * handed to the {@link Spiller}, which must at least save the dirty ones so
+ * no state is lost (the move log alone would also allow recovery, but
+ * replaying it is slower).
+ * </p>
+ *
+ * <p>
+ * With an idle timeout, a background sweep also hibernates sessions that
+ * have not been used for that long: they are spilled and dropped from the
+ * heap, and reloaded on their next move. The sweep runs on the shared
+ * {@link TimingWheel} once {@link #start()} is called.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.3
+ */
+public class GameSessionCache {
+
+    private static final Logger logger = LogManager.getLogger(GameSessionCache.class);
+
+    /**
+     * Saves the state of a session leaving the cache.
+     */
+    @FunctionalInterface
+    public interface Spiller {
+        /**
+         * Saves a game leaving the cache.
+         *
+         * @param gameId game ID
+         * @param game   game rules object
+         * @param dirty  whether the game has changes not yet snapshotted
+         */
+        void spill(long gameId, Object game, boolean dirty);
+    }
+
+    private static final class Session {
+        final Object game;
+        final long weight;
+        volatile boolean dirty;
+        volatile long lastAccess;
+
+        Session(Object game, long weight, boolean dirty) {
+            this.game = game;
+            this.weight = weight;
+            this.dirty = dirty;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+
+    private final LinkedHashMap<Long, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxWeight;
+    private final long idleNanos;
+    private final Spiller spiller;
+    private Timeout sweeper; // Guarded by this
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong hibernations = new AtomicLong();
+    private final AtomicLong spills = new AtomicLong();
+
+    /**
+     * Creates a session cache; {@link #start()} begins the idle sweep.
+     *
+     * @param maxWeight         max total weight (estimated heap bytes)
+     * @param idleTimeoutMillis idle time after which sessions are hibernated,
+     *                          or 0 to keep them until evicted
+     * @param spiller           receives dirty sessions leaving the cache
+     */
+    public GameSessionCache(long maxWeight, long idleTimeoutMillis, Spiller spiller) {
+        this.maxWeight = maxWeight;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.spiller = spiller;
+    }
+
+    /**
+     * Schedules the idle sweep on the shared wheel, if there is an idle
+     * timeout. Calling it again has no effect.
+     *
+     * @return this cache
+     */
+    public synchronized GameSessionCache start() {
+        if (idleNanos > 0 && sweeper == null) {
+            long period = Math.max(1000, TimeUnit.NANOSECONDS.toMillis(idleNanos) / 4);
+            sweeper = TimingWheel.shared().scheduleWithFixedDelay(this::hibernateIdle, period,
+                    TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Gets a cached game.
+     *
+     * @param gameId game ID
+     * @param type   expected rules class
+     * @param <G>    game rules type
+     * @return the game, or null if not cached or of another type
+     */
+    public <G> G get(long gameId, Class<G> type) {
+        Session session;
+        synchronized (this) {
+            session = sessions.get(gameId);
+        }
+        if (session == null || !type.isInstance(session.game)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        session.lastAccess = System.nanoTime();
+        return type.cast(session.game);
+    }
+
+    /**
+     * Adds or refreshes a session.
+     *
+     * @param gameId game ID
+     * @param game   game rules object
+     * @param weight estimated heap size of the game, in bytes
+     * @param dirty  whether the game has changes not yet snapshotted
+     */
+    public void put(long gameId, Object game, long weight, boolean dirty) {
+        List<Map.Entry<Long, Session>> evicted = new ArrayList<>();
+        synchronized (this) {
+            Session previous = sessions.put(gameId, new Session(game, weight, dirty));
+            this.weight += weight - (previous != null ? previous.weight : 0);
+            // Always keep the session just added, even if it alone exceeds the bound
+            Iterator<Map.Entry<Long, Session>> it = sessions.entrySet().iterator();
+            while (this.weight > maxWeight && sessions.size() > 1 && it.hasNext()) {
+                Map.Entry<Long, Session> eldest = it.next();
+                it.remove();
+                this.weight -= eldest.getValue().weight;
+                evicted.add(eldest);
+            }
+        }
+        evictions.addAndGet(evicted.size());
+        spill(evicted);
+    }
+
+    /**
+     * Marks a cached session as fully snapshotted.
+     *
+     * @param gameId game ID
+     */
+    public void markClean(long gameId) {
+        Session session;
+        synchronized (this) {
+            session = sessions.get(gameId);
+        }
+        if (session != null) {
+            session.dirty = false;
+        }
+    }
+
+    /**
+     * Drops a session without spilling it, e.g. once the game is finished.
+     *
+     * @param gameId game ID
+     */
+    public void remove(long gameId) {
+        synchronized (this) {
+            Session session = sessions.remove(gameId);
+            if (session != null) {
+                weight -= session.weight;
+            }
+        }
+    }
+
+    /**
+     * Spills and drops sessions idle for longer than the idle timeout.
+     *
+     * @return number of sessions hibernated
+     */
+    public int hibernateIdle() {
+        if (idleNanos <= 0) {
+            return 0;
+        }
+        long cutoff = System.nanoTime() - idleNanos;
+        List<Map.Entry<Long, Session>> idle = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<Long, Session>> it = sessions.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Session> entry = it.next();
+                if (entry.getValue().lastAccess - cutoff < 0) {
+                    it.remove();
+                    weight -= entry.getValue().weight;
+                    idle.add(entry);
+                }
+            }
+        }
+        hibernations.addAndGet(idle.size());
+        spill(idle);
+        return idle.size();
+    }
+
+    private void spill(List<Map.Entry<Long, Session>> entries) {
+        for (Map.Entry<Long, Session> entry : entries) {
+            Session session = entry.getValue();
+            try {
+                boolean dirty = session.dirty;
+                spiller.spill(entry.getKey(), session.game, dirty);
+                if (dirty) {
+                    spills.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to spill game {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of cached sessions.
+     */
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the total estimated weight of cached sessions.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getHibernationCount() {
+        return hibernations.get();
+    }
+
+    public long getSpillCount() {
+        return spills.get();
+    }
+
+    /**
+     * Spills every session and stops the idle sweep.
+     */
+    public void close() {
+        List<Map.Entry<Long, Session>> all;
+        synchronized (this) {
+            if (sweeper != null) {
+                sweeper.cancel();
+                sweeper = null;
+            }
+            all = new ArrayList<>(sessions.entrySet());
+            sessions.clear();
+            weight = 0;
+        }
+        spill(all);
+        logger.info("Session cache closed: {}", getStats());
+    }
+
+    /**
+     * Gets cache statistics for logging.
+     */
+    public String getStats() {
+        return String.format(
+                "Sessions [size=%d, weight=%d/%d, hits=%d, misses=%d, evictions=%d, hibernations=%d, spills=%d]",
+                size(), getWeight(), maxWeight, hits.get(), misses.get(), evictions.get(),
+                hibernations.get(), spills.get());
+    }
+}
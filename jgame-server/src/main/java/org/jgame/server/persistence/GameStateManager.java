@@ -24,28 +24,99 @@
 package org.jgame.server.persistence;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import org.jgame.logic.games.checkers.CheckersRules;
 import org.jgame.logic.games.goose.GooseRules;
 import org.jgame.server.persistence.dao.GameDAO;
+import org.jgame.server.persistence.dao.MoveLogDAO;
+import org.jgame.server.persistence.dto.GameSnapshot;
+import org.jgame.server.PerformanceConfig;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
- * Utility class for saving and loading game states using JSON serialization.
+ * Utility class for saving and loading game states.
  * 
  * <p>
- * Uses Gson to serialize game objects to JSON strings for database storage.
+ * Games are event-sourced: each move is appended to the {@code game_moves}
+ * log as a few bytes (see {@link MoveCodec}), and the full state is
+ * written to {@code games.state_blob} only every
+ * {@code gamestate.snapshotInterval} moves. Loading a game reads the latest
+ * snapshot and replays the moves recorded after it.
+ * </p>
+ *
+ * <p>
+ * Snapshots use the versioned binary format of {@link SnapshotFormat}.
+ * Games still stored as JSON by older versions are converted when loaded,
+ * or in bulk by {@link #migrateJsonSnapshots()}.
+ * </p>
+ *
+ * <p>
+ * Snapshots go to the {@link GameStateStore} selected by
+ * {@code gamestate.store}: by default an embedded MVStore holds in-progress
+ * games and finished games are archived to the {@code games} table.
+ * </p>
+ *
+ * <p>
+ * Games being played are kept in a {@link GameSessionCache}, so loading an
+ * active game returns the live object without reading storage. Sessions
+ * with moves not yet snapshotted are snapshotted when evicted or
+ * hibernated. A game should only be driven by one thread at a time.
+ * </p>
+ *
+ * <p>
+ * When {@code gamestate.hibernate.enabled} is set, evicted and idle
+ * sessions are instead serialized into an {@link OffHeapHibernationStore}
+ * and rehydrated from it on their next move; dirty ones are written to the
+ * store at shutdown.
  * </p>
  * 
  * @author Silvere Martin-Michiellot
- * @version 1.0
+ * @version 2.7
  */
 public class GameStateManager {
 
     private static final Logger LOGGER = Logger.getLogger(GameStateManager.class.getName());
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final Gson gson = new Gson();
     private static final GameDAO gameDAO = new GameDAO(DatabaseManager.getInstance());
+    private static final MoveLogDAO moveLogDAO = new MoveLogDAO(DatabaseManager.getInstance());
+    private static final Properties config = PerformanceConfig.load();
+    private static final int SNAPSHOT_INTERVAL = Math.max(1,
+            Integer.parseInt(config.getProperty("gamestate.snapshotInterval", "20").trim()));
+    private static final GameSessionCache sessions = new GameSessionCache(
+            Long.parseLong(config.getProperty("gamestate.sessionCache.maxBytes", "67108864").trim()),
+            Long.parseLong(config.getProperty("gamestate.sessionCache.idleTimeout", "1800000").trim()),
+            GameStateManager::spill).start();
+    private static volatile boolean storageOpen;
+    private static volatile boolean closing;
+    private static final int MIGRATION_BATCH = 100;
+    private static final long DEFAULT_SESSION_WEIGHT = 16384;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(GameStateManager::close, "jgame-gamestate-close"));
+    }
+
+    /**
+     * Snapshot and hibernation stores, opened on first use so that loading
+     * this class (e.g. for metrics) creates no files.
+     */
+    private static final class Storage {
+        static final GameStateStore store = createStore();
+        static final OffHeapHibernationStore hibernated = createHibernationStore();
+
+        static {
+            storageOpen = true;
+        }
+    }
+
+    /** Last recorded move per active game. */
+    private static final Map<Long, AtomicLong> sequences = new ConcurrentHashMap<>();
 
     // Prevent instantiation
     private GameStateManager() {
@@ -60,10 +131,10 @@ public class GameStateManager {
      */
     public static long saveGooseGame(GooseRules game) {
         try {
-            String json = gson.toJson(game);
-            long gameId = gameDAO.saveGame("GOOSE", json);
+            long gameId = gameDAO.saveGame("GOOSE", SnapshotFormat.encode(SnapshotCodecs.GOOSE, game));
 
             if (gameId > 0) {
+                activate(gameId, game, SnapshotCodecs.GOOSE.estimateHeapSize(game), false);
                 LOGGER.info("Saved Goose game with ID: " + gameId);
             }
             return gameId;
@@ -81,21 +152,7 @@ public class GameStateManager {
      * @return loaded game, or null if not found
      */
     public static GooseRules loadGooseGame(long gameId) {
-        try {
-            String json = gameDAO.loadGame(gameId);
-            if (json == null) {
-                LOGGER.warning("Game not found with ID: " + gameId);
-                return null;
-            }
-
-            GooseRules game = gson.fromJson(json, GooseRules.class);
-            LOGGER.info("Loaded Goose game with ID: " + gameId);
-            return game;
-
-        } catch (Exception e) {
-            LOGGER.severe("Error loading Goose game: " + e.getMessage());
-            return null;
-        }
+        return recoverGame(gameId, SnapshotCodecs.GOOSE, MoveCodecs.GOOSE);
     }
 
     /**
@@ -106,10 +163,10 @@ public class GameStateManager {
      */
     public static long saveCheckersGame(CheckersRules game) {
         try {
-            String json = gson.toJson(game);
-            long gameId = gameDAO.saveGame("CHECKERS", json);
+            long gameId = gameDAO.saveGame("CHECKERS", SnapshotFormat.encode(SnapshotCodecs.CHECKERS, game));
 
             if (gameId > 0) {
+                activate(gameId, game, SnapshotCodecs.CHECKERS.estimateHeapSize(game), false);
                 LOGGER.info("Saved Checkers game with ID: " + gameId);
             }
             return gameId;
@@ -127,25 +184,140 @@ public class GameStateManager {
      * @return loaded game, or null if not found
      */
     public static CheckersRules loadCheckersGame(long gameId) {
+        return recoverGame(gameId, SnapshotCodecs.CHECKERS, MoveCodecs.CHECKERS);
+    }
+
+    /**
+     * Records a move that has just been applied to a game.
+     *
+     * <p>
+     * The move is appended to the log; every {@code gamestate.snapshotInterval}
+     * moves the whole state is written as a new snapshot.
+     * </p>
+     *
+     * @param gameId the game ID
+     * @param game   the game, after the move
+     * @param codec  codec for this game type
+     * @param move   the move that was applied
+     * @param <G>    game rules type
+     * @param <M>    move type
+     * @return true if the move was recorded
+     */
+    public static <G, M> boolean recordMove(long gameId, G game, MoveCodec<G, M> codec, M move) {
         try {
-            String json = gameDAO.loadGame(gameId);
-            if (json == null) {
+            long sequence = sequences.computeIfAbsent(gameId, id -> new AtomicLong(moveLogDAO.getLastSequence(id)))
+                    .incrementAndGet();
+            if (!moveLogDAO.appendMove(gameId, sequence, codec.encode(move))) {
+                sequences.remove(gameId); // Resynchronize with the log on the next move
+                return false;
+            }
+            boolean snapshotted = sequence % SNAPSHOT_INTERVAL == 0 && writeSnapshot(gameId, game, sequence);
+            activate(gameId, game, estimateHeapSize(game), !snapshotted);
+            return true;
+
+        } catch (Exception e) {
+            LOGGER.severe("Error recording move for game " + gameId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gets a game from the session cache, or loads it from its latest
+     * snapshot and replays the moves after it.
+     *
+     * @param gameId        the game ID
+     * @param snapshotCodec snapshot codec for this game type
+     * @param moveCodec     move codec for this game type
+     * @param <G>           game rules type
+     * @return recovered game, or null if not found
+     */
+    public static <G> G recoverGame(long gameId, SnapshotCodec<G> snapshotCodec, MoveCodec<G, ?> moveCodec) {
+        G cached = sessions.get(gameId, snapshotCodec.gameClass());
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            G awoken = rehydrate(gameId, snapshotCodec);
+            if (awoken != null) {
+                return awoken;
+            }
+
+            GameSnapshot snapshot = Storage.store.load(gameId);
+            if (snapshot == null || (snapshot.state() == null && snapshot.stateJson() == null)) {
                 LOGGER.warning("Game not found with ID: " + gameId);
                 return null;
             }
 
-            CheckersRules game = gson.fromJson(json, CheckersRules.class);
-            LOGGER.info("Loaded Checkers game with ID: " + gameId);
+            G game;
+            if (snapshot.state() != null) {
+                game = SnapshotFormat.decode(snapshotCodec, snapshot.state());
+            } else {
+                // Saved by an older version: store it in the binary format from now on
+                game = gson.fromJson(snapshot.stateJson(), snapshotCodec.gameClass());
+                Storage.store.save(gameId, snapshotCodec.gameType(), SnapshotFormat.encode(snapshotCodec, game),
+                        snapshot.sequence());
+            }
+            List<byte[]> moves = moveLogDAO.getMoves(gameId, snapshot.sequence());
+            for (byte[] action : moves) {
+                moveCodec.apply(game, action);
+            }
+            sequences.put(gameId, new AtomicLong(snapshot.sequence() + moves.size()));
+            sessions.put(gameId, game, snapshotCodec.estimateHeapSize(game), !moves.isEmpty());
+
+            LOGGER.info("Loaded " + snapshot.gameType() + " game with ID: " + gameId
+                    + " (snapshot at move " + snapshot.sequence() + ", replayed " + moves.size() + ")");
             return game;
 
         } catch (Exception e) {
-            LOGGER.severe("Error loading Checkers game: " + e.getMessage());
+            LOGGER.severe("Error loading game " + gameId + ": " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Gets a game's full move log, e.g. to replay it from its initial state.
+     *
+     * @param gameId the game ID
+     * @return encoded actions, in order
+     */
+    public static List<byte[]> getMoveLog(long gameId) {
+        return moveLogDAO.getMoves(gameId, 0);
+    }
+
+    /**
+     * Writes a final snapshot and marks a game as finished.
+     *
+     * <p>
+     * With the MVStore store, the game is moved to the {@code games} table
+     * in the background.
+     * </p>
+     *
+     * @param gameId the game ID
+     * @param game   the finished game
+     * @return true if the final snapshot was saved
+     */
+    public static boolean finishGame(long gameId, Object game) {
+        boolean saved = updateGameState(gameId, game);
+        sessions.remove(gameId);
+        OffHeapHibernationStore hibernated = Storage.hibernated;
+        if (hibernated != null) {
+            hibernated.remove(gameId);
+        }
+        sequences.remove(gameId);
+        Storage.store.finish(gameId).whenComplete((finished, error) -> {
+            if (error != null || !finished) {
+                LOGGER.warning("Could not mark game " + gameId + " as finished");
+            }
+        });
+        return saved;
+    }
+
     /**
      * Updates an existing game's state in the database.
+     *
+     * <p>
+     * The state is stored as a snapshot covering every move recorded so far.
+     * </p>
      * 
      * @param gameId the game ID to update
      * @param game   the game object with new state
@@ -153,10 +325,12 @@ public class GameStateManager {
      */
     public static boolean updateGameState(long gameId, Object game) {
         try {
-            String json = gson.toJson(game);
-            boolean success = gameDAO.updateGameState(gameId, json);
+            AtomicLong sequence = sequences.get(gameId);
+            boolean success = writeSnapshot(gameId, game,
+                    sequence != null ? sequence.get() : moveLogDAO.getLastSequence(gameId));
 
             if (success) {
+                sessions.markClean(gameId);
                 LOGGER.info("Updated game state for ID: " + gameId);
             }
             return success;
@@ -167,6 +341,193 @@ public class GameStateManager {
         }
     }
 
+    /**
+     * Converts every game still stored as JSON to a binary snapshot.
+     *
+     * <p>
+     * Games of types without a {@link SnapshotCodec}, or whose JSON cannot be
+     * read, are left unchanged.
+     * </p>
+     *
+     * @return number of games converted
+     */
+    public static int migrateJsonSnapshots() {
+        int migrated = 0;
+        long afterId = 0;
+        List<Long> gameIds;
+        while (!(gameIds = gameDAO.getJsonOnlyGameIds(afterId, MIGRATION_BATCH)).isEmpty()) {
+            for (long gameId : gameIds) {
+                if (migrateSnapshot(gameId)) {
+                    migrated++;
+                }
+            }
+            afterId = gameIds.getLast();
+        }
+        if (migrated > 0) {
+            LOGGER.info("Converted " + migrated + " JSON game states to binary snapshots");
+        }
+        return migrated;
+    }
+
+    private static boolean migrateSnapshot(long gameId) {
+        try {
+            GameSnapshot snapshot = gameDAO.loadSnapshot(gameId);
+            if (snapshot == null || snapshot.state() != null || snapshot.stateJson() == null) {
+                return false;
+            }
+            SnapshotCodec<?> codec = SnapshotCodecs.forGameType(snapshot.gameType());
+            return codec != null && migrateSnapshot(snapshot, codec);
+
+        } catch (Exception e) {
+            LOGGER.warning("Could not convert game " + gameId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static <G> boolean migrateSnapshot(GameSnapshot snapshot, SnapshotCodec<G> codec) throws IOException {
+        G game = gson.fromJson(snapshot.stateJson(), codec.gameClass());
+        return gameDAO.saveSnapshot(snapshot.gameId(), SnapshotFormat.encode(codec, game), snapshot.sequence());
+    }
+
+    private static <G> boolean writeSnapshot(long gameId, G game, long sequence) throws IOException {
+        SnapshotCodec<G> codec = SnapshotCodecs.forGame(game);
+        if (codec == null) {
+            // No binary format for this game type
+            return gameDAO.saveSnapshot(gameId, gson.toJson(game), sequence);
+        }
+        return Storage.store.save(gameId, codec.gameType(), SnapshotFormat.encode(codec, game), sequence);
+    }
+
+    private static void activate(long gameId, Object game, long weight, boolean dirty) {
+        OffHeapHibernationStore hibernated = Storage.hibernated;
+        if (hibernated != null) {
+            hibernated.remove(gameId); // Stale once the live object is in use again
+        }
+        sessions.put(gameId, game, weight, dirty);
+    }
+
+    private static void spill(long gameId, Object game, boolean dirty) {
+        SnapshotCodec<Object> codec = SnapshotCodecs.forGame(game);
+        OffHeapHibernationStore hibernated = Storage.hibernated;
+        if (hibernated != null && codec != null && !closing) {
+            try {
+                AtomicLong sequence = sequences.remove(gameId);
+                hibernated.put(gameId, codec.gameType(), SnapshotFormat.encode(codec, game),
+                        sequence != null ? sequence.get() : moveLogDAO.getLastSequence(gameId), dirty);
+                return;
+            } catch (Exception e) {
+                LOGGER.warning("Could not hibernate game " + gameId + ": " + e.getMessage());
+            }
+        }
+        if (dirty) {
+            updateGameState(gameId, game);
+        }
+    }
+
+    private static <G> G rehydrate(long gameId, SnapshotCodec<G> codec) throws IOException {
+        OffHeapHibernationStore hibernated = Storage.hibernated;
+        if (hibernated == null) {
+            return null;
+        }
+        OffHeapHibernationStore.Hibernated session = hibernated.get(gameId);
+        if (session == null || !session.gameType().equals(codec.gameType())) {
+            return null;
+        }
+        hibernated.remove(gameId);
+        G game = SnapshotFormat.decode(codec, session.state());
+        sequences.put(gameId, new AtomicLong(session.sequence()));
+        sessions.put(gameId, game, codec.estimateHeapSize(game), session.dirty());
+        return game;
+    }
+
+    private static void close() {
+        closing = true;
+        sessions.close();
+        if (!storageOpen) {
+            return;
+        }
+        OffHeapHibernationStore hibernated = Storage.hibernated;
+        if (hibernated != null) {
+            hibernated.forEach((gameId, session) -> {
+                if (session.dirty()) {
+                    Storage.store.save(gameId, session.gameType(), session.state(), session.sequence());
+                }
+            });
+            hibernated.close();
+        }
+        Storage.store.close();
+    }
+
+    private static long estimateHeapSize(Object game) {
+        SnapshotCodec<Object> codec = SnapshotCodecs.forGame(game);
+        return codec != null ? codec.estimateHeapSize(game) : DEFAULT_SESSION_WEIGHT;
+    }
+
+    /**
+     * Gets session cache statistics for logging.
+     */
+    public static String getSessionStats() {
+        OffHeapHibernationStore hibernated = storageOpen ? Storage.hibernated : null;
+        return hibernated != null ? sessions.getStats() + " " + hibernated.getStats() : sessions.getStats();
+    }
+
+    /**
+     * Gets the number of sessions held in memory.
+     */
+    public static int getCachedSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the number of sessions hibernated off-heap.
+     */
+    public static int getHibernatedSessionCount() {
+        OffHeapHibernationStore hibernated = storageOpen ? Storage.hibernated : null;
+        return hibernated != null ? hibernated.size() : 0;
+    }
+
+    /**
+     * Gets the session cache, for monitoring.
+     */
+    public static GameSessionCache getSessionCache() {
+        return sessions;
+    }
+
+    private static GameStateStore createStore() {
+        GameStateStore sqlStore = new SqlGameStateStore(gameDAO);
+        if ("sql".equalsIgnoreCase(config.getProperty("gamestate.store", "mvstore").trim())) {
+            return sqlStore;
+        }
+        String file = config.getProperty("gamestate.mvstore.file", "./data/jgame-live.mv.db").trim();
+        GameStateStore mvStore;
+        try {
+            mvStore = MVStoreGameStateStore.open(file.isEmpty() ? null : file,
+                    Boolean.parseBoolean(config.getProperty("gamestate.mvstore.memoryMapped", "true").trim()),
+                    Integer.parseInt(config.getProperty("gamestate.mvstore.autoCommitDelay", "1000").trim()),
+                    sqlStore);
+        } catch (RuntimeException e) {
+            // e.g. the file is locked by another server process
+            LOGGER.warning("Could not open live game store " + file + ", using SQL: " + e.getMessage());
+            return sqlStore;
+        }
+        return mvStore;
+    }
+
+    private static OffHeapHibernationStore createHibernationStore() {
+        if (!Boolean.parseBoolean(config.getProperty("gamestate.hibernate.enabled", "true").trim())) {
+            return null;
+        }
+        String file = config.getProperty("gamestate.hibernate.file", "./data/jgame-hibernate.bin").trim();
+        try {
+            return new OffHeapHibernationStore(Path.of(file),
+                    Long.parseLong(config.getProperty("gamestate.hibernate.segmentSize", "67108864").trim()));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warning("Could not open hibernation file " + file + ", idle games will be unloaded: "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Auto-saves a game (called on significant game events).
      * 
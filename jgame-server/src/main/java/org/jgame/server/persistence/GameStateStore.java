@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.jgame.server.persistence.dto.GameSnapshot;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage for game snapshots, keyed by game ID.
+ *
+ * <p>
+ * Rows in the {@code games} table, and the move log, are always created in
+ * SQL; a store only decides where the snapshots of in-progress games live.
+ * See {@link SqlGameStateStore} and {@link MVStoreGameStateStore}.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public interface GameStateStore extends AutoCloseable {
+
+    /**
+     * Saves a game's snapshot unless a newer one is already stored.
+     *
+     * @param gameId   game ID
+     * @param gameType type of game (e.g., "GOOSE", "CHECKERS")
+     * @param state    binary snapshot
+     * @param sequence sequence number of the last move included
+     * @return true if saved, false if outdated or on error
+     */
+    boolean save(long gameId, String gameType, byte[] state, long sequence);
+
+    /**
+     * Loads a game's latest snapshot.
+     *
+     * @param gameId game ID
+     * @return snapshot, or null if not found
+     */
+    GameSnapshot load(long gameId);
+
+    /**
+     * Marks a game as finished, after its final snapshot has been saved.
+     *
+     * @param gameId game ID
+     * @return completes with true once the game is stored as finished
+     */
+    CompletableFuture<Boolean> finish(long gameId);
+
+    /**
+     * Releases the store, completing pending work first.
+     */
+    @Override
+    void close();
+}
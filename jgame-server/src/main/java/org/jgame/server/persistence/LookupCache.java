@@ -0,0 +1,303 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.PerformanceConfig;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded, read-through cache for DAO lookups.
+ *
+ * <p>
+ * Entries are kept in LRU order. When the cache is full, a new entry is only
+ * admitted if it has been requested more often than the LRU victim, using a
+ * small count-min sketch of recent access frequencies (the TinyLFU policy).
+ * One-off lookups therefore cannot flush out hot entries.
+ * </p>
+ *
+ * <p>
+ * DAOs invalidate entries on their own writes. A load racing with an
+ * invalidation is not cached, so a stale value is never stored after the
+ * write that made it stale.
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class LookupCache<K, V> {
+
+    private static final Logger logger = LogManager.getLogger(LookupCache.class);
+
+    /**
+     * Loads a value on a cache miss.
+     *
+     * @param <K> key type
+     * @param <V> value type
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        /**
+         * @return the value, or null if there is none (not cached)
+         */
+        V load(K key) throws SQLException;
+    }
+
+    /**
+     * Snapshot of cache counters.
+     *
+     * @param name      cache name
+     * @param size      current number of entries
+     * @param hits      lookups served from the cache
+     * @param misses    lookups that went to the database
+     * @param evictions entries dropped or rejected to stay within size
+     */
+    public record Stats(String name, int size, long hits, long misses, long evictions) {
+        /**
+         * Gets the fraction of lookups served from the cache.
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final String name;
+    private final int maximumSize;
+    private final LinkedHashMap<K, V> entries;
+    private final FrequencySketch sketch;
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param name        name used in statistics
+     * @param maximumSize max number of entries
+     */
+    public LookupCache(String name, int maximumSize) {
+        this.name = name;
+        this.maximumSize = Math.max(1, maximumSize);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    /**
+     * Creates a cache sized by {@code cache.<name>.maximumSize} in
+     * {@code performance.properties}.
+     *
+     * @param name        cache name
+     * @param defaultSize size used when the property is missing
+     * @param <K>         key type
+     * @param <V>         value type
+     * @return the cache
+     */
+    public static <K, V> LookupCache<K, V> configured(String name, int defaultSize) {
+        Properties props = PerformanceConfig.load();
+        String size = props.getProperty("cache." + name + ".maximumSize");
+        return new LookupCache<>(name, size != null ? Integer.parseInt(size.trim()) : defaultSize);
+    }
+
+    /**
+     * Gets a value, loading and caching it on a miss.
+     *
+     * @param key    the key
+     * @param loader loads the value from the database
+     * @return the value, or null if the loader found none
+     * @throws SQLException if the loader fails
+     */
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        long version;
+        synchronized (this) {
+            sketch.increment(key);
+            V value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            misses++;
+            version = invalidations;
+        }
+
+        V loaded = loader.load(key);
+        if (loaded != null) {
+            synchronized (this) {
+                if (version == invalidations) {
+                    admit(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets a cached value without loading it.
+     *
+     * @param key the key
+     * @return the value if cached
+     */
+    public synchronized Optional<V> getIfPresent(K key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    /**
+     * Replaces a cached value, if the key is cached.
+     *
+     * @param key   the key
+     * @param value the new value
+     */
+    public synchronized void replace(K key, V value) {
+        entries.replace(key, value);
+    }
+
+    /**
+     * Drops an entry after a write.
+     *
+     * @param key the key
+     */
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every entry whose value matches, e.g. when a write is keyed
+     * differently from the cache.
+     *
+     * @param predicate selects entries to drop
+     */
+    public synchronized void invalidateIf(Predicate<? super V> predicate) {
+        invalidations++;
+        entries.values().removeIf(predicate);
+    }
+
+    /**
+     * Drops every entry.
+     */
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * Gets the current counters.
+     */
+    public synchronized Stats stats() {
+        return new Stats(name, entries.size(), hits, misses, evictions);
+    }
+
+    private void admit(K key, V value) {
+        if (entries.containsKey(key) || entries.size() < maximumSize) {
+            entries.put(key, value);
+            return;
+        }
+        Iterator<Map.Entry<K, V>> lru = entries.entrySet().iterator();
+        K victim = lru.next().getKey();
+        evictions++;
+        if (sketch.frequency(key) > sketch.frequency(victim)) {
+            lru.remove();
+            entries.put(key, value);
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, halved periodically so that old
+     * popularity fades.
+     */
+    static final class FrequencySketch {
+
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = { 0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F };
+
+        private final byte[][] table;
+        private final int mask;
+        private final int resetThreshold;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(64, maximumSize * 8) - 1) << 1;
+            this.table = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.resetThreshold = maximumSize * 10;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (table[row][index] < MAX_COUNT) {
+                    table[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= resetThreshold) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int min = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, table[row][index(hash, row)]);
+            }
+            return min;
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int hash) {
+            hash ^= hash >>> 17;
+            hash *= 0xED5AD4BB;
+            return hash ^ (hash >>> 11);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.jgame.server.persistence.dto.GameSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game state store keeping in-progress games in an embedded H2 MVStore.
+ *
+ * <p>
+ * Snapshots are plain key/value puts into a copy-on-write B-tree, which the
+ * MVStore commits to its file in the background every
+ * {@code autoCommitDelay} milliseconds; no SQL statement or pooled
+ * connection is involved. A crash can therefore lose up to that much
+ * snapshot history, which recovery replays from the move log.
+ * </p>
+ *
+ * <p>
+ * When a game finishes, its final snapshot is copied to the archive store
+ * (normally {@link SqlGameStateStore}) on a background thread and then
+ * dropped from the MVStore. Games not found in the MVStore are loaded from
+ * the archive.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class MVStoreGameStateStore implements GameStateStore {
+
+    private static final Logger logger = LogManager.getLogger(MVStoreGameStateStore.class);
+
+    private final MVStore store;
+    private final MVMap<Long, byte[]> games;
+    private final GameStateStore archive;
+    private final ExecutorService archiver;
+
+    /**
+     * Creates a store over an open MVStore.
+     *
+     * @param store   MVStore holding in-progress games; closed with this store
+     * @param archive store for finished games
+     */
+    public MVStoreGameStateStore(MVStore store, GameStateStore archive) {
+        this.store = store;
+        this.games = store.openMap("games");
+        this.archive = archive;
+        this.archiver = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "jgame-game-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Opens a file-backed store.
+     *
+     * @param fileName        MVStore file, or null for an in-memory store
+     * @param memoryMapped    whether to access the file through memory mapping
+     * @param autoCommitDelay max delay before changes are written, in ms
+     * @param archive         store for finished games
+     * @return the store
+     */
+    public static MVStoreGameStateStore open(String fileName, boolean memoryMapped, int autoCommitDelay,
+            GameStateStore archive) {
+        MVStore.Builder builder = new MVStore.Builder();
+        if (fileName != null) {
+            Path parent = Path.of(fileName).toAbsolutePath().getParent();
+            try {
+                Files.createDirectories(parent);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create " + parent, e);
+            }
+            builder.fileName(memoryMapped ? "nioMapped:" + fileName : fileName);
+        }
+        MVStore store = builder.open();
+        store.setAutoCommitDelay(autoCommitDelay);
+        logger.info("Live game states in {} ({} in progress)",
+                fileName != null ? fileName : "memory", store.openMap("games").size());
+        return new MVStoreGameStateStore(store, archive);
+    }
+
+    @Override
+    public boolean save(long gameId, String gameType, byte[] state, long sequence) {
+        byte[] entry = encode(gameType, state, sequence);
+        while (true) {
+            byte[] current = games.get(gameId);
+            if (current == null) {
+                if (games.putIfAbsent(gameId, entry) == null) {
+                    return true;
+                }
+            } else if (sequenceOf(current) > sequence) {
+                return false;
+            } else if (games.replace(gameId, current, entry)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public GameSnapshot load(long gameId) {
+        byte[] entry = games.get(gameId);
+        return entry != null ? decode(gameId, entry) : archive.load(gameId);
+    }
+
+    /**
+     * Moves a game to the archive in the background.
+     */
+    @Override
+    public CompletableFuture<Boolean> finish(long gameId) {
+        return CompletableFuture.supplyAsync(() -> archiveGame(gameId), archiver);
+    }
+
+    private boolean archiveGame(long gameId) {
+        byte[] entry = games.get(gameId);
+        if (entry != null) {
+            GameSnapshot snapshot = decode(gameId, entry);
+            if (!archive.save(gameId, snapshot.gameType(), snapshot.state(), snapshot.sequence())) {
+                logger.warn("Could not archive game {}; it stays in the live store", gameId);
+                return false;
+            }
+        }
+        boolean finished = archive.finish(gameId).join();
+        if (finished && entry != null) {
+            // Keep the entry if a snapshot was saved meanwhile
+            games.remove(gameId, entry);
+        }
+        return finished;
+    }
+
+    /**
+     * Gets the number of games held in the live store.
+     */
+    public int size() {
+        return games.size();
+    }
+
+    @Override
+    public void close() {
+        archiver.shutdown();
+        try {
+            if (!archiver.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Game archiving did not complete before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        store.close();
+    }
+
+    // Entry layout: sequence, game type (UTF-8, length-prefixed), snapshot
+
+    private static byte[] encode(String gameType, byte[] state, long sequence) {
+        byte[] type = gameType.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(8 + 1 + type.length + state.length)
+                .putLong(sequence)
+                .put((byte) type.length)
+                .put(type)
+                .put(state)
+                .array();
+    }
+
+    private static long sequenceOf(byte[] entry) {
+        return ByteBuffer.wrap(entry).getLong();
+    }
+
+    private static GameSnapshot decode(long gameId, byte[] entry) {
+        ByteBuffer buffer = ByteBuffer.wrap(entry);
+        long sequence = buffer.getLong();
+        byte[] type = new byte[buffer.get() & 0xFF];
+        buffer.get(type);
+        byte[] state = new byte[buffer.remaining()];
+        buffer.get(state);
+        return new GameSnapshot(gameId, new String(type, StandardCharsets.UTF_8), state, null, sequence);
+    }
+}
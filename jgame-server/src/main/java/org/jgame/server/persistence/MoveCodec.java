@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+/**
+ * Encodes moves of one game type for the move log, and replays them.
+ *
+ * @param <G> game rules type
+ * @param <M> move type
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public interface MoveCodec<G, M> {
+
+    /**
+     * Encodes a move as a few bytes.
+     *
+     * @param move the move, as returned or accepted by the rules
+     * @return compact action
+     */
+    byte[] encode(M move);
+
+    /**
+     * Replays an encoded move on a game.
+     *
+     * @param game   the game, in the state preceding the move
+     * @param action action produced by {@link #encode}
+     */
+    void apply(G game, byte[] action);
+}
@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.jgame.logic.games.checkers.CheckersMove;
+import org.jgame.logic.games.checkers.CheckersRules;
+import org.jgame.logic.games.goose.GooseRules;
+
+import java.util.List;
+
+/**
+ * Move codecs for the built-in games.
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public final class MoveCodecs {
+
+    /**
+     * Checkers: two bytes, the origin and destination squares (row * 8 + col).
+     */
+    public static final MoveCodec<CheckersRules, CheckersMove> CHECKERS = new MoveCodec<>() {
+        @Override
+        public byte[] encode(CheckersMove move) {
+            return new byte[] {
+                    (byte) (move.getFromRow() * 8 + move.getFromCol()),
+                    (byte) (move.getToRow() * 8 + move.getToCol()) };
+        }
+
+        @Override
+        public void apply(CheckersRules game, byte[] action) {
+            game.makeMove(new CheckersMove(action[0] / 8, action[0] % 8, action[1] / 8, action[1] % 8));
+        }
+    };
+
+    /**
+     * Game of the Goose: one turn, as the two dice rolled, or no bytes when
+     * the player could not move.
+     */
+    public static final MoveCodec<GooseRules, List<Integer>> GOOSE = new MoveCodec<>() {
+        @Override
+        public byte[] encode(List<Integer> diceRoll) {
+            if (diceRoll == null) {
+                return new byte[0];
+            }
+            return new byte[] { diceRoll.get(0).byteValue(), diceRoll.get(1).byteValue() };
+        }
+
+        @Override
+        public void apply(GooseRules game, byte[] action) {
+            game.playTurn(action.length == 2 ? List.of((int) action[0], (int) action[1]) : null);
+        }
+    };
+
+    // Prevent instantiation
+    private MoveCodecs() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Off-heap store for hibernated game sessions.
+ *
+ * <p>
+ * Sessions leaving the {@link GameSessionCache} are kept here as binary
+ * snapshots instead of live rules objects, in a scratch file mapped into
+ * memory {@code segmentSize} bytes at a time through the Foreign Function
+ * and Memory API. The operating system pages the data in and out, so the
+ * Java heap only holds a primitive index of 16 to 32 bytes per session and
+ * stays flat as the number of hibernated games grows.
+ * </p>
+ *
+ * <p>
+ * Records are placed in power-of-two slots from 64 bytes up to the segment
+ * size, and freed slots are reused by records of the same size class. The
+ * file is scratch space: it is truncated when opened and deleted when
+ * closed, and durability still comes from the snapshot store and move log.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class OffHeapHibernationStore implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(OffHeapHibernationStore.class);
+
+    private static final int MIN_SLOT_SHIFT = 6;
+    // Record header: length, sequence, dirty flag, game type length
+    private static final int HEADER_SIZE = 4 + 8 + 1 + 1;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED;
+
+    /**
+     * A hibernated session.
+     *
+     * @param gameType type of game (e.g., "GOOSE", "CHECKERS")
+     * @param state    binary snapshot
+     * @param sequence sequence number of the last move included
+     * @param dirty    whether the snapshot is newer than the stored one
+     */
+    public record Hibernated(String gameType, byte[] state, long sequence, boolean dirty) {
+    }
+
+    /**
+     * Receives hibernated sessions.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Visits one session.
+         *
+         * @param gameId  game ID
+         * @param session hibernated session
+         */
+        void visit(long gameId, Hibernated session);
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Arena arena = Arena.ofShared();
+    private final List<MemorySegment> segments = new ArrayList<>();
+    private final long segmentSize;
+    private final int maxSlotShift;
+    private final LongLongMap index = new LongLongMap();
+    private final LongStack[] freeSlots;
+    private long bumpOffset;
+    private long usedBytes;
+
+    /**
+     * Opens a store over a scratch file.
+     *
+     * @param file        file to map; truncated now and deleted on close
+     * @param segmentSize bytes mapped at a time (a power of two, at least
+     *                    4096); also the largest record size
+     * @throws IOException if the file cannot be created
+     */
+    public OffHeapHibernationStore(Path file, long segmentSize) throws IOException {
+        if (segmentSize < 4096 || Long.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("segmentSize must be a power of two >= 4096: " + segmentSize);
+        }
+        this.file = file.toAbsolutePath();
+        Files.createDirectories(this.file.getParent());
+        this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.segmentSize = segmentSize;
+        this.maxSlotShift = Long.numberOfTrailingZeros(segmentSize);
+        this.freeSlots = new LongStack[maxSlotShift - MIN_SLOT_SHIFT + 1];
+        for (int i = 0; i < freeSlots.length; i++) {
+            freeSlots[i] = new LongStack();
+        }
+    }
+
+    /**
+     * Stores a session, replacing any previous one for the game.
+     *
+     * @param gameId   game ID
+     * @param gameType type of game
+     * @param state    binary snapshot
+     * @param sequence sequence number of the last move included
+     * @param dirty    whether the snapshot is newer than the stored one
+     * @throws IllegalArgumentException if the record exceeds the segment size
+     */
+    public synchronized void put(long gameId, String gameType, byte[] state, long sequence, boolean dirty) {
+        byte[] type = gameType.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_SIZE + type.length + state.length;
+        int shift = slotShift(length);
+        if (shift > maxSlotShift || type.length > 255) {
+            throw new IllegalArgumentException("Session too large to hibernate: " + length + " bytes");
+        }
+        free(gameId);
+
+        long offset = allocate(shift);
+        MemorySegment segment = segment(offset);
+        long pos = offset & (segmentSize - 1);
+        segment.set(INT, pos, length);
+        segment.set(LONG, pos + 4, sequence);
+        segment.set(ValueLayout.JAVA_BYTE, pos + 12, (byte) (dirty ? 1 : 0));
+        segment.set(ValueLayout.JAVA_BYTE, pos + 13, (byte) type.length);
+        MemorySegment.copy(type, 0, segment, ValueLayout.JAVA_BYTE, pos + HEADER_SIZE, type.length);
+        MemorySegment.copy(state, 0, segment, ValueLayout.JAVA_BYTE, pos + HEADER_SIZE + type.length,
+                state.length);
+
+        index.put(gameId, offset << 8 | shift);
+        usedBytes += 1L << shift;
+    }
+
+    /**
+     * Gets a session without removing it.
+     *
+     * @param gameId game ID
+     * @return the session, or null if not hibernated
+     */
+    public synchronized Hibernated get(long gameId) {
+        long slot = index.get(gameId);
+        return slot != LongLongMap.MISSING ? read(slot >>> 8) : null;
+    }
+
+    /**
+     * Removes and returns a session, e.g. to rehydrate it.
+     *
+     * @param gameId game ID
+     * @return the session, or null if not hibernated
+     */
+    public synchronized Hibernated take(long gameId) {
+        long slot = index.get(gameId);
+        if (slot == LongLongMap.MISSING) {
+            return null;
+        }
+        Hibernated session = read(slot >>> 8);
+        free(gameId);
+        return session;
+    }
+
+    /**
+     * Removes a session.
+     *
+     * @param gameId game ID
+     * @return true if it was hibernated
+     */
+    public synchronized boolean remove(long gameId) {
+        return free(gameId);
+    }
+
+    /**
+     * Visits every hibernated session.
+     *
+     * @param visitor receives each session
+     */
+    public synchronized void forEach(Visitor visitor) {
+        index.forEach((gameId, slot) -> visitor.visit(gameId, read(slot >>> 8)));
+    }
+
+    /**
+     * Gets the number of hibernated sessions.
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Gets the bytes held by live records, including slot padding.
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Gets the bytes of file mapped so far.
+     */
+    public synchronized long getMappedBytes() {
+        return segments.size() * segmentSize;
+    }
+
+    /**
+     * Gets store statistics for logging.
+     */
+    public synchronized String getStats() {
+        return String.format("Hibernated [sessions=%d, used=%d, mapped=%d, heapIndex=%d]",
+                index.size(), usedBytes, getMappedBytes(), index.capacity() * 16L);
+    }
+
+    /**
+     * Unmaps and deletes the file.
+     */
+    @Override
+    public synchronized void close() {
+        arena.close();
+        segments.clear();
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete hibernation file {}", file, e);
+        }
+    }
+
+    private Hibernated read(long offset) {
+        MemorySegment segment = segment(offset);
+        long pos = offset & (segmentSize - 1);
+        int length = segment.get(INT, pos);
+        long sequence = segment.get(LONG, pos + 4);
+        boolean dirty = segment.get(ValueLayout.JAVA_BYTE, pos + 12) != 0;
+        int typeLength = segment.get(ValueLayout.JAVA_BYTE, pos + 13) & 0xFF;
+        byte[] type = new byte[typeLength];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, pos + HEADER_SIZE, type, 0, typeLength);
+        byte[] state = new byte[length - HEADER_SIZE - typeLength];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, pos + HEADER_SIZE + typeLength, state, 0, state.length);
+        return new Hibernated(new String(type, StandardCharsets.UTF_8), state, sequence, dirty);
+    }
+
+    private boolean free(long gameId) {
+        long slot = index.remove(gameId);
+        if (slot == LongLongMap.MISSING) {
+            return false;
+        }
+        int shift = (int) (slot & 0xFF);
+        freeSlots[shift - MIN_SLOT_SHIFT].push(slot >>> 8);
+        usedBytes -= 1L << shift;
+        return true;
+    }
+
+    private long allocate(int shift) {
+        LongStack free = freeSlots[shift - MIN_SLOT_SHIFT];
+        if (!free.isEmpty()) {
+            return free.pop();
+        }
+        long size = 1L << shift;
+        // Slots are aligned to their size, so they never straddle segments
+        long offset = (bumpOffset + size - 1) & -size;
+        bumpOffset = offset + size;
+        while (segments.size() * segmentSize < bumpOffset) {
+            mapSegment();
+        }
+        return offset;
+    }
+
+    private void mapSegment() {
+        try {
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * segmentSize, segmentSize,
+                    arena));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map hibernation segment", e);
+        }
+    }
+
+    private MemorySegment segment(long offset) {
+        return segments.get((int) (offset / segmentSize));
+    }
+
+    private static int slotShift(int length) {
+        return Math.max(MIN_SLOT_SHIFT, 32 - Integer.numberOfLeadingZeros(length - 1));
+    }
+
+    /**
+     * Open-addressing map from game ID to slot, without boxing.
+     */
+    static final class LongLongMap {
+        static final long MISSING = -1;
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        interface Consumer {
+            void accept(long key, long value);
+        }
+
+        private long[] keys = newKeys(16);
+        private long[] values = new long[16];
+        private int size;
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+        }
+
+        long get(long key) {
+            for (int i = slot(key);; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == EMPTY) {
+                    return MISSING;
+                }
+            }
+        }
+
+        void put(long key, long value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int i = slot(key);
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & (keys.length - 1);
+            }
+            if (keys[i] == EMPTY) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        long remove(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key);
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) {
+                    return MISSING;
+                }
+                i = (i + 1) & mask;
+            }
+            long value = values[i];
+            size--;
+            // Shift later entries of the probe run back into the gap
+            int gap = i;
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = slot(keys[j]);
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = EMPTY;
+            return value;
+        }
+
+        void forEach(Consumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new long[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Growable stack of free slot offsets.
+     */
+    private static final class LongStack {
+        private long[] items = new long[8];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        long pop() {
+            return items[--size];
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes and reads the binary snapshot of one game type.
+ *
+ * <p>
+ * Codecs write only the state needed to resume play; derived data such as
+ * boards and piece lists is rebuilt on read. {@link SnapshotFormat} adds the
+ * header and compression.
+ * </p>
+ *
+ * @param <G> game rules type
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public interface SnapshotCodec<G> {
+
+    /**
+     * Gets the game type stored in {@code games.game_type}.
+     */
+    String gameType();
+
+    /**
+     * Gets the game rules class, used to read legacy JSON snapshots.
+     */
+    Class<G> gameClass();
+
+    /**
+     * Gets the version of the layout written by {@link #write}. Bump it when
+     * the layout changes and keep {@link #read} able to read older versions.
+     */
+    int schemaVersion();
+
+    /**
+     * Estimates the heap used by a game, to bound the session cache. Only
+     * needs to be right to within a small factor.
+     *
+     * @param game game rules object
+     * @return approximate size in bytes
+     */
+    long estimateHeapSize(G game);
+
+    /**
+     * Writes a game's state.
+     *
+     * @param game game to save
+     * @param out  destination
+     * @throws IOException if writing fails
+     */
+    void write(G game, DataOutputStream out) throws IOException;
+
+    /**
+     * Reads a game's state.
+     *
+     * @param in            source, positioned after the header
+     * @param schemaVersion layout version found in the header
+     * @return restored game
+     * @throws IOException if the data is truncated or invalid
+     */
+    G read(DataInputStream in, int schemaVersion) throws IOException;
+}
@@ -0,0 +1,246 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.jgame.logic.games.checkers.CheckersMove;
+import org.jgame.logic.games.checkers.CheckersPiece;
+import org.jgame.logic.games.checkers.CheckersRules;
+import org.jgame.logic.games.goose.GooseRules;
+import org.jgame.model.GameUser;
+import org.jgame.parts.PlayerInterface;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot codecs for the built-in games.
+ *
+ * <p>
+ * Players are stored by login only; passwords and other account data held
+ * by {@link GameUser} are never written.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public final class SnapshotCodecs {
+
+    private static final int NO_SQUARE = 0xFF;
+
+    /**
+     * Checkers, schema 1: players, side to move, multi-jump flag, winner,
+     * last move, then one byte per piece (square, king bit, player bit),
+     * player 1's pieces first.
+     */
+    public static final SnapshotCodec<CheckersRules> CHECKERS = new SnapshotCodec<>() {
+        @Override
+        public String gameType() {
+            return "CHECKERS";
+        }
+
+        @Override
+        public Class<CheckersRules> gameClass() {
+            return CheckersRules.class;
+        }
+
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public long estimateHeapSize(CheckersRules game) {
+            // Rules object and 8x8 board, plus each piece and player
+            return 1024 + 64L * (game.getPieceCount(1) + game.getPieceCount(2)) + 256L * game.getPlayers().size();
+        }
+
+        @Override
+        public void write(CheckersRules game, DataOutputStream out) throws IOException {
+            writePlayers(game.getPlayers(), out);
+            out.writeByte(game.getCurrentPlayer());
+            out.writeBoolean(game.isMultiJumpInProgress());
+            out.writeByte(game.getWinnerId());
+            CheckersMove last = game.getLastMove();
+            out.writeByte(last != null ? last.getFromRow() * 8 + last.getFromCol() : NO_SQUARE);
+            out.writeByte(last != null ? last.getToRow() * 8 + last.getToCol() : NO_SQUARE);
+
+            List<CheckersPiece> pieces = new ArrayList<>(game.getPieces(1));
+            pieces.addAll(game.getPieces(2));
+            out.writeByte(pieces.size());
+            for (CheckersPiece piece : pieces) {
+                out.writeByte(piece.getRow() * 8 + piece.getCol()
+                        | (piece.isKing() ? 0x40 : 0)
+                        | (piece.getPlayer() == 2 ? 0x80 : 0));
+            }
+        }
+
+        @Override
+        public CheckersRules read(DataInputStream in, int schemaVersion) throws IOException {
+            CheckersRules game = new CheckersRules();
+            readPlayers(in).forEach(game::addPlayer);
+            int currentPlayer = in.readUnsignedByte();
+            boolean multiJump = in.readBoolean();
+            int winnerId = in.readUnsignedByte();
+            int from = in.readUnsignedByte();
+            int to = in.readUnsignedByte();
+            CheckersMove last = from != NO_SQUARE ? new CheckersMove(from / 8, from % 8, to / 8, to % 8) : null;
+
+            int count = in.readUnsignedByte();
+            List<CheckersPiece> pieces = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int b = in.readUnsignedByte();
+                int square = b & 0x3F;
+                CheckersPiece piece = new CheckersPiece((b & 0x80) != 0 ? 2 : 1, square / 8, square % 8);
+                if ((b & 0x40) != 0) {
+                    piece.promoteToKing();
+                }
+                pieces.add(piece);
+            }
+            game.restorePosition(pieces, currentPlayer, multiJump, winnerId, last);
+            return game;
+        }
+    };
+
+    /**
+     * Game of the Goose, schema 1: players, then each player's play order,
+     * state and square, the turn number and index, and the finished flag.
+     */
+    public static final SnapshotCodec<GooseRules> GOOSE = new SnapshotCodec<>() {
+        @Override
+        public String gameType() {
+            return "GOOSE";
+        }
+
+        @Override
+        public Class<GooseRules> gameClass() {
+            return GooseRules.class;
+        }
+
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public long estimateHeapSize(GooseRules game) {
+            // Dominated by the 63-square board graph
+            return 16384 + 256L * game.getPlayers().size();
+        }
+
+        @Override
+        public void write(GooseRules game, DataOutputStream out) throws IOException {
+            List<PlayerInterface> players = game.getPlayers();
+            writePlayers(players, out);
+            int[] playOrder = game.getPlayOrder();
+            int[] states = game.getInGameState();
+            for (int i = 0; i < players.size(); i++) {
+                out.writeByte(playOrder[i]);
+                out.writeByte(states[i]);
+                out.writeByte(game.getPlayerPosition(i));
+            }
+            out.writeInt(game.getTurnNumber());
+            out.writeByte(game.getTurnIndex());
+            out.writeBoolean(game.isFinished());
+        }
+
+        @Override
+        public GooseRules read(DataInputStream in, int schemaVersion) throws IOException {
+            GooseRules game = new GooseRules();
+            List<GameUser> users = readPlayers(in);
+            users.forEach(game::addPlayer);
+            int n = users.size();
+            int[] playOrder = new int[n];
+            int[] states = new int[n];
+            int[] positions = new int[n];
+            for (int i = 0; i < n; i++) {
+                playOrder[i] = in.readUnsignedByte();
+                states[i] = in.readUnsignedByte();
+                positions[i] = in.readUnsignedByte();
+            }
+            int turnNumber = in.readInt();
+            int turnIndex = in.readUnsignedByte();
+            boolean finished = in.readBoolean();
+            game.restoreState(playOrder, states, positions, turnNumber, turnIndex, finished);
+            return game;
+        }
+    };
+
+    private static final List<SnapshotCodec<?>> ALL = List.of(CHECKERS, GOOSE);
+
+    // Prevent instantiation
+    private SnapshotCodecs() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Gets the codec for a stored game type.
+     *
+     * @param gameType value of {@code games.game_type}
+     * @return codec, or null if the type has no binary format
+     */
+    public static SnapshotCodec<?> forGameType(String gameType) {
+        for (SnapshotCodec<?> codec : ALL) {
+            if (codec.gameType().equalsIgnoreCase(gameType)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the codec for a game object.
+     *
+     * @param game game rules instance
+     * @param <G>  game rules type
+     * @return codec, or null if the type has no binary format
+     */
+    @SuppressWarnings("unchecked")
+    public static <G> SnapshotCodec<G> forGame(G game) {
+        for (SnapshotCodec<?> codec : ALL) {
+            if (codec.gameClass().isInstance(game)) {
+                return (SnapshotCodec<G>) codec;
+            }
+        }
+        return null;
+    }
+
+    private static void writePlayers(List<PlayerInterface> players, DataOutputStream out) throws IOException {
+        out.writeByte(players.size());
+        for (PlayerInterface player : players) {
+            out.writeUTF(player.getId() != null ? player.getId() : "");
+        }
+    }
+
+    private static List<GameUser> readPlayers(DataInputStream in) throws IOException {
+        int count = in.readUnsignedByte();
+        List<GameUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new GameUser(in.readUTF()));
+        }
+        return users;
+    }
+}
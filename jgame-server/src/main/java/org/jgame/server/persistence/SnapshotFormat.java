@@ -0,0 +1,239 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.jgame.server.jfr.SnapshotCodecEvent;
+import org.jgame.server.PerformanceConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary container for game snapshots stored in {@code games.state_blob}.
+ *
+ * <p>
+ * Layout: a magic byte, the container version, a flags byte, the codec's
+ * schema version (unsigned short), then the codec payload. When the
+ * {@link #FLAG_DEFLATE} flag is set the payload is preceded by its
+ * uncompressed length and Deflate-compressed. Payloads shorter than
+ * {@code snapshot.compressThreshold} bytes are stored as is, since Deflate
+ * only adds overhead to them.
+ * </p>
+ *
+ * <p>
+ * Every encode and decode emits a {@link SnapshotCodecEvent}.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.1
+ */
+public final class SnapshotFormat {
+
+    private static final Logger LOGGER = Logger.getLogger(SnapshotFormat.class.getName());
+
+    /** First byte of every snapshot. */
+    public static final int MAGIC = 0x4A;
+    /** Container version written by this class. */
+    public static final int FORMAT_VERSION = 1;
+    /** Flag set when the payload is Deflate-compressed. */
+    public static final int FLAG_DEFLATE = 0x01;
+
+    private static final int HEADER_SIZE = 5;
+    private static final int MAX_PAYLOAD = 16 * 1024 * 1024;
+    private static final int DEFAULT_COMPRESS_THRESHOLD = 512;
+    private static final int COMPRESS_THRESHOLD = loadCompressThreshold();
+
+    // Prevent instantiation
+    private SnapshotFormat() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Encodes a game, compressing the payload if it is large enough.
+     *
+     * @param codec codec for the game type
+     * @param game  game to save
+     * @param <G>   game rules type
+     * @return snapshot bytes
+     * @throws IOException if the codec fails
+     */
+    public static <G> byte[] encode(SnapshotCodec<G> codec, G game) throws IOException {
+        return encode(codec, game, COMPRESS_THRESHOLD);
+    }
+
+    /**
+     * Encodes a game with an explicit compression threshold.
+     *
+     * @param codec             codec for the game type
+     * @param game              game to save
+     * @param compressThreshold smallest payload to compress, or a negative
+     *                          value to never compress
+     * @param <G>               game rules type
+     * @return snapshot bytes
+     * @throws IOException if the codec fails
+     */
+    public static <G> byte[] encode(SnapshotCodec<G> codec, G game, int compressThreshold) throws IOException {
+        SnapshotCodecEvent event = new SnapshotCodecEvent();
+        event.begin();
+        byte[] data = write(codec, game, compressThreshold);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = SnapshotCodecEvent.ENCODE;
+            event.gameType = codec.gameType();
+            event.bytes = data.length;
+            event.compressed = (data[2] & FLAG_DEFLATE) != 0;
+            event.commit();
+        }
+        return data;
+    }
+
+    private static <G> byte[] write(SnapshotCodec<G> codec, G game, int compressThreshold) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        writeHeader(out, 0, codec.schemaVersion());
+        codec.write(game, out);
+        out.flush();
+        byte[] plain = buffer.toByteArray();
+
+        int payloadLength = plain.length - HEADER_SIZE;
+        if (compressThreshold < 0 || payloadLength < compressThreshold) {
+            return plain;
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(plain, HEADER_SIZE, payloadLength);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(payloadLength / 2 + 16);
+            DataOutputStream cout = new DataOutputStream(compressed);
+            writeHeader(cout, FLAG_DEFLATE, codec.schemaVersion());
+            cout.writeInt(payloadLength);
+            byte[] chunk = new byte[Math.min(payloadLength, 8192)];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                cout.write(chunk, 0, n);
+            }
+            cout.flush();
+            return compressed.size() < plain.length ? compressed.toByteArray() : plain;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decodes a snapshot written by {@link #encode}.
+     *
+     * @param codec codec for the game type
+     * @param data  snapshot bytes
+     * @param <G>   game rules type
+     * @return restored game
+     * @throws IOException if the data is not a valid snapshot
+     */
+    public static <G> G decode(SnapshotCodec<G> codec, byte[] data) throws IOException {
+        SnapshotCodecEvent event = new SnapshotCodecEvent();
+        event.begin();
+        G game = read(codec, data);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = SnapshotCodecEvent.DECODE;
+            event.gameType = codec.gameType();
+            event.bytes = data.length;
+            event.compressed = (data[2] & FLAG_DEFLATE) != 0;
+            event.commit();
+        }
+        return game;
+    }
+
+    private static <G> G read(SnapshotCodec<G> codec, byte[] data) throws IOException {
+        if (data.length < HEADER_SIZE || (data[0] & 0xFF) != MAGIC) {
+            throw new IOException("Not a game snapshot");
+        }
+        int version = data[1] & 0xFF;
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version);
+        }
+        int flags = data[2] & 0xFF;
+        int schemaVersion = ((data[3] & 0xFF) << 8) | (data[4] & 0xFF);
+        if (schemaVersion > codec.schemaVersion()) {
+            throw new IOException(codec.gameType() + " snapshot has schema version " + schemaVersion
+                    + ", newer than supported " + codec.schemaVersion());
+        }
+
+        byte[] payload = data;
+        int offset = HEADER_SIZE;
+        int length = data.length - HEADER_SIZE;
+        if ((flags & FLAG_DEFLATE) != 0) {
+            payload = inflate(data);
+            offset = 0;
+            length = payload.length;
+        }
+        return codec.read(new DataInputStream(new ByteArrayInputStream(payload, offset, length)), schemaVersion);
+    }
+
+    private static byte[] inflate(byte[] data) throws IOException {
+        if (data.length < HEADER_SIZE + 4) {
+            throw new IOException("Truncated game snapshot");
+        }
+        int length = ((data[5] & 0xFF) << 24) | ((data[6] & 0xFF) << 16) | ((data[7] & 0xFF) << 8)
+                | (data[8] & 0xFF);
+        if (length < 0 || length > MAX_PAYLOAD) {
+            throw new IOException("Invalid game snapshot length " + length);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_SIZE + 4, data.length - HEADER_SIZE - 4);
+            byte[] payload = new byte[length];
+            int n = inflater.inflate(payload);
+            if (n != length || !inflater.finished()) {
+                throw new IOException("Corrupt game snapshot");
+            }
+            return payload;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt game snapshot", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, int flags, int schemaVersion) throws IOException {
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(flags);
+        out.writeShort(schemaVersion);
+    }
+
+    private static int loadCompressThreshold() {
+        Properties props = PerformanceConfig.load();
+        return Integer.parseInt(props.getProperty("snapshot.compressThreshold",
+                String.valueOf(DEFAULT_COMPRESS_THRESHOLD)).trim());
+    }
+}
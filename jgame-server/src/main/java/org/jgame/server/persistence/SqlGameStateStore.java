@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.jgame.server.persistence.dao.GameDAO;
+import org.jgame.server.persistence.dto.GameSnapshot;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Game state store writing every snapshot to the {@code games} table.
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class SqlGameStateStore implements GameStateStore {
+
+    private final GameDAO gameDAO;
+
+    /**
+     * Creates a store over the games table.
+     *
+     * @param gameDAO data access object for games
+     */
+    public SqlGameStateStore(GameDAO gameDAO) {
+        this.gameDAO = gameDAO;
+    }
+
+    @Override
+    public boolean save(long gameId, String gameType, byte[] state, long sequence) {
+        return gameDAO.saveSnapshot(gameId, state, sequence);
+    }
+
+    @Override
+    public GameSnapshot load(long gameId) {
+        return gameDAO.loadSnapshot(gameId);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> finish(long gameId) {
+        return CompletableFuture.completedFuture(gameDAO.markGameFinished(gameId));
+    }
+
+    @Override
+    public void close() {
+        // Connections belong to DatabaseManager
+    }
+}
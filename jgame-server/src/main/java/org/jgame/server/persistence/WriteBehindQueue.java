@@ -0,0 +1,521 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.PerformanceConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+
+/**
+ * Write-behind pipeline for small, frequent writes.
+ *
+ * <p>
+ * Callers submit rows and return immediately. A single flusher thread,
+ * started by {@link #start()}, drains the bounded queue and writes everything it took in one transaction, using
+ * JDBC batches. A batch is flushed when it reaches {@code batchSize} entries
+ * or when its oldest entry has waited {@code flushIntervalMillis}.
+ * </p>
+ *
+ * <p>
+ * Ordering guarantees:
+ * </p>
+ * <ul>
+ * <li>Batches are committed one at a time, in submission order.</li>
+ * <li>Entries with the same coalescing key inside a batch are merged in
+ * submission order, so the last update wins (or deltas are summed).</li>
+ * <li>{@link #flush()} completes once every entry submitted before it is
+ * committed; {@link #close()} drains the queue before returning.</li>
+ * </ul>
+ *
+ * <p>
+ * When a batch still fails after {@code MAX_ATTEMPTS}, its rows are retried
+ * one at a time, so one bad row cannot take unrelated writes down with it.
+ * Rows rejected for their data (SQL state class 22 or 23) are logged and
+ * counted as failed. The first failure for any other reason, such as a lost
+ * connection, ends that pass: the rows not yet written are kept as a block
+ * and retried alone every {@code flushIntervalMillis}.
+ * </p>
+ *
+ * <p>
+ * When the queue is full, {@link #submit} waits up to
+ * {@code offerTimeoutMillis} and then fails, pushing back on callers instead
+ * of growing without bound. While kept rows wait for the database, the
+ * flusher takes nothing new from the queue, so an outage fills the queue and
+ * pushes back too. Rows still kept at {@link #close()} are logged one by one
+ * and counted as failed.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.3
+ */
+public class WriteBehindQueue implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(WriteBehindQueue.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * Source of database connections.
+     */
+    @FunctionalInterface
+    public interface ConnectionSource {
+        Connection getConnection() throws SQLException;
+    }
+
+    /**
+     * Writes a batch of rows of one kind, on a connection owned by the queue.
+     *
+     * <p>
+     * Implementations should use {@code addBatch}/{@code executeBatch} and
+     * must not commit.
+     * </p>
+     *
+     * @param <T> row type
+     */
+    @FunctionalInterface
+    public interface BatchWriter<T> {
+        void writeBatch(Connection conn, List<T> rows) throws SQLException;
+
+        /**
+         * Called on the flusher thread once the rows are committed, e.g. to
+         * invalidate caches that may have been refilled before the flush.
+         */
+        default void afterCommit(List<T> rows) {
+        }
+    }
+
+    private record Entry(BatchWriter<Object> writer, Object key, Object row,
+            BinaryOperator<Object> merge, long enqueuedNanos, CompletableFuture<Void> barrier) {
+    }
+
+    private final ConnectionSource connections;
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMillis;
+    private Thread flusher; // Guarded by this
+    private volatile boolean running = true;
+
+    /**
+     * Rows kept after a transient failure, at most one batch; owned by the
+     * flusher thread
+     */
+    private final List<Entry> carried = new ArrayList<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastFlushLagMillis;
+    private volatile long maxFlushLagMillis;
+
+    /**
+     * Creates a write-behind queue; {@link #start()} starts the flusher.
+     *
+     * @param connections         connection source
+     * @param capacity            max number of queued entries
+     * @param batchSize           entries per flush
+     * @param flushIntervalMillis max time an entry waits before being flushed
+     * @param offerTimeoutMillis  max time {@link #submit} waits when full
+     */
+    public WriteBehindQueue(ConnectionSource connections, int capacity, int batchSize,
+            long flushIntervalMillis, long offerTimeoutMillis) {
+        this.connections = connections;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    /**
+     * Starts the flusher thread. Calling it again has no effect.
+     *
+     * @return this queue
+     */
+    public synchronized WriteBehindQueue start() {
+        if (flusher == null) {
+            flusher = new Thread(this::run, "jgame-write-behind");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+        return this;
+    }
+
+    /**
+     * Creates a queue configured from {@code performance.properties}.
+     *
+     * @param dbManager database manager providing connections
+     * @return the queue, or null if write-behind is disabled
+     */
+    public static WriteBehindQueue fromConfig(DatabaseManager dbManager) {
+        Properties props = PerformanceConfig.load();
+        if (!Boolean.parseBoolean(props.getProperty("writebehind.enabled", "true"))) {
+            return null;
+        }
+        return new WriteBehindQueue(dbManager::getConnectionInternal,
+                Integer.parseInt(props.getProperty("writebehind.queueCapacity", "10000")),
+                Integer.parseInt(props.getProperty("writebehind.batchSize", "500")),
+                Long.parseLong(props.getProperty("writebehind.flushIntervalMillis", "200")),
+                Long.parseLong(props.getProperty("writebehind.offerTimeoutMillis", "1000")));
+    }
+
+    /**
+     * Queues a row.
+     *
+     * @param writer writes rows of this kind; rows are grouped by writer
+     *               instance, so pass the same instance for every row
+     * @param key    coalescing key, or null to keep every row
+     * @param row    the row
+     * @param merge  combines a queued row with a newer one of the same key
+     * @param <T>    row type
+     * @throws SQLException if the queue stays full or is closed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void submit(BatchWriter<T> writer, Object key, T row, BinaryOperator<T> merge)
+            throws SQLException {
+        enqueue(new Entry((BatchWriter<Object>) writer, key, row, (BinaryOperator<Object>) merge,
+                System.nanoTime(), null));
+        submitted.incrementAndGet();
+    }
+
+    /**
+     * Requests a flush of everything queued so far.
+     *
+     * @return completes when all previously submitted rows are committed
+     */
+    public CompletableFuture<Void> flush() {
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        try {
+            enqueue(new Entry(null, null, null, null, System.nanoTime(), barrier));
+        } catch (SQLException e) {
+            barrier.completeExceptionally(e);
+        }
+        return barrier;
+    }
+
+    /**
+     * Stops accepting rows, writes everything queued and stops the flusher.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false; // The flusher drains the queue, then exits
+        // Wakes the flusher up; if the queue is full, it is not waiting anyway
+        queue.offer(new Entry(null, null, null, null, System.nanoTime(), new CompletableFuture<>()));
+        Thread thread;
+        synchronized (this) {
+            thread = flusher;
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("Write-behind queue closed: {}", getStats());
+    }
+
+    private void enqueue(Entry entry) throws SQLException {
+        if (!running) {
+            throw new SQLException("Write-behind queue is closed");
+        }
+        try {
+            if (!queue.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Write-behind queue full (" + queue.size() + " pending)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while queueing write", e);
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !carried.isEmpty()) {
+            if (!carried.isEmpty()) {
+                if (!running) {
+                    dropAll(); // Still failing at shutdown
+                    break;
+                }
+                // New rows stay queued until the kept ones are written
+                try {
+                    Thread.sleep(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+                writeBatch(batch);
+                continue;
+            }
+            try {
+                Entry first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.enqueuedNanos + flushIntervalNanos;
+                while (batch.size() < batchSize && batch.getLast().barrier == null) {
+                    if (queue.drainTo(batch, 1) > 0) {
+                        continue;
+                    }
+                    long wait = deadline - System.nanoTime();
+                    Entry next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false; // Drain what is left, then exit
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Gives up on the kept rows and on everything still queued, at shutdown.
+     */
+    private void dropAll() {
+        List<Entry> lost = new ArrayList<>(carried);
+        carried.clear();
+        queue.drainTo(lost);
+        SQLException closed = new SQLException("Write-behind queue closed with " + lost.size() + " unwritten rows");
+        for (Entry entry : lost) {
+            if (entry.barrier != null) {
+                entry.barrier.completeExceptionally(closed);
+            } else {
+                failed.incrementAndGet();
+                logger.error("Lost write at shutdown: {}", entry.row);
+            }
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        // Rows kept from a failed flush go first, as they were submitted first
+        List<Entry> entries = batch;
+        if (!carried.isEmpty()) {
+            entries = new ArrayList<>(carried);
+            entries.addAll(batch);
+            carried.clear();
+        }
+
+        // Group rows by writer in first-seen order, coalescing by key
+        Map<BatchWriter<Object>, Map<Object, Entry>> grouped = new LinkedHashMap<>();
+        List<CompletableFuture<Void>> barriers = new ArrayList<>();
+        int rows = 0;
+        for (Entry entry : entries) {
+            if (entry.barrier != null) {
+                barriers.add(entry.barrier);
+                continue;
+            }
+            rows++;
+            Map<Object, Entry> byKey = grouped.computeIfAbsent(entry.writer, w -> new LinkedHashMap<>());
+            Object key = entry.key != null ? entry.key : new Object();
+            Entry previous = byKey.get(key);
+            if (previous != null) {
+                byKey.put(key, new Entry(entry.writer, key, entry.merge.apply(previous.row, entry.row),
+                        entry.merge, previous.enqueuedNanos, null));
+                coalesced.incrementAndGet();
+            } else {
+                byKey.put(key, entry);
+            }
+        }
+
+        Map<BatchWriter<Object>, List<Object>> lists = new LinkedHashMap<>();
+        for (Map.Entry<BatchWriter<Object>, Map<Object, Entry>> group : grouped.entrySet()) {
+            lists.put(group.getKey(), group.getValue().values().stream().map(Entry::row).toList());
+        }
+        SQLException failure = rows > 0 ? commit(lists) : null;
+        if (failure != null) {
+            logger.warn("Write-behind batch failed, retrying rows one at a time: {}", failure.getMessage());
+            lists = writeOneByOne(grouped);
+        }
+        if (rows > 0) {
+            long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entries.getFirst().enqueuedNanos);
+            lastFlushLagMillis = lag;
+            maxFlushLagMillis = Math.max(maxFlushLagMillis, lag);
+        }
+        lists.forEach((writer, list) -> {
+            written.addAndGet(list.size());
+            try {
+                writer.afterCommit(list);
+            } catch (RuntimeException e) {
+                logger.warn("Write-behind commit hook error: {}", e.getMessage());
+            }
+        });
+        if (carried.isEmpty()) {
+            barriers.forEach(b -> b.complete(null));
+        } else {
+            SQLException pending = new SQLException(carried.size() + " writes are waiting for a retry", failure);
+            barriers.forEach(b -> b.completeExceptionally(pending));
+        }
+    }
+
+    /**
+     * Writes each row in its own transaction after a batch failed, until a
+     * failure that is not about the row's data: the rows from there on are
+     * kept as they are, since the next ones would most likely fail the same
+     * way, each after a connection timeout.
+     *
+     * @return the committed rows, by writer
+     */
+    private Map<BatchWriter<Object>, List<Object>> writeOneByOne(Map<BatchWriter<Object>, Map<Object, Entry>> grouped) {
+        Map<BatchWriter<Object>, List<Object>> committed = new LinkedHashMap<>();
+        for (Map.Entry<BatchWriter<Object>, Map<Object, Entry>> group : grouped.entrySet()) {
+            BatchWriter<Object> writer = group.getKey();
+            for (Entry entry : group.getValue().values()) {
+                if (!carried.isEmpty()) {
+                    carried.add(entry);
+                    continue;
+                }
+                SQLException error = commitOnce(Map.of(writer, List.of(entry.row)));
+                if (error == null) {
+                    committed.computeIfAbsent(writer, w -> new ArrayList<>()).add(entry.row);
+                } else if (isDataError(error)) {
+                    failed.incrementAndGet();
+                    logger.error("Dropped write rejected by the database: {} ({})", entry.row, error.getMessage());
+                } else {
+                    carried.add(entry);
+                }
+            }
+        }
+        if (!carried.isEmpty()) {
+            logger.warn("Keeping {} writes for the next flush", carried.size());
+        }
+        return committed;
+    }
+
+    private static boolean isDataError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+
+    private SQLException commit(Map<BatchWriter<Object>, List<Object>> grouped) {
+        SQLException failure = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            failure = commitOnce(grouped);
+            if (failure == null) {
+                return null;
+            }
+            logger.warn("Write-behind flush attempt {} failed: {}", attempt, failure.getMessage());
+            if (isDataError(failure)) {
+                return failure; // Retrying the same rows cannot help
+            }
+            try {
+                Thread.sleep(100L * attempt);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return failure;
+            }
+        }
+        return failure;
+    }
+
+    private SQLException commitOnce(Map<BatchWriter<Object>, List<Object>> grouped) {
+        try (Connection conn = connections.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (Map.Entry<BatchWriter<Object>, List<Object>> group : grouped.entrySet()) {
+                    group.getKey().writeBatch(conn, group.getValue());
+                }
+                conn.commit();
+                batches.incrementAndGet();
+                return null;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Gets the number of entries waiting to be flushed.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Gets how long the oldest entry of the last flushed batch waited, in ms.
+     */
+    public long getFlushLagMillis() {
+        return lastFlushLagMillis;
+    }
+
+    /**
+     * Gets the highest flush lag seen so far, in ms.
+     */
+    public long getMaxFlushLagMillis() {
+        return maxFlushLagMillis;
+    }
+
+    /**
+     * Gets the number of rows merged into a newer row of the same key.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Gets the number of rows dropped because the database rejected them.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Gets queue statistics for monitoring.
+     */
+    public String getStats() {
+        return String.format(
+                "Queue [depth=%d, submitted=%d, written=%d, coalesced=%d, failed=%d, batches=%d, lag=%dms, maxLag=%dms]",
+                queue.size(), submitted.get(), written.get(), coalesced.get(), failed.get(),
+                batches.get(), lastFlushLagMillis, maxFlushLagMillis);
+    }
+}
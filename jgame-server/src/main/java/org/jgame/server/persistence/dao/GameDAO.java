@@ -24,6 +24,7 @@
 package org.jgame.server.persistence.dao;
 
 import org.jgame.server.persistence.DatabaseManager;
+import org.jgame.server.persistence.dto.GameSnapshot;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -32,10 +33,11 @@ import java.util.logging.Logger;
 
 /**
  * Data Access Object for Game entity.
- * Handles saving/loading game states using JSON serialization.
+ * Handles saving/loading game states as binary snapshots, with legacy JSON
+ * states still readable until migrated.
  *
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.1
  */
 public class GameDAO {
 
@@ -52,6 +54,38 @@ public class GameDAO {
         this.dbManager = dbManager;
     }
 
+    /**
+     * Saves a new game to the database.
+     *
+     * @param gameType type of game (e.g., "GOOSE", "CHECKERS")
+     * @param state    binary snapshot
+     * @return generated game ID, or -1 if failed
+     */
+    public long saveGame(String gameType, byte[] state) {
+        String sql = "INSERT INTO games (game_type, state_blob, last_played) VALUES (?, ?, CURRENT_TIMESTAMP)";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, gameType);
+            stmt.setBytes(2, state);
+
+            if (stmt.executeUpdate() > 0) {
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        long gameId = rs.getLong(1);
+                        LOGGER.info("Saved game: " + gameType + " (ID: " + gameId + ")");
+                        return gameId;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.severe("Error saving game: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
     /**
      * Saves a new game to the database.
      * 
@@ -93,7 +127,8 @@ public class GameDAO {
      * @return true if updated, false otherwise
      */
     public boolean updateGameState(long gameId, String stateJson) {
-        String sql = "UPDATE games SET state_json = ?, last_played = CURRENT_TIMESTAMP WHERE id = ?";
+        String sql = "UPDATE games SET state_json = ?, state_blob = NULL, last_played = CURRENT_TIMESTAMP "
+                + "WHERE id = ?";
 
         try (Connection conn = dbManager.getConnectionInternal();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -113,6 +148,130 @@ public class GameDAO {
         return false;
     }
 
+    /**
+     * Replaces a game's snapshot.
+     *
+     * <p>
+     * Older snapshots never overwrite newer ones, so a late autosave cannot
+     * roll a game back.
+     * </p>
+     *
+     * @param gameId    game ID
+     * @param stateJson state after move {@code sequence}
+     * @param sequence  sequence number of the last move included
+     * @return true if updated, false otherwise
+     */
+    public boolean saveSnapshot(long gameId, String stateJson, long sequence) {
+        String sql = "UPDATE games SET state_json = ?, state_blob = NULL, snapshot_seq = ?, "
+                + "last_played = CURRENT_TIMESTAMP WHERE id = ? AND snapshot_seq <= ?";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, stateJson);
+            stmt.setLong(2, sequence);
+            stmt.setLong(3, gameId);
+            stmt.setLong(4, sequence);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            LOGGER.severe("Error saving snapshot: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Replaces a game's snapshot with a binary one, dropping any legacy JSON
+     * state.
+     *
+     * <p>
+     * Older snapshots never overwrite newer ones, so a late autosave cannot
+     * roll a game back.
+     * </p>
+     *
+     * @param gameId   game ID
+     * @param state    binary snapshot after move {@code sequence}
+     * @param sequence sequence number of the last move included
+     * @return true if updated, false otherwise
+     */
+    public boolean saveSnapshot(long gameId, byte[] state, long sequence) {
+        String sql = "UPDATE games SET state_blob = ?, state_json = NULL, snapshot_seq = ?, "
+                + "last_played = CURRENT_TIMESTAMP WHERE id = ? AND snapshot_seq <= ?";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setBytes(1, state);
+            stmt.setLong(2, sequence);
+            stmt.setLong(3, gameId);
+            stmt.setLong(4, sequence);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            LOGGER.severe("Error saving snapshot: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Loads a game's latest snapshot.
+     *
+     * @param gameId game ID
+     * @return snapshot, or null if not found
+     */
+    public GameSnapshot loadSnapshot(long gameId) {
+        String sql = "SELECT game_type, state_blob, state_json, snapshot_seq FROM games WHERE id = ?";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, gameId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new GameSnapshot(gameId, rs.getString("game_type"), rs.getBytes("state_blob"),
+                            rs.getString("state_json"), rs.getLong("snapshot_seq"));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.severe("Error loading snapshot: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets games whose state is still stored as legacy JSON.
+     *
+     * @param afterId only return IDs greater than this
+     * @param limit   max number of IDs
+     * @return game IDs in ascending order
+     */
+    public List<Long> getJsonOnlyGameIds(long afterId, int limit) {
+        List<Long> gameIds = new ArrayList<>();
+        String sql = "SELECT id FROM games WHERE state_blob IS NULL AND state_json IS NOT NULL AND id > ? "
+                + "ORDER BY id LIMIT ?";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, afterId);
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    gameIds.add(rs.getLong("id"));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.severe("Error getting JSON games: " + e.getMessage());
+        }
+
+        return gameIds;
+    }
+
     /**
      * Loads a game's state by ID.
      * 
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence.dao;
+
+import org.jgame.server.persistence.DatabaseManager;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Data Access Object for the append-only game move log.
+ * Each move is stored as a small, game-specific binary action.
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public class MoveLogDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(MoveLogDAO.class.getName());
+
+    private final DatabaseManager dbManager;
+
+    /**
+     * Creates a new MoveLogDAO with injected DatabaseManager.
+     *
+     * @param dbManager database manager instance
+     */
+    public MoveLogDAO(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Appends a move to a game's log.
+     *
+     * @param gameId   game ID
+     * @param sequence move number (1-based, consecutive)
+     * @param action   encoded action
+     * @return true if appended, false otherwise (e.g. sequence already used)
+     */
+    public boolean appendMove(long gameId, long sequence, byte[] action) {
+        String sql = "INSERT INTO game_moves (game_id, seq, action) VALUES (?, ?, ?)";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, gameId);
+            stmt.setLong(2, sequence);
+            stmt.setBytes(3, action);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            LOGGER.severe("Error appending move " + sequence + " to game " + gameId + ": " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the moves of a game after a given sequence number, in order.
+     *
+     * @param gameId        game ID
+     * @param afterSequence only moves with a greater sequence are returned
+     * @return encoded actions
+     */
+    public List<byte[]> getMoves(long gameId, long afterSequence) {
+        List<byte[]> moves = new ArrayList<>();
+        String sql = "SELECT action FROM game_moves WHERE game_id = ? AND seq > ? ORDER BY seq";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, gameId);
+            stmt.setLong(2, afterSequence);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    moves.add(rs.getBytes("action"));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.severe("Error loading moves for game " + gameId + ": " + e.getMessage());
+        }
+
+        return moves;
+    }
+
+    /**
+     * Gets the sequence number of a game's last move.
+     *
+     * @param gameId game ID
+     * @return last sequence, or 0 if no move was recorded
+     */
+    public long getLastSequence(long gameId) {
+        String sql = "SELECT COALESCE(MAX(seq), 0) FROM game_moves WHERE game_id = ?";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, gameId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.severe("Error reading last move of game " + gameId + ": " + e.getMessage());
+        }
+
+        return 0;
+    }
+}
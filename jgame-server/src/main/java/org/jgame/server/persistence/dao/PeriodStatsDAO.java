@@ -0,0 +1,237 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence.dao;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.model.GameScore;
+import org.jgame.server.persistence.DatabaseManager;
+import org.jgame.server.persistence.WriteBehindQueue;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for time-windowed stats rollups.
+ *
+ * <p>
+ * Each row of {@code user_game_period_stats} aggregates one user's results on
+ * one game type during one period (e.g. a day or a week). Rows are updated
+ * incrementally as results are recorded, so period leaderboards never scan
+ * {@code scores}.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.1
+ */
+public class PeriodStatsDAO {
+
+    private static final Logger logger = LogManager.getLogger(PeriodStatsDAO.class);
+
+    private final DatabaseManager dbManager;
+    private final UserDAO users;
+    private final WriteBehindQueue.BatchWriter<PeriodDelta> deltaWriter = this::writeDeltas;
+    private volatile WriteBehindQueue writeBehind;
+
+    private record PeriodDelta(GameScore delta, String periodType, long periodIndex) {
+    }
+
+    /**
+     * Receives rows streamed by {@link #forEachPeriodStats}.
+     */
+    public interface PeriodStatsConsumer {
+        void accept(long periodIndex, GameScore score);
+    }
+
+    /**
+     * Creates a new PeriodStatsDAO with injected DatabaseManager.
+     *
+     * @param dbManager database manager instance
+     */
+    public PeriodStatsDAO(DatabaseManager dbManager) {
+        this(dbManager, new UserDAO(dbManager));
+    }
+
+    /**
+     * Creates a new PeriodStatsDAO sharing the username to ID cache of a UserDAO.
+     *
+     * @param dbManager database manager instance
+     * @param users     resolves usernames to user IDs
+     */
+    public PeriodStatsDAO(DatabaseManager dbManager, UserDAO users) {
+        this.dbManager = dbManager;
+        this.users = users;
+    }
+
+    /**
+     * Routes {@link #addResult} through a write-behind queue.
+     *
+     * <p>
+     * Results for the same user, game and period inside one flush are summed
+     * into a single row update.
+     * </p>
+     *
+     * @param writeBehind the queue, or null to write synchronously
+     */
+    public void setWriteBehind(WriteBehindQueue writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Adds one game result to the rollups of several periods.
+     *
+     * @param delta   the result (points, games, wins, losses and time to add)
+     * @param periods period type to period index, one row updated per entry
+     * @throws SQLException if database error occurs, or the write-behind queue
+     *                      is full
+     */
+    public void addResult(GameScore delta, Map<String, Long> periods) throws SQLException {
+        List<PeriodDelta> deltas = new ArrayList<>(periods.size());
+        for (Map.Entry<String, Long> period : periods.entrySet()) {
+            deltas.add(new PeriodDelta(delta, period.getKey(), period.getValue()));
+        }
+
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            for (PeriodDelta d : deltas) {
+                queue.submit(deltaWriter,
+                        List.of(delta.userId(), delta.gameId(), d.periodType(), d.periodIndex()),
+                        d, PeriodStatsDAO::sum);
+            }
+            return;
+        }
+        try (Connection conn = dbManager.getConnectionInternal()) {
+            writeDeltas(conn, deltas);
+        }
+        logger.debug("Added {} points for user {} on game {} to periods {}",
+                delta.points(), delta.userId(), delta.gameId(), periods);
+    }
+
+    private static PeriodDelta sum(PeriodDelta queued, PeriodDelta latest) {
+        GameScore a = queued.delta();
+        GameScore b = latest.delta();
+        return new PeriodDelta(new GameScore(a.userId(), a.gameId(),
+                a.points() + b.points(),
+                a.gamesPlayed() + b.gamesPlayed(),
+                a.wins() + b.wins(),
+                a.losses() + b.losses(),
+                a.totalTime().plus(b.totalTime()),
+                b.lastPlayed()), latest.periodType(), latest.periodIndex());
+    }
+
+    private void writeDeltas(Connection conn, List<PeriodDelta> deltas) throws SQLException {
+        String sql = """
+                MERGE INTO user_game_period_stats t
+                USING (SELECT CAST(? AS BIGINT) AS user_id) s
+                ON t.user_id = s.user_id AND t.game_type = ?
+                   AND t.period_type = ? AND t.period_index = ?
+                WHEN MATCHED THEN UPDATE SET
+                    total_points = t.total_points + ?,
+                    games_played = t.games_played + ?,
+                    wins = t.wins + ?,
+                    losses = t.losses + ?,
+                    total_time_seconds = t.total_time_seconds + ?,
+                    last_played = ?
+                WHEN NOT MATCHED THEN INSERT (user_id, game_type, period_type, period_index,
+                                              total_points, games_played, wins, losses,
+                                              total_time_seconds, last_played)
+                    VALUES (s.user_id, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (PeriodDelta d : deltas) {
+                GameScore delta = d.delta();
+                Timestamp lastPlayed = Timestamp.from(delta.lastPlayed());
+                long seconds = delta.totalTime().toSeconds();
+                stmt.setLong(1, users.requireUserId(conn, delta.userId()));
+                stmt.setString(2, delta.gameId());
+                stmt.setString(3, d.periodType());
+                stmt.setLong(4, d.periodIndex());
+                stmt.setLong(5, delta.points());
+                stmt.setInt(6, delta.gamesPlayed());
+                stmt.setInt(7, delta.wins());
+                stmt.setInt(8, delta.losses());
+                stmt.setLong(9, seconds);
+                stmt.setTimestamp(10, lastPlayed);
+                stmt.setString(11, delta.gameId());
+                stmt.setString(12, d.periodType());
+                stmt.setLong(13, d.periodIndex());
+                stmt.setLong(14, delta.points());
+                stmt.setInt(15, delta.gamesPlayed());
+                stmt.setInt(16, delta.wins());
+                stmt.setInt(17, delta.losses());
+                stmt.setLong(18, seconds);
+                stmt.setTimestamp(19, lastPlayed);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Streams the rollups of one period type, from a given period onwards.
+     *
+     * @param periodType  period type (e.g. "WEEKLY")
+     * @param fromIndex   oldest period index to include
+     * @param consumer    receives each row with its period index
+     * @throws SQLException if database error occurs
+     */
+    public void forEachPeriodStats(String periodType, long fromIndex, PeriodStatsConsumer consumer)
+            throws SQLException {
+        String sql = """
+                SELECT u.username, s.game_type, s.period_index, s.total_points, s.games_played,
+                       s.wins, s.losses, s.total_time_seconds, s.last_played
+                FROM user_game_period_stats s
+                JOIN users u ON s.user_id = u.id
+                WHERE s.period_type = ? AND s.period_index >= ?
+                """;
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, periodType);
+            stmt.setLong(2, fromIndex);
+            stmt.setFetchSize(1000);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp lastPlayed = rs.getTimestamp("last_played");
+                    consumer.accept(rs.getLong("period_index"), new GameScore(
+                            rs.getString("username"),
+                            rs.getString("game_type"),
+                            rs.getLong("total_points"),
+                            rs.getInt("games_played"),
+                            rs.getInt("wins"),
+                            rs.getInt("losses"),
+                            Duration.ofSeconds(rs.getLong("total_time_seconds")),
+                            lastPlayed != null ? lastPlayed.toInstant() : Instant.now()));
+                }
+            }
+        }
+    }
+}
@@ -27,6 +27,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jgame.model.GameRating;
 import org.jgame.server.persistence.DatabaseManager;
+import org.jgame.server.persistence.LookupCache;
+import org.jgame.server.persistence.dto.RatingSummary;
 
 import java.sql.*;
 import java.time.Instant;
@@ -37,14 +39,21 @@ import java.util.Optional;
 /**
  * Data Access Object for game ratings.
  *
+ * <p>
+ * Per-game ratings and their aggregates are cached together and invalidated
+ * whenever a rating of that game is saved or deleted.
+ * </p>
+ *
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.2
  */
 public class RatingDAO {
 
     private static final Logger logger = LogManager.getLogger(RatingDAO.class);
 
     private final DatabaseManager dbManager;
+    private final UserDAO users;
+    private final LookupCache<String, RatingSummary> summaries = LookupCache.configured("ratings", 1000);
 
     /**
      * Creates a new RatingDAO with injected DatabaseManager.
@@ -52,7 +61,18 @@ public class RatingDAO {
      * @param dbManager database manager instance
      */
     public RatingDAO(DatabaseManager dbManager) {
+        this(dbManager, new UserDAO(dbManager));
+    }
+
+    /**
+     * Creates a new RatingDAO sharing the username to ID cache of a UserDAO.
+     *
+     * @param dbManager database manager instance
+     * @param users     resolves usernames to user IDs
+     */
+    public RatingDAO(DatabaseManager dbManager, UserDAO users) {
         this.dbManager = dbManager;
+        this.users = users;
     }
 
     /**
@@ -66,16 +86,13 @@ public class RatingDAO {
         String sql = """
                 MERGE INTO ratings (user_id, game_type, stars, comment, created_at, updated_at)
                 KEY (user_id, game_type)
-                VALUES (
-                    (SELECT id FROM users WHERE username = ?),
-                    ?, ?, ?, ?, ?
-                )
+                VALUES (?, ?, ?, ?, ?, ?)
                 """;
 
         try (Connection conn = dbManager.getConnectionInternal();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, rating.userId());
+            stmt.setLong(1, users.requireUserId(conn, rating.userId()));
             stmt.setString(2, rating.gameId());
             stmt.setInt(3, rating.stars());
             stmt.setString(4, rating.comment());
@@ -83,6 +100,7 @@ public class RatingDAO {
             stmt.setTimestamp(6, Timestamp.from(Instant.now()));
 
             stmt.executeUpdate();
+            summaries.invalidate(rating.gameId());
             logger.info("Saved rating for user {} on game {}: {} stars",
                     rating.userId(), rating.gameId(), rating.stars());
 
@@ -121,6 +139,17 @@ public class RatingDAO {
         return Optional.empty();
     }
 
+    /**
+     * Gets all ratings for a game with their average and count.
+     *
+     * @param gameId game type identifier
+     * @return ratings summary, served from cache when possible
+     * @throws SQLException if database error occurs
+     */
+    public RatingSummary getRatingSummary(String gameId) throws SQLException {
+        return summaries.get(gameId, id -> RatingSummary.of(id, loadRatingsForGame(id)));
+    }
+
     /**
      * Gets all ratings for a game.
      *
@@ -129,27 +158,7 @@ public class RatingDAO {
      * @throws SQLException if database error occurs
      */
     public List<GameRating> getRatingsForGame(String gameId) throws SQLException {
-        String sql = """
-                SELECT u.username, r.game_type, r.stars, r.comment, r.created_at, r.updated_at
-                FROM ratings r
-                JOIN users u ON r.user_id = u.id
-                WHERE r.game_type = ?
-                ORDER BY r.updated_at DESC
-                """;
-
-        List<GameRating> ratings = new ArrayList<>();
-        try (Connection conn = dbManager.getConnectionInternal();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, gameId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    ratings.add(mapRating(rs));
-                }
-            }
-        }
-        return ratings;
+        return getRatingSummary(gameId).ratings();
     }
 
     /**
@@ -160,20 +169,7 @@ public class RatingDAO {
      * @throws SQLException if database error occurs
      */
     public double getAverageRating(String gameId) throws SQLException {
-        String sql = "SELECT AVG(stars) FROM ratings WHERE game_type = ?";
-
-        try (Connection conn = dbManager.getConnectionInternal();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, gameId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getDouble(1);
-                }
-            }
-        }
-        return 0.0;
+        return getRatingSummary(gameId).average();
     }
 
     /**
@@ -184,20 +180,50 @@ public class RatingDAO {
      * @throws SQLException if database error occurs
      */
     public int getRatingCount(String gameId) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM ratings WHERE game_type = ?";
+        return getRatingSummary(gameId).count();
+    }
 
+    /**
+     * Drops every cached summary after a user is deleted, since the
+     * database removed the user's ratings of any game. Register with
+     * {@link UserDAO#addDeletionListener}.
+     *
+     * @param userId   the deleted user's ID
+     * @param username the deleted user's name
+     */
+    public void onUserDeleted(long userId, String username) {
+        summaries.invalidateAll();
+    }
+
+    /**
+     * Gets the rating cache counters.
+     */
+    public LookupCache.Stats getCacheStats() {
+        return summaries.stats();
+    }
+
+    private List<GameRating> loadRatingsForGame(String gameId) throws SQLException {
+        String sql = """
+                SELECT u.username, r.game_type, r.stars, r.comment, r.created_at, r.updated_at
+                FROM ratings r
+                JOIN users u ON r.user_id = u.id
+                WHERE r.game_type = ?
+                ORDER BY r.updated_at DESC
+                """;
+
+        List<GameRating> ratings = new ArrayList<>();
         try (Connection conn = dbManager.getConnectionInternal();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, gameId);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
+                while (rs.next()) {
+                    ratings.add(mapRating(rs));
                 }
             }
         }
-        return 0;
+        return ratings;
     }
 
     /**
@@ -211,18 +237,22 @@ public class RatingDAO {
     public boolean deleteRating(String userId, String gameId) throws SQLException {
         String sql = """
                 DELETE FROM ratings
-                WHERE user_id = (SELECT id FROM users WHERE username = ?)
-                AND game_type = ?
+                WHERE user_id = ? AND game_type = ?
                 """;
 
         try (Connection conn = dbManager.getConnectionInternal();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, userId);
+            long id = users.findUserId(conn, userId);
+            if (id < 0) {
+                return false;
+            }
+            stmt.setLong(1, id);
             stmt.setString(2, gameId);
 
             int affected = stmt.executeUpdate();
             if (affected > 0) {
+                summaries.invalidate(gameId);
                 logger.info("Deleted rating for user {} on game {}", userId, gameId);
                 return true;
             }
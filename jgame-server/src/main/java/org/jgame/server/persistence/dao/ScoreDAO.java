@@ -24,6 +24,7 @@
 package org.jgame.server.persistence.dao;
 
 import org.jgame.server.persistence.DatabaseManager;
+import org.jgame.server.persistence.WriteBehindQueue;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -44,6 +45,11 @@ public class ScoreDAO {
     private static final Logger LOGGER = Logger.getLogger(ScoreDAO.class.getName());
 
     private final DatabaseManager dbManager;
+    private final WriteBehindQueue.BatchWriter<ScoreRow> scoreWriter = this::writeScores;
+    private volatile WriteBehindQueue writeBehind;
+
+    private record ScoreRow(long userId, long gameId, double score, int position) {
+    }
 
     /**
      * Creates a new ScoreDAO with injected DatabaseManager.
@@ -91,6 +97,59 @@ public class ScoreDAO {
         return -1;
     }
 
+    /**
+     * Routes {@link #queueScore} through a write-behind queue.
+     *
+     * @param writeBehind the queue, or null to write synchronously
+     */
+    public void setWriteBehind(WriteBehindQueue writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Saves a score without waiting for the database.
+     *
+     * <p>
+     * Scores are appended in submission order by the write-behind queue, in
+     * batches. Falls back to {@link #saveScore} when no queue is set. Use
+     * {@link #saveScore} when the generated ID is needed.
+     * </p>
+     *
+     * @param userId   user ID
+     * @param gameId   game ID
+     * @param score    score value
+     * @param position final position (1st, 2nd, etc.)
+     * @return true if the score was queued or saved
+     */
+    public boolean queueScore(long userId, long gameId, double score, int position) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue == null) {
+            return saveScore(userId, gameId, score, position) != -1;
+        }
+        try {
+            queue.submit(scoreWriter, null, new ScoreRow(userId, gameId, score, position), null);
+            return true;
+        } catch (SQLException e) {
+            LOGGER.severe("Error queueing score: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void writeScores(Connection conn, List<ScoreRow> rows) throws SQLException {
+        String sql = "INSERT INTO scores (user_id, game_id, score, position) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (ScoreRow row : rows) {
+                stmt.setLong(1, row.userId());
+                stmt.setLong(2, row.gameId());
+                stmt.setDouble(3, row.score());
+                stmt.setInt(4, row.position());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
     /**
      * Gets all scores for a specific user.
      * 
@@ -24,24 +24,46 @@
 package org.jgame.server.persistence.dao;
 
 import org.jgame.server.persistence.DatabaseManager;
+import org.jgame.server.persistence.LookupCache;
+import org.jgame.server.persistence.dto.UserCredentials;
+import org.jgame.server.persistence.dto.UserProfile;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 
 /**
  * Data Access Object for User entity.
  * Handles all database operations related to users.
  *
+ * <p>
+ * Username to ID lookups and profiles are cached; both are invalidated by
+ * the writes in this class that change them. Credentials are never cached.
+ * DAOs caching rows that deleting a user cascades to register a
+ * {@link DeletionListener}.
+ * </p>
+ *
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.3
  */
 public class UserDAO {
 
     private static final Logger LOGGER = Logger.getLogger(UserDAO.class.getName());
 
     private final DatabaseManager dbManager;
+    private final LookupCache<String, Long> userIds = LookupCache.configured("users", 10000);
+    private final LookupCache<String, UserProfile> profiles = LookupCache.configured("profiles", 10000);
+    private final List<DeletionListener> deletionListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Notified after a user is deleted, with the rows that reference it.
+     */
+    public interface DeletionListener {
+        void onUserDeleted(long userId, String username);
+    }
 
     /**
      * Creates a new UserDAO with injected DatabaseManager.
@@ -75,6 +97,7 @@ public class UserDAO {
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         long userId = rs.getLong(1);
+                        userIds.invalidate(username);
                         LOGGER.info("Created user: " + username + " (ID: " + userId + ")");
                         return userId;
                     }
@@ -94,10 +117,62 @@ public class UserDAO {
      * @return user ID if found, -1 otherwise
      */
     public long getUserByUsername(String username) {
+        try {
+            Long userId = userIds.get(username, this::loadUserId);
+            return userId != null ? userId : -1;
+        } catch (SQLException e) {
+            LOGGER.severe("Error finding user: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets a user's ID for a statement about to run on {@code conn}.
+     *
+     * <p>
+     * Served from the username cache; on a miss the ID is read on the given
+     * connection, so callers inside a transaction need no second connection.
+     * </p>
+     *
+     * @param conn     connection of the caller
+     * @param username username
+     * @return user ID
+     * @throws SQLException if the user does not exist (SQL state 23503), or on
+     *                      database error
+     */
+    public long requireUserId(Connection conn, String username) throws SQLException {
+        long userId = findUserId(conn, username);
+        if (userId < 0) {
+            throw new SQLException("Unknown user: " + username, "23503");
+        }
+        return userId;
+    }
+
+    /**
+     * Gets a user's ID like {@link #requireUserId}, for callers that treat an
+     * unknown user as no match.
+     *
+     * @param conn     connection of the caller
+     * @param username username
+     * @return user ID, or -1 if the user does not exist
+     * @throws SQLException if database error occurs
+     */
+    public long findUserId(Connection conn, String username) throws SQLException {
+        Long userId = userIds.get(username, name -> loadUserId(conn, name));
+        return userId != null ? userId : -1;
+    }
+
+    private Long loadUserId(String username) throws SQLException {
+        try (Connection conn = dbManager.getConnectionInternal()) {
+            return loadUserId(conn, username);
+        }
+    }
+
+    private Long loadUserId(Connection conn, String username) throws SQLException {
         String sql = "SELECT id FROM users WHERE username = ?";
 
-        try (Connection conn = dbManager.getConnectionInternal();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, username);
 
@@ -106,41 +181,104 @@ public class UserDAO {
                     return rs.getLong("id");
                 }
             }
+        }
+        return null;
+    }
+
+    /**
+     * Gets a user's profile.
+     *
+     * @param username username
+     * @return profile if the user exists
+     */
+    public Optional<UserProfile> getProfile(String username) {
+        try {
+            return Optional.ofNullable(profiles.get(username, this::loadProfile));
         } catch (SQLException e) {
-            LOGGER.severe("Error finding user: " + e.getMessage());
+            LOGGER.severe("Error getting profile: " + e.getMessage());
         }
 
-        return -1;
+        return Optional.empty();
+    }
+
+    private UserProfile loadProfile(String username) throws SQLException {
+        String sql = "SELECT id, username, email, created_at FROM users WHERE username = ?";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, username);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    return new UserProfile(
+                            rs.getLong("id"),
+                            rs.getString("username"),
+                            rs.getString("email"),
+                            createdAt != null ? createdAt.toInstant() : null);
+                }
+            }
+        }
+        return null;
     }
 
     /**
-     * Verifies user credentials.
-     * 
-     * @param username     username
-     * @param passwordHash hashed password to verify
-     * @return user ID if credentials valid, -1 otherwise
+     * Gets the username and profile cache counters.
      */
-    public long verifyCredentials(String username, String passwordHash) {
-        String sql = "SELECT id FROM users WHERE username = ? AND password_hash = ?";
+    public List<LookupCache.Stats> getCacheStats() {
+        return List.of(userIds.stats(), profiles.stats());
+    }
+
+    /**
+     * Gets the stored credentials of a user, for checking a password.
+     *
+     * @param username username
+     * @return the user ID and stored password hash, if the user exists
+     */
+    public Optional<UserCredentials> getCredentials(String username) {
+        String sql = "SELECT id, password_hash FROM users WHERE username = ?";
 
         try (Connection conn = dbManager.getConnectionInternal();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, username);
-            stmt.setString(2, passwordHash);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    long userId = rs.getLong("id");
-                    updateLastLogin(userId);
-                    return userId;
+                    return Optional.of(new UserCredentials(rs.getLong("id"), rs.getString("password_hash")));
                 }
             }
         } catch (SQLException e) {
-            LOGGER.severe("Error verifying credentials: " + e.getMessage());
+            LOGGER.severe("Error getting credentials: " + e.getMessage());
         }
 
-        return -1;
+        return Optional.empty();
+    }
+
+    /**
+     * Replaces a password hash, e.g. after rehashing it at a new cost,
+     * unless the password was changed in the meantime.
+     *
+     * @param userId       user ID
+     * @param expectedHash the hash that was checked
+     * @param newHash      the replacement hash
+     * @return true if replaced
+     */
+    public boolean replacePasswordHash(long userId, String expectedHash, String newHash) {
+        String sql = "UPDATE users SET password_hash = ? WHERE id = ? AND password_hash = ?";
+
+        try (Connection conn = dbManager.getConnectionInternal();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, newHash);
+            stmt.setLong(2, userId);
+            stmt.setString(3, expectedHash);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            LOGGER.warning("Error replacing password hash: " + e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -174,10 +312,17 @@ public class UserDAO {
         try (Connection conn = dbManager.getConnectionInternal();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
+            // Listeners key their caches by username
+            String username = findUsername(conn, userId);
             stmt.setLong(1, userId);
             int affected = stmt.executeUpdate();
 
             if (affected > 0) {
+                userIds.invalidateIf(id -> id == userId);
+                profiles.invalidateIf(profile -> profile.userId() == userId);
+                for (DeletionListener listener : deletionListeners) {
+                    listener.onUserDeleted(userId, username);
+                }
                 LOGGER.info("Deleted user ID: " + userId);
                 return true;
             }
@@ -188,6 +333,24 @@ public class UserDAO {
         return false;
     }
 
+    private static String findUsername(Connection conn, long userId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT username FROM users WHERE id = ?")) {
+            stmt.setLong(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Adds a listener notified after each {@link #deleteUser}.
+     *
+     * @param listener the listener
+     */
+    public void addDeletionListener(DeletionListener listener) {
+        deletionListeners.add(listener);
+    }
+
     /**
      * Gets all usernames in the database.
      * 
@@ -250,7 +413,9 @@ public class UserDAO {
                 stmt.setObject(i + 1, params.get(i));
             }
 
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            profiles.invalidate(username);
+            return updated;
         } catch (SQLException e) {
             LOGGER.severe("Error updating user: " + e.getMessage());
             return false;
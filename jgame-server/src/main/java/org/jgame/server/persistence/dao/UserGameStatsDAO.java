@@ -27,6 +27,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jgame.model.GameScore;
 import org.jgame.server.persistence.DatabaseManager;
+import org.jgame.server.persistence.LookupCache;
+import org.jgame.server.persistence.WriteBehindQueue;
 
 import java.sql.*;
 import java.time.Duration;
@@ -34,18 +36,49 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for user game statistics.
  *
+ * <p>
+ * Each user's stats are cached as a whole and invalidated when any of them is
+ * saved. With write-behind enabled they are invalidated again once the write
+ * is committed, in case a read refilled the cache in between.
+ * </p>
+ *
  * @author Silvere Martin-Michiellot
- * @version 2.0
+ * @version 2.3
  */
 public class UserGameStatsDAO {
 
     private static final Logger logger = LogManager.getLogger(UserGameStatsDAO.class);
 
     private final DatabaseManager dbManager;
+    private final UserDAO users;
+    private final List<StatsListener> listeners = new CopyOnWriteArrayList<>();
+    private final LookupCache<String, List<GameScore>> userStats = LookupCache.configured("stats", 10000);
+    private final WriteBehindQueue.BatchWriter<GameScore> statsWriter = new WriteBehindQueue.BatchWriter<>() {
+        @Override
+        public void writeBatch(Connection conn, List<GameScore> rows) throws SQLException {
+            writeStats(conn, rows);
+        }
+
+        @Override
+        public void afterCommit(List<GameScore> rows) {
+            rows.forEach(score -> userStats.invalidate(score.userId()));
+            rows.forEach(UserGameStatsDAO.this::notifyListeners);
+        }
+    };
+    private volatile WriteBehindQueue writeBehind;
+
+    /**
+     * Notified after stats have been written.
+     */
+    public interface StatsListener {
+        void onStatsSaved(GameScore score);
+    }
 
     /**
      * Creates a new UserGameStatsDAO with injected DatabaseManager.
@@ -53,7 +86,18 @@ public class UserGameStatsDAO {
      * @param dbManager database manager instance
      */
     public UserGameStatsDAO(DatabaseManager dbManager) {
+        this(dbManager, new UserDAO(dbManager));
+    }
+
+    /**
+     * Creates a new UserGameStatsDAO sharing the username to ID cache of a UserDAO.
+     *
+     * @param dbManager database manager instance
+     * @param users     resolves usernames to user IDs
+     */
+    public UserGameStatsDAO(DatabaseManager dbManager, UserDAO users) {
         this.dbManager = dbManager;
+        this.users = users;
     }
 
     /**
@@ -65,37 +109,43 @@ public class UserGameStatsDAO {
      * @throws SQLException if database error occurs
      */
     public Optional<GameScore> getStats(String userId, String gameId) throws SQLException {
-        String sql = """
-                SELECT u.username, s.game_type, s.total_points, s.games_played,
-                       s.wins, s.losses, s.total_time_seconds, s.last_played
-                FROM user_game_stats s
-                JOIN users u ON s.user_id = u.id
-                WHERE u.username = ? AND s.game_type = ?
-                """;
-
-        try (Connection conn = dbManager.getConnectionInternal();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, userId);
-            stmt.setString(2, gameId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapScore(rs));
-                }
-            }
-        }
-        return Optional.empty();
+        return getAllStatsForUser(userId).stream()
+                .filter(score -> score.gameId().equals(gameId))
+                .findFirst();
     }
 
     /**
      * Gets all game stats for a user.
      *
      * @param userId user identifier
-     * @return list of game scores
+     * @return list of game scores, highest points first
      * @throws SQLException if database error occurs
      */
     public List<GameScore> getAllStatsForUser(String userId) throws SQLException {
+        return userStats.get(userId, this::loadAllStatsForUser);
+    }
+
+    /**
+     * Drops the cached stats of a deleted user, whose rows the database
+     * removed with it. Register with {@link UserDAO#addDeletionListener}.
+     *
+     * @param userId   the deleted user's ID
+     * @param username the deleted user's name
+     */
+    public void onUserDeleted(long userId, String username) {
+        if (username != null) {
+            userStats.invalidate(username);
+        }
+    }
+
+    /**
+     * Gets the stats cache counters.
+     */
+    public LookupCache.Stats getCacheStats() {
+        return userStats.stats();
+    }
+
+    private List<GameScore> loadAllStatsForUser(String userId) throws SQLException {
         String sql = """
                 SELECT u.username, s.game_type, s.total_points, s.games_played,
                        s.wins, s.losses, s.total_time_seconds, s.last_played
@@ -117,44 +167,127 @@ public class UserGameStatsDAO {
                 }
             }
         }
-        return scores;
+        return List.copyOf(scores);
+    }
+
+    /**
+     * Routes {@link #saveStats} through a write-behind queue.
+     *
+     * <p>
+     * Listeners are then notified from the flusher thread once the write is
+     * committed, and repeated updates for the same user and game inside one
+     * flush are coalesced.
+     * </p>
+     *
+     * @param writeBehind the queue, or null to write synchronously
+     */
+    public void setWriteBehind(WriteBehindQueue writeBehind) {
+        this.writeBehind = writeBehind;
     }
 
     /**
      * Records a game result (win or loss).
      *
      * @param score updated game score
-     * @throws SQLException if database error occurs
+     * @throws SQLException if database error occurs, or the write-behind queue
+     *                      is full
      */
     public void saveStats(GameScore score) throws SQLException {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            queue.submit(statsWriter, List.of(score.userId(), score.gameId()), score,
+                    (queued, latest) -> latest);
+            userStats.invalidate(score.userId());
+        } else {
+            try (Connection conn = dbManager.getConnectionInternal()) {
+                writeStats(conn, List.of(score));
+            }
+            userStats.invalidate(score.userId());
+            logger.info("Saved stats for user {} on game {}: {} points, {} wins",
+                    score.userId(), score.gameId(), score.points(), score.wins());
+            notifyListeners(score);
+        }
+    }
+
+    private void notifyListeners(GameScore score) {
+        for (StatsListener listener : listeners) {
+            try {
+                listener.onStatsSaved(score);
+            } catch (Exception e) {
+                logger.warn("Stats listener error: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void writeStats(Connection conn, List<GameScore> scores) throws SQLException {
         String sql = """
                 MERGE INTO user_game_stats (user_id, game_type, total_points, games_played,
                                             wins, losses, total_time_seconds, last_played)
                 KEY (user_id, game_type)
-                VALUES (
-                    (SELECT id FROM users WHERE username = ?),
-                    ?, ?, ?, ?, ?, ?, ?
-                )
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (GameScore score : scores) {
+                stmt.setLong(1, users.requireUserId(conn, score.userId()));
+                stmt.setString(2, score.gameId());
+                stmt.setLong(3, score.points());
+                stmt.setInt(4, score.gamesPlayed());
+                stmt.setInt(5, score.wins());
+                stmt.setInt(6, score.losses());
+                stmt.setLong(7, score.totalTime().toSeconds());
+                stmt.setTimestamp(8, Timestamp.from(score.lastPlayed()));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Streams every stats row, for all users and game types.
+     *
+     * @param consumer receives each row
+     * @throws SQLException if database error occurs
+     */
+    public void forEachStats(Consumer<GameScore> consumer) throws SQLException {
+        String sql = """
+                SELECT u.username, s.game_type, s.total_points, s.games_played,
+                       s.wins, s.losses, s.total_time_seconds, s.last_played
+                FROM user_game_stats s
+                JOIN users u ON s.user_id = u.id
                 """;
 
         try (Connection conn = dbManager.getConnectionInternal();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, score.userId());
-            stmt.setString(2, score.gameId());
-            stmt.setLong(3, score.points());
-            stmt.setInt(4, score.gamesPlayed());
-            stmt.setInt(5, score.wins());
-            stmt.setInt(6, score.losses());
-            stmt.setLong(7, score.totalTime().toSeconds());
-            stmt.setTimestamp(8, Timestamp.from(score.lastPlayed()));
+            stmt.setFetchSize(1000);
 
-            stmt.executeUpdate();
-            logger.info("Saved stats for user {} on game {}: {} points, {} wins",
-                    score.userId(), score.gameId(), score.points(), score.wins());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapScore(rs));
+                }
+            }
         }
     }
 
+    /**
+     * Adds a listener notified after each {@link #saveStats} is committed.
+     *
+     * @param listener the listener
+     */
+    public void addStatsListener(StatsListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a stats listener.
+     *
+     * @param listener the listener
+     */
+    public void removeStatsListener(StatsListener listener) {
+        listeners.remove(listener);
+    }
+
     /**
      * Gets the leaderboard for a game type.
      *
@@ -0,0 +1,45 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence.dto;
+
+/**
+ * Data Transfer Object for a stored game snapshot.
+ *
+ * @param gameId    the game's unique ID
+ * @param gameType  the type of game (e.g., "GOOSE", "CHECKERS")
+ * @param state     binary snapshot (see {@code SnapshotFormat}), or null if
+ *                  the row still holds a legacy JSON state
+ * @param stateJson legacy JSON state, or null once migrated
+ * @param sequence  sequence number of the last move included in the state
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public record GameSnapshot(
+        long gameId,
+        String gameType,
+        byte[] state,
+        String stateJson,
+        long sequence) {
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence.dto;
+
+import org.jgame.model.GameRating;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for all ratings of a game and their aggregates.
+ *
+ * @param gameId  the game type
+ * @param ratings all ratings, newest first
+ * @param average average stars, or 0 if there are no ratings
+ * @param count   number of ratings
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public record RatingSummary(
+        String gameId,
+        List<GameRating> ratings,
+        double average,
+        int count) {
+    /**
+     * Compact constructor making the list immutable.
+     */
+    public RatingSummary {
+        ratings = List.copyOf(ratings);
+    }
+
+    /**
+     * Builds a summary by aggregating a list of ratings.
+     *
+     * @param gameId  the game type
+     * @param ratings all ratings of the game
+     * @return summary
+     */
+    public static RatingSummary of(String gameId, List<GameRating> ratings) {
+        double average = ratings.stream().mapToInt(GameRating::stars).average().orElse(0.0);
+        return new RatingSummary(gameId, ratings, average, ratings.size());
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.security;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.PerformanceConfig;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a dedicated, bounded pool.
+ *
+ * <p>
+ * BCrypt is deliberately slow, so running it on request threads lets a
+ * login storm stall every other endpoint. Here at most {@code threads}
+ * hashes run at once and at most {@code queueCapacity} wait; beyond that,
+ * {@link #hash} and {@link #matches} throw {@link RejectedExecutionException}
+ * immediately so that the caller can answer 503. Dependent stages run on
+ * virtual threads rather than on the hashing threads.
+ * </p>
+ *
+ * <p>
+ * The cost factor is either fixed or calibrated at startup to the highest
+ * value whose hash takes no longer than {@code targetMillis}. Stored hashes
+ * with a lower cost, and legacy plaintext passwords, are reported by
+ * {@link #needsRehash} so that they can be replaced on the next login.
+ * Hashes with a higher cost are kept, so that a slower calibration run
+ * does not downgrade them.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.1
+ */
+public class CredentialHasher implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(CredentialHasher.class);
+
+    /**
+     * Lowest cost calibration will choose.
+     */
+    public static final int MIN_CALIBRATED_COST = 10;
+
+    /**
+     * Highest cost calibration will choose.
+     */
+    public static final int MAX_CALIBRATED_COST = 16;
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService continuations = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("jgame-bcrypt-done-", 0).factory());
+    private final int cost;
+    private final String dummyHash;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a hasher.
+     *
+     * @param threads       hashing threads
+     * @param queueCapacity hashes allowed to wait for a thread
+     * @param cost          BCrypt cost factor (log2 rounds, 4-31)
+     */
+    public CredentialHasher(int threads, int queueCapacity, int cost) {
+        this.cost = cost;
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread thread = new Thread(r, "jgame-bcrypt-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        // Checked against when the user does not exist, so that the response
+        // takes as long as for a wrong password
+        this.dummyHash = BCrypt.hashpw("jgame-no-such-user", BCrypt.gensalt(cost));
+    }
+
+    /**
+     * Creates a hasher from the {@code security.bcrypt.*} keys in
+     * {@code performance.properties}.
+     */
+    public static CredentialHasher fromConfig() {
+        Properties props = PerformanceConfig.load();
+        int threads = Integer.parseInt(props.getProperty("security.bcrypt.threads", "0").trim());
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        int queueCapacity = Integer.parseInt(props.getProperty("security.bcrypt.queueCapacity", "64").trim());
+        int cost = Integer.parseInt(props.getProperty("security.bcrypt.cost", "0").trim());
+        if (cost <= 0) {
+            cost = calibrate(Long.parseLong(props.getProperty("security.bcrypt.targetMillis", "250").trim()));
+        }
+        logger.info("Password hashing on {} threads (queue {}), BCrypt cost {}", threads, queueCapacity, cost);
+        return new CredentialHasher(threads, queueCapacity, cost);
+    }
+
+    /**
+     * Finds the highest cost whose hash takes at most the target time on
+     * this machine. Each extra unit of cost doubles the time.
+     *
+     * @param targetMillis target time for one hash
+     * @return cost between {@link #MIN_CALIBRATED_COST} and
+     *         {@link #MAX_CALIBRATED_COST}
+     */
+    public static int calibrate(long targetMillis) {
+        String salt = BCrypt.gensalt(MIN_CALIBRATED_COST);
+        BCrypt.hashpw("calibration", salt); // Warm-up
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", salt);
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        int cost = MIN_CALIBRATED_COST;
+        while (cost < MAX_CALIBRATED_COST && millis * 2 <= targetMillis) {
+            cost++;
+            millis *= 2;
+        }
+        return cost;
+    }
+
+    /**
+     * Hashes a password.
+     *
+     * @param password the plaintext password
+     * @return future BCrypt hash at the current cost
+     * @throws RejectedExecutionException if the pool is saturated
+     */
+    public CompletableFuture<String> hash(String password) {
+        return submit(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost)));
+    }
+
+    /**
+     * Checks a password against a stored hash.
+     *
+     * @param password   the plaintext password
+     * @param storedHash the stored BCrypt hash, a legacy plaintext password,
+     *                   or null if the user does not exist
+     * @return future result; false if {@code storedHash} is null
+     * @throws RejectedExecutionException if the pool is saturated
+     */
+    public CompletableFuture<Boolean> matches(String password, String storedHash) {
+        if (storedHash != null && costOf(storedHash) < 0) {
+            return CompletableFuture.completedFuture(MessageDigest.isEqual(
+                    password.getBytes(StandardCharsets.UTF_8), storedHash.getBytes(StandardCharsets.UTF_8)));
+        }
+        String hash = storedHash != null ? storedHash : dummyHash;
+        return submit(() -> checkpw(password, hash) && storedHash != null);
+    }
+
+    /**
+     * Checks whether a stored password should be replaced by a hash at the
+     * current cost.
+     *
+     * @param storedHash the stored BCrypt hash or legacy plaintext password
+     * @return true if it is plaintext or has a lower cost
+     */
+    public boolean needsRehash(String storedHash) {
+        return costOf(storedHash) < cost;
+    }
+
+    /**
+     * Reads the cost factor of a BCrypt hash.
+     *
+     * @param hash a stored password
+     * @return the cost, or -1 if it is not a BCrypt hash
+     */
+    public static int costOf(String hash) {
+        if (hash == null || hash.length() != 60 || hash.charAt(0) != '$' || hash.charAt(1) != '2'
+                || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = hash.charAt(4);
+        char units = hash.charAt(5);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    /**
+     * Gets the current BCrypt cost factor.
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets pool statistics for logging.
+     */
+    public String getStats() {
+        return String.format("CredentialHasher [cost=%d, active=%d, queued=%d, completed=%d, rejected=%d]",
+                cost, pool.getActiveCount(), pool.getQueue().size(), pool.getCompletedTaskCount(), rejected.sum());
+    }
+
+    /**
+     * Stops accepting work. Hashes already queued still complete, so the
+     * continuation executor is shut down only after the pool has drained.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Password hashing pool did not drain within 10 s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        continuations.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(task, pool);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        return result.thenApplyAsync(Function.identity(), continuations);
+    }
+
+    private static boolean checkpw(String password, String hash) {
+        try {
+            return BCrypt.checkpw(password, hash);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Malformed password hash: {}", e.getMessage());
+            return false;
+        }
+    }
+}
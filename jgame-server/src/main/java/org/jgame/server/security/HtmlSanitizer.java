@@ -23,31 +23,33 @@
  */
 package org.jgame.server.security;
 
-import java.util.regex.Pattern;
-
 /**
  * HTML/XSS sanitization utilities.
- * 
+ *
  * <p>Provides comprehensive protection against XSS attacks.</p>
  *
+ * <p>
+ * {@link #sanitize} makes a single pass over the input and writes escaped
+ * text straight into the output builder. Script blocks are skipped as they
+ * are read; event handler attributes, {@code javascript:}, {@code data:} and
+ * {@code vbscript:} URLs and CSS {@code expression(} are recognised when
+ * their final character ({@code =}, {@code :} or {@code (}) arrives, by
+ * looking back over what was just written, and cut out of the output. Since
+ * the look-back sees the output, a pattern assembled from the pieces around
+ * a removal is caught as well. Every look-back stops at the previous
+ * trigger character, so the whole pass stays linear.
+ * </p>
+ *
  * @author Google Gemini (Antigravity)
- * @version 1.0
+ * @version 2.0
  */
 public final class HtmlSanitizer {
 
-    // Dangerous patterns
-    private static final Pattern SCRIPT_PATTERN = Pattern.compile(
-            "<script[^>]*>.*?</script>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
-    private static final Pattern EVENT_HANDLER_PATTERN = Pattern.compile(
-            "\\s+on\\w+\\s*=", Pattern.CASE_INSENSITIVE);
-    private static final Pattern JAVASCRIPT_URL_PATTERN = Pattern.compile(
-            "javascript\\s*:", Pattern.CASE_INSENSITIVE);
-    private static final Pattern DATA_URL_PATTERN = Pattern.compile(
-            "data\\s*:", Pattern.CASE_INSENSITIVE);
-    private static final Pattern VBSCRIPT_URL_PATTERN = Pattern.compile(
-            "vbscript\\s*:", Pattern.CASE_INSENSITIVE);
-    private static final Pattern EXPRESSION_PATTERN = Pattern.compile(
-            "expression\\s*\\(", Pattern.CASE_INSENSITIVE);
+    private static final String SCRIPT_OPEN = "<script";
+    private static final String SCRIPT_CLOSE = "</script>";
+    private static final String[] URL_SCHEMES = { "javascript", "vbscript", "data" };
+    private static final String EXPRESSION = "expression";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
     private HtmlSanitizer() {
         throw new UnsupportedOperationException("Utility class");
@@ -55,7 +57,7 @@ public final class HtmlSanitizer {
 
     /**
      * Sanitizes text for safe HTML display.
-     * 
+     *
      * @param input the input text
      * @return sanitized text safe for HTML
      */
@@ -63,32 +65,62 @@ public final class HtmlSanitizer {
         if (input == null || input.isEmpty()) {
             return "";
         }
+        StringBuilder out = new StringBuilder(input.length() + 16);
+        sanitize(input, 0, input.length(), out);
+        return out.toString();
+    }
 
-        String result = input;
-
-        // Remove script tags
-        result = SCRIPT_PATTERN.matcher(result).replaceAll("");
-
-        // Remove event handlers
-        result = EVENT_HANDLER_PATTERN.matcher(result).replaceAll(" ");
-
-        // Remove dangerous URLs
-        result = JAVASCRIPT_URL_PATTERN.matcher(result).replaceAll("");
-        result = DATA_URL_PATTERN.matcher(result).replaceAll("");
-        result = VBSCRIPT_URL_PATTERN.matcher(result).replaceAll("");
-
-        // Remove CSS expressions
-        result = EXPRESSION_PATTERN.matcher(result).replaceAll("");
-
-        // Escape HTML entities
-        result = escapeHtml(result);
-
-        return result;
+    /**
+     * Sanitizes part of a text for safe HTML display, appending the result
+     * to a caller-owned builder so that it can be reused across messages.
+     *
+     * @param input the input text
+     * @param from  index of the first character to sanitize
+     * @param to    index after the last character to sanitize
+     * @param out   builder the sanitized text is appended to
+     */
+    public static void sanitize(CharSequence input, int from, int to, StringBuilder out) {
+        int base = out.length();
+        boolean noScriptClose = false; // No "</script>" left in the input
+        int i = from;
+        while (i < to) {
+            char c = input.charAt(i);
+            switch (c) {
+                case '<' -> {
+                    int skip = noScriptClose ? -1 : skipScript(input, i, to);
+                    if (skip >= 0) {
+                        i = skip;
+                        continue;
+                    }
+                    if (skip == -2) {
+                        noScriptClose = true;
+                    }
+                    out.append("&lt;");
+                }
+                case '=' -> {
+                    if (!cutEventHandler(out, base)) {
+                        out.append('=');
+                    }
+                }
+                case ':' -> {
+                    if (!cutKeyword(out, base, URL_SCHEMES)) {
+                        out.append(':');
+                    }
+                }
+                case '(' -> {
+                    if (!cutKeyword(out, base, EXPRESSION)) {
+                        out.append('(');
+                    }
+                }
+                default -> appendEscaped(out, c);
+            }
+            i++;
+        }
     }
 
     /**
      * Escapes HTML special characters.
-     * 
+     *
      * @param input the input text
      * @return escaped text
      */
@@ -98,23 +130,15 @@ public final class HtmlSanitizer {
         }
 
         StringBuilder sb = new StringBuilder(input.length() + 16);
-        for (char c : input.toCharArray()) {
-            switch (c) {
-                case '<' -> sb.append("&lt;");
-                case '>' -> sb.append("&gt;");
-                case '&' -> sb.append("&amp;");
-                case '"' -> sb.append("&quot;");
-                case '\'' -> sb.append("&#x27;");
-                case '/' -> sb.append("&#x2F;");
-                default -> sb.append(c);
-            }
+        for (int i = 0; i < input.length(); i++) {
+            appendEscaped(sb, input.charAt(i));
         }
         return sb.toString();
     }
 
     /**
      * Sanitizes text for safe use in JSON strings.
-     * 
+     *
      * @param input the input text
      * @return sanitized text safe for JSON
      */
@@ -124,7 +148,8 @@ public final class HtmlSanitizer {
         }
 
         StringBuilder sb = new StringBuilder(input.length() + 16);
-        for (char c : input.toCharArray()) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
             switch (c) {
                 case '"' -> sb.append("\\\"");
                 case '\\' -> sb.append("\\\\");
@@ -133,7 +158,7 @@ public final class HtmlSanitizer {
                 case '\t' -> sb.append("\\t");
                 default -> {
                     if (c < 32) {
-                        sb.append(String.format("\\u%04x", (int) c));
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
                     } else {
                         sb.append(c);
                     }
@@ -145,7 +170,7 @@ public final class HtmlSanitizer {
 
     /**
      * Truncates and sanitizes user input.
-     * 
+     *
      * @param input the input text
      * @param maxLength maximum allowed length
      * @return truncated and sanitized text
@@ -155,10 +180,143 @@ public final class HtmlSanitizer {
             return "";
         }
 
-        String truncated = input.length() > maxLength 
-                ? input.substring(0, maxLength)
-                : input;
+        // Same bounds as input.substring(0, maxLength).trim(), without the copies
+        int end = Math.min(input.length(), maxLength);
+        int start = 0;
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(end - start + 16);
+        sanitize(input, start, end, out);
+        return out.toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, char c) {
+        switch (c) {
+            case '<' -> out.append("&lt;");
+            case '>' -> out.append("&gt;");
+            case '&' -> out.append("&amp;");
+            case '"' -> out.append("&quot;");
+            case '\'' -> out.append("&#x27;");
+            case '/' -> out.append("&#x2F;");
+            default -> out.append(c);
+        }
+    }
+
+    /**
+     * Skips a {@code <script ...>...</script>} block starting at {@code i}.
+     *
+     * @return index after the block, -1 if there is no block here, or -2 if
+     *         there is no closing tag anywhere after {@code i}. Either the
+     *         block is skipped or the search is never repeated, so the input
+     *         is scanned at most twice.
+     */
+    private static int skipScript(CharSequence input, int i, int to) {
+        if (!regionMatches(input, i, to, SCRIPT_OPEN)) {
+            return -1;
+        }
+        int gt = indexOf(input, '>', i + SCRIPT_OPEN.length(), to);
+        if (gt < 0) {
+            return -2; // Nor any later "<script" either
+        }
+        for (int j = gt + 1; j + SCRIPT_CLOSE.length() <= to; j++) {
+            if (input.charAt(j) == '<' && regionMatches(input, j, to, SCRIPT_CLOSE)) {
+                return j + SCRIPT_CLOSE.length();
+            }
+        }
+        return -2;
+    }
+
+    /**
+     * Cuts {@code \s+on\w+\s*} from the end of the output when an {@code =}
+     * arrives, leaving a single space.
+     */
+    private static boolean cutEventHandler(StringBuilder out, int base) {
+        int end = skipSpaceBack(out, base, out.length());
+        int word = end;
+        while (word > base && isWordChar(out.charAt(word - 1))) {
+            word--;
+        }
+        if (end - word < 3 || lower(out.charAt(word)) != 'o' || lower(out.charAt(word + 1)) != 'n') {
+            return false;
+        }
+        int space = skipSpaceBack(out, base, word);
+        if (space == word) {
+            return false;
+        }
+        out.setLength(space);
+        out.append(' ');
+        return true;
+    }
+
+    /**
+     * Cuts {@code keyword\s*} from the end of the output when the trigger
+     * character arrives.
+     */
+    private static boolean cutKeyword(StringBuilder out, int base, String... keywords) {
+        int end = skipSpaceBack(out, base, out.length());
+        for (String keyword : keywords) {
+            int start = end - keyword.length();
+            if (start >= base && endsWithIgnoreCase(out, start, keyword)) {
+                out.setLength(start);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipSpaceBack(StringBuilder out, int base, int end) {
+        while (end > base && isSpace(out.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean endsWithIgnoreCase(StringBuilder out, int start, String keyword) {
+        for (int k = 0; k < keyword.length(); k++) {
+            if (lower(out.charAt(start + k)) != keyword.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(CharSequence input, int i, int to, String lowerCase) {
+        if (i + lowerCase.length() > to) {
+            return false;
+        }
+        for (int k = 0; k < lowerCase.length(); k++) {
+            if (lower(input.charAt(i + k)) != lowerCase.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence input, char c, int from, int to) {
+        for (int j = from; j < to; j++) {
+            if (input.charAt(j) == c) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
 
-        return sanitize(truncated.trim());
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
     }
 }
@@ -23,33 +23,30 @@
  */
 package org.jgame.server.security;
 
-import java.util.regex.Pattern;
-
 /**
  * Input validation utilities for API requests.
  *
+ * <p>
+ * Checks are hand-written single scans over the input rather than regular
+ * expressions, so they run in linear time whatever the input looks like.
+ * </p>
+ *
  * @author Google Gemini (Antigravity)
- * @version 1.0
+ * @version 2.1
  */
 public final class InputValidator {
 
-    // Username: 3-32 chars, alphanumeric and underscores only
-    private static final Pattern USERNAME_PATTERN = Pattern.compile("^[a-zA-Z0-9_]{3,32}$");
-
     // Password: 8-128 chars
     private static final int MIN_PASSWORD_LENGTH = 8;
     private static final int MAX_PASSWORD_LENGTH = 128;
 
-    // Email: basic pattern
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
-
     private InputValidator() {
         throw new UnsupportedOperationException("Utility class");
     }
 
     /**
-     * Validates a username.
+     * Validates a username: 3-32 chars, ASCII letters, digits and
+     * underscores only.
      *
      * @param username the username to validate
      * @return validation result
@@ -64,7 +61,7 @@ public final class InputValidator {
         if (username.length() > 32) {
             return ValidationResult.error("Username must be at most 32 characters");
         }
-        if (!USERNAME_PATTERN.matcher(username).matches()) {
+        if (!allMatch(username, 0, username.length(), InputValidator::isUsernameChar)) {
             return ValidationResult.error("Username can only contain letters, numbers, and underscores");
         }
         return ValidationResult.ok();
@@ -90,7 +87,8 @@ public final class InputValidator {
         // Check complexity (at least one letter and one number)
         boolean hasLetter = false;
         boolean hasDigit = false;
-        for (char c : password.toCharArray()) {
+        for (int i = 0; i < password.length() && !(hasLetter && hasDigit); i++) {
+            char c = password.charAt(i);
             if (Character.isLetter(c))
                 hasLetter = true;
             if (Character.isDigit(c))
@@ -114,12 +112,54 @@ public final class InputValidator {
         if (email == null || email.isBlank()) {
             return ValidationResult.ok(); // Email is optional
         }
-        if (!EMAIL_PATTERN.matcher(email).matches()) {
+        if (!isEmail(email)) {
             return ValidationResult.error("Invalid email format");
         }
         return ValidationResult.ok();
     }
 
+    /**
+     * Same language as {@code [a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}}:
+     * since the top-level domain has no dot, it is whatever follows the last
+     * one.
+     */
+    private static boolean isEmail(String email) {
+        int at = email.indexOf('@');
+        int dot = email.lastIndexOf('.');
+        return at > 0
+                && dot > at + 1
+                && email.length() - dot > 2
+                && allMatch(email, 0, at, c -> isAsciiAlphanumeric(c) || "._%+-".indexOf(c) >= 0)
+                && allMatch(email, at + 1, dot, c -> isAsciiAlphanumeric(c) || c == '.' || c == '-')
+                && allMatch(email, dot + 1, email.length(), c -> isAsciiAlphanumeric(c) && !isAsciiDigit(c));
+    }
+
+    private static boolean isUsernameChar(char c) {
+        return isAsciiAlphanumeric(c) || c == '_';
+    }
+
+    private static boolean isAsciiAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isAsciiDigit(c);
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean allMatch(String s, int from, int to, CharPredicate predicate) {
+        for (int i = from; i < to; i++) {
+            if (!predicate.test(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface CharPredicate {
+        boolean test(char c);
+    }
+
     /**
      * Validation result.
      */
@@ -23,30 +23,60 @@
  */
 package org.jgame.server.security;
 
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.TooManyRequestsResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * Simple in-memory rate limiter for API endpoints.
- * 
+ *
+ * <p>
+ * Implements the generic cell rate algorithm: each key holds a single
+ * {@link AtomicLong}, the theoretical arrival time of its next request, and
+ * a request is admitted by advancing it with a compare-and-set. Up to
+ * {@code maxRequests} may arrive at once, after which requests are admitted
+ * at one per {@code windowSeconds / maxRequests}. There is no window
+ * boundary at which a second burst is allowed.
+ * </p>
+ *
+ * <p>
+ * A key whose arrival time has passed is indistinguishable from a new one,
+ * so such idle keys are dropped whenever the map has doubled in size since
+ * the last sweep. Memory therefore follows the number of recently active
+ * keys, not the number ever seen.
+ * </p>
+ *
  * <p>
- * Uses a sliding window approach to limit requests per IP/user.
+ * Registered as a {@code before} handler, the limiter keys requests by
+ * client IP and answers 429 with a {@code Retry-After} header. Behind a
+ * reverse proxy, the proxy must forward the client address.
  * </p>
  *
  * @author Google Gemini (Antigravity)
- * @version 1.0
+ * @version 2.1
  */
-public class RateLimiter {
+public class RateLimiter implements Handler {
 
     private static final Logger logger = LogManager.getLogger(RateLimiter.class);
+    private static final long EVICTED = Long.MIN_VALUE;
+    private static final int MIN_SWEEP_SIZE = 1024;
 
     private final int maxRequests;
-    private final long windowSeconds;
-    private final Map<String, RateLimitEntry> entries = new ConcurrentHashMap<>();
+    private final long interval;
+    private final long tolerance;
+    private final LongSupplier clock;
+    private final Map<String, AtomicLong> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile int sweepSize = MIN_SWEEP_SIZE;
 
     /**
      * Creates a rate limiter.
@@ -55,8 +85,24 @@ public class RateLimiter {
      * @param windowSeconds time window in seconds
      */
     public RateLimiter(int maxRequests, long windowSeconds) {
+        this(maxRequests, windowSeconds, monotonicClock());
+    }
+
+    /**
+     * Creates a rate limiter with the given clock.
+     *
+     * @param maxRequests   maximum requests allowed in window
+     * @param windowSeconds time window in seconds
+     * @param clock         non-negative, monotonic time in nanoseconds
+     */
+    RateLimiter(int maxRequests, long windowSeconds, LongSupplier clock) {
+        if (maxRequests < 1 || windowSeconds < 1) {
+            throw new IllegalArgumentException("maxRequests and windowSeconds must be positive");
+        }
         this.maxRequests = maxRequests;
-        this.windowSeconds = windowSeconds;
+        this.interval = TimeUnit.SECONDS.toNanos(windowSeconds) / maxRequests;
+        this.tolerance = interval * (maxRequests - 1);
+        this.clock = clock;
     }
 
     /**
@@ -73,6 +119,19 @@ public class RateLimiter {
         return new RateLimiter(5, 60);
     }
 
+    /**
+     * Rejects the request with 429 if its client IP is over the limit.
+     */
+    @Override
+    public void handle(Context ctx) {
+        String key = ctx.ip();
+        if (!tryAcquire(key)) {
+            long retryAfter = TimeUnit.NANOSECONDS.toSeconds(getRetryAfterNanos(key) + 999_999_999L);
+            ctx.header("Retry-After", String.valueOf(Math.max(1, retryAfter)));
+            throw new TooManyRequestsResponse("Too many requests");
+        }
+    }
+
     /**
      * Checks if request is allowed and records it.
      *
@@ -80,46 +139,70 @@ public class RateLimiter {
      * @return true if allowed, false if rate limited
      */
     public boolean tryAcquire(String key) {
-        Instant now = Instant.now();
-
-        RateLimitEntry entry = entries.compute(key, (k, existing) -> {
-            if (existing == null) {
-                return new RateLimitEntry(now, 1);
+        long now = clock.getAsLong();
+        while (true) {
+            AtomicLong state = entries.get(key);
+            if (state == null) {
+                AtomicLong created = new AtomicLong(now);
+                state = entries.putIfAbsent(key, created);
+                if (state == null) {
+                    state = created;
+                    if (entries.size() >= sweepSize) {
+                        sweep(now);
+                    }
+                }
             }
 
-            // Check if window has passed
-            long elapsed = now.getEpochSecond() - existing.windowStart.getEpochSecond();
-            if (elapsed >= windowSeconds) {
-                // Reset window
-                return new RateLimitEntry(now, 1);
+            long arrival = state.get();
+            if (arrival == EVICTED) {
+                entries.remove(key, state); // Lost a race with the sweeper
+                continue;
+            }
+            long start = Math.max(arrival, now);
+            if (start - now > tolerance) {
+                logger.debug("Rate limit exceeded for: {}", key);
+                return false;
+            }
+            if (state.compareAndSet(arrival, start + interval)) {
+                return true;
             }
-
-            // Increment count
-            return new RateLimitEntry(existing.windowStart, existing.count + 1);
-        });
-
-        boolean allowed = entry.count <= maxRequests;
-        if (!allowed) {
-            logger.warn("Rate limit exceeded for: {}", key);
         }
-        return allowed;
     }
 
     /**
      * Gets remaining requests for a key.
      */
     public int getRemaining(String key) {
-        RateLimitEntry entry = entries.get(key);
-        if (entry == null) {
+        long now = clock.getAsLong();
+        AtomicLong state = entries.get(key);
+        long arrival = state != null ? state.get() : EVICTED;
+        if (arrival <= now) {
             return maxRequests;
         }
+        return (int) Math.max(0, (tolerance + interval - (arrival - now)) / interval);
+    }
 
-        long elapsed = Instant.now().getEpochSecond() - entry.windowStart.getEpochSecond();
-        if (elapsed >= windowSeconds) {
-            return maxRequests;
+    /**
+     * Gets how long a key must wait before its next request is allowed.
+     *
+     * @param key identifier (IP address or user ID)
+     * @return wait in nanoseconds, 0 if a request would be allowed now
+     */
+    public long getRetryAfterNanos(String key) {
+        long now = clock.getAsLong();
+        AtomicLong state = entries.get(key);
+        long arrival = state != null ? state.get() : EVICTED;
+        if (arrival == EVICTED || arrival <= now) {
+            return 0;
         }
+        return Math.max(0, arrival - now - tolerance);
+    }
 
-        return Math.max(0, maxRequests - entry.count);
+    /**
+     * Gets the number of keys currently tracked.
+     */
+    public int size() {
+        return entries.size();
     }
 
     /**
@@ -129,6 +212,30 @@ public class RateLimiter {
         entries.clear();
     }
 
-    private record RateLimitEntry(Instant windowStart, int count) {
+    /**
+     * Drops keys whose bucket is full again. A key is first marked
+     * {@link #EVICTED}, so a request racing with the sweep retries on a fresh
+     * entry instead of being counted on a dropped one.
+     */
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.forEach((key, state) -> {
+                long arrival = state.get();
+                if (arrival <= now && arrival != EVICTED && state.compareAndSet(arrival, EVICTED)) {
+                    entries.remove(key, state);
+                }
+            });
+            sweepSize = Math.max(MIN_SWEEP_SIZE, entries.size() * 2);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static LongSupplier monotonicClock() {
+        long origin = System.nanoTime();
+        return () -> System.nanoTime() - origin;
     }
 }
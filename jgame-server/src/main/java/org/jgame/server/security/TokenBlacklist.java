@@ -25,39 +25,120 @@ package org.jgame.server.security;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jgame.server.timer.Timeout;
+import org.jgame.server.timer.TimingWheel;
+import org.jgame.server.PerformanceConfig;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
-import java.util.Set;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * JWT token blacklist for token revocation.
- * 
+ *
+ * <p>
+ * Stores revoked tokens until they would have expired anyway. Tokens are
+ * held as {@link TokenDigest}s in a hash map, so a check costs one SHA-256
+ * and one lookup however many tokens are revoked. A Bloom filter in front of
+ * the map answers the common not-revoked case without touching it.
+ * </p>
+ *
+ * <p>
+ * Revocations are kept in expiry order and purged from the head of the
+ * queue, on each revocation and periodically on the shared timing wheel. The
+ * filter and the file are rebuilt once purged entries outnumber live ones.
+ * </p>
+ *
  * <p>
- * Stores revoked tokens until they would have expired anyway.
- * In production, use Redis or a distributed cache.
+ * Revocations are appended to a local file ({@code security.blacklist.file}),
+ * which is reloaded at startup so that revoked tokens stay revoked across
+ * restarts. In a cluster, use Redis or a distributed cache instead.
  * </p>
  *
  * @author Google Gemini (Antigravity)
- * @version 1.0
+ * @version 2.3
  */
 public class TokenBlacklist {
 
     private static final Logger logger = LogManager.getLogger(TokenBlacklist.class);
+    private static final int RECORD_BYTES = TokenDigest.BYTES + Long.BYTES;
+    private static final int MIN_PURGED_BEFORE_REBUILD = 1024;
     private static TokenBlacklist instance;
 
-    private final Set<BlacklistedToken> blacklist = ConcurrentHashMap.newKeySet();
+    private record Revocation(TokenDigest digest, long expiresAt) {
+    }
+
+    private final Map<TokenDigest, Long> revoked = new ConcurrentHashMap<>();
+    private final PriorityQueue<Revocation> byExpiry = new PriorityQueue<>(
+            Comparator.comparingLong(Revocation::expiresAt));
+    private final int expectedTokens;
+    private final Path file;
+    private final long purgeIntervalMillis;
+    private Timeout purger; // Guarded by this
+    private volatile BloomFilter filter;
+    private FileChannel journal;
+    private long purgedSinceRebuild;
 
-    private TokenBlacklist() {
-        // Start cleanup thread
-        Thread cleanupThread = new Thread(this::cleanupExpired, "TokenBlacklistCleanup");
-        cleanupThread.setDaemon(true);
-        cleanupThread.start();
+    /**
+     * Creates a blacklist; {@link #start()} begins the periodic purge.
+     *
+     * @param file                revocation file, or null to keep revocations
+     *                            in memory only
+     * @param expectedTokens      number of live revocations the filter is
+     *                            sized for; it grows past that when rebuilt
+     * @param purgeIntervalMillis how often expired revocations are purged
+     *                            (0 = only when tokens are revoked)
+     */
+    public TokenBlacklist(Path file, int expectedTokens, long purgeIntervalMillis) {
+        this.expectedTokens = Math.max(1024, expectedTokens);
+        this.filter = new BloomFilter(this.expectedTokens);
+        this.file = file;
+        this.purgeIntervalMillis = purgeIntervalMillis;
+        if (file != null) {
+            openJournal();
+        }
     }
 
+    /**
+     * Schedules the periodic purge on the shared wheel, if there is a purge
+     * interval. Calling it again has no effect.
+     *
+     * @return this blacklist
+     */
+    public synchronized TokenBlacklist start() {
+        if (purgeIntervalMillis > 0 && purger == null) {
+            purger = TimingWheel.shared().scheduleWithFixedDelay(() -> purgeExpired(System.currentTimeMillis()),
+                    purgeIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the server's blacklist, configured by {@code security.blacklist.*}
+     * and created on first use.
+     *
+     * @return the shared blacklist
+     */
     public static synchronized TokenBlacklist getInstance() {
         if (instance == null) {
-            instance = new TokenBlacklist();
+            Properties props = PerformanceConfig.load();
+            String file = props.getProperty("security.blacklist.file", "./data/jgame-revoked.bin").trim();
+            instance = new TokenBlacklist(file.isEmpty() ? null : Path.of(file),
+                    Integer.parseInt(props.getProperty("security.blacklist.expectedTokens", "1000000").trim()),
+                    Long.parseLong(props.getProperty("security.blacklist.purgeIntervalMillis", "60000").trim()))
+                    .start();
         }
         return instance;
     }
@@ -69,7 +150,30 @@ public class TokenBlacklist {
      * @param expiryTime when the token would naturally expire
      */
     public void revoke(String token, Instant expiryTime) {
-        blacklist.add(new BlacklistedToken(token, expiryTime));
+        revoke(TokenDigest.of(token), expiryTime);
+    }
+
+    /**
+     * Revokes a token by digest.
+     *
+     * @param digest     digest of the JWT token to revoke
+     * @param expiryTime when the token would naturally expire
+     */
+    public synchronized void revoke(TokenDigest digest, Instant expiryTime) {
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+        long expiresAt = expiryTime.toEpochMilli();
+        if (expiresAt <= now) {
+            return; // Already unusable
+        }
+        filter.add(digest); // Before the map, so a concurrent check never misses it
+        if (revoked.put(digest, expiresAt) == null) {
+            byExpiry.add(new Revocation(digest, expiresAt));
+            append(digest, expiresAt);
+            if (revoked.size() > filter.capacity) {
+                rebuild(); // Keep the false positive rate down
+            }
+        }
         logger.info("Token revoked, will be cleaned up at {}", expiryTime);
     }
 
@@ -80,8 +184,21 @@ public class TokenBlacklist {
      * @return true if revoked, false if valid
      */
     public boolean isRevoked(String token) {
-        return blacklist.stream()
-                .anyMatch(bt -> bt.token.equals(token));
+        return isRevoked(TokenDigest.of(token));
+    }
+
+    /**
+     * Checks if a token has been revoked, by digest.
+     *
+     * @param digest digest of the JWT token to check
+     * @return true if revoked, false if valid
+     */
+    public boolean isRevoked(TokenDigest digest) {
+        if (!filter.mightContain(digest)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(digest);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
     }
 
     /**
@@ -97,30 +214,22 @@ public class TokenBlacklist {
     }
 
     /**
-     * Cleans up expired tokens from the blacklist.
+     * Drops revocations of tokens that have expired.
+     *
+     * @param now current time, in epoch milliseconds
      */
-    private void cleanupExpired() {
-        while (!Thread.currentThread().isInterrupted()) {
-            try {
-                Thread.sleep(60_000); // Check every minute
-
-                Instant now = Instant.now();
-                int removed = 0;
-                var iterator = blacklist.iterator();
-                while (iterator.hasNext()) {
-                    BlacklistedToken bt = iterator.next();
-                    if (bt.expiryTime.isBefore(now)) {
-                        iterator.remove();
-                        removed++;
-                    }
-                }
-
-                if (removed > 0) {
-                    logger.debug("Cleaned up {} expired tokens from blacklist", removed);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+    synchronized void purgeExpired(long now) {
+        int removed = 0;
+        while (!byExpiry.isEmpty() && byExpiry.peek().expiresAt() <= now) {
+            Revocation head = byExpiry.poll();
+            revoked.remove(head.digest(), head.expiresAt());
+            removed++;
+        }
+        if (removed > 0) {
+            purgedSinceRebuild += removed;
+            logger.debug("Cleaned up {} expired tokens from blacklist", removed);
+            if (purgedSinceRebuild >= MIN_PURGED_BEFORE_REBUILD && purgedSinceRebuild > revoked.size()) {
+                rebuild();
             }
         }
     }
@@ -129,16 +238,181 @@ public class TokenBlacklist {
      * Gets the size of the blacklist.
      */
     public int size() {
-        return blacklist.size();
+        return revoked.size();
     }
 
     /**
      * Clears the blacklist (for testing).
      */
-    public void clear() {
-        blacklist.clear();
+    public synchronized void clear() {
+        revoked.clear();
+        byExpiry.clear();
+        purgedSinceRebuild = 0;
+        filter = new BloomFilter(expectedTokens);
+        if (journal != null) {
+            try {
+                journal.truncate(0);
+            } catch (IOException e) {
+                logger.warn("Could not clear revocation file: {}", e.getMessage());
+            }
+        }
     }
 
-    private record BlacklistedToken(String token, Instant expiryTime) {
+    /**
+     * Stops purging and closes the revocation file.
+     */
+    public synchronized void close() {
+        if (purger != null) {
+            purger.cancel();
+            purger = null;
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.warn("Could not close revocation file: {}", e.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt; // Revocations hold this lock, so none is missed
+        purgedSinceRebuild = 0;
+        if (journal != null) {
+            compact();
+        }
+    }
+
+    private void openJournal() {
+        long now = System.currentTimeMillis();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            if (Files.exists(file)) {
+                ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(file));
+                while (records.remaining() >= RECORD_BYTES) { // A torn last record is ignored
+                    TokenDigest digest = TokenDigest.read(records);
+                    long expiresAt = records.getLong();
+                    if (expiresAt > now && revoked.put(digest, expiresAt) == null) {
+                        byExpiry.add(new Revocation(digest, expiresAt));
+                    }
+                }
+            }
+            if (revoked.size() > expectedTokens) {
+                filter = new BloomFilter(revoked.size() * 2);
+            }
+            revoked.keySet().forEach(filter::add);
+            compact();
+            logger.info("Loaded {} revoked tokens from {}", revoked.size(), file);
+        } catch (IOException e) {
+            logger.warn("Could not load revocation file {}, revocations will not survive a restart: {}",
+                    file, e.getMessage());
+            journal = null;
+        }
+    }
+
+    /**
+     * Rewrites the file with live revocations only.
+     */
+    private void compact() {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 1024);
+                for (Map.Entry<TokenDigest, Long> entry : revoked.entrySet()) {
+                    if (buffer.remaining() < RECORD_BYTES) {
+                        writeFully(out, buffer.flip());
+                        buffer.clear();
+                    }
+                    entry.getKey().write(buffer);
+                    buffer.putLong(entry.getValue());
+                }
+                writeFully(out, buffer.flip());
+                out.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journal = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Could not rewrite revocation file {}: {}", file, e.getMessage());
+            try {
+                journal = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            } catch (IOException reopen) {
+                logger.warn("Revocations will not survive a restart: {}", reopen.getMessage());
+            }
+        }
+    }
+
+    private void append(TokenDigest digest, long expiresAt) {
+        if (journal == null) {
+            return;
+        }
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        digest.write(record);
+        record.putLong(expiresAt);
+        try {
+            writeFully(journal, record.flip());
+        } catch (IOException e) {
+            logger.warn("Could not persist revocation: {}", e.getMessage());
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Lock-free Bloom filter over token digests, sized for a 1% false
+     * positive rate at capacity. The digest bits are already uniform, so two
+     * of its words seed the probe sequence directly.
+     */
+    static final class BloomFilter {
+
+        final int capacity;
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions) {
+            this.capacity = expectedInsertions;
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(0.01) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((m + 63) >>> 6));
+            this.bitCount = (long) bits.length() << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void add(TokenDigest digest) {
+            long hash = digest.a();
+            long step = digest.b() | 1;
+            for (int i = 0; i < hashCount; i++, hash += step) {
+                long bit = Math.floorMod(hash, bitCount);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((bits.get(word) & mask) == 0) {
+                    bits.getAndAccumulate(word, mask, (current, m) -> current | m);
+                }
+            }
+        }
+
+        boolean mightContain(TokenDigest digest) {
+            long hash = digest.a();
+            long step = digest.b() | 1;
+            for (int i = 0; i < hashCount; i++, hash += step) {
+                long bit = Math.floorMod(hash, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digest of a bearer token, used as a map key wherever tokens are
+ * remembered so that the token strings themselves are never stored.
+ *
+ * @param a bytes 0-7
+ * @param b bytes 8-15
+ * @param c bytes 16-23
+ * @param d bytes 24-31
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.0
+ */
+public record TokenDigest(long a, long b, long c, long d) {
+
+    /**
+     * Size of a digest, in bytes.
+     */
+    public static final int BYTES = 32;
+
+    /**
+     * Digests a token.
+     *
+     * @param token the token string
+     * @return its digest
+     */
+    public static TokenDigest of(String token) {
+        try {
+            return read(ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII))));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Reads a digest written by {@link #write}.
+     *
+     * @param buffer buffer positioned at the digest
+     * @return the digest
+     */
+    public static TokenDigest read(ByteBuffer buffer) {
+        return new TokenDigest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Writes this digest as {@link #BYTES} bytes.
+     *
+     * @param buffer destination buffer
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putLong(a).putLong(b).putLong(c).putLong(d);
+    }
+}
@@ -0,0 +1,454 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.timer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgame.server.PerformanceConfig;
+
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timing wheel holding any number of one-shot and repeating
+ * timers.
+ *
+ * <p>
+ * Time advances in ticks. Each level is a ring of {@code wheelSize} buckets,
+ * a bucket of level L spanning wheelSize<sup>L</sup> ticks. A timer goes to
+ * the lowest level whose current ring still contains its deadline, so
+ * placing it is O(1) whatever the delay. When a level's ring wraps, the next
+ * bucket of the level above is emptied into the levels below. Buckets are
+ * intrusive doubly linked lists, so a cancelled timer is unlinked in O(1).
+ * </p>
+ *
+ * <p>
+ * Timers are created and cancelled lock-free from any thread: both only
+ * enqueue the timer, and a single thread owns the wheel, moving queued
+ * timers in and advancing one tick at a time. A timer thus costs one small
+ * object, and an idle wheel a wake-up per tick. Expired tasks are handed to
+ * an executor so that a slow one cannot delay the others. Until
+ * {@link #start()} is called, the wheel only moves on {@link #advance()},
+ * e.g. in simulations.
+ * </p>
+ *
+ * <p>
+ * {@link #shared()} is the server's wheel, ticking every
+ * {@code timer.tickMillis} and running tasks on virtual threads.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.1
+ */
+public class TimingWheel implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(TimingWheel.class);
+    private static TimingWheel shared;
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    /**
+     * A one-shot timer, linked into at most one bucket.
+     */
+    private final class Entry implements Timeout {
+        final Runnable task;
+        final long deadlineTick;
+        final AtomicInteger state = new AtomicInteger(PENDING);
+        // Owned by the wheel thread
+        Bucket bucket;
+        Entry prev;
+        Entry next;
+
+        Entry(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    /**
+     * A task run again after each run, until cancelled.
+     */
+    private final class Repeating implements Timeout, Runnable {
+        final Runnable task;
+        final long delayNanos;
+        volatile boolean stopped;
+        Timeout next;
+
+        Repeating(Runnable task, long delayNanos) {
+            this.task = task;
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        public void run() {
+            if (stopped) {
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                synchronized (this) {
+                    if (!stopped && !closed) {
+                        next = schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public synchronized boolean cancel() {
+            if (stopped) {
+                return false;
+            }
+            stopped = true;
+            if (next != null) {
+                next.cancel();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return stopped;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return false;
+        }
+    }
+
+    private static final class Bucket {
+        Entry head;
+        Entry tail;
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        void remove(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        /**
+         * Empties the bucket.
+         *
+         * @return the first of its entries, still chained by next
+         */
+        Entry clear() {
+            Entry first = head;
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    private final long tickNanos;
+    private final int bits;
+    private final int mask;
+    private final Bucket[][] levels;
+    private final Executor executor;
+    private final LongSupplier clock;
+    private final long origin;
+    private final ConcurrentLinkedQueue<Entry> added = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private Thread thread; // Guarded by this
+    private volatile boolean closed;
+    private long tick;
+
+    /**
+     * Creates a wheel; {@link #start()} starts its thread.
+     *
+     * @param tickNanos length of a tick, the timers' resolution
+     * @param wheelSize buckets per level, rounded up to a power of two
+     * @param executor  runs expired tasks
+     * @param clock     time source, in nanoseconds
+     */
+    public TimingWheel(long tickNanos, int wheelSize, Executor executor, LongSupplier clock) {
+        if (tickNanos <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Invalid tick or wheel size");
+        }
+        this.tickNanos = tickNanos;
+        this.bits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1);
+        this.mask = (1 << bits) - 1;
+        // Enough levels for any positive tick count
+        this.levels = new Bucket[(63 + bits - 1) / bits][1 << bits];
+        for (Bucket[] level : levels) {
+            for (int i = 0; i < level.length; i++) {
+                level[i] = new Bucket();
+            }
+        }
+        this.executor = executor;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Starts the wheel thread, which advances the wheel every tick. Calling
+     * it again has no effect.
+     *
+     * @return this wheel
+     */
+    public synchronized TimingWheel start() {
+        if (thread == null) {
+            thread = new Thread(this::run, "jgame-timer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return this;
+    }
+
+    /**
+     * Gets the server's shared wheel, configured by {@code timer.*} in
+     * {@code performance.properties}.
+     */
+    public static synchronized TimingWheel shared() {
+        if (shared == null) {
+            Properties props = PerformanceConfig.load();
+            shared = new TimingWheel(
+                    TimeUnit.MILLISECONDS.toNanos(Long.parseLong(props.getProperty("timer.tickMillis", "10").trim())),
+                    Integer.parseInt(props.getProperty("timer.wheelSize", "512").trim()),
+                    task -> Thread.ofVirtual().name("jgame-timer-task").start(task), System::nanoTime).start();
+        }
+        return shared;
+    }
+
+    /**
+     * Runs a task once after a delay.
+     *
+     * @param task  the task
+     * @param delay delay, rounded up to whole ticks
+     * @param unit  unit of the delay
+     * @return handle to cancel the task
+     * @throws IllegalStateException if the wheel is closed
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (closed) {
+            throw new IllegalStateException("Timing wheel closed");
+        }
+        long elapsed = clock.getAsLong() - origin + Math.max(0, unit.toNanos(delay));
+        Entry entry = new Entry(task, Math.ceilDiv(elapsed, tickNanos));
+        pending.incrementAndGet();
+        added.add(entry);
+        return entry;
+    }
+
+    /**
+     * Runs a task repeatedly, each run a delay after the end of the previous
+     * one.
+     *
+     * @param task  the task
+     * @param delay delay before the first run and between runs
+     * @param unit  unit of the delay
+     * @return handle to stop the runs
+     */
+    public Timeout scheduleWithFixedDelay(Runnable task, long delay, TimeUnit unit) {
+        Repeating repeating = new Repeating(task, unit.toNanos(delay));
+        // Held so that a first run due at once sees its handle set
+        synchronized (repeating) {
+            repeating.next = schedule(repeating, delay, unit);
+        }
+        return repeating;
+    }
+
+    /**
+     * Gets the current time of the wheel's clock, in nanoseconds.
+     */
+    long nanoTime() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Processes every tick up to the current time. Only for a wheel that was
+     * not started, and from one thread at a time.
+     */
+    public void advance() {
+        long target = (clock.getAsLong() - origin) / tickNanos;
+        do {
+            for (Entry entry; (entry = cancelled.poll()) != null;) {
+                if (entry.bucket != null) {
+                    entry.bucket.remove(entry);
+                }
+            }
+            for (Entry entry; (entry = added.poll()) != null;) {
+                if (entry.state.get() == PENDING) {
+                    place(entry);
+                }
+            }
+            if (tick >= target) {
+                break;
+            }
+            tick++;
+            // Move timers down from the levels whose current bucket starts now
+            for (int level = levels.length - 1; level > 0; level--) {
+                if ((tick & ((1L << (bits * level)) - 1)) == 0) {
+                    drain(levels[level][(int) ((tick >>> (bits * level)) & mask)], false);
+                }
+            }
+            drain(levels[0][(int) (tick & mask)], true);
+        } while (true);
+    }
+
+    private void place(Entry entry) {
+        long deadline = entry.deadlineTick;
+        if (deadline <= tick) {
+            expire(entry);
+            return;
+        }
+        // Lowest level whose current ring holds the deadline
+        int level = 0;
+        while (level < levels.length - 1 && (deadline >>> (bits * (level + 1))) != (tick >>> (bits * (level + 1)))) {
+            level++;
+        }
+        levels[level][(int) ((deadline >>> (bits * level)) & mask)].add(entry);
+    }
+
+    private void drain(Bucket bucket, boolean due) {
+        Entry entry = bucket.clear();
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+            if (entry.state.get() == PENDING) {
+                if (due) {
+                    expire(entry);
+                } else {
+                    place(entry);
+                }
+            }
+            entry = next;
+        }
+    }
+
+    private void expire(Entry entry) {
+        if (!entry.state.compareAndSet(PENDING, EXPIRED)) {
+            return;
+        }
+        pending.decrementAndGet();
+        expired.incrementAndGet();
+        try {
+            executor.execute(entry.task);
+        } catch (RuntimeException e) {
+            logger.error("Could not run timer task", e);
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                logger.error("Timing wheel failure", e);
+            }
+            long sleep = origin + (tick + 1) * tickNanos - clock.getAsLong();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of timers waiting to expire.
+     */
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Gets the number of timers that have expired.
+     */
+    public long getExpiredCount() {
+        return expired.get();
+    }
+
+    /**
+     * Stops the wheel. Pending timers never run.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Gets wheel statistics for logging.
+     */
+    public String getStats() {
+        return String.format("TimingWheel [pending=%d, expired=%d, tick=%dms]",
+                pending.get(), expired.get(), TimeUnit.NANOSECONDS.toMillis(tickNanos));
+    }
+}
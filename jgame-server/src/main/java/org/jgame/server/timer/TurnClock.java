@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.timer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Game clock of a turn-based game, such as a chess clock.
+ *
+ * <p>
+ * Each player has a time budget, spent while it is their turn and topped up
+ * by an increment after each of their moves (Fischer timing). A turn may
+ * also be limited on its own. Only the player to move has a timer, on a
+ * {@link TimingWheel}; pressing the clock replaces it, so a clock costs one
+ * pending timer whatever the number of players.
+ * </p>
+ *
+ * @author Silvere Martin-Michiellot
+ * @version 1.1
+ */
+public class TurnClock implements AutoCloseable {
+
+    private final TimingWheel wheel;
+    private final List<String> players;
+    private final long[] remainingNanos;
+    private final long incrementNanos;
+    private final long turnLimitNanos;
+    private final Consumer<String> onTimeout;
+    private int current = -1;
+    private long turnStart;
+    private Timeout timer;
+    private String flagged;
+
+    /**
+     * Creates a stopped clock.
+     *
+     * @param wheel           wheel of the timers
+     * @param players         players, in turn order
+     * @param initialMillis   time budget of each player
+     * @param incrementMillis time added after each move
+     * @param turnLimitMillis max time of a single turn (0 = no limit)
+     * @param onTimeout       told of the player who ran out of time
+     */
+    public TurnClock(TimingWheel wheel, List<String> players, long initialMillis, long incrementMillis,
+            long turnLimitMillis, Consumer<String> onTimeout) {
+        if (players.isEmpty()) {
+            throw new IllegalArgumentException("No players");
+        }
+        this.wheel = wheel;
+        this.players = List.copyOf(players);
+        this.remainingNanos = new long[players.size()];
+        Arrays.fill(remainingNanos, TimeUnit.MILLISECONDS.toNanos(initialMillis));
+        this.incrementNanos = TimeUnit.MILLISECONDS.toNanos(incrementMillis);
+        this.turnLimitNanos = TimeUnit.MILLISECONDS.toNanos(turnLimitMillis);
+        this.onTimeout = onTimeout;
+    }
+
+    /**
+     * Starts the clock of the first player.
+     */
+    public synchronized void start() {
+        if (current < 0) {
+            startTurn(0);
+        }
+    }
+
+    /**
+     * Ends the current player's move and starts the next player's clock.
+     *
+     * @return false if a player has already run out of time
+     */
+    public synchronized boolean press() {
+        if (flagged != null || current < 0) {
+            return false;
+        }
+        timer.cancel();
+        long spent = wheel.nanoTime() - turnStart;
+        if (spent >= allowance(current)) {
+            // Pressed after the deadline but before the timer ran
+            flag(current, timer);
+            return false;
+        }
+        remainingNanos[current] += incrementNanos - spent;
+        startTurn((current + 1) % players.size());
+        return true;
+    }
+
+    private void startTurn(int player) {
+        current = player;
+        turnStart = wheel.nanoTime();
+        // Callers hold the lock until the handle is set, and onTimer reads it under the lock
+        AtomicReference<Timeout> self = new AtomicReference<>();
+        self.set(wheel.schedule(() -> onTimer(player, self), allowance(player), TimeUnit.NANOSECONDS));
+        timer = self.get();
+    }
+
+    private long allowance(int player) {
+        return turnLimitNanos > 0 ? Math.min(remainingNanos[player], turnLimitNanos) : remainingNanos[player];
+    }
+
+    private synchronized void onTimer(int player, AtomicReference<Timeout> self) {
+        Timeout fired = self.get();
+        if (fired == timer && flagged == null) {
+            flag(player, fired);
+        }
+    }
+
+    private void flag(int player, Timeout fired) {
+        remainingNanos[player] = Math.max(0, remainingNanos[player] - (wheel.nanoTime() - turnStart));
+        flagged = players.get(player);
+        timer = fired;
+        onTimeout.accept(flagged);
+    }
+
+    /**
+     * Gets a player's remaining time, counting the current turn.
+     *
+     * @param player the player
+     * @return remaining milliseconds
+     */
+    public synchronized long getRemainingMillis(String player) {
+        int index = players.indexOf(player);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown player: " + player);
+        }
+        long remaining = remainingNanos[index];
+        if (index == current && flagged == null) {
+            remaining -= wheel.nanoTime() - turnStart;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, remaining));
+    }
+
+    /**
+     * Gets the player to move, or null before the clock is started.
+     */
+    public synchronized String getCurrentPlayer() {
+        return current >= 0 ? players.get(current) : null;
+    }
+
+    /**
+     * Gets the player who ran out of time, or null.
+     */
+    public synchronized String getFlaggedPlayer() {
+        return flagged;
+    }
+
+    /**
+     * Stops the clock, e.g. when the game ends.
+     */
+    @Override
+    public synchronized void close() {
+        if (timer != null) {
+            timer.cancel();
+        }
+    }
+}
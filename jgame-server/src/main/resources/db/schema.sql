@@ -16,9 +16,27 @@ CREATE TABLE IF NOT EXISTS games (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     game_type VARCHAR(50) NOT NULL,
     state_json TEXT,
+    state_blob BLOB,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     last_played TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    is_finished BOOLEAN DEFAULT FALSE
+    is_finished BOOLEAN DEFAULT FALSE,
+    snapshot_seq BIGINT DEFAULT 0
+);
+
+-- Databases created before the move log: state_json is the snapshot at snapshot_seq
+ALTER TABLE games ADD COLUMN IF NOT EXISTS snapshot_seq BIGINT DEFAULT 0;
+
+-- Binary snapshots (SnapshotFormat); state_json is kept only for rows not yet migrated
+ALTER TABLE games ADD COLUMN IF NOT EXISTS state_blob BLOB;
+
+-- Game Moves (append-only log; replayed on top of the latest snapshot)
+CREATE TABLE IF NOT EXISTS game_moves (
+    game_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    action VARBINARY(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (game_id, seq),
+    FOREIGN KEY (game_id) REFERENCES games(id) ON DELETE CASCADE
 );
 
 -- Game Players association (many-to-many)
@@ -58,6 +76,23 @@ CREATE TABLE IF NOT EXISTS user_game_stats (
     UNIQUE(user_id, game_type)
 );
 
+-- User Game Period Stats (rollups per user per game type per time window)
+CREATE TABLE IF NOT EXISTS user_game_period_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    game_type VARCHAR(50) NOT NULL,
+    period_type VARCHAR(10) NOT NULL,
+    period_index BIGINT NOT NULL,
+    total_points BIGINT DEFAULT 0,
+    games_played INT DEFAULT 0,
+    wins INT DEFAULT 0,
+    losses INT DEFAULT 0,
+    total_time_seconds BIGINT DEFAULT 0,
+    last_played TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE(user_id, game_type, period_type, period_index)
+);
+
 -- Ratings table (user reviews of games)
 CREATE TABLE IF NOT EXISTS ratings (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -96,6 +131,9 @@ CREATE INDEX idx_user_game_stats_user ON user_game_stats(user_id);
 DROP INDEX IF EXISTS idx_user_game_stats_game;
 CREATE INDEX idx_user_game_stats_game ON user_game_stats(game_type);
 
+DROP INDEX IF EXISTS idx_user_game_period_stats_period;
+CREATE INDEX idx_user_game_period_stats_period ON user_game_period_stats(period_type, period_index);
+
 DROP INDEX IF EXISTS idx_ratings_game;
 CREATE INDEX idx_ratings_game ON ratings(game_type);
 
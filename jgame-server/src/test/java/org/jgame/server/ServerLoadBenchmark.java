@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load benchmark comparing platform-thread and virtual-thread request handling.
+ *
+ * <p>
+ * Starts a {@link JGameServer} in each {@link JGameServer.ThreadMode}, then
+ * drives a login/leaderboard mix from many concurrent clients and reports
+ * throughput and latency percentiles. Not a unit test: run it by hand against
+ * a throwaway database, for example:
+ * </p>
+ *
+ * <pre>
+ * JGAME_DB_URL="jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1" \
+ *   java -cp ... org.jgame.server.ServerLoadBenchmark [clients] [seconds]
+ * </pre>
+ *
+ * <p>
+ * Point JGAME_DB_URL at PostgreSQL to see the effect of real JDBC latency.
+ * </p>
+ */
+public class ServerLoadBenchmark {
+
+    private static final int PORT = 18080;
+    private static final int USERS = 200;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+
+        ServerLoadBenchmark benchmark = new ServerLoadBenchmark();
+        for (JGameServer.ThreadMode mode : JGameServer.ThreadMode.values()) {
+            Result result = benchmark.run(mode, clients, seconds);
+            System.out.println(result);
+        }
+        System.exit(0);
+    }
+
+    private Result run(JGameServer.ThreadMode mode, int clients, int seconds) throws Exception {
+        JGameServer server = new JGameServer(PORT, mode);
+        server.start();
+        try {
+            List<String> tokens = registerUsers();
+
+            // Warm up JIT and pool before measuring
+            drive(tokens, clients, 3);
+            long[] latencies = drive(tokens, clients, seconds);
+            return Result.of(mode, clients, seconds, latencies);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private List<String> registerUsers() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String body = "{\"username\":\"bench" + i + "\",\"password\":\"pw" + i + "\"}";
+            HttpResponse<String> response = post("/api/auth/register", body);
+            if (response.statusCode() == 409) {
+                response = post("/api/auth/login", body);
+            }
+            String json = response.body();
+            int start = json.indexOf("\"token\":\"") + 9;
+            tokens.add(json.substring(start, json.indexOf('"', start)));
+        }
+        return tokens;
+    }
+
+    /**
+     * Runs the workload and returns per-request latencies in nanoseconds.
+     * Three leaderboard reads for every login, as seen in production spikes.
+     */
+    private long[] drive(List<String> tokens, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> perClient = new ArrayList<>();
+        List<int[]> counts = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long[] samples = new long[1 << 16];
+                int[] count = { 0 };
+                perClient.add(samples);
+                counts.add(count);
+                int clientId = c;
+                executor.submit(() -> {
+                    int i = 0;
+                    while (System.nanoTime() < deadline && count[0] < samples.length) {
+                        int user = (clientId + i) % USERS;
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = (i++ & 3) == 0
+                                    ? post("/api/auth/login",
+                                            "{\"username\":\"bench" + user + "\",\"password\":\"pw" + user + "\"}")
+                                    : get("/api/scores/chess/leaderboard?limit=10", tokens.get(user));
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        samples[count[0]++] = System.nanoTime() - start;
+                    }
+                    return null;
+                });
+            }
+        }
+
+        if (errors.get() > 0) {
+            System.out.println("  errors: " + errors.get());
+        }
+        int total = counts.stream().mapToInt(c -> c[0]).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(perClient.get(c), 0, all, offset, counts.get(c)[0]);
+            offset += counts.get(c)[0];
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .header("Content-Type", "application/json")
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private record Result(JGameServer.ThreadMode mode, int clients, long requests,
+            double throughput, double p50Ms, double p99Ms, double maxMs) {
+
+        static Result of(JGameServer.ThreadMode mode, int clients, int seconds, long[] sorted) {
+            if (sorted.length == 0) {
+                return new Result(mode, clients, 0, 0, 0, 0, 0);
+            }
+            return new Result(mode, clients, sorted.length,
+                    sorted.length / (double) seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s clients=%d requests=%d throughput=%.0f req/s p50=%.2fms p99=%.2fms max=%.2fms",
+                    mode, clients, requests, throughput, p50Ms, p99Ms, maxMs);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.api;
+
+import io.javalin.Javalin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests ResponseCache behind a Javalin route.
+ */
+class ResponseCacheTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final AtomicInteger builds = new AtomicInteger();
+    private ResponseCache cache;
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(16, 1024);
+        app = Javalin.create(config -> config.jsonMapper(new GsonJsonMapper()));
+        app.get("/items/{size}", ctx -> {
+            int size = Integer.parseInt(ctx.pathParam("size"));
+            cache.serve(ctx, "items:" + size, cache.version("items"), () -> {
+                builds.incrementAndGet();
+                return Collections.nCopies(size, "item");
+            });
+        });
+        // Every version has the same date, as when several changes happen within a second
+        app.get("/board/{version}", ctx -> {
+            long number = Long.parseLong(ctx.pathParam("version"));
+            cache.serve(ctx, "board", new ResponseCache.Version(number, Instant.ofEpochSecond(1_700_000_000, 500)),
+                    () -> List.of("board", number));
+        });
+        app.start("127.0.0.1", 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        app.stop();
+    }
+
+    private HttpResponse<byte[]> get(String path, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + app.port() + path));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    @Test
+    @DisplayName("Should answer 304 to a matching ETag without rebuilding the body")
+    void shouldRevalidateWithEtag() throws Exception {
+        HttpResponse<byte[]> first = get("/items/3");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertEquals(200, first.statusCode());
+        assertEquals("[\"item\",\"item\",\"item\"]", new String(first.body(), StandardCharsets.UTF_8));
+        assertTrue(first.headers().firstValue("Last-Modified").isPresent());
+
+        HttpResponse<byte[]> second = get("/items/3", "If-None-Match", "\"other\", " + etag);
+        assertEquals(304, second.statusCode());
+        assertEquals(0, second.body().length);
+
+        HttpResponse<byte[]> third = get("/items/3", "If-Modified-Since",
+                first.headers().firstValue("Last-Modified").orElseThrow());
+        assertEquals(304, third.statusCode());
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    @DisplayName("Should rebuild and change the ETag after invalidation")
+    void shouldInvalidate() throws Exception {
+        String etag = get("/items/2").headers().firstValue("ETag").orElseThrow();
+
+        cache.invalidate("items");
+        HttpResponse<byte[]> response = get("/items/2", "If-None-Match", etag);
+
+        assertEquals(200, response.statusCode());
+        assertNotEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    @DisplayName("Should not answer 304 by date to a version sharing its predecessor's date")
+    void shouldNotRevalidateAmbiguousDate() throws Exception {
+        HttpResponse<byte[]> first = get("/board/1");
+        String lastModified = first.headers().firstValue("Last-Modified").orElseThrow();
+        assertEquals("Tue, 14 Nov 2023 22:13:20 GMT", lastModified);
+        assertEquals(304, get("/board/1", "If-Modified-Since", lastModified).statusCode());
+
+        HttpResponse<byte[]> second = get("/board/2", "If-Modified-Since", lastModified);
+        assertEquals(200, second.statusCode());
+        assertEquals(lastModified, second.headers().firstValue("Last-Modified").orElseThrow());
+        assertEquals(200, get("/board/2", "If-Modified-Since", lastModified).statusCode());
+
+        String etag = second.headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, get("/board/2", "If-None-Match", etag).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should serve large bodies gzipped once to clients accepting gzip")
+    void shouldServePrecompressedBody() throws Exception {
+        HttpResponse<byte[]> plain = get("/items/500");
+        HttpResponse<byte[]> gzipped = get("/items/500", "Accept-Encoding", "gzip");
+
+        assertEquals(List.of("gzip"), gzipped.headers().allValues("Content-Encoding"));
+        assertTrue(gzipped.body().length < plain.body().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            assertArrayEquals(plain.body(), in.readAllBytes());
+        }
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    @DisplayName("Should tag the gzipped body apart and revalidate with either tag")
+    void shouldTagGzippedBodyApart() throws Exception {
+        String plainTag = get("/items/500").headers().firstValue("ETag").orElseThrow();
+        String gzipTag = get("/items/500", "Accept-Encoding", "gzip").headers().firstValue("ETag").orElseThrow();
+
+        assertEquals(plainTag.substring(0, plainTag.length() - 1) + "-gz\"", gzipTag);
+        assertEquals(304, get("/items/500", "If-None-Match", gzipTag).statusCode());
+        assertEquals(304, get("/items/500", "If-None-Match", plainTag, "Accept-Encoding", "gzip").statusCode());
+    }
+
+    @Test
+    @DisplayName("Should honour the quality of gzip in Accept-Encoding")
+    void shouldHonourGzipQuality() throws Exception {
+        HttpResponse<byte[]> refused = get("/items/500", "Accept-Encoding", "gzip;q=0, identity");
+
+        assertTrue(refused.headers().allValues("Content-Encoding").isEmpty());
+        assertTrue(ResponseCache.acceptsGzip("deflate, gzip;q=0.5"));
+        assertTrue(ResponseCache.acceptsGzip("*"));
+        assertFalse(ResponseCache.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(ResponseCache.acceptsGzip("br, *;q=0"));
+        assertFalse(ResponseCache.acceptsGzip("identity"));
+    }
+}
@@ -23,9 +23,15 @@
  */
 package org.jgame.server.auth;
 
+import io.jsonwebtoken.JwtException;
+import org.jgame.server.security.TokenBlacklist;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -34,11 +40,21 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class JwtAuthHandlerTest {
 
+    @TempDir
+    Path dataDir;
+
+    private TokenBlacklist blacklist;
     private JwtAuthHandler handler;
 
     @BeforeEach
     void setUp() {
-        handler = new JwtAuthHandler();
+        blacklist = new TokenBlacklist(dataDir.resolve("revoked.bin"), 1024, 0);
+        handler = new JwtAuthHandler(blacklist);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blacklist.close();
     }
 
     @Test
@@ -72,4 +88,40 @@ class JwtAuthHandlerTest {
         assertFalse(parts[1].isBlank(), "Payload should not be blank");
         assertFalse(parts[2].isBlank(), "Signature should not be blank");
     }
+
+    @Test
+    @DisplayName("Should verify a token once and serve it from the cache")
+    void shouldCacheVerifiedTokens() {
+        String token = handler.generateToken("user123", "testuser");
+
+        VerifiedTokenCache.VerifiedToken first = handler.verify(token);
+        VerifiedTokenCache.VerifiedToken second = handler.verify(token);
+
+        assertEquals("user123", first.userId());
+        assertEquals("testuser", first.username());
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered token")
+    void shouldRejectTamperedToken() {
+        String token = handler.generateToken("user123", "testuser");
+        handler.verify(token);
+        String[] parts = token.split("\\.");
+        String forged = new JwtAuthHandler(blacklist).generateToken("admin", "admin").split("\\.")[1];
+
+        assertThrows(JwtException.class, () -> handler.verify(parts[0] + "." + forged + "." + parts[2]));
+    }
+
+    @Test
+    @DisplayName("Should drop revoked tokens from the cache")
+    void shouldDropRevokedTokens() {
+        String token = handler.generateToken("user123", "testuser");
+        VerifiedTokenCache.VerifiedToken first = handler.verify(token);
+
+        handler.revokeToken(token);
+
+        assertTrue(blacklist.isRevoked(token));
+        assertNotSame(first, handler.verify(token));
+    }
 }
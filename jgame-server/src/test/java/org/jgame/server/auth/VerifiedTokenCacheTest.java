@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.auth;
+
+import org.jgame.server.security.TokenDigest;
+import org.jgame.server.timer.TimingWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for VerifiedTokenCache.
+ */
+class VerifiedTokenCacheTest {
+
+    @Test
+    @DisplayName("Should not return expired tokens")
+    void shouldExpireTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        VerifiedTokenCache.VerifiedToken verified = new VerifiedTokenCache.VerifiedToken("1", "alice", 1_000);
+        cache.put(TokenDigest.of("a.b.c"), verified, 0);
+
+        assertSame(verified, cache.get(TokenDigest.of("a.b.c"), 999));
+        assertNull(cache.get(TokenDigest.of("a.b.c"), 1_000));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should stay within its maximum size")
+    void shouldStayBounded() {
+        TimingWheel wheel = new TimingWheel(TimeUnit.MILLISECONDS.toNanos(1), 64, Runnable::run, () -> 0);
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, wheel);
+        for (int i = 0; i < 1_000; i++) {
+            long expiresAt = i < 50 ? 10 : 1_000;
+            VerifiedTokenCache.VerifiedToken verified = new VerifiedTokenCache.VerifiedToken(String.valueOf(i),
+                    "user" + i, expiresAt);
+            cache.put(TokenDigest.of("token" + i), verified, 20);
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.getEvictionCount() > 0);
+        assertNotNull(cache.get(TokenDigest.of("token999"), 20));
+        // Evicted tokens take their expiry timers with them
+        assertEquals(cache.size(), wheel.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Should drop invalidated tokens")
+    void shouldInvalidateTokens() {
+        TimingWheel wheel = new TimingWheel(TimeUnit.MILLISECONDS.toNanos(1), 64, Runnable::run, () -> 0);
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, wheel);
+        cache.put(TokenDigest.of("a.b.c"), new VerifiedTokenCache.VerifiedToken("1", "alice", 1_000), 0);
+
+        cache.invalidate(TokenDigest.of("a.b.c"));
+
+        assertNull(cache.get(TokenDigest.of("a.b.c"), 0));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, wheel.getPendingCount());
+    }
+}
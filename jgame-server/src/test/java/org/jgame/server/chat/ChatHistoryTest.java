@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.chat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChatHistory.
+ */
+class ChatHistoryTest {
+
+    @Test
+    @DisplayName("Should number messages and keep only the latest")
+    void shouldKeepLatestMessages() {
+        ChatHistory history = new ChatHistory(3);
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, history.append(ChatMessage.system("lobby", "m" + i)).seq());
+        }
+
+        assertEquals(5, history.getLastSeq());
+        assertEquals(List.of("m3", "m4", "m5"), contents(history.latest(10)));
+        assertEquals(List.of("m4", "m5"), contents(history.latest(2)));
+        assertTrue(history.latest(0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return messages after a cursor")
+    void shouldReadSinceCursor() {
+        ChatHistory history = new ChatHistory(4);
+        for (int i = 1; i <= 6; i++) {
+            history.append(ChatMessage.system("lobby", "m" + i));
+        }
+
+        assertEquals(List.of("m5", "m6"), contents(history.since(4, 10)));
+        assertEquals(List.of("m3", "m4"), contents(history.since(0, 2))); // m1 and m2 are gone
+        assertTrue(history.since(6, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should never show a gap to a cursor reader under concurrent writers")
+    void shouldPublishInOrder() throws Exception {
+        int writers = 8;
+        int perWriter = 5000;
+        ChatHistory history = new ChatHistory(writers * perWriter);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    history.append(ChatMessage.system("lobby", "x"));
+                }
+            }));
+        }
+
+        long cursor = 0;
+        while (cursor < (long) writers * perWriter) {
+            for (ChatMessage message : history.since(cursor, 1000)) {
+                assertEquals(cursor + 1, message.seq());
+                cursor = message.seq();
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(writers * perWriter, history.getLastSeq());
+    }
+
+    private static List<String> contents(List<ChatMessage> messages) {
+        return messages.stream().map(ChatMessage::content).toList();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.chat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChatManager subscriptions.
+ */
+class ChatManagerTest {
+
+    private final ChatManager manager = new ChatManager(4, ChatSubscription.OverflowPolicy.DROP_OLDEST);
+
+    @Test
+    @DisplayName("Should deliver only the subscribed lobby's messages")
+    void shouldScopeSubscriptionsToLobby() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        try (ChatSubscription subscription = manager.subscribe("a", message -> {
+            received.add(message.content());
+            latch.countDown();
+        })) {
+            assertEquals("a", subscription.getLobbyId());
+            manager.sendSystemMessage("a", "one");
+            manager.sendSystemMessage("b", "other");
+            manager.sendSystemMessage("a", "two");
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("one", "two"), received);
+        }
+        assertEquals(0, manager.getSubscriberCount());
+
+        // Counters of the closed subscription are kept
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!manager.getStats().contains("delivered=2") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(manager.getStats().contains("delivered=2"), manager.getStats());
+    }
+
+    @Test
+    @DisplayName("Should not block the sender on a slow listener")
+    void shouldDropOldestForSlowListener() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        ChatSubscription slow = manager.subscribe("lobby", message -> {
+            awaitQuietly(release);
+            received.add(message.content());
+        });
+
+        for (int i = 0; i < 100; i++) {
+            manager.sendSystemMessage("lobby", "m" + i);
+        }
+        assertTrue(slow.getDroppedCount() > 0);
+        assertTrue(slow.getQueueDepth() <= 4);
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (slow.getQueueDepth() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("m99", received.getLast());
+        slow.close();
+    }
+
+    @Test
+    @DisplayName("Should disconnect a slow listener under the disconnect policy")
+    void shouldDisconnectSlowListener() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        ChatSubscription slow = manager.subscribe("lobby", new ChatManager.ChatListener() {
+            @Override
+            public void onMessage(ChatMessage message) {
+                awaitQuietly(release);
+            }
+
+            @Override
+            public void onClosed() {
+                closed.countDown();
+            }
+        }, 2, ChatSubscription.OverflowPolicy.DISCONNECT);
+
+        for (int i = 0; i < 10; i++) {
+            manager.sendSystemMessage("lobby", "m" + i);
+        }
+
+        assertTrue(slow.isDisconnected());
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, manager.getSubscriberCount());
+        assertTrue(manager.getStats().contains("disconnects=1"));
+        release.countDown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
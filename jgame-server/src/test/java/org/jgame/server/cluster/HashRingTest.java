@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.cluster;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HashRing.
+ */
+class HashRingTest {
+
+    private static final List<NodeInfo> NODES = List.of(
+            new NodeInfo("a", "http://a"), new NodeInfo("b", "http://b"), new NodeInfo("c", "http://c"));
+
+    @Test
+    @DisplayName("Should spread keys evenly")
+    void shouldSpreadKeys() {
+        HashRing ring = new HashRing(NODES, 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(ring.owner("lobby:" + i).id(), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 8_000 && count < 12_000, "unbalanced: " + counts));
+    }
+
+    @Test
+    @DisplayName("Should move only the new node's share of keys")
+    void shouldMoveFewKeys() {
+        HashRing before = new HashRing(NODES, 128);
+        List<NodeInfo> grown = new ArrayList<>(NODES);
+        grown.add(new NodeInfo("d", "http://d"));
+        HashRing after = new HashRing(grown, 128);
+
+        int moved = 0;
+        for (int i = 0; i < 30_000; i++) {
+            NodeInfo owner = after.owner("game:" + i);
+            if (!owner.equals(before.owner("game:" + i))) {
+                assertEquals("d", owner.id(), "keys only move to the new node");
+                moved++;
+            }
+        }
+        assertTrue(moved > 5_000 && moved < 10_000, "moved " + moved);
+    }
+}
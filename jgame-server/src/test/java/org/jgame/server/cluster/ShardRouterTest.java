@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.cluster;
+
+import io.javalin.Javalin;
+import org.jgame.server.api.GsonJsonMapper;
+import org.jgame.server.lobby.GameLobby;
+import org.jgame.server.lobby.LobbyManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests ShardRouter with several nodes on localhost.
+ */
+class ShardRouterTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final List<Javalin> apps = new ArrayList<>();
+    private final List<ShardRouter> routers = new ArrayList<>();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * Starts nodes answering GET /lobbies/{lobbyId} with their own ID, also
+     * as ETag, behind the forwarding handler.
+     */
+    private List<NodeInfo> startNodes(int count) {
+        List<AtomicReference<ShardRouter>> holders = new ArrayList<>();
+        List<NodeInfo> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String id = "node" + i;
+            AtomicReference<ShardRouter> holder = new AtomicReference<>();
+            Javalin app = Javalin.create(config -> config.jsonMapper(new GsonJsonMapper()));
+            app.before("/lobbies/{lobbyId}", ctx -> holder.get()
+                    .forwardBy("lobbyId", ShardRouter::lobbyKey).handle(ctx));
+            app.get("/lobbies/{lobbyId}", ctx -> ctx.header("ETag", "\"" + id + "\"").result(id));
+            app.start("127.0.0.1", 0);
+            apps.add(app);
+            holders.add(holder);
+            nodes.add(new NodeInfo(id, "http://127.0.0.1:" + app.port()));
+        }
+        for (int i = 0; i < count; i++) {
+            ShardRouter router = new ShardRouter(new StaticMembership(nodes.get(i), nodes),
+                    new HttpTransport(Duration.ofSeconds(5)), 64, SECRET);
+            holders.get(i).set(router);
+            routers.add(router);
+        }
+        return nodes;
+    }
+
+    private HttpResponse<String> get(NodeInfo node, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(node.address() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        apps.forEach(Javalin::stop);
+    }
+
+    @Test
+    @DisplayName("Should answer from the owning node whichever node is asked")
+    void shouldForwardToOwner() throws Exception {
+        List<NodeInfo> nodes = startNodes(3);
+
+        for (int i = 0; i < 30; i++) {
+            String lobbyId = "lobby" + i;
+            String owner = routers.getFirst().ownerOf(ShardRouter.lobbyKey(lobbyId)).id();
+            for (NodeInfo node : nodes) {
+                HttpResponse<String> response = get(node, "/lobbies/" + lobbyId);
+                assertEquals(200, response.statusCode());
+                assertEquals(owner, response.body());
+                assertEquals("\"" + owner + "\"", response.headers().firstValue("ETag").orElse(null));
+            }
+        }
+        assertTrue(routers.stream().allMatch(r -> r.getStats().contains("failures=0")));
+    }
+
+    @Test
+    @DisplayName("Should forward requests carrying a forged forwarding mark")
+    void shouldIgnoreForgedMark() throws Exception {
+        List<NodeInfo> nodes = startNodes(2);
+
+        String lobbyId = "x";
+        while (!routers.getFirst().ownerOf(ShardRouter.lobbyKey(lobbyId)).id().equals("node1")) {
+            lobbyId += "x";
+        }
+        for (String mark : List.of("node1", "node1:forged")) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                    URI.create(nodes.getFirst().address() + "/lobbies/" + lobbyId))
+                    .header(ShardRouter.FORWARDED_HEADER, mark).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertEquals("node1", response.body());
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer 503 when the owning node is down")
+    void shouldFailWhenOwnerDown() throws Exception {
+        List<NodeInfo> nodes = startNodes(2);
+        apps.get(1).stop();
+
+        String lobbyId = "x";
+        while (!routers.getFirst().ownerOf(ShardRouter.lobbyKey(lobbyId)).id().equals("node1")) {
+            lobbyId += "x";
+        }
+        HttpResponse<String> response = get(nodes.getFirst(), "/lobbies/" + lobbyId);
+
+        assertEquals(503, response.statusCode());
+        assertTrue(response.headers().firstValue("Retry-After").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should create lobbies owned by the local node")
+    void shouldCreateLocalLobbies() {
+        List<NodeInfo> nodes = List.of(new NodeInfo("a", "http://a"), new NodeInfo("b", "http://b"),
+                new NodeInfo("c", "http://c"));
+        ShardRouter router = new ShardRouter(new StaticMembership(nodes.get(1), nodes), new LocalTransport(), 64,
+                SECRET);
+        LobbyManager lobbies = LobbyManager.getInstance();
+        lobbies.clearAll();
+        lobbies.setLocalIdFilter(id -> router.isLocal(ShardRouter.lobbyKey(id)));
+        try {
+            for (int i = 0; i < 20; i++) {
+                GameLobby lobby = lobbies.createLobby("chess", "host" + i, "Lobby", 2);
+                assertEquals("b", router.ownerOf(ShardRouter.lobbyKey(lobby.getId())).id());
+            }
+        } finally {
+            lobbies.setLocalIdFilter(id -> true);
+            lobbies.clearAll();
+        }
+    }
+
+    @Test
+    @DisplayName("Should follow membership changes")
+    void shouldRebuildOnMembershipChange() {
+        NodeInfo a = new NodeInfo("a", "http://a");
+        NodeInfo b = new NodeInfo("b", "http://b");
+        StaticMembership membership = new StaticMembership(a, List.of(a));
+        ShardRouter router = new ShardRouter(membership, new LocalTransport(), 64, SECRET);
+        assertTrue(router.isLocal(ShardRouter.gameKey(42)));
+
+        membership.setMembers(List.of(a, b));
+
+        int local = 0;
+        for (long game = 0; game < 1_000; game++) {
+            if (router.isLocal(ShardRouter.gameKey(game))) {
+                local++;
+            }
+        }
+        assertTrue(local > 300 && local < 700, "local " + local);
+    }
+}
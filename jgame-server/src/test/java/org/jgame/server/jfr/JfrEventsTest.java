@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.jgame.logic.games.checkers.CheckersRules;
+import org.jgame.server.persistence.SnapshotCodecs;
+import org.jgame.server.persistence.SnapshotFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the server's Flight Recorder events in an in-process recording.
+ */
+class JfrEventsTest {
+
+    @TempDir
+    Path dir;
+
+    private List<RecordedEvent> record(Class<? extends jdk.jfr.Event> type, ThrowingRunnable work) throws Exception {
+        Path file = dir.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(type).withThreshold(Duration.ZERO);
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @Test
+    @DisplayName("Statements should emit DAO events with SQL ID and row counts")
+    void shouldRecordDaoCalls() throws Exception {
+        List<RecordedEvent> events = record(DaoCallEvent.class, () -> {
+            try (Connection conn = JdbcEvents.instrument(DriverManager.getConnection("jdbc:h2:mem:jfr_test"))) {
+                try (PreparedStatement stmt = conn.prepareStatement("CREATE TABLE items (id INT)")) {
+                    stmt.execute();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO items (id) VALUES (?)")) {
+                    for (int i = 0; i < 3; i++) {
+                        stmt.setInt(1, i);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM items WHERE id >= ?")) {
+                    stmt.setInt(1, 1);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            assertTrue(rs.getInt(1) >= 1);
+                        }
+                    }
+                }
+            }
+        });
+
+        RecordedEvent insert = find(events, "INSERT items");
+        assertEquals(3, insert.getLong("rows"));
+        assertEquals(3, insert.getInt("batchSize"));
+        RecordedEvent select = find(events, "SELECT items");
+        assertEquals(2, select.getLong("rows"));
+        assertEquals("SELECT id FROM items WHERE id >= ?", select.getString("sql"));
+    }
+
+    @Test
+    @DisplayName("Connections should be returned as is when not recording")
+    void shouldNotWrapWithoutRecording() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:jfr_plain")) {
+            assertSame(conn, JdbcEvents.instrument(conn));
+        }
+        assertEquals("UPDATE games", JdbcEvents.sqlId("update games SET state = ? WHERE id = ?"));
+        assertEquals("MERGE user_game_stats", JdbcEvents.sqlId("MERGE INTO user_game_stats KEY (id) VALUES (?)"));
+    }
+
+    @Test
+    @DisplayName("Snapshot encoding and decoding should emit codec events")
+    void shouldRecordSnapshotCodec() throws Exception {
+        List<RecordedEvent> events = record(SnapshotCodecEvent.class, () -> {
+            byte[] data = SnapshotFormat.encode(SnapshotCodecs.CHECKERS, new CheckersRules());
+            assertNotNull(SnapshotFormat.decode(SnapshotCodecs.CHECKERS, data));
+        });
+
+        assertEquals(List.of(SnapshotCodecEvent.ENCODE, SnapshotCodecEvent.DECODE),
+                events.stream().map(e -> e.getString("operation")).toList());
+        assertTrue(events.stream().allMatch(e -> "CHECKERS".equals(e.getString("gameType"))
+                && e.getInt("bytes") > 0));
+    }
+
+    @Test
+    @DisplayName("Bundled profile should enable every JGame event")
+    void shouldEnableEventsInProfile() throws Exception {
+        Map<String, String> settings = FlightRecording.settings();
+
+        for (String event : List.of("org.jgame.AiSearch", "org.jgame.MoveGeneration", "org.jgame.SnapshotCodec",
+                "org.jgame.DaoCall", "org.jgame.Lobby", "org.jgame.Chat")) {
+            assertEquals("true", settings.get(event + "#enabled"), event);
+        }
+        // the JDK defaults are kept
+        assertEquals("true", settings.get("jdk.GarbageCollection#enabled"));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String sqlId) {
+        return events.stream().filter(e -> sqlId.equals(e.getString("sqlId"))).findFirst()
+                .orElseThrow(() -> new AssertionError("No event for " + sqlId + " in " + events));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.leaderboard;
+
+import org.jgame.model.GameScore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Leaderboard.
+ */
+class LeaderboardTest {
+
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new Leaderboard("chess");
+    }
+
+    private static GameScore score(String user, long points, Instant when) {
+        return new GameScore(user, "chess", points, 1, 0, 0, Duration.ZERO, when);
+    }
+
+    private static GameScore score(String user, long points) {
+        return score(user, points, Instant.now());
+    }
+
+    @Test
+    @DisplayName("Should order entries by points descending")
+    void shouldOrderByPoints() {
+        leaderboard.update(score("alice", 100));
+        leaderboard.update(score("bob", 300));
+        leaderboard.update(score("carol", 200));
+
+        List<GameScore> top = leaderboard.top(10);
+
+        assertEquals(List.of("bob", "carol", "alice"), top.stream().map(GameScore::userId).toList());
+        assertEquals(2, leaderboard.top(2).size());
+    }
+
+    @Test
+    @DisplayName("Should share rank between tied players")
+    void shouldShareRankOnTies() {
+        leaderboard.update(score("alice", 200));
+        leaderboard.update(score("bob", 200));
+        leaderboard.update(score("carol", 100));
+
+        assertEquals(1, leaderboard.rankOf("alice"));
+        assertEquals(1, leaderboard.rankOf("bob"));
+        assertEquals(3, leaderboard.rankOf("carol"));
+        assertEquals(0, leaderboard.rankOf("nobody"));
+    }
+
+    @Test
+    @DisplayName("Should move player when stats are updated")
+    void shouldMovePlayerOnUpdate() {
+        leaderboard.update(score("alice", 100));
+        leaderboard.update(score("bob", 200));
+
+        leaderboard.update(score("alice", 500));
+
+        assertEquals(1, leaderboard.rankOf("alice"));
+        assertEquals(2, leaderboard.rankOf("bob"));
+        assertEquals(2, leaderboard.size());
+    }
+
+    @Test
+    @DisplayName("Should ignore updates older than the stored entry")
+    void shouldIgnoreStaleUpdates() {
+        Instant now = Instant.now();
+        leaderboard.update(score("alice", 500, now));
+
+        assertFalse(leaderboard.update(score("alice", 100, now.minusSeconds(60))));
+        assertEquals(500, leaderboard.get("alice").orElseThrow().points());
+    }
+
+    @Test
+    @DisplayName("Should accumulate results added to an entry")
+    void shouldAccumulateResults() {
+        leaderboard.add(new GameScore("alice", "chess", 10, 1, 1, 0, Duration.ofMinutes(5), Instant.now()));
+        leaderboard.add(score("bob", 15));
+        GameScore merged = leaderboard.add(
+                new GameScore("alice", "chess", 7, 1, 0, 1, Duration.ofMinutes(3), Instant.now()));
+
+        assertEquals(17, merged.points());
+        assertEquals(2, merged.gamesPlayed());
+        assertEquals(1, merged.wins());
+        assertEquals(1, merged.losses());
+        assertEquals(Duration.ofMinutes(8), merged.totalTime());
+        assertEquals(1, leaderboard.rankOf("alice"));
+        assertEquals(2, leaderboard.rankOf("bob"));
+    }
+
+    @Test
+    @DisplayName("Should match a full sort after random updates")
+    void shouldMatchFullSort() {
+        Random random = new Random(42);
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String user = "user" + random.nextInt(500);
+            long points = random.nextInt(1000);
+            leaderboard.update(score(user, points));
+            expected.put(user, points);
+        }
+
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<String> expectedOrder = sorted.stream().map(Map.Entry::getKey).toList();
+        assertEquals(expectedOrder, leaderboard.top(expected.size()).stream().map(GameScore::userId).toList());
+        assertEquals(expectedOrder.subList(100, 150),
+                leaderboard.page(100, 50).stream().map(GameScore::userId).toList());
+
+        for (Map.Entry<String, Long> entry : sorted) {
+            long above = expected.values().stream().filter(p -> p > entry.getValue()).count();
+            assertEquals(above + 1, leaderboard.rankOf(entry.getKey()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should bump the version on every change only")
+    void shouldVersionChanges() {
+        long initial = leaderboard.getVersion();
+
+        leaderboard.update(score("alice", 100));
+        assertEquals(initial + 1, leaderboard.getVersion());
+
+        // stale update is ignored
+        leaderboard.update(score("alice", 50, Instant.now().minusSeconds(60)));
+        leaderboard.remove("nobody");
+        assertEquals(initial + 1, leaderboard.getVersion());
+
+        leaderboard.remove("alice");
+        assertEquals(initial + 2, leaderboard.getVersion());
+    }
+}
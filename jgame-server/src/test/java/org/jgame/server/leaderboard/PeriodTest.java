@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.leaderboard;
+
+import org.jgame.model.GameScore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Period and PeriodRing.
+ */
+class PeriodTest {
+
+    @Test
+    @DisplayName("Should start weeks on Monday and seasons on quarters")
+    void shouldComputePeriodStarts() {
+        Instant sunday = Instant.parse("2026-10-18T23:59:59Z");
+        Instant monday = Instant.parse("2026-10-19T00:00:00Z");
+
+        assertEquals(Period.WEEKLY.index(sunday) + 1, Period.WEEKLY.index(monday));
+        assertEquals(LocalDate.of(2026, 10, 19), Period.WEEKLY.start(Period.WEEKLY.index(monday)));
+        assertEquals(LocalDate.of(2026, 10, 12), Period.WEEKLY.start(Period.WEEKLY.index(sunday)));
+        assertEquals(LocalDate.of(2026, 10, 18), Period.DAILY.start(Period.DAILY.index(sunday)));
+        assertEquals(LocalDate.of(2026, 10, 1), Period.SEASONAL.start(Period.SEASONAL.index(monday)));
+        assertEquals(Period.SEASONAL.index(Instant.parse("2026-12-31T23:00:00Z")) + 1,
+                Period.SEASONAL.index(Instant.parse("2027-01-01T00:00:00Z")));
+    }
+
+    @Test
+    @DisplayName("Should parse period names case-insensitively")
+    void shouldParsePeriod() {
+        assertEquals(Period.WEEKLY, Period.parse("weekly"));
+        assertThrows(IllegalArgumentException.class, () -> Period.parse("hourly"));
+    }
+
+    @Test
+    @DisplayName("Should roll over to a fresh board in a new period")
+    void shouldRollOver() {
+        PeriodRing ring = new PeriodRing("chess", 3);
+        Leaderboard first = ring.getOrCreate(100);
+        first.add(new GameScore("alice", "chess", 10, 1, 1, 0, Duration.ZERO, Instant.now()));
+
+        assertSame(first, ring.getOrCreate(100));
+        ring.getOrCreate(101);
+        ring.getOrCreate(102);
+        assertSame(first, ring.get(100));
+
+        Leaderboard next = ring.getOrCreate(103);
+        assertEquals(0, next.size());
+        assertNull(ring.get(100));
+        assertNull(ring.getOrCreate(100));
+    }
+}
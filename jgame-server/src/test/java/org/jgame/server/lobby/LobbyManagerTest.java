@@ -23,12 +23,16 @@
  */
 package org.jgame.server.lobby;
 
+import org.jgame.server.timer.TimingWheel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -170,4 +174,104 @@ class LobbyManagerTest {
         manager.createLobby("checkers", "host2", "Lobby2", 2);
         assertEquals(2, manager.getLobbyCount());
     }
+
+    @Test
+    @DisplayName("Should page through lobbies with a cursor")
+    void shouldPaginateLobbies() {
+        for (int i = 0; i < 25; i++) {
+            manager.createLobby(i % 5 == 0 ? "checkers" : "chess", "host" + i, "Lobby" + i, 2);
+        }
+
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            LobbyPage page = manager.listLobbies("chess", GameLobby.LobbyState.WAITING, cursor, 8);
+            assertEquals(20, page.total());
+            page.lobbies().forEach(l -> names.add(l.getName()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(20, names.size());
+        assertEquals("Lobby1", names.getFirst());
+        assertEquals("Lobby24", names.getLast());
+        assertEquals(25, manager.countLobbies(null, GameLobby.LobbyState.WAITING));
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.listLobbies(null, GameLobby.LobbyState.WAITING, "not a cursor!", 8));
+    }
+
+    @Test
+    @DisplayName("Should keep indexes in step with lobby state")
+    void shouldUpdateIndexesOnStateChange() {
+        GameLobby started = manager.createLobby("chess", "host1", "Started", 2);
+        manager.joinLobby(started.getId(), "player1", null);
+        manager.createLobby("chess", "host2", "Left", 2);
+
+        assertTrue(manager.startLobby(started.getId(), "host1"));
+        manager.leaveLobby("host2");
+
+        assertEquals(0, manager.countLobbies("chess", GameLobby.LobbyState.WAITING));
+        assertEquals(1, manager.countLobbies("chess", GameLobby.LobbyState.STARTING));
+        assertTrue(manager.getLobbiesForGame("chess").isEmpty());
+
+        assertTrue(manager.markInProgress(started.getId()));
+        LobbyPage playing = manager.listLobbies(null, GameLobby.LobbyState.IN_PROGRESS, null, 10);
+        assertEquals(List.of(started), playing.lobbies());
+        assertNull(playing.nextCursor());
+        assertEquals(0, manager.countLobbies(null, GameLobby.LobbyState.STARTING));
+    }
+
+    @Test
+    @DisplayName("Should remove waiting lobbies left idle")
+    void shouldExpireIdleLobbies() {
+        AtomicLong clock = new AtomicLong();
+        TimingWheel wheel = new TimingWheel(TimeUnit.MILLISECONDS.toNanos(1), 64, Runnable::run, clock::get);
+        LobbyManager idle = new LobbyManager(wheel, 1_000);
+        GameLobby abandoned = idle.createLobby("chess", "host1", "Abandoned", 4);
+        GameLobby active = idle.createLobby("chess", "host2", "Active", 4);
+        GameLobby started = idle.createLobby("chess", "host3", "Started", 2);
+        idle.joinLobby(started.getId(), "player3", null);
+        idle.startLobby(started.getId(), "host3");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        wheel.advance();
+        idle.joinLobby(active.getId(), "player2", null);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        wheel.advance();
+
+        assertFalse(idle.getLobby(abandoned.getId()).isPresent());
+        assertFalse(idle.getUserLobby("host1").isPresent());
+        assertTrue(idle.getLobby(active.getId()).isPresent());
+        assertTrue(idle.getLobby(started.getId()).isPresent());
+        assertEquals(1, idle.countLobbies("chess", GameLobby.LobbyState.WAITING));
+        assertEquals(1, idle.getExpiredCount());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        wheel.advance();
+        assertFalse(idle.getLobby(active.getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should keep a lobby touched while its idle timer was firing")
+    void shouldIgnoreSupersededIdleTimer() {
+        AtomicLong clock = new AtomicLong();
+        List<Runnable> fired = new ArrayList<>();
+        TimingWheel wheel = new TimingWheel(TimeUnit.MILLISECONDS.toNanos(1), 64, fired::add, clock::get);
+        LobbyManager idle = new LobbyManager(wheel, 1_000);
+        GameLobby lobby = idle.createLobby("chess", "host1", "Busy", 4);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_100));
+        wheel.advance();
+        assertEquals(1, fired.size());
+
+        // Joined after the timer expired but before its task ran
+        idle.joinLobby(lobby.getId(), "player2", null);
+        fired.forEach(Runnable::run);
+
+        assertTrue(idle.getLobby(lobby.getId()).isPresent());
+        assertEquals(0, idle.getExpiredCount());
+    }
 }
+
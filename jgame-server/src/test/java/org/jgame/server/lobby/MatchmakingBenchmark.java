@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.lobby;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulation benchmark of the matchmaking loop.
+ *
+ * <p>
+ * Players with normally distributed ratings (mean 1500, deviation 300)
+ * arrive at a steady rate on a simulated clock, on top of an initial
+ * backlog, and the matching pass runs every tick. Reports the real time
+ * spent in each pass, the largest queue, and the simulated time players
+ * waited for a match. Pass times include creating, joining and starting the
+ * lobbies; LobbyManager's per-lobby logging is turned off so it does not
+ * dominate them. Not a unit test: run it by hand, for example:
+ * </p>
+ *
+ * <pre>
+ * java -cp ... org.jgame.server.lobby.MatchmakingBenchmark [backlog] [arrivalsPerSecond] [seconds] [tickMillis]
+ * </pre>
+ */
+public class MatchmakingBenchmark {
+
+    public static void main(String[] args) {
+        int backlog = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int perSecond = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int tickMillis = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+        Configurator.setLevel(LobbyManager.class.getName(), Level.WARN);
+        LobbyManager lobbies = LobbyManager.getInstance();
+        lobbies.clearAll();
+        AtomicLong clock = new AtomicLong();
+        MatchmakingService service = new MatchmakingService(lobbies, 2, 50, 50, 600, clock::get);
+
+        int total = backlog + perSecond * seconds;
+        long[] waits = new long[total];
+        int[] matched = { 0 };
+        service.addMatchListener(match -> {
+            long wait = match.maxWaitNanos();
+            for (int i = 0; i < match.userIds().size(); i++) {
+                waits[matched[0]++] = wait;
+            }
+            // Free the players, as finished games would
+            match.userIds().forEach(lobbies::leaveLobby);
+        });
+
+        Random random = new Random(42);
+        int next = 0;
+        for (; next < backlog; next++) {
+            service.enqueue("u" + next, "chess", rating(random));
+        }
+
+        int ticks = seconds * 1000 / tickMillis;
+        int perTick = perSecond * tickMillis / 1000;
+        long[] tickNanos = new long[ticks];
+        int maxQueued = 0;
+        long tickLength = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        for (int t = 0; t < ticks; t++) {
+            // Arrivals are spread over the interval, the pass runs at its end
+            long tickStart = clock.get();
+            for (int i = 0; i < perTick; i++, next++) {
+                clock.set(tickStart + tickLength * i / perTick);
+                service.enqueue("u" + next, "chess", rating(random));
+            }
+            clock.set(tickStart + tickLength);
+            maxQueued = Math.max(maxQueued, service.getQueuedCount());
+            long start = System.nanoTime();
+            service.tick();
+            tickNanos[t] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(tickNanos);
+        long[] matchedWaits = Arrays.copyOf(waits, matched[0]);
+        Arrays.sort(matchedWaits);
+        System.out.printf("Players: %d queued, %d matched, %d still waiting (max queue %d)%n",
+                next, matched[0], service.getQueuedCount(), maxQueued);
+        System.out.printf("Tick time (ms): p50=%.2f p99=%.2f max=%.2f%n",
+                millis(percentile(tickNanos, 50)), millis(percentile(tickNanos, 99)),
+                millis(tickNanos[tickNanos.length - 1]));
+        System.out.printf("Wait (ms): p50=%.0f p90=%.0f p99=%.0f max=%.0f%n",
+                millis(percentile(matchedWaits, 50)), millis(percentile(matchedWaits, 90)),
+                millis(percentile(matchedWaits, 99)), millis(matchedWaits[matchedWaits.length - 1]));
+        System.out.println(service.getStats());
+    }
+
+    private static int rating(Random random) {
+        return (int) Math.round(1500 + 300 * random.nextGaussian());
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
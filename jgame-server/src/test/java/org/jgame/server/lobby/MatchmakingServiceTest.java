@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.lobby;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MatchmakingService.
+ */
+class MatchmakingServiceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private LobbyManager lobbies;
+    private MatchmakingService service;
+    private final List<MatchmakingService.Match> matches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lobbies = LobbyManager.getInstance();
+        lobbies.clearAll();
+        service = new MatchmakingService(lobbies, 2, 50, 100, 400, clock::get);
+        service.addMatchListener(matches::add);
+    }
+
+    @Test
+    @DisplayName("Should match close ratings into a started lobby")
+    void shouldMatchCloseRatings() {
+        assertTrue(service.enqueue("a", "chess", 1500));
+        assertTrue(service.enqueue("b", "chess", 1530));
+        assertTrue(service.enqueue("c", "checkers", 1510));
+        assertFalse(service.enqueue("a", "chess", 1500));
+
+        service.tick();
+
+        assertEquals(1, matches.size());
+        MatchmakingService.Match match = matches.getFirst();
+        assertEquals(List.of("a", "b"), match.userIds());
+        GameLobby lobby = lobbies.getLobby(match.lobbyId()).orElseThrow();
+        assertEquals(GameLobby.LobbyState.STARTING, lobby.getState());
+        assertEquals(2, lobby.getPlayerCount());
+        assertFalse(service.isQueued("a"));
+        assertTrue(service.isQueued("c"));
+        assertFalse(service.enqueue("a", "chess", 1500)); // now in a lobby
+    }
+
+    @Test
+    @DisplayName("Should widen the band while players wait")
+    void shouldWidenBandOverTime() {
+        service.enqueue("low", "chess", 1200);
+        service.enqueue("high", "chess", 1400);
+
+        service.tick();
+        assertTrue(matches.isEmpty());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1)); // band 150
+        service.tick();
+        assertTrue(matches.isEmpty());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1)); // band 250
+        service.tick();
+        assertEquals(1, matches.size());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), matches.getFirst().maxWaitNanos());
+    }
+
+    @Test
+    @DisplayName("Should pair nearest ratings and skip cancelled players")
+    void shouldPairNearestAndSkipCancelled() {
+        service.enqueue("a", "chess", 1000);
+        service.enqueue("b", "chess", 1900);
+        service.enqueue("c", "chess", 1020);
+        service.enqueue("d", "chess", 1910);
+        service.enqueue("e", "chess", 1005);
+        assertTrue(service.cancel("e"));
+        assertFalse(service.cancel("e"));
+
+        service.tick();
+
+        assertEquals(2, matches.size());
+        assertEquals(List.of("a", "c"), matches.get(0).userIds());
+        assertEquals(List.of("b", "d"), matches.get(1).userIds());
+        assertEquals(0, service.getQueuedCount());
+        assertFalse(lobbies.getUserLobby("e").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should requeue the others when a player is already in a lobby")
+    void shouldRequeueWhenJoinFails() {
+        service.enqueue("a", "chess", 1500);
+        service.enqueue("b", "chess", 1500);
+        lobbies.createLobby("chess", "b", "Elsewhere", 2); // b joins a lobby while queued
+
+        service.tick();
+
+        assertTrue(matches.isEmpty());
+        assertTrue(service.isQueued("a"));
+        assertFalse(service.isQueued("b"));
+        assertFalse(lobbies.getUserLobby("a").isPresent());
+        assertEquals(1, lobbies.getLobbyCount());
+    }
+}
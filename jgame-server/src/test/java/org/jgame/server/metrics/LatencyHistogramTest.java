@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyHistogram.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Bucket bounds should be contiguous and contain their values")
+    void shouldMapValuesToContiguousBuckets() {
+        for (long value = 0; value < 100_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.lowerBound(index) <= value);
+            assertTrue(value < LatencyHistogram.lowerBound(index + 1));
+        }
+        assertEquals(1L << 20, LatencyHistogram.lowerBound(LatencyHistogram.indexOf(1L << 20)));
+    }
+
+    @Test
+    @DisplayName("Quantiles should be within the bucket precision")
+    void shouldEstimateQuantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(50_005_000, histogram.getSum());
+        assertEquals(5_000, histogram.getValueAtQuantile(0.5), 5_000 * 0.07);
+        assertEquals(9_900, histogram.getValueAtQuantile(0.99), 9_900 * 0.07);
+        assertEquals(10_000, histogram.getValueAtQuantile(1.0));
+    }
+
+    @Test
+    @DisplayName("Should render cumulative Prometheus buckets in seconds")
+    void shouldRenderCumulativeBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);      // below the first bound, 128 us
+        histogram.record(1_000);    // below 1024 us
+        histogram.record(60_000_000); // above the last bound
+
+        StringBuilder out = new StringBuilder();
+        histogram.render(out, "latency_seconds", "route=\"/a\"");
+        String text = out.toString();
+
+        assertTrue(text.contains("latency_seconds_bucket{route=\"/a\",le=\"1.28E-4\"} 1\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{route=\"/a\",le=\"0.001024\"} 2\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{route=\"/a\",le=\"16.777216\"} 2\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{route=\"/a\",le=\"+Inf\"} 3\n"), text);
+        assertTrue(text.contains("latency_seconds_sum{route=\"/a\"} 60.0011\n"), text);
+        assertTrue(text.contains("latency_seconds_count{route=\"/a\"} 3\n"), text);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.metrics;
+
+import io.javalin.Javalin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MetricsRegistry and ServerMetrics.
+ */
+class ServerMetricsTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Javalin app;
+
+    @AfterEach
+    void tearDown() {
+        if (app != null) {
+            app.stop();
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + app.port() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Registry should render families once with escaped labels")
+    void shouldRenderPrometheusText() {
+        MetricsRegistry registry = new MetricsRegistry();
+        AtomicInteger value = new AtomicInteger(3);
+        registry.counter("jobs_total", "Jobs run", "queue", "a").add(2);
+        registry.counter("jobs_total", "Jobs run", "queue", "b\"q").increment();
+        registry.gauge("depth", "Queue depth", value::get);
+        registry.gauge("broken", "Failing gauge", () -> {
+            throw new IllegalStateException();
+        });
+        value.set(5);
+
+        String text = registry.render();
+
+        assertEquals(1, text.split("# TYPE jobs_total counter", -1).length - 1, text);
+        assertTrue(text.contains("jobs_total{queue=\"a\"} 2\n"), text);
+        assertTrue(text.contains("jobs_total{queue=\"b\\\"q\"} 1\n"), text);
+        assertTrue(text.contains("# HELP depth Queue depth\n# TYPE depth gauge\ndepth 5\n"), text);
+        assertTrue(text.contains("broken NaN\n"), text);
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("depth", "Queue depth"));
+    }
+
+    @Test
+    @DisplayName("Should record requests by route template and status class")
+    void shouldRecordRequestsByRoute() throws Exception {
+        ServerMetrics metrics = new ServerMetrics(new MetricsRegistry());
+        app = Javalin.create(config -> config.requestLogger.http(metrics::recordRequest));
+        app.before("/private/*", ctx -> ctx.status(401).skipRemainingHandlers());
+        app.get("/games/{gameId}", ctx -> ctx.result(ctx.pathParam("gameId")));
+        app.get("/fail", ctx -> {
+            throw new IllegalStateException("boom");
+        });
+        app.get("/private/data", ctx -> ctx.result("secret"));
+        app.get("/metrics", metrics);
+        app.start("127.0.0.1", 0);
+
+        get("/games/chess");
+        get("/games/checkers");
+        get("/fail");
+        get("/private/data");
+        get("/nowhere");
+        HttpResponse<String> response = get("/metrics");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+        String text = response.body();
+        assertTrue(text.contains(
+                "jgame_http_requests_total{method=\"GET\",route=\"/games/{gameId}\",status=\"2xx\"} 2\n"), text);
+        assertTrue(text.contains(
+                "jgame_http_request_duration_seconds_count{method=\"GET\",route=\"/games/{gameId}\"} 2\n"), text);
+        assertTrue(text.contains("jgame_http_errors_total{method=\"GET\",route=\"/fail\"} 1\n"), text);
+        assertTrue(text.contains(
+                "jgame_http_requests_total{method=\"GET\",route=\"/private/*\",status=\"4xx\"} 1\n"), text);
+        assertTrue(text.contains("route=\"" + ServerMetrics.UNMATCHED + "\",status=\"4xx\"} 1\n"), text);
+        assertFalse(text.contains("/games/chess"), text);
+    }
+}
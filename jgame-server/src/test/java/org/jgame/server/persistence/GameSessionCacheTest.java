@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GameSessionCache.
+ */
+class GameSessionCacheTest {
+
+    private final List<Long> spilled = new ArrayList<>();
+
+    private void spill(long gameId, Object game, boolean dirty) {
+        if (dirty) {
+            spilled.add(gameId);
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used sessions by weight")
+    void shouldEvictByWeight() {
+        GameSessionCache cache = new GameSessionCache(300, 0, this::spill);
+        cache.put(1, "one", 100, true);
+        cache.put(2, "two", 100, false);
+        cache.put(3, "three", 100, true);
+        assertEquals("one", cache.get(1, String.class)); // 2 is now least recently used
+
+        cache.put(4, "four", 150, true);
+
+        assertNull(cache.get(2, String.class));
+        assertNull(cache.get(3, String.class));
+        assertNotNull(cache.get(1, String.class));
+        assertEquals(250, cache.getWeight());
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(List.of(3L), spilled); // 2 was clean
+    }
+
+    @Test
+    @DisplayName("Should only return sessions of the requested type")
+    void shouldCheckType() {
+        GameSessionCache cache = new GameSessionCache(1000, 0, this::spill);
+        cache.put(1, "game", 10, false);
+
+        assertNull(cache.get(1, Integer.class));
+        assertEquals("game", cache.get(1, String.class));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should hibernate idle sessions")
+    void shouldHibernateIdleSessions() throws InterruptedException {
+        GameSessionCache cache = new GameSessionCache(1000, 20, this::spill);
+        try {
+            cache.put(1, "idle", 10, true);
+            Thread.sleep(50);
+            cache.put(2, "active", 10, true);
+
+            assertEquals(1, cache.hibernateIdle());
+            assertEquals(List.of(1L), spilled);
+            assertNotNull(cache.get(2, String.class));
+            assertEquals(10, cache.getWeight());
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should spill dirty sessions on close but not clean or removed ones")
+    void shouldSpillDirtySessionsOnClose() {
+        GameSessionCache cache = new GameSessionCache(1000, 0, this::spill);
+        cache.put(1, "dirty", 10, true);
+        cache.put(2, "snapshotted", 10, true);
+        cache.put(3, "finished", 10, true);
+        cache.markClean(2);
+        cache.remove(3);
+
+        cache.close();
+
+        assertEquals(List.of(1L), spilled);
+        assertEquals(0, cache.size());
+    }
+}
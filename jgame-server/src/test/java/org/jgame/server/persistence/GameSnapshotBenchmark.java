@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import org.jgame.logic.games.checkers.CheckersMove;
+import org.jgame.logic.games.checkers.CheckersRules;
+import org.jgame.logic.games.goose.GooseRules;
+import org.jgame.model.GameUser;
+import org.jgame.server.persistence.dao.GameDAO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark comparing the legacy JSON game state with binary snapshots.
+ *
+ * <p>
+ * Plays a set of checkers and goose games to random points, then reports
+ * the stored size and the encode/decode and database save/load times of
+ * both formats. The legacy format is the pretty-printed Gson output that
+ * used to be written to {@code state_json}; since Gson cannot rebuild games
+ * that have players, its decode time is measured as a JSON tree parse,
+ * which understates the real cost. Not a unit test: run it by hand against
+ * a throwaway database, for example:
+ * </p>
+ *
+ * <pre>
+ * JGAME_DB_URL="jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1" \
+ *   java --add-opens java.base/java.util=ALL-UNNAMED \
+ *        --add-opens java.base/java.util.concurrent.atomic=ALL-UNNAMED \
+ *        -cp ... org.jgame.server.persistence.GameSnapshotBenchmark [games] [rounds]
+ * </pre>
+ *
+ * <p>
+ * The {@code --add-opens} flags are only needed by the legacy format, which
+ * serializes the goose dice's {@link Random}.
+ * </p>
+ */
+public class GameSnapshotBenchmark {
+
+    private static final Gson legacyGson = new GsonBuilder().setPrettyPrinting().create();
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Random random = new Random(42);
+        List<Object> states = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            states.add(i % 2 == 0 ? playCheckers(random) : playGoose(random));
+        }
+
+        List<String> json = new ArrayList<>(games);
+        List<byte[]> binary = new ArrayList<>(games);
+        for (Object game : states) {
+            json.add(legacyGson.toJson(game));
+            binary.add(SnapshotFormat.encode(SnapshotCodecs.forGame(game), game));
+        }
+        System.out.printf("Average size:   JSON %,d bytes, binary %,d bytes%n",
+                json.stream().mapToInt(s -> s.getBytes().length).sum() / games,
+                binary.stream().mapToInt(b -> b.length).sum() / games);
+
+        // Warm up JIT before measuring
+        codecRound(states, json, binary);
+        long[] codec = new long[4];
+        for (int r = 0; r < rounds; r++) {
+            long[] round = codecRound(states, json, binary);
+            for (int k = 0; k < codec.length; k++) {
+                codec[k] += round[k];
+            }
+        }
+        long ops = (long) games * rounds;
+        System.out.printf("Encode:         JSON %6.1f us, binary %6.1f us%n",
+                codec[0] / 1000.0 / ops, codec[1] / 1000.0 / ops);
+        System.out.printf("Decode:         JSON %6.1f us, binary %6.1f us%n",
+                codec[2] / 1000.0 / ops, codec[3] / 1000.0 / ops);
+
+        GameDAO gameDAO = new GameDAO(DatabaseManager.getInstance());
+        long[] ids = new long[games];
+        for (int i = 0; i < games; i++) {
+            ids[i] = gameDAO.saveGame(SnapshotCodecs.forGame(states.get(i)).gameType(), binary.get(i));
+        }
+        long[] db = new long[4];
+        for (int r = 0; r <= rounds; r++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < games; i++) {
+                gameDAO.saveSnapshot(ids[i], json.get(i), 0);
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < games; i++) {
+                gameDAO.loadSnapshot(ids[i]);
+            }
+            long t2 = System.nanoTime();
+            for (int i = 0; i < games; i++) {
+                gameDAO.saveSnapshot(ids[i], binary.get(i), 0);
+            }
+            long t3 = System.nanoTime();
+            for (int i = 0; i < games; i++) {
+                gameDAO.loadSnapshot(ids[i]);
+            }
+            long t4 = System.nanoTime();
+            if (r > 0) {
+                db[0] += t1 - t0;
+                db[1] += t2 - t1;
+                db[2] += t3 - t2;
+                db[3] += t4 - t3;
+            }
+        }
+        System.out.printf("Database save:  JSON %6.1f us, binary %6.1f us%n",
+                db[0] / 1000.0 / ops, db[2] / 1000.0 / ops);
+        System.out.printf("Database load:  JSON %6.1f us, binary %6.1f us%n",
+                db[1] / 1000.0 / ops, db[3] / 1000.0 / ops);
+        System.exit(0);
+    }
+
+    private static long[] codecRound(List<Object> states, List<String> json, List<byte[]> binary)
+            throws Exception {
+        long[] nanos = new long[4];
+        long t0 = System.nanoTime();
+        for (Object game : states) {
+            legacyGson.toJson(game);
+        }
+        long t1 = System.nanoTime();
+        for (Object game : states) {
+            SnapshotFormat.encode(SnapshotCodecs.forGame(game), game);
+        }
+        long t2 = System.nanoTime();
+        for (String s : json) {
+            JsonParser.parseString(s);
+        }
+        long t3 = System.nanoTime();
+        for (int i = 0; i < binary.size(); i++) {
+            SnapshotFormat.decode(SnapshotCodecs.forGame(states.get(i)), binary.get(i));
+        }
+        long t4 = System.nanoTime();
+        nanos[0] = t1 - t0;
+        nanos[1] = t2 - t1;
+        nanos[2] = t3 - t2;
+        nanos[3] = t4 - t3;
+        return nanos;
+    }
+
+    private static CheckersRules playCheckers(Random random) {
+        CheckersRules game = new CheckersRules();
+        game.addPlayer(new GameUser("player" + random.nextInt(1000)));
+        game.addPlayer(new GameUser("player" + random.nextInt(1000)));
+        int moves = random.nextInt(60);
+        for (int i = 0; i < moves && !game.isGameOver(); i++) {
+            List<CheckersMove> legal = game.getAllLegalMoves();
+            game.makeMove(legal.get(random.nextInt(legal.size())));
+        }
+        return game;
+    }
+
+    private static GooseRules playGoose(Random random) {
+        GooseRules game = new GooseRules();
+        int players = 2 + random.nextInt(5);
+        for (int p = 0; p < players; p++) {
+            game.addPlayer(new GameUser("player" + random.nextInt(1000)));
+        }
+        game.startGame();
+        int turns = random.nextInt(80);
+        for (int i = 0; i < turns && !game.isFinished(); i++) {
+            game.nextTurn();
+        }
+        return game;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.jgame.logic.games.checkers.CheckersRules;
+import org.jgame.server.persistence.dao.GameDAO;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Autosave throughput benchmark for the game state stores.
+ *
+ * <p>
+ * Several threads repeatedly save snapshots of a set of games, first
+ * through {@link SqlGameStateStore} and then through
+ * {@link MVStoreGameStateStore}, and the saves per second are reported.
+ * Not a unit test: run it by hand against a throwaway file database, for
+ * example:
+ * </p>
+ *
+ * <pre>
+ * JGAME_DB_URL="jdbc:h2:/tmp/jgame-bench" \
+ *   java -cp ... org.jgame.server.persistence.GameStateStoreBenchmark [threads] [seconds]
+ * </pre>
+ */
+public class GameStateStoreBenchmark {
+
+    private static final int GAMES = 500;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        GameDAO gameDAO = new GameDAO(DatabaseManager.getInstance());
+        byte[] state = SnapshotFormat.encode(SnapshotCodecs.CHECKERS, new CheckersRules());
+        long[] ids = new long[GAMES];
+        for (int i = 0; i < GAMES; i++) {
+            ids[i] = gameDAO.saveGame("CHECKERS", state);
+        }
+
+        SqlGameStateStore sqlStore = new SqlGameStateStore(gameDAO);
+        run("SQL", sqlStore, ids, state, threads, seconds);
+
+        Path dir = Files.createTempDirectory("jgame-live");
+        try (MVStoreGameStateStore mvStore = MVStoreGameStateStore.open(
+                dir.resolve("live.mv.db").toString(), true, 1000, sqlStore)) {
+            run("MVStore", mvStore, ids, state, threads, seconds);
+        }
+        System.exit(0);
+    }
+
+    private static void run(String name, GameStateStore store, long[] ids, byte[] state, int threads,
+            int seconds) throws Exception {
+        // Warm up JIT and pool before measuring
+        drive(store, ids, state, threads, 2);
+        long saves = drive(store, ids, state, threads, seconds);
+        System.out.printf("%-8s %,12.0f saves/s (%d threads)%n", name, saves / (double) seconds, threads);
+    }
+
+    private static long drive(GameStateStore store, long[] ids, byte[] state, int threads, int seconds)
+            throws Exception {
+        AtomicLong sequence = new AtomicLong(System.nanoTime());
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                results.add(pool.submit(() -> {
+                    long count = 0;
+                    for (int i = offset; System.nanoTime() < deadline; i += threads) {
+                        if (store.save(ids[i % ids.length], "CHECKERS", state, sequence.incrementAndGet())) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
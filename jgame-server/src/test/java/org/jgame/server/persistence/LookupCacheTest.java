@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LookupCache.
+ */
+class LookupCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(String key) {
+        loads.incrementAndGet();
+        return key.toUpperCase();
+    }
+
+    @Test
+    @DisplayName("Should load once and serve repeated lookups from cache")
+    void shouldReadThrough() throws SQLException {
+        LookupCache<String, String> cache = new LookupCache<>("test", 10);
+
+        assertEquals("ALICE", cache.get("alice", this::load));
+        assertEquals("ALICE", cache.get("alice", this::load));
+
+        assertEquals(1, loads.get());
+        LookupCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidation")
+    void shouldInvalidate() throws SQLException {
+        LookupCache<String, String> cache = new LookupCache<>("test", 10);
+        cache.get("alice", this::load);
+        cache.invalidate("alice");
+        cache.get("alice", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that raced with an invalidation")
+    void shouldNotCacheStaleLoad() throws SQLException {
+        LookupCache<String, String> cache = new LookupCache<>("test", 10);
+        cache.get("alice", key -> {
+            cache.invalidate(key); // A write lands while the row is being read
+            return "stale";
+        });
+
+        assertTrue(cache.getIfPresent("alice").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not cache missing values")
+    void shouldNotCacheNull() throws SQLException {
+        LookupCache<String, String> cache = new LookupCache<>("test", 10);
+        assertNull(cache.get("ghost", key -> null));
+        assertTrue(cache.getIfPresent("ghost").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep frequently used entries over one-off lookups")
+    void shouldPreferFrequentEntries() throws SQLException {
+        LookupCache<String, String> cache = new LookupCache<>("test", 10);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 10; i++) {
+                cache.get("hot" + i, this::load);
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.get("cold" + i, this::load);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cache.getIfPresent("hot" + i).isPresent(), "hot" + i + " was evicted");
+        }
+        assertEquals(10, cache.stats().size());
+        assertEquals(100, cache.stats().evictions());
+    }
+}
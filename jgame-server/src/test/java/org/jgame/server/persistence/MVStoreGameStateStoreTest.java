@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.h2.mvstore.MVStore;
+import org.jgame.server.persistence.dto.GameSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MVStoreGameStateStore.
+ */
+class MVStoreGameStateStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Archive standing in for the games table. */
+    private static class MapStore implements GameStateStore {
+        final Map<Long, GameSnapshot> snapshots = new ConcurrentHashMap<>();
+        final Set<Long> finished = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean save(long gameId, String gameType, byte[] state, long sequence) {
+            snapshots.put(gameId, new GameSnapshot(gameId, gameType, state, null, sequence));
+            return true;
+        }
+
+        @Override
+        public GameSnapshot load(long gameId) {
+            return snapshots.get(gameId);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> finish(long gameId) {
+            return CompletableFuture.completedFuture(finished.add(gameId));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the newest snapshot")
+    void shouldKeepNewestSnapshot() {
+        try (MVStoreGameStateStore store = new MVStoreGameStateStore(new MVStore.Builder().open(), new MapStore())) {
+            assertTrue(store.save(1, "CHECKERS", new byte[] { 1, 2 }, 5));
+            assertTrue(store.save(1, "CHECKERS", new byte[] { 3 }, 7));
+            assertFalse(store.save(1, "CHECKERS", new byte[] { 4 }, 6));
+
+            GameSnapshot snapshot = store.load(1);
+            assertEquals("CHECKERS", snapshot.gameType());
+            assertArrayEquals(new byte[] { 3 }, snapshot.state());
+            assertEquals(7, snapshot.sequence());
+            assertNull(snapshot.stateJson());
+        }
+    }
+
+    @Test
+    @DisplayName("Should load games missing from the live store from the archive")
+    void shouldFallBackToArchive() {
+        MapStore archive = new MapStore();
+        archive.save(2, "GOOSE", new byte[] { 9 }, 40);
+        try (MVStoreGameStateStore store = new MVStoreGameStateStore(new MVStore.Builder().open(), archive)) {
+            assertEquals(40, store.load(2).sequence());
+            assertNull(store.load(3));
+        }
+    }
+
+    @Test
+    @DisplayName("Should move finished games to the archive")
+    void shouldArchiveFinishedGames() {
+        MapStore archive = new MapStore();
+        try (MVStoreGameStateStore store = new MVStoreGameStateStore(new MVStore.Builder().open(), archive)) {
+            store.save(4, "GOOSE", new byte[] { 5, 6 }, 12);
+
+            assertTrue(store.finish(4).join());
+
+            assertEquals(0, store.size());
+            assertTrue(archive.finished.contains(4L));
+            assertArrayEquals(new byte[] { 5, 6 }, archive.snapshots.get(4L).state());
+            assertEquals(12, store.load(4).sequence());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep live games across restarts")
+    void shouldPersistToFile() {
+        String file = tempDir.resolve("live.mv.db").toString();
+        try (MVStoreGameStateStore store = MVStoreGameStateStore.open(file, true, 1000, new MapStore())) {
+            store.save(8, "CHECKERS", new byte[] { 7 }, 3);
+        }
+        try (MVStoreGameStateStore store = MVStoreGameStateStore.open(file, true, 1000, new MapStore())) {
+            assertEquals(1, store.size());
+            assertArrayEquals(new byte[] { 7 }, store.load(8).state());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.jgame.logic.games.checkers.CheckersMove;
+import org.jgame.logic.games.checkers.CheckersRules;
+import org.jgame.logic.games.goose.GooseRules;
+import org.jgame.model.GameUser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MoveCodecs.
+ */
+class MoveCodecsTest {
+
+    @Test
+    @DisplayName("Should replay a checkers game to the same board")
+    void shouldReplayCheckers() {
+        CheckersRules played = new CheckersRules();
+        played.initGame();
+        List<byte[]> log = new ArrayList<>();
+        for (int i = 0; i < 40 && !played.isGameOver(); i++) {
+            CheckersMove move = played.getAllLegalMoves().getFirst();
+            played.makeMove(move);
+            log.add(MoveCodecs.CHECKERS.encode(move));
+        }
+
+        CheckersRules replayed = new CheckersRules();
+        replayed.initGame();
+        log.forEach(action -> MoveCodecs.CHECKERS.apply(replayed, action));
+
+        assertEquals(2, log.getFirst().length);
+        assertEquals(played.getBoardString(), replayed.getBoardString());
+        assertEquals(played.getCurrentPlayer(), replayed.getCurrentPlayer());
+    }
+
+    @Test
+    @DisplayName("Should replay goose turns with the recorded dice")
+    void shouldReplayGoose() {
+        GooseRules played = newGooseGame();
+        List<byte[]> log = new ArrayList<>();
+        for (int i = 0; i < 60 && !played.isFinished(); i++) {
+            log.add(MoveCodecs.GOOSE.encode(played.playTurn(null)));
+        }
+
+        GooseRules replayed = newGooseGame();
+        log.forEach(action -> MoveCodecs.GOOSE.apply(replayed, action));
+
+        for (int p = 0; p < 3; p++) {
+            assertEquals(played.getPlayerPosition(p), replayed.getPlayerPosition(p));
+        }
+        assertArrayEquals(played.getInGameState(), replayed.getInGameState());
+        assertEquals(played.getTurnNumber(), replayed.getTurnNumber());
+        assertEquals(played.isFinished(), replayed.isFinished());
+    }
+
+    private static GooseRules newGooseGame() {
+        GooseRules game = new GooseRules();
+        for (String name : List.of("alice", "bob", "carol")) {
+            game.addPlayer(new GameUser(name));
+        }
+        game.startGame();
+        return game;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffHeapHibernationStore.
+ */
+class OffHeapHibernationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should return hibernated sessions")
+    void shouldRoundTripSessions() throws IOException {
+        try (OffHeapHibernationStore store = new OffHeapHibernationStore(tempDir.resolve("h.bin"), 4096)) {
+            store.put(1, "CHECKERS", new byte[] { 1, 2, 3 }, 17, true);
+            store.put(2, "GOOSE", new byte[] { 4 }, 5, false);
+
+            OffHeapHibernationStore.Hibernated first = store.get(1);
+            assertEquals("CHECKERS", first.gameType());
+            assertArrayEquals(new byte[] { 1, 2, 3 }, first.state());
+            assertEquals(17, first.sequence());
+            assertTrue(first.dirty());
+
+            OffHeapHibernationStore.Hibernated second = store.take(2);
+            assertFalse(second.dirty());
+            assertNull(store.get(2));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse freed slots")
+    void shouldReuseFreedSlots() throws IOException {
+        try (OffHeapHibernationStore store = new OffHeapHibernationStore(tempDir.resolve("h.bin"), 4096)) {
+            for (int round = 0; round < 1000; round++) {
+                store.put(round % 10, "CHECKERS", new byte[40], round, false);
+            }
+            assertEquals(10, store.size());
+            assertEquals(10 * 64, store.getUsedBytes());
+            assertEquals(4096, store.getMappedBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Should hold many sessions across segments")
+    void shouldSpanSegments() throws IOException {
+        Map<Long, byte[]> expected = new HashMap<>();
+        try (OffHeapHibernationStore store = new OffHeapHibernationStore(tempDir.resolve("h.bin"), 4096)) {
+            for (long id = 1; id <= 5000; id++) {
+                byte[] state = new byte[1 + (int) (id % 300)];
+                state[0] = (byte) id;
+                expected.put(id, state);
+                store.put(id, "GOOSE", state, id, id % 2 == 0);
+            }
+            for (long id = 1; id <= 5000; id += 3) {
+                assertTrue(store.remove(id));
+                expected.remove(id);
+            }
+
+            assertEquals(expected.size(), store.size());
+            assertTrue(store.getMappedBytes() > 4096);
+            for (Map.Entry<Long, byte[]> entry : expected.entrySet()) {
+                assertArrayEquals(entry.getValue(), store.get(entry.getKey()).state(), "game " + entry.getKey());
+            }
+            int[] visited = new int[1];
+            store.forEach((gameId, session) -> visited[0]++);
+            assertEquals(expected.size(), visited[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject oversized sessions and delete the file on close")
+    void shouldRejectOversizedSessions() throws IOException {
+        Path file = tempDir.resolve("h.bin");
+        OffHeapHibernationStore store = new OffHeapHibernationStore(file, 4096);
+        assertThrows(IllegalArgumentException.class, () -> store.put(1, "GOOSE", new byte[5000], 1, true));
+        assertTrue(Files.exists(file));
+
+        store.close();
+
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.jgame.logic.games.checkers.CheckersRules;
+import org.jgame.logic.games.goose.GooseRules;
+import org.jgame.model.GameUser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SnapshotFormat and SnapshotCodecs.
+ */
+class SnapshotFormatTest {
+
+    @Test
+    @DisplayName("Should restore a checkers position from its snapshot")
+    void shouldRoundTripCheckers() throws IOException {
+        CheckersRules game = new CheckersRules();
+        game.addPlayer(new GameUser("alice"));
+        game.addPlayer(new GameUser("bob"));
+        for (int i = 0; i < 25 && !game.isGameOver(); i++) {
+            game.makeMove(game.getAllLegalMoves().getFirst());
+        }
+
+        byte[] data = SnapshotFormat.encode(SnapshotCodecs.CHECKERS, game);
+        CheckersRules restored = SnapshotFormat.decode(SnapshotCodecs.CHECKERS, data);
+
+        assertTrue(data.length < 64, "snapshot is " + data.length + " bytes");
+        assertEquals(game.getBoardString(), restored.getBoardString());
+        assertEquals(game.getCurrentPlayer(), restored.getCurrentPlayer());
+        assertEquals(game.getPieceCount(1), restored.getPieceCount(1));
+        assertEquals(game.getPieceCount(2), restored.getPieceCount(2));
+        assertEquals(game.getAllLegalMoves().toString(), restored.getAllLegalMoves().toString());
+        assertEquals("bob", restored.getPlayers().get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Should restore a goose game from its snapshot")
+    void shouldRoundTripGoose() throws IOException {
+        GooseRules game = new GooseRules();
+        for (String name : List.of("alice", "bob", "carol")) {
+            game.addPlayer(new GameUser(name));
+        }
+        game.startGame();
+        for (int i = 0; i < 20 && !game.isFinished(); i++) {
+            game.nextTurn();
+        }
+
+        GooseRules restored = SnapshotFormat.decode(SnapshotCodecs.GOOSE,
+                SnapshotFormat.encode(SnapshotCodecs.GOOSE, game));
+
+        assertArrayEquals(game.getPlayOrder(), restored.getPlayOrder());
+        assertArrayEquals(game.getInGameState(), restored.getInGameState());
+        for (int p = 0; p < 3; p++) {
+            assertEquals(game.getPlayerPosition(p), restored.getPlayerPosition(p));
+        }
+        assertEquals(game.getTurnNumber(), restored.getTurnNumber());
+        assertEquals(game.getTurnIndex(), restored.getTurnIndex());
+        assertNotNull(restored.getGraphBoard());
+    }
+
+    @Test
+    @DisplayName("Should read compressed snapshots")
+    void shouldRoundTripCompressed() throws IOException {
+        CheckersRules game = new CheckersRules();
+        byte[] data = SnapshotFormat.encode(SnapshotCodecs.CHECKERS, game, 0);
+        CheckersRules restored = SnapshotFormat.decode(SnapshotCodecs.CHECKERS, data);
+
+        assertEquals(game.getBoardString(), restored.getBoardString());
+    }
+
+    @Test
+    @DisplayName("Should reject data that is not a supported snapshot")
+    void shouldRejectInvalidData() throws IOException {
+        assertThrows(IOException.class,
+                () -> SnapshotFormat.decode(SnapshotCodecs.CHECKERS, "{\"board\":{}}".getBytes()));
+
+        byte[] data = SnapshotFormat.encode(SnapshotCodecs.CHECKERS, new CheckersRules());
+        data[4] = (byte) (SnapshotCodecs.CHECKERS.schemaVersion() + 1);
+        assertThrows(IOException.class, () -> SnapshotFormat.decode(SnapshotCodecs.CHECKERS, data));
+    }
+}
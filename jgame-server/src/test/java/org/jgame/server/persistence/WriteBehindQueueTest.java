@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WriteBehindQueue.
+ */
+class WriteBehindQueueTest {
+
+    private static final String URL = "jdbc:h2:mem:writebehind;DB_CLOSE_DELAY=-1";
+
+    private Connection keepAlive;
+    private WriteBehindQueue queue;
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    private final WriteBehindQueue.BatchWriter<long[]> writer = (conn, rows) -> {
+        batchSizes.add(rows.size());
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "MERGE INTO counters (id, val) KEY (id) VALUES (?, ?)")) {
+            for (long[] row : rows) {
+                stmt.setLong(1, row[0]);
+                stmt.setLong(2, row[1]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    };
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        keepAlive = DriverManager.getConnection(URL);
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS counters");
+            stmt.execute("CREATE TABLE counters (id BIGINT PRIMARY KEY, val BIGINT)");
+        }
+        queue = new WriteBehindQueue(() -> DriverManager.getConnection(URL), 1000, 100, 50, 1000).start();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        queue.close();
+        keepAlive.close();
+    }
+
+    private long value(long id) throws SQLException {
+        try (PreparedStatement stmt = keepAlive.prepareStatement("SELECT val FROM counters WHERE id = ?")) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the last update per key")
+    void shouldCoalesceLastWriteWins() throws Exception {
+        for (long i = 1; i <= 50; i++) {
+            queue.submit(writer, 1L, new long[] { 1, i }, (queued, latest) -> latest);
+            queue.submit(writer, 2L, new long[] { 2, i * 10 }, (queued, latest) -> latest);
+        }
+        queue.flush().get(5, TimeUnit.SECONDS);
+
+        assertEquals(50, value(1));
+        assertEquals(500, value(2));
+        assertTrue(queue.getCoalescedCount() > 0);
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Should sum deltas with a merge function")
+    void shouldSumDeltas() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            queue.submit(writer, 7L, new long[] { 7, 2 }, (a, b) -> new long[] { 7, a[1] + b[1] });
+        }
+        queue.flush().get(5, TimeUnit.SECONDS);
+
+        assertEquals(60, value(7));
+    }
+
+    @Test
+    @DisplayName("Should flush by size without waiting for the interval")
+    void shouldFlushBySize() throws Exception {
+        queue.close();
+        queue = new WriteBehindQueue(() -> DriverManager.getConnection(URL), 1000, 10, 60_000, 1000).start();
+        for (long i = 0; i < 25; i++) {
+            queue.submit(writer, null, new long[] { i, i }, null);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (value(19) == -1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(19, value(19));
+        assertEquals(10, batchSizes.getFirst());
+    }
+
+    @Test
+    @DisplayName("Should drain pending writes on close")
+    void shouldDrainOnClose() throws Exception {
+        queue.submit(writer, null, new long[] { 42, 1 }, null);
+        queue.close();
+
+        assertEquals(1, value(42));
+        assertThrows(SQLException.class, () -> queue.submit(writer, null, new long[] { 43, 1 }, null));
+    }
+
+    @Test
+    @DisplayName("Should keep the good rows of a batch holding a rejected row")
+    void shouldIsolateRejectedRows() throws Exception {
+        List<long[]> committed = new ArrayList<>();
+        WriteBehindQueue.BatchWriter<long[]> checked = new WriteBehindQueue.BatchWriter<>() {
+            @Override
+            public void writeBatch(Connection conn, List<long[]> rows) throws SQLException {
+                if (rows.stream().anyMatch(row -> row[1] < 0)) {
+                    throw new SQLException("Negative value", "23513");
+                }
+                writer.writeBatch(conn, rows);
+            }
+
+            @Override
+            public void afterCommit(List<long[]> rows) {
+                committed.addAll(rows);
+            }
+        };
+        queue.submit(checked, null, new long[] { 1, 10 }, null);
+        queue.submit(checked, null, new long[] { 2, -1 }, null);
+        queue.submit(checked, null, new long[] { 3, 30 }, null);
+        queue.flush().get(5, TimeUnit.SECONDS);
+
+        assertEquals(10, value(1));
+        assertEquals(-1, value(2));
+        assertEquals(30, value(3));
+        assertEquals(2, committed.size());
+        assertEquals(1, queue.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("Should push back and keep rows while the database is down")
+    void shouldHoldRowsDuringOutage() throws Exception {
+        AtomicBoolean down = new AtomicBoolean(true);
+        AtomicInteger attempts = new AtomicInteger();
+        queue.close();
+        queue = new WriteBehindQueue(() -> {
+            attempts.incrementAndGet();
+            if (down.get()) {
+                throw new SQLException("Connection refused", "08001");
+            }
+            return DriverManager.getConnection(URL);
+        }, 4, 4, 20, 50).start();
+
+        int accepted = 0;
+        try {
+            for (long i = 0; i < 100; i++) {
+                queue.submit(writer, null, new long[] { i, i }, null);
+                accepted++;
+            }
+            fail("Submit should fail once the queue is full");
+        } catch (SQLException e) {
+            // Pushed back: the kept batch and the full queue hold everything accepted
+        }
+        assertTrue(accepted <= 8, "accepted " + accepted);
+        Thread.sleep(200);
+        assertEquals(0, queue.getFailedCount());
+
+        down.set(false);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        queue.flush().get(5, TimeUnit.SECONDS);
+        for (long i = 0; i < accepted; i++) {
+            assertEquals(i, value(i));
+        }
+        assertTrue(attempts.get() < 100, "connection attempts: " + attempts.get());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CredentialHasher.
+ */
+class CredentialHasherTest {
+
+    @Test
+    @DisplayName("Should hash and verify passwords off the calling thread")
+    void shouldHashAndVerify() throws Exception {
+        try (CredentialHasher hasher = new CredentialHasher(2, 8, 4)) {
+            String hash = hasher.hash("secret123").get();
+
+            assertEquals(4, CredentialHasher.costOf(hash));
+            assertTrue(hasher.matches("secret123", hash).get());
+            assertFalse(hasher.matches("secret124", hash).get());
+            assertFalse(hasher.matches("secret123", null).get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should accept legacy plaintext passwords and ask for a rehash")
+    void shouldFlagRehash() throws Exception {
+        try (CredentialHasher hasher = new CredentialHasher(1, 8, 5)) {
+            assertTrue(hasher.matches("plain", "plain").get());
+            assertFalse(hasher.matches("plain", "plain2").get());
+            assertTrue(hasher.needsRehash("plain"));
+
+            try (CredentialHasher cheaper = new CredentialHasher(1, 1, 4)) {
+                assertTrue(hasher.needsRehash(cheaper.hash("secret123").get()));
+            }
+            try (CredentialHasher stronger = new CredentialHasher(1, 1, 6)) {
+                assertFalse(hasher.needsRehash(stronger.hash("secret123").get()));
+            }
+            assertFalse(hasher.needsRehash(hasher.hash("secret123").get()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject work beyond the queue limit")
+    void shouldRejectWhenSaturated() {
+        try (CredentialHasher hasher = new CredentialHasher(1, 1, 10)) {
+            List<CompletableFuture<String>> accepted = new ArrayList<>();
+            assertThrows(RejectedExecutionException.class, () -> {
+                for (int i = 0; i < 10; i++) {
+                    accepted.add(hasher.hash("secret" + i));
+                }
+            });
+
+            assertEquals(1, hasher.getRejectedCount());
+            assertTrue(accepted.size() >= 2);
+            accepted.forEach(CompletableFuture::join);
+        }
+    }
+
+    @Test
+    @DisplayName("Should calibrate within bounds")
+    void shouldCalibrate() {
+        int cost = CredentialHasher.calibrate(1);
+        assertEquals(CredentialHasher.MIN_CALIBRATED_COST, cost);
+    }
+}
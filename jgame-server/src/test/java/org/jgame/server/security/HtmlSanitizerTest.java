@@ -93,4 +93,40 @@ class HtmlSanitizerTest {
         assertTrue(result.contains("\\t"));
         assertTrue(result.contains("\\\""));
     }
+
+    @Test
+    @DisplayName("Should remove dangerous URLs, handlers and expressions")
+    void shouldRemoveEachPattern() {
+        assertEquals("x", HtmlSanitizer.sanitize("xdata :"));
+        assertEquals("a", HtmlSanitizer.sanitize("aVBScript\t:"));
+        assertEquals("width:", HtmlSanitizer.sanitize("width:expression ("));
+        assertEquals("&lt;img src=x  &#x2F;&gt;", HtmlSanitizer.sanitize("<img src=x \n onError = />"));
+        assertEquals("onclick=1", HtmlSanitizer.sanitize("onclick=1"));
+    }
+
+    @Test
+    @DisplayName("Should remove patterns assembled around a removal")
+    void shouldRemoveReassembledPatterns() {
+        assertFalse(HtmlSanitizer.sanitize("javajavascript:script:alert(1)").toLowerCase().contains("javascript"));
+        assertFalse(HtmlSanitizer.sanitize("java<script>x</script>script:1").toLowerCase().contains("javascript"));
+    }
+
+    @Test
+    @DisplayName("Should escape unterminated script tags")
+    void shouldEscapeUnterminatedScript() {
+        assertEquals("&lt;script&gt;alert(1)", HtmlSanitizer.sanitize("<script>alert(1)"));
+        assertEquals("ab", HtmlSanitizer.sanitize("a<SCRIPT type=x>\n1</script >b</script>b"));
+    }
+
+    @Test
+    @DisplayName("Should append to a reused builder")
+    void shouldAppendToBuilder() {
+        StringBuilder out = new StringBuilder("onx");
+        HtmlSanitizer.sanitize(" onx=<b>", 0, 8, out);
+        assertEquals("onx &lt;b&gt;", out.toString());
+
+        out.setLength(0);
+        HtmlSanitizer.sanitize("[data:1]", 1, 7, out);
+        assertEquals("1", out.toString());
+    }
 }
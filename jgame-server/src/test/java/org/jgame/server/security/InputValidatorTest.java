@@ -27,6 +27,9 @@ import org.jgame.server.security.InputValidator.ValidationResult;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+import java.util.regex.Pattern;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -116,4 +119,29 @@ class InputValidatorTest {
         assertFalse(InputValidator.validateEmail("notanemail").isValid());
         assertFalse(InputValidator.validateEmail("missing@domain").isValid());
     }
+
+    @Test
+    @DisplayName("Should accept the same emails as the original pattern")
+    void shouldMatchOriginalEmailPattern() {
+        Pattern pattern = Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+        String alphabet = "aZ9._%+-@.@!x";
+        Random random = new Random(42);
+        for (int n = 0; n < 200_000; n++) {
+            char[] chars = new char[random.nextInt(12) + 1];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            String email = new String(chars);
+            if (!email.isBlank()) {
+                assertEquals(pattern.matcher(email).matches(), InputValidator.validateEmail(email).isValid(), email);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject non-ASCII letters in usernames and emails")
+    void shouldRejectNonAsciiLetters() {
+        assertFalse(InputValidator.validateUsername("jos\u00e9").isValid());
+        assertFalse(InputValidator.validateEmail("user@example.c\u00f6m").isValid());
+    }
 }
@@ -27,6 +27,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -87,4 +90,38 @@ class RateLimiterTest {
         assertNotNull(defaultLimiter);
         assertNotNull(loginLimiter);
     }
+
+    @Test
+    @DisplayName("Should admit requests again as time passes, without a boundary burst")
+    void shouldRefillGradually() {
+        AtomicLong now = new AtomicLong();
+        RateLimiter timed = new RateLimiter(3, 60, now::get);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(timed.tryAcquire("user1"));
+        }
+        assertFalse(timed.tryAcquire("user1"));
+
+        now.set(TimeUnit.SECONDS.toNanos(20));
+        assertEquals(0, timed.getRetryAfterNanos("user1"));
+        assertTrue(timed.tryAcquire("user1"));
+        assertFalse(timed.tryAcquire("user1"));
+        assertEquals(TimeUnit.SECONDS.toNanos(20), timed.getRetryAfterNanos("user1"));
+    }
+
+    @Test
+    @DisplayName("Should drop idle keys")
+    void shouldEvictIdleKeys() {
+        AtomicLong now = new AtomicLong();
+        RateLimiter timed = new RateLimiter(3, 60, now::get);
+        for (int i = 0; i < 100_000; i++) {
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+            assertTrue(timed.tryAcquire("client" + i));
+        }
+
+        // Keys idle for more than 20 s have a full bucket again
+        assertTrue(timed.size() < 50_000, "tracked keys: " + timed.size());
+        assertEquals(2, timed.getRemaining("client99999"));
+        assertEquals(0, timed.getRetryAfterNanos("client0"));
+        assertEquals(0, timed.getRetryAfterNanos("unknown"));
+    }
 }
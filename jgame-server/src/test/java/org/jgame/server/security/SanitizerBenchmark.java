@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput benchmark for chat and registration input handling.
+ *
+ * <p>
+ * Sanitizes a corpus of chat messages, with and without markup, first with
+ * the previous multi-pass regex pipeline and then with
+ * {@link HtmlSanitizer#sanitizeAndTruncate}, and validates emails with the
+ * previous regex and with {@link InputValidator#validateEmail}. Reports
+ * operations per second after a warm-up. Not a unit test: run it by hand,
+ * for example:
+ * </p>
+ *
+ * <pre>
+ * java -cp ... org.jgame.server.security.SanitizerBenchmark [seconds]
+ * </pre>
+ */
+public class SanitizerBenchmark {
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    // The regex pipeline HtmlSanitizer used before, kept as the baseline
+    private static final Pattern[] REGEX_PASSES = {
+            Pattern.compile("<script[^>]*>.*?</script>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL),
+            Pattern.compile("\\s+on\\w+\\s*=", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("javascript\\s*:", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("data\\s*:", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("vbscript\\s*:", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("expression\\s*\\(", Pattern.CASE_INSENSITIVE) };
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+            "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        List<String> messages = messages();
+        List<String> emails = List.of("user@example.com", "first.last+tag@sub.domain.org", "no-at-sign.example.com",
+                "a@b.c", "averyveryverylongusername.with.dots@mail.example.co.uk");
+
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1; // First round is warm-up
+            run("sanitize, regex", messages, SanitizerBenchmark::regexSanitize, seconds, report);
+            run("sanitize, single pass", messages,
+                    m -> HtmlSanitizer.sanitizeAndTruncate(m, MAX_MESSAGE_LENGTH), seconds, report);
+            run("email, regex", emails, e -> EMAIL_PATTERN.matcher(e).matches(), seconds, report);
+            run("email, scan", emails, e -> InputValidator.validateEmail(e).isValid(), seconds, report);
+        }
+    }
+
+    private static String regexSanitize(String input) {
+        String result = input.length() > MAX_MESSAGE_LENGTH ? input.substring(0, MAX_MESSAGE_LENGTH) : input;
+        result = result.trim();
+        for (int i = 0; i < REGEX_PASSES.length; i++) {
+            result = REGEX_PASSES[i].matcher(result).replaceAll(i == 1 ? " " : "");
+        }
+        return HtmlSanitizer.escapeHtml(result);
+    }
+
+    private static void run(String name, List<String> inputs, Function<String, Object> op,
+            int seconds, boolean report) {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long ops = 0;
+        long start = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            for (String input : inputs) {
+                sink = op.apply(input);
+            }
+            ops += inputs.size();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        if (report) {
+            System.out.printf("%-24s %,12.0f ops/s%n", name, ops / elapsed);
+        }
+    }
+
+    private static List<String> messages() {
+        Random random = new Random(7);
+        String[] words = { "gg", "nice", "move", "your", "turn", "checkers", "again?", "lol", "wait", "king me" };
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 3 + random.nextInt(40);
+            for (int w = 0; w < length; w++) {
+                sb.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            switch (i % 10) {
+                case 0 -> sb.append("<script>alert('x')</script>");
+                case 1 -> sb.append("<a href=\"javascript:evil()\" onclick=\"x()\">link</a>");
+                case 2 -> sb.append("see https://example.com/a?b=c&d=e :)");
+                default -> {
+                }
+            }
+            messages.add(sb.toString());
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBlacklist.
+ */
+class TokenBlacklistTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should report only revoked tokens")
+    void shouldReportRevokedTokens() {
+        TokenBlacklist blacklist = new TokenBlacklist(null, 1024, 0);
+        Instant expiry = Instant.now().plusSeconds(3600);
+        for (int i = 0; i < 10_000; i++) {
+            blacklist.revoke("revoked" + i, expiry);
+        }
+
+        assertEquals(10_000, blacklist.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(blacklist.isRevoked("revoked" + i));
+            assertFalse(blacklist.isRevoked("valid" + i));
+        }
+        blacklist.close();
+    }
+
+    @Test
+    @DisplayName("Should purge revocations once tokens expire")
+    void shouldPurgeExpiredRevocations() {
+        TokenBlacklist blacklist = new TokenBlacklist(null, 1024, 0);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 3000; i++) {
+            blacklist.revoke("token" + i, Instant.ofEpochMilli(now + 60_000 + i));
+        }
+
+        blacklist.purgeExpired(now + 60_000 + 1999);
+
+        assertEquals(1000, blacklist.size());
+        assertFalse(blacklist.isRevoked("token0"));
+        assertTrue(blacklist.isRevoked("token2999"));
+        blacklist.close();
+    }
+
+    @Test
+    @DisplayName("Should reload revocations after a restart")
+    void shouldPersistRevocations() throws Exception {
+        Path file = tempDir.resolve("data").resolve("revoked.bin");
+        TokenBlacklist blacklist = new TokenBlacklist(file, 1024, 0);
+        blacklist.revoke("alice", Instant.now().plusSeconds(3600));
+        blacklist.revoke("bob", Instant.now().plusSeconds(3600));
+        blacklist.revoke("expired", Instant.now().minusSeconds(1));
+        blacklist.close();
+        Files.write(file, new byte[] { 1, 2, 3 }, StandardOpenOption.APPEND); // Torn write
+
+        TokenBlacklist restarted = new TokenBlacklist(file, 1024, 0);
+
+        assertEquals(2, restarted.size());
+        assertTrue(restarted.isRevoked("alice"));
+        assertTrue(restarted.isRevoked("bob"));
+        assertFalse(restarted.isRevoked("expired"));
+        assertEquals(2 * (TokenDigest.BYTES + Long.BYTES), Files.size(file));
+        restarted.close();
+    }
+}
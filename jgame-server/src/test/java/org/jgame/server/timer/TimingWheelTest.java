@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.timer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TimingWheel.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    // Small wheel, so that long delays cascade through several levels
+    private final TimingWheel wheel = new TimingWheel(TICK, 8, Runnable::run, clock::get);
+
+    @Test
+    @DisplayName("Should fire timers at their deadline, across levels")
+    void shouldFireAtDeadline() {
+        Random random = new Random(7);
+        int count = 5_000;
+        long[] deadlines = new long[count];
+        long[] firedAt = new long[count];
+        for (int i = 0; i < count; i++) {
+            int timer = i;
+            deadlines[i] = random.nextInt(200_000);
+            wheel.schedule(() -> firedAt[timer] = clock.get(), deadlines[i], TimeUnit.MILLISECONDS);
+        }
+
+        while (wheel.getPendingCount() > 0) {
+            clock.addAndGet(TICK * (1 + random.nextInt(50)));
+            wheel.advance();
+        }
+
+        for (int i = 0; i < count; i++) {
+            long deadline = TimeUnit.MILLISECONDS.toNanos(deadlines[i]);
+            assertTrue(firedAt[i] >= deadline, "timer " + i + " fired early");
+            assertTrue(firedAt[i] < deadline + 50 * TICK, "timer " + i + " fired late");
+        }
+        assertEquals(count, wheel.getExpiredCount());
+    }
+
+    @Test
+    @DisplayName("Should run timers in deadline order")
+    void shouldRunInOrder() {
+        List<Integer> order = new ArrayList<>();
+        for (int delay : new int[] { 300, 5, 70, 4_000, 1 }) {
+            wheel.schedule(() -> order.add(delay), delay, TimeUnit.MILLISECONDS);
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            clock.addAndGet(TICK);
+            wheel.advance();
+        }
+
+        assertEquals(List.of(1, 5, 70, 300, 4_000), order);
+    }
+
+    @Test
+    @DisplayName("Should not run cancelled timers")
+    void shouldCancel() {
+        AtomicInteger runs = new AtomicInteger();
+        List<Timeout> timeouts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            timeouts.add(wheel.schedule(runs::incrementAndGet, 10 + i, TimeUnit.MILLISECONDS));
+        }
+        clock.addAndGet(5 * TICK);
+        wheel.advance();
+        for (int i = 0; i < timeouts.size(); i += 2) {
+            assertTrue(timeouts.get(i).cancel());
+        }
+        assertFalse(timeouts.getFirst().cancel());
+
+        clock.addAndGet(2_000 * TICK);
+        wheel.advance();
+
+        assertEquals(500, runs.get());
+        assertEquals(0, wheel.getPendingCount());
+        assertTrue(timeouts.get(0).isCancelled());
+        assertTrue(timeouts.get(1).isExpired());
+    }
+
+    @Test
+    @DisplayName("Should repeat until cancelled")
+    void shouldRepeat() {
+        AtomicInteger runs = new AtomicInteger();
+        Timeout repeating = wheel.scheduleWithFixedDelay(runs::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(TICK);
+            wheel.advance();
+        }
+        assertEquals(10, runs.get());
+
+        assertTrue(repeating.cancel());
+        clock.addAndGet(100 * TICK);
+        wheel.advance();
+        assertEquals(10, runs.get());
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Should hold a million timers")
+    void shouldHoldManyTimers() {
+        List<Timeout> timeouts = new ArrayList<>(1_000_000);
+        for (int i = 0; i < 1_000_000; i++) {
+            timeouts.add(wheel.schedule(() -> {
+            }, 1 + i % 100_000, TimeUnit.SECONDS));
+        }
+        clock.addAndGet(TICK);
+        wheel.advance();
+        assertEquals(1_000_000, wheel.getPendingCount());
+
+        timeouts.forEach(Timeout::cancel);
+        wheel.advance();
+        assertEquals(0, wheel.getPendingCount());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2025 Silvere Martin-Michiellot, Google Gemini (Antigravity)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.jgame.server.timer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TurnClock.
+ */
+class TurnClockTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final TimingWheel wheel = new TimingWheel(TimeUnit.MILLISECONDS.toNanos(1), 64, Runnable::run, clock::get);
+    private final List<String> timeouts = new ArrayList<>();
+
+    private void elapse(long millis) {
+        for (long i = 0; i < millis; i++) {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+            wheel.advance();
+        }
+    }
+
+    @Test
+    @DisplayName("Should spend and increment each player's time")
+    void shouldKeepFischerTime() {
+        TurnClock turnClock = new TurnClock(wheel, List.of("white", "black"), 1_000, 100, 0, timeouts::add);
+        turnClock.start();
+
+        elapse(300);
+        assertTrue(turnClock.press());
+        assertEquals(800, turnClock.getRemainingMillis("white"));
+        assertEquals("black", turnClock.getCurrentPlayer());
+
+        elapse(200);
+        assertEquals(800, turnClock.getRemainingMillis("black"));
+        assertTrue(turnClock.press());
+        assertEquals("white", turnClock.getCurrentPlayer());
+        assertTrue(timeouts.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should flag the player who runs out of time")
+    void shouldFlagOnTimeout() {
+        TurnClock turnClock = new TurnClock(wheel, List.of("white", "black"), 500, 0, 0, timeouts::add);
+        turnClock.start();
+        elapse(100);
+        turnClock.press();
+
+        elapse(499);
+        assertTrue(timeouts.isEmpty());
+        elapse(2);
+
+        assertEquals(List.of("black"), timeouts);
+        assertEquals("black", turnClock.getFlaggedPlayer());
+        assertEquals(0, turnClock.getRemainingMillis("black"));
+        assertFalse(turnClock.press());
+    }
+
+    @Test
+    @DisplayName("Should limit a single turn")
+    void shouldLimitTurn() {
+        TurnClock turnClock = new TurnClock(wheel, List.of("a", "b", "c"), 60_000, 0, 1_000, timeouts::add);
+        turnClock.start();
+        elapse(900);
+        turnClock.press();
+        elapse(900);
+        turnClock.press();
+
+        elapse(1_001);
+
+        assertEquals(List.of("c"), timeouts);
+        assertEquals(59_000, turnClock.getRemainingMillis("c"));
+        turnClock.close();
+    }
+}